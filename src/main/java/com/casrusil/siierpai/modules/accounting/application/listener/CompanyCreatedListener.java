@@ -3,10 +3,12 @@ package com.casrusil.siierpai.modules.accounting.application.listener;
 import com.casrusil.siierpai.modules.accounting.domain.port.out.AccountRepository;
 import com.casrusil.siierpai.modules.accounting.infrastructure.seed.ChileanChartOfAccountsSeeder;
 import com.casrusil.siierpai.modules.sso.domain.event.CompanyCreatedEvent;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
+import com.casrusil.siierpai.shared.domain.event.BatchEventListener;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Listener que inicializa el plan de cuentas contable cuando se crea una
  * empresa.
@@ -18,7 +20,8 @@ import org.springframework.stereotype.Component;
  * 
  * <h2>Responsabilidades:</h2>
  * <ul>
- * <li>Escuchar {@link CompanyCreatedEvent} de forma asíncrona</li>
+ * <li>Escuchar {@link CompanyCreatedEvent} de forma asíncrona (vía
+ * outbox)</li>
  * <li>Crear plan de cuentas chileno estándar</li>
  * <li>Inicializar cuentas de activo, pasivo, patrimonio, ingresos y gastos</li>
  * </ul>
@@ -45,7 +48,7 @@ import org.springframework.stereotype.Component;
  * @since 1.0
  */
 @Component
-public class CompanyCreatedListener {
+public class CompanyCreatedListener implements BatchEventListener<CompanyCreatedEvent> {
 
     private final AccountRepository accountRepository;
 
@@ -53,8 +56,16 @@ public class CompanyCreatedListener {
         this.accountRepository = accountRepository;
     }
 
-    @Async
-    @EventListener
+    @Override
+    public Class<CompanyCreatedEvent> eventType() {
+        return CompanyCreatedEvent.class;
+    }
+
+    @Override
+    public void onEvents(CompanyId companyId, List<CompanyCreatedEvent> events) {
+        events.forEach(this::handle);
+    }
+
     public void handle(CompanyCreatedEvent event) {
         // Automatically seed Chilean Chart of Accounts for the new company
         ChileanChartOfAccountsSeeder.seedAccountsForCompany(
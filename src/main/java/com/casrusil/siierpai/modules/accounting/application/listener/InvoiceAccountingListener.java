@@ -9,16 +9,20 @@ import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
 import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
+import com.casrusil.siierpai.shared.domain.event.BatchEventListener;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Genera el asiento contable de cada factura creada.
+ * Recibe las facturas en lotes desde el outbox transaccional.
+ */
 @Component
-public class InvoiceAccountingListener {
+public class InvoiceAccountingListener implements BatchEventListener<InvoiceCreatedEvent> {
 
     private static final Logger logger = LoggerFactory.getLogger(InvoiceAccountingListener.class);
     private final AccountingEntryService accountingEntryService;
@@ -38,8 +42,16 @@ public class InvoiceAccountingListener {
         this.learningService = learningService;
     }
 
-    @Async
-    @EventListener
+    @Override
+    public Class<InvoiceCreatedEvent> eventType() {
+        return InvoiceCreatedEvent.class;
+    }
+
+    @Override
+    public void onEvents(CompanyId companyId, List<InvoiceCreatedEvent> events) {
+        events.forEach(this::handle);
+    }
+
     public void handle(InvoiceCreatedEvent event) {
         Invoice invoice = event.invoice();
 
@@ -0,0 +1,260 @@
+package com.casrusil.siierpai.modules.accounting.application.scheduler;
+
+import com.casrusil.siierpai.modules.accounting.domain.event.F29SubmissionStatusChangedEvent;
+import com.casrusil.siierpai.modules.accounting.domain.model.F29Report;
+import com.casrusil.siierpai.modules.accounting.domain.model.F29Submission;
+import com.casrusil.siierpai.modules.accounting.domain.model.F29SubmissionStatus;
+import com.casrusil.siierpai.modules.accounting.domain.port.out.F29Gateway;
+import com.casrusil.siierpai.modules.accounting.domain.port.out.F29SubmissionRepository;
+import com.casrusil.siierpai.modules.accounting.domain.service.F29CalculatorService;
+import com.casrusil.siierpai.modules.accounting.domain.service.F29SenderService;
+import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Workers que envían al SII las declaraciones F29 encoladas.
+ *
+ * <p>
+ * En cada ciclo reclama hasta {@code batch-size} envíos {@code QUEUED} con un
+ * lease (varias instancias pueden despachar sin tomar el mismo envío) y los
+ * procesa en un pool fijo de {@code concurrency} hilos: calcula el formulario,
+ * lo firma y lo transmite a través de {@link F29SenderService}. Luego reclama
+ * los envíos {@code SENT} cuya consulta de estado venció y pregunta al SII por
+ * el veredicto. Es un solo lote por estado y ciclo: el backlog del cierre de
+ * mes se procesa en varios ciclos sin retener el hilo del scheduler.
+ *
+ * <p>
+ * Toda llamada al SII pasa por el {@link RateLimiter} {@code siiF29}, de modo
+ * que el cierre de mes no supera la tasa admitida por el servicio aunque haya
+ * cientos de empresas en cola. Un envío fallido vuelve a la cola con backoff
+ * exponencial; tras {@code max-attempts} intentos queda {@code REJECTED}. Cada
+ * cambio de estado se publica como {@link F29SubmissionStatusChangedEvent}.
+ *
+ * <h2>Configuración:</h2>
+ * <ul>
+ * <li>{@code f29.submission.poll-interval-ms} - pausa entre ciclos</li>
+ * <li>{@code f29.submission.batch-size} - envíos reclamados por ciclo</li>
+ * <li>{@code f29.submission.concurrency} - envíos en paralelo</li>
+ * <li>{@code f29.submission.max-attempts} - intentos antes de REJECTED</li>
+ * <li>{@code f29.submission.retry-backoff-ms} - backoff base</li>
+ * <li>{@code f29.submission.status-check-delay-ms} - espera entre consultas
+ * de estado</li>
+ * <li>{@code f29.submission.lease-seconds} - lease de un envío tomado</li>
+ * <li>{@code resilience4j.ratelimiter.instances.siiF29.*} - tasa de llamadas
+ * al SII</li>
+ * </ul>
+ */
+@Component
+public class F29SubmissionDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(F29SubmissionDispatcher.class);
+    private static final long MAX_BACKOFF_MILLIS = Duration.ofHours(1).toMillis();
+    static final String RATE_LIMITER = "siiF29";
+
+    private final F29SubmissionRepository submissionRepository;
+    private final F29CalculatorService f29CalculatorService;
+    private final F29SenderService f29SenderService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RateLimiter rateLimiter;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final Duration statusCheckDelay;
+    private final Duration lease;
+    private final ExecutorService workers;
+
+    private final MeterRegistry meterRegistry;
+    private final Timer sendTimer;
+
+    public F29SubmissionDispatcher(F29SubmissionRepository submissionRepository,
+            F29CalculatorService f29CalculatorService,
+            F29SenderService f29SenderService,
+            ApplicationEventPublisher eventPublisher,
+            RateLimiterRegistry rateLimiterRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${f29.submission.batch-size:50}") int batchSize,
+            @Value("${f29.submission.concurrency:8}") int concurrency,
+            @Value("${f29.submission.max-attempts:5}") int maxAttempts,
+            @Value("${f29.submission.retry-backoff-ms:2000}") long retryBackoffMillis,
+            @Value("${f29.submission.status-check-delay-ms:5000}") long statusCheckDelayMillis,
+            @Value("${f29.submission.lease-seconds:300}") long leaseSeconds) {
+        this.submissionRepository = submissionRepository;
+        this.f29CalculatorService = f29CalculatorService;
+        this.f29SenderService = f29SenderService;
+        this.eventPublisher = eventPublisher;
+        this.rateLimiter = rateLimiterRegistry.rateLimiter(RATE_LIMITER);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.statusCheckDelay = Duration.ofMillis(statusCheckDelayMillis);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "f29-submission-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.meterRegistry = meterRegistry;
+        this.sendTimer = Timer.builder("f29.submission.send")
+                .description("Time to calculate, sign and send one F29 declaration")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${f29.submission.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            // One batch per status and tick: a month-end backlog drains over several ticks, so this job
+            // never holds a scheduler thread for longer than one batch
+            dispatchOnce(F29SubmissionStatus.QUEUED);
+            dispatchOnce(F29SubmissionStatus.SENT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("F29 dispatch cycle failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Claims and processes one batch of submissions in {@code status}
+     * ({@code QUEUED} are sent, {@code SENT} are checked).
+     *
+     * @return number of submissions claimed
+     */
+    public int dispatchOnce(F29SubmissionStatus status) throws InterruptedException {
+        Instant now = Instant.now();
+        List<F29Submission> claimed = submissionRepository.claim(status, now, now.plus(lease), batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<Future<?>> futures = new ArrayList<>(claimed.size());
+        for (F29Submission submission : claimed) {
+            futures.add(workers.submit(() -> CompanyContext.runInCompanyContext(submission.companyId(),
+                    () -> process(submission))));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                logger.error("F29 submission failed unexpectedly: {}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+        return claimed.size();
+    }
+
+    private void process(F29Submission submission) {
+        if (submission.status() == F29SubmissionStatus.QUEUED) {
+            send(submission);
+        } else if (submission.status() == F29SubmissionStatus.SENT) {
+            checkStatus(submission);
+        }
+    }
+
+    private void send(F29Submission submission) {
+        long start = System.nanoTime();
+        BigDecimal amountToPay = submission.amountToPay();
+        try {
+            F29Report report = f29CalculatorService.calculateF29(submission.companyId(), submission.period());
+            amountToPay = report.vatPayable();
+
+            RateLimiter.waitForPermission(rateLimiter);
+            F29Gateway.Response response = f29SenderService.sendDeclaration(submission.companyId(), report);
+
+            Instant now = Instant.now();
+            if (response.outcome() == F29Gateway.Outcome.REJECTED) {
+                transition(submission.rejected(amountToPay, response.detail(), now));
+            } else {
+                transition(submission.sent(response.trackId(), amountToPay, now, now.plus(statusCheckDelay)));
+            }
+        } catch (RequestNotPermitted e) {
+            // Throttled, not failed: back to the queue without spending an attempt
+            submissionRepository.save(submission.postpone(Instant.now()));
+        } catch (Exception e) {
+            retryOrReject(submission, amountToPay, e);
+        } finally {
+            sendTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private void checkStatus(F29Submission submission) {
+        try {
+            RateLimiter.waitForPermission(rateLimiter);
+            F29Gateway.Response response = f29SenderService.checkStatus(submission.companyId(),
+                    submission.trackId());
+
+            Instant now = Instant.now();
+            switch (response.outcome()) {
+                case ACCEPTED -> transition(submission.accepted(response.detail(), now));
+                case REJECTED -> transition(submission.rejected(submission.amountToPay(), response.detail(), now));
+                default -> submissionRepository.save(submission.postpone(now.plus(statusCheckDelay)));
+            }
+        } catch (RequestNotPermitted e) {
+            submissionRepository.save(submission.postpone(Instant.now()));
+        } catch (Exception e) {
+            // The SII already has the declaration; keep asking, there is nothing to give up on
+            logger.warn("Status check of F29 {} (track {}) failed: {}", submission.id(), submission.trackId(),
+                    e.getMessage());
+            submissionRepository.save(submission.postpone(Instant.now().plus(statusCheckDelay)));
+        }
+    }
+
+    private void retryOrReject(F29Submission submission, BigDecimal amountToPay, Exception error) {
+        Instant now = Instant.now();
+        if (submission.attempts() + 1 >= maxAttempts) {
+            logger.error("Giving up F29 {} of company {} after {} attempts: {}", submission.period(),
+                    submission.companyId(), submission.attempts() + 1, error.getMessage());
+            transition(submission.retry(error.toString(), now, now)
+                    .rejected(amountToPay, "Sin respuesta del SII tras " + maxAttempts + " intentos: " + error,
+                            now));
+        } else {
+            logger.warn("Failed to send F29 {} of company {} (attempt {}): {}", submission.period(),
+                    submission.companyId(), submission.attempts() + 1, error.getMessage());
+            long backoff = Math.min(MAX_BACKOFF_MILLIS, retryBackoffMillis << Math.min(submission.attempts(), 20));
+            submissionRepository.save(submission.retry(error.toString(), now, now.plusMillis(backoff)));
+            outcomeCounter("retried").increment();
+        }
+    }
+
+    private void transition(F29Submission submission) {
+        F29Submission saved = submissionRepository.save(submission);
+        outcomeCounter(saved.status().name().toLowerCase()).increment();
+        eventPublisher.publishEvent(new F29SubmissionStatusChangedEvent(saved));
+    }
+
+    private Counter outcomeCounter(String outcome) {
+        return Counter.builder("f29.submissions")
+                .description("F29 submissions processed by the workers")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,141 @@
+package com.casrusil.siierpai.modules.accounting.application.scheduler;
+
+import com.casrusil.siierpai.modules.accounting.application.service.WeeklyReportService;
+import com.casrusil.siierpai.modules.sso.domain.model.Company;
+import com.casrusil.siierpai.modules.sso.domain.port.out.CompanyRepository;
+import com.casrusil.siierpai.shared.infrastructure.config.VirtualThreadConfig;
+import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Scheduler que envía el reporte semanal a todas las empresas activas.
+ *
+ * <p>
+ * Cada empresa es una tarea independiente en el
+ * {@link VirtualThreadConfig#REPORTING_TASK_EXECUTOR}: el bulkhead limita
+ * cuántos reportes se generan a la vez ({@code async.reporting.max-concurrent})
+ * y, con la cola llena, el hilo que encola ejecuta la tarea (back-pressure).
+ * Ese hilo es uno virtual propio de cada corrida; el del scheduler solo
+ * dispara la corrida y el resultado se registra al terminar.
+ * Así el tiempo total escala con la concurrencia y la memoria queda acotada a
+ * los reportes en curso, sin importar el número de empresas.
+ *
+ * <p>
+ * El fallo de una empresa se registra y no detiene a las demás.
+ */
+@Component
+public class WeeklyReportScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeeklyReportScheduler.class);
+    private static final Executor SUBMITTER = task -> Thread.ofVirtual().name("weekly-report").start(task);
+
+    private final CompanyRepository companyRepository;
+    private final WeeklyReportService weeklyReportService;
+    private final AsyncTaskExecutor reportingExecutor;
+    private final String fallbackEmail;
+    private final Duration timeout;
+
+    public WeeklyReportScheduler(CompanyRepository companyRepository,
+            WeeklyReportService weeklyReportService,
+            @Qualifier(VirtualThreadConfig.REPORTING_TASK_EXECUTOR) AsyncTaskExecutor reportingExecutor,
+            @Value("${spring.mail.username:}") String fallbackEmail,
+            @Value("${accounting.weekly-report.timeout-minutes:60}") long timeoutMinutes) {
+        this.companyRepository = companyRepository;
+        this.weeklyReportService = weeklyReportService;
+        this.reportingExecutor = reportingExecutor;
+        this.fallbackEmail = fallbackEmail;
+        this.timeout = Duration.ofMinutes(timeoutMinutes);
+    }
+
+    @Scheduled(cron = "${accounting.weekly-report.cron:0 0 7 * * MON}", zone = "America/Santiago")
+    public void sendWeeklyReports() {
+        List<Company> companies = companyRepository.findAll().stream()
+                .filter(Company::isActive)
+                .toList();
+        logger.info("Enviando reporte semanal a {} empresas", companies.size());
+
+        // No se espera el resultado: el hilo del scheduler lo comparten el outbox, el F29 y el RCV
+        sendAll(companies).whenComplete((result, error) -> {
+            if (error != null) {
+                logger.error("Reporte semanal interrumpido", error);
+            } else {
+                logger.info("Reporte semanal completado. Enviados: {}, Fallidos: {}", result.sent(), result.failed());
+            }
+        });
+    }
+
+    /**
+     * Encola un reporte por empresa y devuelve de inmediato. Las tareas se
+     * encolan desde un hilo virtual propio, de modo que si la cola del
+     * ejecutor está llena ({@code CALLER_RUNS}) el reporte se genera en ese
+     * hilo y no en el del scheduler.
+     *
+     * @return Se completa cuando todas las empresas terminaron o agotaron el
+     *         timeout
+     */
+    CompletableFuture<Result> sendAll(List<Company> companies) {
+        return CompletableFuture.supplyAsync(() -> submitAll(companies), SUBMITTER)
+                .thenCompose(this::collect);
+    }
+
+    private List<CompletableFuture<Void>> submitAll(List<Company> companies) {
+        List<CompletableFuture<Void>> pending = new ArrayList<>(companies.size());
+        for (Company company : companies) {
+            // Enviada dentro del contexto de la empresa: el bulkhead la cuenta como suya
+            CompletableFuture<Void> report = CompanyContext.supplyInCompanyContext(company.getId(),
+                    () -> reportingExecutor.submitCompletable(() -> sendReport(company)));
+            pending.add(report.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS)
+                    .whenComplete((ignored, error) -> logFailure(company, error)));
+        }
+        return pending;
+    }
+
+    private CompletableFuture<Result> collect(List<CompletableFuture<Void>> pending) {
+        return CompletableFuture.allOf(pending.stream()
+                .map(report -> report.exceptionally(error -> null))
+                .toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    int failed = (int) pending.stream().filter(CompletableFuture::isCompletedExceptionally).count();
+                    return new Result(pending.size() - failed, failed);
+                });
+    }
+
+    private void logFailure(Company company, Throwable error) {
+        if (error == null) {
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            logger.warn("Reporte semanal de {} sin terminar tras {}", company.getRazonSocial(), timeout);
+        } else {
+            logger.error("Error enviando reporte semanal a {}", company.getRazonSocial(), cause);
+        }
+    }
+
+    private void sendReport(Company company) {
+        String recipient = company.getEmail() != null ? company.getEmail() : fallbackEmail;
+        if (recipient == null || recipient.isBlank()) {
+            logger.warn("Empresa {} sin email de contacto, reporte semanal omitido", company.getRazonSocial());
+            return;
+        }
+        weeklyReportService.generateAndSendWeeklyReport(company.getId(), recipient);
+    }
+
+    record Result(int sent, int failed) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.casrusil.siierpai.modules.accounting.application.service;
 
-import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceQuery;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceSummary;
 import com.casrusil.siierpai.modules.invoicing.domain.model.TransactionType;
 import com.casrusil.siierpai.modules.invoicing.domain.port.out.InvoiceRepository;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
@@ -30,7 +31,8 @@ public class CashFlowProjectionService {
      */
     public DailyCashFlowReport getDailyCashFlow(CompanyId companyId, int year, int month) {
         YearMonth targetMonth = YearMonth.of(year, month);
-        List<Invoice> allInvoices = invoiceRepository.findByCompanyId(companyId);
+        List<InvoiceSummary> monthInvoices = invoiceRepository
+                .findSummaries(InvoiceQuery.forCompany(companyId).inPeriod(targetMonth));
 
         // 1. Inicializar mapa con todos los días del mes en 0
         Map<Integer, DailySummary> dailyMap = new TreeMap<>();
@@ -39,18 +41,14 @@ public class CashFlowProjectionService {
         }
 
         // 2. Procesar Facturas Reales
-        for (Invoice inv : allInvoices) {
-            YearMonth invMonth = YearMonth.from(inv.getDate());
-            if (invMonth.equals(targetMonth)) {
-                int day = inv.getDate().getDayOfMonth();
-                DailySummary summary = dailyMap.get(day);
-
-                // Clasificar según tipo de transacción (Venta vs Compra)
-                if (inv.getTransactionType() == TransactionType.SALE) {
-                    summary.addIncome(inv.getTotalAmount());
-                } else if (inv.getTransactionType() == TransactionType.PURCHASE) {
-                    summary.addExpense(inv.getTotalAmount());
-                }
+        for (InvoiceSummary inv : monthInvoices) {
+            DailySummary summary = dailyMap.get(inv.date().getDayOfMonth());
+
+            // Clasificar según tipo de transacción (Venta vs Compra)
+            if (inv.transactionType() == TransactionType.SALE) {
+                summary.addIncome(inv.totalAmount());
+            } else if (inv.transactionType() == TransactionType.PURCHASE) {
+                summary.addExpense(inv.totalAmount());
             }
         }
 
@@ -0,0 +1,81 @@
+package com.casrusil.siierpai.modules.accounting.application.service;
+
+import com.casrusil.siierpai.modules.accounting.domain.event.F29SubmissionStatusChangedEvent;
+import com.casrusil.siierpai.modules.accounting.domain.model.F29Submission;
+import com.casrusil.siierpai.modules.accounting.domain.port.out.F29SubmissionRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Registro y consulta de envíos de F29.
+ *
+ * <p>
+ * {@link #submit(CompanyId, YearMonth)} solo encola la declaración y responde
+ * de inmediato: el cálculo, la firma y el envío al SII los hace
+ * {@link com.casrusil.siierpai.modules.accounting.application.scheduler.F29SubmissionDispatcher}
+ * fuera del hilo de la petición. Los cambios de estado se publican como
+ * {@link F29SubmissionStatusChangedEvent}.
+ */
+@Service
+public class F29SubmissionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(F29SubmissionService.class);
+
+    private final F29SubmissionRepository submissionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public F29SubmissionService(F29SubmissionRepository submissionRepository,
+            ApplicationEventPublisher eventPublisher) {
+        this.submissionRepository = submissionRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Encola la declaración del periodo. Si ya hay un envío sin resolver para
+     * el mismo periodo se devuelve ése, de modo que reintentar la petición no
+     * duplica la declaración.
+     *
+     * <p>
+     * Dos peticiones simultáneas pueden no ver el envío de la otra; el índice
+     * único parcial de {@code accounting.f29_submissions} rechaza la segunda
+     * inserción y se devuelve el envío que ganó. Por eso el método no es
+     * transaccional: tras la violación, la consulta necesita una transacción
+     * nueva.
+     */
+    public F29Submission submit(CompanyId companyId, YearMonth period) {
+        Optional<F29Submission> pending = submissionRepository.findPending(companyId, period);
+        if (pending.isPresent()) {
+            logger.info("F29 {} de la empresa {} ya está en curso ({})", period, companyId, pending.get().status());
+            return pending.get();
+        }
+        F29Submission submission;
+        try {
+            submission = submissionRepository.insert(F29Submission.queue(companyId, period, Instant.now()));
+        } catch (DataIntegrityViolationException e) {
+            F29Submission winner = submissionRepository.findPending(companyId, period).orElseThrow(() -> e);
+            logger.info("F29 {} de la empresa {} encolado en paralelo como {}", period, companyId, winner.id());
+            return winner;
+        }
+        eventPublisher.publishEvent(new F29SubmissionStatusChangedEvent(submission));
+        logger.info("F29 {} de la empresa {} encolado como {}", period, companyId, submission.id());
+        return submission;
+    }
+
+    public Optional<F29Submission> find(CompanyId companyId, UUID submissionId) {
+        return submissionRepository.findById(companyId, submissionId);
+    }
+
+    public List<F29Submission> findRecent(CompanyId companyId, int limit) {
+        return submissionRepository.findRecent(companyId, limit);
+    }
+}
@@ -3,7 +3,8 @@ package com.casrusil.siierpai.modules.accounting.application.service;
 import com.casrusil.siierpai.modules.accounting.domain.dto.PartnerMovementDTO;
 import com.casrusil.siierpai.modules.accounting.domain.dto.PartnerSummaryDTO;
 import com.casrusil.siierpai.modules.accounting.domain.model.PartnerType;
-import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceQuery;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceSummary;
 import com.casrusil.siierpai.modules.invoicing.domain.model.PaymentStatus;
 import com.casrusil.siierpai.modules.invoicing.domain.model.TransactionType;
 import com.casrusil.siierpai.modules.invoicing.domain.port.out.InvoiceRepository;
@@ -15,7 +16,6 @@ import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,48 +28,46 @@ public class PartnerLedgerService {
     }
 
     public List<PartnerSummaryDTO> getSummaries(CompanyId companyId, PartnerType type) {
-        List<Invoice> allInvoices = invoiceRepository.findByCompanyId(companyId);
-
         TransactionType targetType = (type == PartnerType.CUSTOMER) ? TransactionType.SALE : TransactionType.PURCHASE;
 
-        Map<String, List<Invoice>> groupedByRut;
+        // Only unpaid invoices of the relevant side are loaded
+        List<InvoiceSummary> openInvoices = invoiceRepository.findSummaries(
+                InvoiceQuery.forCompany(companyId).ofTransactionType(targetType).open());
+
+        Map<String, List<InvoiceSummary>> groupedByRut;
         if (type == PartnerType.CUSTOMER) {
             // For customers, group by receiverRut
-            groupedByRut = allInvoices.stream()
-                    .filter(inv -> inv.getTransactionType() == targetType)
-                    .filter(inv -> inv.getStatus() != PaymentStatus.PAID)
-                    .collect(Collectors.groupingBy(Invoice::getReceiverRut));
+            groupedByRut = openInvoices.stream()
+                    .collect(Collectors.groupingBy(InvoiceSummary::receiverRut));
         } else {
             // For suppliers, group by issuerRut
-            groupedByRut = allInvoices.stream()
-                    .filter(inv -> inv.getTransactionType() == targetType)
-                    .filter(inv -> inv.getStatus() != PaymentStatus.PAID)
-                    .collect(Collectors.groupingBy(Invoice::getIssuerRut));
+            groupedByRut = openInvoices.stream()
+                    .collect(Collectors.groupingBy(InvoiceSummary::issuerRut));
         }
 
         return groupedByRut.entrySet().stream()
                 .map(entry -> {
                     String rut = entry.getKey();
-                    List<Invoice> invoices = entry.getValue();
+                    List<InvoiceSummary> invoices = entry.getValue();
 
                     String name = invoices.stream()
-                            .filter(inv -> inv.getBusinessName() != null)
-                            .map(Invoice::getBusinessName)
+                            .filter(inv -> inv.businessName() != null)
+                            .map(InvoiceSummary::businessName)
                             .findFirst()
                             .orElse("Desconocido");
 
                     BigDecimal totalDebt = invoices.stream()
-                            .map(Invoice::getTotalAmount)
+                            .map(InvoiceSummary::totalAmount)
                             .reduce(BigDecimal.ZERO, BigDecimal::add);
 
                     BigDecimal overdueDebt = invoices.stream()
-                            .filter(inv -> inv.getDueDate() != null && inv.getDueDate().isBefore(LocalDate.now()))
-                            .map(Invoice::getTotalAmount)
+                            .filter(inv -> inv.dueDate() != null && inv.dueDate().isBefore(LocalDate.now()))
+                            .map(InvoiceSummary::totalAmount)
                             .reduce(BigDecimal.ZERO, BigDecimal::add);
 
                     int pendingInvoices = invoices.size();
                     LocalDate lastMovement = invoices.stream()
-                            .map(Invoice::getDate)
+                            .map(InvoiceSummary::date)
                             .max(LocalDate::compareTo)
                             .orElse(null);
 
@@ -81,10 +79,8 @@ public class PartnerLedgerService {
 
     public List<PartnerMovementDTO> getMovements(CompanyId companyId, String rut) {
         // Fetch all invoices involving this partner (either as issuer or receiver)
-        List<Invoice> invoices = invoiceRepository.findByCompanyId(companyId).stream()
-                .filter(inv -> rut.equals(inv.getIssuerRut()) || rut.equals(inv.getReceiverRut()))
-                .sorted(Comparator.comparing(Invoice::getDate))
-                .toList();
+        List<InvoiceSummary> invoices = invoiceRepository.findSummaries(
+                InvoiceQuery.forCompany(companyId).withPartner(rut).orderBy(InvoiceQuery.Order.DATE_ASC));
 
         return buildMovementsSafely(invoices);
     }
@@ -119,23 +115,23 @@ public class PartnerLedgerService {
     // However, map is lazy? No, toList triggers it.
     // Better to use a loop to build the list to be safe and clear.
 
-    private List<PartnerMovementDTO> buildMovementsSafely(List<Invoice> invoices) {
+    private List<PartnerMovementDTO> buildMovementsSafely(List<InvoiceSummary> invoices) {
         java.util.List<PartnerMovementDTO> movements = new java.util.ArrayList<>();
         BigDecimal balance = BigDecimal.ZERO;
 
-        for (Invoice inv : invoices) {
+        for (InvoiceSummary inv : invoices) {
             BigDecimal sign = BigDecimal.ONE;
             // Check for Credit Notes
-            if (inv.getType().getCode() == 61) { // 61 = Credit Note
+            if (inv.type().getCode() == 61) { // 61 = Credit Note
                 sign = new BigDecimal("-1");
             }
 
-            BigDecimal amount = inv.getTotalAmount().multiply(sign);
+            BigDecimal amount = inv.totalAmount().multiply(sign);
             balance = balance.add(amount);
 
             movements.add(new PartnerMovementDTO(
-                    inv.getId().toString(),
-                    inv.getDate(),
+                    inv.id().toString(),
+                    inv.date(),
                     getReference(inv),
                     amount,
                     balance,
@@ -145,19 +141,19 @@ public class PartnerLedgerService {
         return movements;
     }
 
-    private boolean isCharge(Invoice inv, String partnerRut) {
+    private boolean isCharge(InvoiceSummary inv, String partnerRut) {
         // Logic handled in buildMovementsSafely regarding Credit Notes.
         return true;
     }
 
-    private String getReference(Invoice inv) {
-        return inv.getType().getDescription() + " #" + inv.getFolio();
+    private String getReference(InvoiceSummary inv) {
+        return inv.type().getDescription() + " #" + inv.folio();
     }
 
-    private String formatStatus(Invoice inv) {
-        if (inv.getStatus() == PaymentStatus.PAID)
+    private String formatStatus(InvoiceSummary inv) {
+        if (inv.status() == PaymentStatus.PAID)
             return "PAGADO";
-        if (inv.getDueDate() != null && inv.getDueDate().isBefore(LocalDate.now()))
+        if (inv.dueDate() != null && inv.dueDate().isBefore(LocalDate.now()))
             return "VENCIDO";
         return "AL DIA";
     }
@@ -0,0 +1,86 @@
+package com.casrusil.siierpai.modules.accounting.application.service;
+
+import com.casrusil.siierpai.modules.accounting.domain.port.out.LedgerVersionRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Caché de reportes derivados del libro diario.
+ *
+ * <p>
+ * La clave es (empresa, tipo de reporte, parámetros, versión del libro). Como
+ * la versión sube con cada commit que toca asientos, una entrada nunca queda
+ * obsoleta respecto del libro: simplemente deja de consultarse y Caffeine la
+ * expulsa. El TTL acota la antigüedad de lo que no depende del libro (plan de
+ * cuentas, análisis de la IA).
+ *
+ * <p>
+ * La misma clave da el ETag de la respuesta, de modo que un dashboard que
+ * vuelve a pedir un reporte sin cambios recibe {@code 304 Not Modified} sin
+ * que el reporte se calcule ni se lea de la caché.
+ *
+ * <h2>Configuración:</h2>
+ * <ul>
+ * <li>{@code accounting.reports.cache.max-size} - reportes en memoria</li>
+ * <li>{@code accounting.reports.cache.ttl-minutes} - vida máxima de una
+ * entrada</li>
+ * </ul>
+ */
+@Component
+public class ReportCache {
+
+    private final LedgerVersionRepository ledgerVersionRepository;
+    private final Cache<ReportKey, Object> cache;
+
+    public ReportCache(LedgerVersionRepository ledgerVersionRepository,
+            MeterRegistry meterRegistry,
+            @Value("${accounting.reports.cache.max-size:1000}") long maxSize,
+            @Value("${accounting.reports.cache.ttl-minutes:60}") long ttlMinutes) {
+        this.ledgerVersionRepository = ledgerVersionRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "accounting.reports");
+    }
+
+    /**
+     * Clave del reporte en la versión actual del libro de la empresa.
+     */
+    public ReportKey key(CompanyId companyId, String reportType, Object... parameters) {
+        return new ReportKey(companyId, reportType, List.of(parameters),
+                ledgerVersionRepository.currentVersion(companyId));
+    }
+
+    /**
+     * Devuelve el reporte en caché o lo calcula con {@code loader}. Dos
+     * peticiones simultáneas con la misma clave lo calculan una sola vez.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ReportKey key, Supplier<T> loader) {
+        return (T) cache.get(key, k -> loader.get());
+    }
+
+    public record ReportKey(CompanyId companyId, String reportType, List<Object> parameters, long ledgerVersion) {
+
+        /**
+         * ETag fuerte: cambia con la versión del libro, la empresa y los
+         * parámetros.
+         */
+        public String etag() {
+            return "\"" + reportType + "-" + ledgerVersion + "-"
+                    + Integer.toHexString(Objects.hash(companyId, parameters)) + "\"";
+        }
+    }
+}
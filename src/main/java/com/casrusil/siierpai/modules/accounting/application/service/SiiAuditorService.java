@@ -3,129 +3,94 @@ package com.casrusil.siierpai.modules.accounting.application.service;
 import com.casrusil.siierpai.modules.accounting.domain.dto.SiiAuditReportDTO;
 import com.casrusil.siierpai.modules.accounting.domain.dto.SiiAuditReportDTO.DiscrepancyItem;
 import com.casrusil.siierpai.modules.accounting.domain.dto.SiiAuditReportDTO.TaxSummary;
+import com.casrusil.siierpai.modules.accounting.domain.port.out.ClosedPeriodRepository;
 import com.casrusil.siierpai.modules.integration_sii.application.service.SiiRcvService;
 import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvData;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvRegisters;
 import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiToken;
 import com.casrusil.siierpai.modules.integration_sii.domain.port.out.SiiTokenRepository;
-import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceQuery;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceSummary;
 import com.casrusil.siierpai.modules.invoicing.domain.port.out.InvoiceRepository;
 import com.casrusil.siierpai.modules.sso.domain.port.out.CompanyRepository;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
+/**
+ * Audits the ERP invoices of a period against the SII RCV.
+ *
+ * <p>
+ * Purchase and sales registers are fetched in parallel through the snapshot
+ * cache of {@link SiiRcvService} (kept longer once the period is closed). The
+ * diff is a sort-merge: both sides are sorted by (type, folio, issuer RUT) and
+ * walked once, without building a map of either side.
+ */
 @Service
 public class SiiAuditorService {
 
+    private static final Comparator<Integer> TYPE_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+    private static final Comparator<Long> FOLIO_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+    private static final Comparator<String> RUT_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private static final Comparator<InvoiceSummary> LOCAL_ORDER = (a, b) -> compareKeys(
+            a.type().getCode(), a.folio(), a.issuerRut(), b.type().getCode(), b.folio(), b.issuerRut());
+    private static final Comparator<RcvData> SII_ORDER = (a, b) -> compareKeys(
+            a.tipoDte(), a.folio(), a.rutEmisor(), b.tipoDte(), b.folio(), b.rutEmisor());
+
     private final InvoiceRepository invoiceRepository;
     private final SiiRcvService siiRcvService;
     private final SiiTokenRepository siiTokenRepository;
     private final CompanyRepository companyRepository;
+    private final ClosedPeriodRepository closedPeriodRepository;
 
     public SiiAuditorService(InvoiceRepository invoiceRepository, SiiRcvService siiRcvService,
-            SiiTokenRepository siiTokenRepository, CompanyRepository companyRepository) {
+            SiiTokenRepository siiTokenRepository, CompanyRepository companyRepository,
+            ClosedPeriodRepository closedPeriodRepository) {
         this.invoiceRepository = invoiceRepository;
         this.siiRcvService = siiRcvService;
         this.siiTokenRepository = siiTokenRepository;
         this.companyRepository = companyRepository;
+        this.closedPeriodRepository = closedPeriodRepository;
     }
 
     public SiiAuditReportDTO compareWithSii(CompanyId companyId, int month, int year) {
         // 0. Prepare Data
-        String period = String.format("%d%02d", year, month);
         YearMonth targetPeriod = YearMonth.of(year, month);
         String companyRut = companyRepository.findById(companyId)
                 .orElseThrow(() -> new IllegalArgumentException("Company not found"))
-                .getRut(); // Assuming Company has getRut()
+                .getRut();
 
         SiiToken token = siiTokenRepository.findByCompanyId(companyId)
                 .orElseThrow(() -> new IllegalStateException("SII Token not found. Authenticate first."));
 
         // 1. Fetch Lists
+        // Remote SII: both registers in parallel, from the snapshot cache when fresh
+        boolean periodClosed = closedPeriodRepository.exists(companyId, targetPeriod);
+        RcvRegisters registers = siiRcvService.downloadRegisters(token, companyId, companyRut, targetPeriod,
+                periodClosed);
+
         // Local ERP
-        List<Invoice> localInvoices = invoiceRepository.findByCompanyId(companyId).stream()
-                .filter(inv -> {
-                    // Filter by date (YYYY-MM)
-                    YearMonth invPeriod = YearMonth.from(inv.getDate());
-                    return invPeriod.equals(targetPeriod);
-                })
-                .toList();
-
-        // Remote SII
-        List<RcvData> purchaseRcv = siiRcvService.downloadPurchaseRegister(token, companyId, companyRut, period);
-        List<RcvData> salesRcv = siiRcvService.downloadSalesRegister(token, companyId, companyRut, period);
-        List<RcvData> fullSiiList = Stream.concat(purchaseRcv.stream(), salesRcv.stream()).toList();
-
-        // 2. Generate Maps for O(1) Lookup
-        // Key: Type-Folio-RutCounterpart (Unique Key for DTE)
-        Map<String, Invoice> localMap = localInvoices.stream()
-                .collect(Collectors.toMap(this::generateKey, Function.identity(), (a, b) -> a)); // Handle duplicates if
-                                                                                                 // any
-
-        Map<String, RcvData> siiMap = fullSiiList.stream()
-                .collect(Collectors.toMap(this::generateKey, Function.identity(), (a, b) -> a));
-
-        // 3. Find Discrepancies
-        List<DiscrepancyItem> discrepancies = new ArrayList<>();
+        List<InvoiceSummary> localInvoices = new ArrayList<>(invoiceRepository
+                .findSummaries(InvoiceQuery.forCompany(companyId).inPeriod(targetPeriod)));
+        List<RcvData> siiRecords = new ArrayList<>(registers.size());
+        siiRecords.addAll(registers.purchases());
+        siiRecords.addAll(registers.sales());
 
-        // Check SII vs Local (Missing locally?)
-        for (RcvData remote : fullSiiList) {
-            String key = generateKey(remote);
-            if (!localMap.containsKey(key)) {
-                discrepancies.add(new DiscrepancyItem(
-                        String.valueOf(remote.tipoDte()),
-                        remote.folio(),
-                        remote.rutEmisor(),
-                        remote.fechaEmision(),
-                        remote.montoTotal(),
-                        BigDecimal.ZERO,
-                        "MISSING_IN_ERP",
-                        "WARNING"));
-            } else {
-                // Check amounts
-                Invoice local = localMap.get(key);
-                if (remote.montoTotal().compareTo(local.getTotalAmount()) != 0) {
-                    discrepancies.add(new DiscrepancyItem(
-                            String.valueOf(remote.tipoDte()),
-                            remote.folio(),
-                            remote.rutEmisor(),
-                            remote.fechaEmision(),
-                            remote.montoTotal(),
-                            local.getTotalAmount(),
-                            "AMOUNT_MISMATCH",
-                            "CRITICAL"));
-                }
-            }
-        }
+        // 2. Sort both sides by document key: Type-Folio-IssuerRut
+        localInvoices.sort(LOCAL_ORDER);
+        siiRecords.sort(SII_ORDER);
 
-        // Check Local vs SII (Missing in SII?)
-        for (Invoice local : localInvoices) {
-            // Only care about valid DTEs
-            String key = generateKey(local);
-            if (!siiMap.containsKey(key)) {
-                discrepancies.add(new DiscrepancyItem(
-                        String.valueOf(local.getType().getCode()),
-                        local.getFolio(),
-                        local.getIssuerRut(), // Note: Logic on counterpart depends on Sales vs Purchase
-                        local.getDate(),
-                        BigDecimal.ZERO,
-                        local.getTotalAmount(),
-                        "MISSING_IN_SII",
-                        "CRITICAL"));
-            }
-        }
+        // 3. Find Discrepancies (single merge pass)
+        List<DiscrepancyItem> discrepancies = diff(localInvoices, siiRecords);
 
         // 4. Summaries
-        TaxSummary siiTotal = calculateSiiSummary(fullSiiList);
+        TaxSummary siiTotal = calculateSiiSummary(siiRecords);
         TaxSummary erpTotal = calculateErpSummary(localInvoices);
 
         boolean match = discrepancies.isEmpty() &&
@@ -135,15 +100,96 @@ public class SiiAuditorService {
         return new SiiAuditReportDTO(siiTotal, erpTotal, discrepancies, match);
     }
 
-    private String generateKey(Invoice inv) {
-        // Key format: Type-Folio-IssuerRut
-        // Assuming issuer identifies the doc unique alongside type and folio globally?
-        // Yes, Folio is per issuer per type.
-        return inv.getType().getCode() + "-" + inv.getFolio() + "-" + inv.getIssuerRut();
+    /**
+     * Sort-merge of both sides, already sorted by document key. Every SII
+     * record with a key is compared with the first local document of that key;
+     * further local duplicates count as matched.
+     */
+    static List<DiscrepancyItem> diff(List<InvoiceSummary> local, List<RcvData> sii) {
+        List<DiscrepancyItem> discrepancies = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < local.size() || j < sii.size()) {
+            int cmp;
+            if (i >= local.size()) {
+                cmp = 1;
+            } else if (j >= sii.size()) {
+                cmp = -1;
+            } else {
+                cmp = compare(local.get(i), sii.get(j));
+            }
+
+            if (cmp < 0) {
+                discrepancies.add(missingInSii(local.get(i++)));
+            } else if (cmp > 0) {
+                discrepancies.add(missingInErp(sii.get(j++)));
+            } else {
+                InvoiceSummary matched = local.get(i);
+                while (j < sii.size() && compare(matched, sii.get(j)) == 0) {
+                    RcvData remote = sii.get(j++);
+                    if (remote.montoTotal().compareTo(matched.totalAmount()) != 0) {
+                        discrepancies.add(amountMismatch(remote, matched));
+                    }
+                }
+                while (i < local.size() && LOCAL_ORDER.compare(local.get(i), matched) == 0) {
+                    i++;
+                }
+            }
+        }
+        return discrepancies;
+    }
+
+    private static DiscrepancyItem missingInErp(RcvData remote) {
+        return new DiscrepancyItem(
+                String.valueOf(remote.tipoDte()),
+                remote.folio(),
+                remote.rutEmisor(),
+                remote.fechaEmision(),
+                remote.montoTotal(),
+                BigDecimal.ZERO,
+                "MISSING_IN_ERP",
+                "WARNING");
+    }
+
+    private static DiscrepancyItem amountMismatch(RcvData remote, InvoiceSummary local) {
+        return new DiscrepancyItem(
+                String.valueOf(remote.tipoDte()),
+                remote.folio(),
+                remote.rutEmisor(),
+                remote.fechaEmision(),
+                remote.montoTotal(),
+                local.totalAmount(),
+                "AMOUNT_MISMATCH",
+                "CRITICAL");
+    }
+
+    private static DiscrepancyItem missingInSii(InvoiceSummary local) {
+        return new DiscrepancyItem(
+                String.valueOf(local.type().getCode()),
+                local.folio(),
+                local.issuerRut(), // Note: Logic on counterpart depends on Sales vs Purchase
+                local.date(),
+                BigDecimal.ZERO,
+                local.totalAmount(),
+                "MISSING_IN_SII",
+                "CRITICAL");
     }
 
-    private String generateKey(RcvData rcv) {
-        return rcv.tipoDte() + "-" + rcv.folio() + "-" + rcv.rutEmisor();
+    private static int compare(InvoiceSummary local, RcvData remote) {
+        // Folio is per issuer per type, so (type, folio, issuer) identifies a DTE
+        return compareKeys(local.type().getCode(), local.folio(), local.issuerRut(),
+                remote.tipoDte(), remote.folio(), remote.rutEmisor());
+    }
+
+    private static int compareKeys(Integer typeA, Long folioA, String rutA, Integer typeB, Long folioB, String rutB) {
+        int cmp = TYPE_ORDER.compare(typeA, typeB);
+        if (cmp == 0) {
+            cmp = FOLIO_ORDER.compare(folioA, folioB);
+        }
+        if (cmp == 0) {
+            cmp = RUT_ORDER.compare(rutA, rutB);
+        }
+        return cmp;
     }
 
     private TaxSummary calculateSiiSummary(List<RcvData> list) {
@@ -152,9 +198,9 @@ public class SiiAuditorService {
         return new TaxSummary(net, iva, list.size());
     }
 
-    private TaxSummary calculateErpSummary(List<Invoice> list) {
-        BigDecimal net = list.stream().map(Invoice::getNetAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal iva = list.stream().map(Invoice::getTaxAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    private TaxSummary calculateErpSummary(List<InvoiceSummary> list) {
+        BigDecimal net = list.stream().map(InvoiceSummary::netAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal iva = list.stream().map(InvoiceSummary::taxAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
         return new TaxSummary(net, iva, list.size());
     }
 }
@@ -3,7 +3,8 @@ package com.casrusil.siierpai.modules.accounting.application.service;
 import com.casrusil.siierpai.modules.accounting.domain.model.AccountingEntry;
 import com.casrusil.siierpai.modules.accounting.domain.model.TaxAuditReport;
 import com.casrusil.siierpai.modules.accounting.domain.port.out.AccountingEntryRepository;
-import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceQuery;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceSummary;
 import com.casrusil.siierpai.modules.invoicing.domain.port.out.InvoiceRepository;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import org.springframework.stereotype.Service;
@@ -11,7 +12,6 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.time.YearMonth;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Servicio de Auditoría Tributaria (Tax Compliance) - CORRECCIÓN MAESTRA
@@ -32,15 +32,12 @@ public class TaxAuditService {
         YearMonth targetMonth = YearMonth.of(year, month);
 
         // 1. OBTENER "SII TRUTH" (Facturas Importadas)
-        List<Invoice> siiInvoices = invoiceRepository.findByCompanyId(companyId).stream()
-                .filter(inv -> {
-                    YearMonth invMonth = YearMonth.from(inv.getDate());
-                    return invMonth.equals(targetMonth);
-                })
-                .collect(Collectors.toList());
+        List<InvoiceSummary> siiInvoices = invoiceRepository
+                .findSummaries(InvoiceQuery.forCompany(companyId).inPeriod(targetMonth));
 
         // 2. OBTENER "ERP TRUTH" (Asientos Contables)
-        List<AccountingEntry> accountingEntries = accountingEntryRepository.findByCompanyId(companyId).stream()
+        List<AccountingEntry> accountingEntries = accountingEntryRepository
+                .findByCompanyIdAndPeriod(companyId, targetMonth.atDay(1), targetMonth.atEndOfMonth()).stream()
                 .filter(entry -> {
                     YearMonth entryMonth = YearMonth.from(entry.getEntryDate());
                     return entryMonth.equals(targetMonth);
@@ -66,22 +63,22 @@ public class TaxAuditService {
         BigDecimal totalErp = BigDecimal.ZERO;
 
         // 4. COMPARAR: SII -> ERP
-        for (Invoice invoice : siiInvoices) {
-            String key = buildKey(invoice.getIssuerRut(), invoice.getType().getCode(), invoice.getFolio());
+        for (InvoiceSummary invoice : siiInvoices) {
+            String key = buildKey(invoice.issuerRut(), invoice.type().getCode(), invoice.folio());
             processedKeys.add(key);
 
             // Sumar al acumulado SII (usamos TaxAmount para simular IVA, o 0 si nulo)
-            BigDecimal currentIva = invoice.getTaxAmount() != null ? invoice.getTaxAmount() : BigDecimal.ZERO;
+            BigDecimal currentIva = invoice.taxAmount() != null ? invoice.taxAmount() : BigDecimal.ZERO;
             totalSii = totalSii.add(currentIva);
 
             String status = "OK";
             BigDecimal erpAmount = BigDecimal.ZERO;
             // Definir Tipo (Compra/Venta)
             String type = "UNKNOWN";
-            if (invoice.getTransactionType() != null) {
-                type = invoice.getTransactionType().name(); // SALE / PURCHASE
+            if (invoice.transactionType() != null) {
+                type = invoice.transactionType().name(); // SALE / PURCHASE
             } else {
-                type = (invoice.getType().getCode() == 33 || invoice.getType().getCode() == 34) ? "VENTA" : "COMPRA";
+                type = (invoice.type().getCode() == 33 || invoice.type().getCode() == 34) ? "VENTA" : "COMPRA";
             }
 
             if (accountingMap.containsKey(key)) {
@@ -90,7 +87,7 @@ public class TaxAuditService {
                 erpAmount = calculateEntryAmount(entry);
 
                 // Diff > 5 pesos
-                BigDecimal diff = invoice.getTotalAmount().subtract(erpAmount).abs();
+                BigDecimal diff = invoice.totalAmount().subtract(erpAmount).abs();
                 if (diff.compareTo(new BigDecimal("5")) > 0) {
                     status = "DIFERENCIA_MONTO";
                 }
@@ -101,10 +98,10 @@ public class TaxAuditService {
 
             discrepancies.add(new TaxAuditReport.DiscrepancyDetail(
                     type,
-                    invoice.getDate(),
-                    invoice.getBusinessName() != null ? invoice.getBusinessName() : "S/N",
-                    invoice.getFolio(),
-                    invoice.getTotalAmount(), // Monto SII
+                    invoice.date(),
+                    invoice.businessName() != null ? invoice.businessName() : "S/N",
+                    invoice.folio(),
+                    invoice.totalAmount(), // Monto SII
                     erpAmount, // Monto ERP
                     status));
         }
@@ -0,0 +1,22 @@
+package com.casrusil.siierpai.modules.accounting.domain.event;
+
+import com.casrusil.siierpai.modules.accounting.domain.model.F29Submission;
+import com.casrusil.siierpai.shared.domain.event.DomainEvent;
+
+import java.time.Instant;
+
+/**
+ * Evento de dominio que se dispara cada vez que un envío de F29 cambia de
+ * estado (encolado, enviado, aceptado o rechazado).
+ *
+ * <p>
+ * Es el canal por el que se avisa al usuario del avance de la declaración, ya
+ * que el envío no ocurre durante la petición HTTP que lo registra.
+ */
+public record F29SubmissionStatusChangedEvent(F29Submission submission, Instant occurredOn)
+        implements DomainEvent {
+
+    public F29SubmissionStatusChangedEvent(F29Submission submission) {
+        this(submission, submission.updatedAt());
+    }
+}
@@ -0,0 +1,85 @@
+package com.casrusil.siierpai.modules.accounting.domain.model;
+
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.UUID;
+
+/**
+ * Envío de una declaración F29 al SII.
+ *
+ * <p>
+ * El envío se registra en {@link F29SubmissionStatus#QUEUED} y lo procesan los
+ * workers de forma asíncrona. {@code availableAt} indica cuándo un worker
+ * puede tomarlo: el próximo intento, la próxima consulta de estado o el fin
+ * del lease de un worker que lo tomó. Cada transición devuelve una copia.
+ *
+ * @param id          identificador del envío
+ * @param companyId   empresa declarante
+ * @param period      periodo tributario declarado
+ * @param status      estado actual
+ * @param amountToPay IVA a pagar, conocido una vez calculado el formulario
+ * @param trackId     identificador de recepción del SII
+ * @param detail      glosa del SII o último error
+ * @param attempts    intentos de envío fallidos
+ * @param createdAt   momento del registro
+ * @param updatedAt   momento de la última transición
+ * @param availableAt momento a partir del cual un worker puede tomarlo
+ */
+public record F29Submission(
+        UUID id,
+        CompanyId companyId,
+        YearMonth period,
+        F29SubmissionStatus status,
+        BigDecimal amountToPay,
+        String trackId,
+        String detail,
+        int attempts,
+        Instant createdAt,
+        Instant updatedAt,
+        Instant availableAt) {
+
+    public static F29Submission queue(CompanyId companyId, YearMonth period, Instant now) {
+        return new F29Submission(UUID.randomUUID(), companyId, period, F29SubmissionStatus.QUEUED, null, null,
+                null, 0, now, now, now);
+    }
+
+    /**
+     * El SII recibió la declaración; su estado se consulta desde
+     * {@code checkAt}.
+     */
+    public F29Submission sent(String trackId, BigDecimal amountToPay, Instant now, Instant checkAt) {
+        return new F29Submission(id, companyId, period, F29SubmissionStatus.SENT, amountToPay, trackId, null,
+                attempts, createdAt, now, checkAt);
+    }
+
+    public F29Submission accepted(String detail, Instant now) {
+        return new F29Submission(id, companyId, period, F29SubmissionStatus.ACCEPTED, amountToPay, trackId,
+                detail, attempts, createdAt, now, now);
+    }
+
+    public F29Submission rejected(BigDecimal amountToPay, String detail, Instant now) {
+        return new F29Submission(id, companyId, period, F29SubmissionStatus.REJECTED, amountToPay, trackId,
+                detail, attempts, createdAt, now, now);
+    }
+
+    /**
+     * Falló un intento de envío; vuelve a la cola a partir de
+     * {@code nextAttempt}.
+     */
+    public F29Submission retry(String error, Instant now, Instant nextAttempt) {
+        return new F29Submission(id, companyId, period, status, amountToPay, trackId, error, attempts + 1,
+                createdAt, now, nextAttempt);
+    }
+
+    /**
+     * Sin cambio de estado; el worker vuelve a tomarlo a partir de
+     * {@code nextCheck}.
+     */
+    public F29Submission postpone(Instant nextCheck) {
+        return new F29Submission(id, companyId, period, status, amountToPay, trackId, detail, attempts,
+                createdAt, updatedAt, nextCheck);
+    }
+}
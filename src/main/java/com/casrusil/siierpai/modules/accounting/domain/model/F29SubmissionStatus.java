@@ -0,0 +1,21 @@
+package com.casrusil.siierpai.modules.accounting.domain.model;
+
+/**
+ * Estados de un envío de F29 al SII.
+ *
+ * <ul>
+ * <li>{@link #QUEUED}: registrado, a la espera de un worker.</li>
+ * <li>{@link #SENT}: recibido por el SII (tiene track ID), pendiente de
+ * veredicto.</li>
+ * <li>{@link #ACCEPTED}: aceptado por el SII. Estado final.</li>
+ * <li>{@link #REJECTED}: rechazado por el SII o agotados los reintentos.
+ * Estado final.</li>
+ * </ul>
+ */
+public enum F29SubmissionStatus {
+    QUEUED, SENT, ACCEPTED, REJECTED;
+
+    public boolean isFinal() {
+        return this == ACCEPTED || this == REJECTED;
+    }
+}
@@ -0,0 +1,50 @@
+package com.casrusil.siierpai.modules.accounting.domain.model;
+
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceTotals;
+import com.casrusil.siierpai.modules.invoicing.domain.model.TransactionType;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Datos del reporte semanal de una empresa: ventas y compras del periodo.
+ * 
+ * @param companyId ID de la empresa
+ * @param from      Fecha inicial (inclusive)
+ * @param to        Fecha final (inclusive)
+ * @param sales     Totales de ventas
+ * @param purchases Totales de compras
+ */
+public record WeeklyReport(
+        CompanyId companyId,
+        LocalDate from,
+        LocalDate to,
+        InvoiceTotals sales,
+        InvoiceTotals purchases) {
+
+    /**
+     * Arma el reporte a partir de los totales agrupados por tipo de
+     * transacción; los tipos ausentes quedan en cero.
+     */
+    public static WeeklyReport of(CompanyId companyId, LocalDate from, LocalDate to, List<InvoiceTotals> totals) {
+        return new WeeklyReport(companyId, from, to,
+                find(totals, TransactionType.SALE),
+                find(totals, TransactionType.PURCHASE));
+    }
+
+    /**
+     * IVA débito menos IVA crédito del periodo.
+     */
+    public BigDecimal netTax() {
+        return sales.taxAmount().subtract(purchases.taxAmount());
+    }
+
+    private static InvoiceTotals find(List<InvoiceTotals> totals, TransactionType type) {
+        return totals.stream()
+                .filter(total -> total.transactionType() == type)
+                .findFirst()
+                .orElseGet(() -> InvoiceTotals.empty(type));
+    }
+}
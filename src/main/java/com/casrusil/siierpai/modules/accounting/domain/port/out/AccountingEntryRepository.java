@@ -44,6 +44,22 @@ public interface AccountingEntryRepository {
          */
         List<AccountingEntry> findByCompanyId(CompanyId companyId);
 
+        /**
+         * Lista los asientos de una empresa con fecha en {@code [from, to]}.
+         * 
+         * <p>
+         * Preferir a {@link #findByCompanyId(CompanyId)} en cálculos por
+         * período: el filtro se resuelve en la base de datos y solo se leen
+         * las particiones del año fiscal correspondiente.
+         * 
+         * @param companyId ID de la empresa
+         * @param from      Fecha inicio (inclusive)
+         * @param to        Fecha fin (inclusive)
+         * @return Lista de asientos del período
+         */
+        List<AccountingEntry> findByCompanyIdAndPeriod(CompanyId companyId, java.time.LocalDate from,
+                        java.time.LocalDate to);
+
         /**
          * Busca los movimientos de una cuenta específica para el Libro Mayor (General
          * Ledger).
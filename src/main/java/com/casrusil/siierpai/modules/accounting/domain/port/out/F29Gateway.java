@@ -0,0 +1,39 @@
+package com.casrusil.siierpai.modules.accounting.domain.port.out;
+
+import com.casrusil.siierpai.modules.accounting.domain.model.F29Report;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+/**
+ * Canal de envío de la declaración F29 al SII.
+ *
+ * <p>
+ * La implementación genera el XML, lo firma con el certificado de la empresa y
+ * lo transmite. Los errores transitorios (red, timeouts, SII no disponible) se
+ * propagan como excepción para que el envío se reintente; un rechazo del SII
+ * se informa como {@link Outcome#REJECTED}.
+ */
+public interface F29Gateway {
+
+    /**
+     * Transmite la declaración.
+     *
+     * @return {@link Outcome#RECEIVED} con el track ID, o
+     *         {@link Outcome#REJECTED} si el SII no la recibió
+     */
+    Response upload(CompanyId companyId, F29Report report);
+
+    /**
+     * Consulta el estado de una declaración recibida.
+     *
+     * @return {@link Outcome#PENDING}, {@link Outcome#ACCEPTED} o
+     *         {@link Outcome#REJECTED}
+     */
+    Response checkStatus(CompanyId companyId, String trackId);
+
+    enum Outcome {
+        RECEIVED, PENDING, ACCEPTED, REJECTED
+    }
+
+    record Response(Outcome outcome, String trackId, String detail) {
+    }
+}
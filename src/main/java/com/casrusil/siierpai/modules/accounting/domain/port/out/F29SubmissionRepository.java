@@ -0,0 +1,42 @@
+package com.casrusil.siierpai.modules.accounting.domain.port.out;
+
+import com.casrusil.siierpai.modules.accounting.domain.model.F29Submission;
+import com.casrusil.siierpai.modules.accounting.domain.model.F29SubmissionStatus;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface F29SubmissionRepository {
+    F29Submission save(F29Submission submission);
+
+    /**
+     * Inserta un envío nuevo y lo confirma de inmediato (en su propia
+     * transacción si no hay una en curso).
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException si ya
+     *         hay un envío en curso del mismo periodo (índice único parcial
+     *         sobre {@code (company_id, period)})
+     */
+    F29Submission insert(F29Submission submission);
+
+    Optional<F29Submission> findById(CompanyId companyId, UUID id);
+
+    /**
+     * Envío aún no resuelto ({@code QUEUED} o {@code SENT}) del periodo, si lo
+     * hay.
+     */
+    Optional<F29Submission> findPending(CompanyId companyId, YearMonth period);
+
+    List<F29Submission> findRecent(CompanyId companyId, int limit);
+
+    /**
+     * Toma hasta {@code limit} envíos en {@code status} disponibles en
+     * {@code now} y los reserva hasta {@code leaseUntil}. Varias instancias
+     * pueden reclamar a la vez sin tomar el mismo envío.
+     */
+    List<F29Submission> claim(F29SubmissionStatus status, Instant now, Instant leaseUntil, int limit);
+}
@@ -0,0 +1,26 @@
+package com.casrusil.siierpai.modules.accounting.domain.port.out;
+
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+/**
+ * Versión del libro diario de cada empresa.
+ *
+ * <p>
+ * Es un contador monótono que aumenta cada vez que se confirma una
+ * transacción que escribe o borra asientos. Los reportes derivados del libro
+ * usan la versión como clave de caché y como ETag.
+ */
+public interface LedgerVersionRepository {
+
+    /**
+     * Versión confirmada del libro de la empresa ({@code 0} si nunca se ha
+     * escrito un asiento).
+     */
+    long currentVersion(CompanyId companyId);
+
+    /**
+     * Marca el libro como modificado. Dentro de una transacción el contador
+     * sube una sola vez, al confirmar, aunque se escriban muchos asientos.
+     */
+    void increment(CompanyId companyId);
+}
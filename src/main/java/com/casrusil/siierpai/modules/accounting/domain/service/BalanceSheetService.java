@@ -8,6 +8,7 @@ import com.casrusil.siierpai.modules.accounting.domain.model.BalanceSheetReport;
 import com.casrusil.siierpai.modules.accounting.domain.port.out.AccountRepository;
 import com.casrusil.siierpai.modules.accounting.domain.port.out.AccountingEntryRepository;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.infrastructure.observability.Monitored;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -56,6 +57,7 @@ public class BalanceSheetService {
         this.accountRepository = accountRepository;
     }
 
+    @Monitored(module = "accounting", operation = "balance_sheet.generate")
     public BalanceSheetReport generateBalanceSheet(CompanyId companyId, LocalDate asOfDate) {
         List<AccountingEntry> entries = accountingEntryRepository.findByCompanyId(companyId);
 
@@ -9,6 +9,7 @@ import com.casrusil.siierpai.modules.fees.domain.port.out.FeeReceiptRepository;
 import com.casrusil.siierpai.modules.accounting.domain.model.AnomalyWarning;
 import com.casrusil.siierpai.modules.accounting.domain.model.DraftF29;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.infrastructure.observability.Monitored;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -50,11 +51,11 @@ public class F29CalculatorService {
      * @param period    Year-Month period (e.g., 2025-12)
      * @return F29Report with VAT calculations
      */
+    @Monitored(module = "accounting", operation = "f29.calculate")
     public F29Report calculateF29(CompanyId companyId, YearMonth period) {
-        List<AccountingEntry> entries = accountingEntryRepository.findByCompanyId(companyId);
-
         LocalDate start = period.atDay(1);
         LocalDate end = period.atEndOfMonth();
+        List<AccountingEntry> entries = accountingEntryRepository.findByCompanyIdAndPeriod(companyId, start, end);
 
         BigDecimal totalSalesTaxable = BigDecimal.ZERO;
         BigDecimal totalSalesExempt = BigDecimal.ZERO;
@@ -1,48 +1,48 @@
 package com.casrusil.siierpai.modules.accounting.domain.service;
 
 import com.casrusil.siierpai.modules.accounting.domain.model.F29Report;
+import com.casrusil.siierpai.modules.accounting.domain.port.out.F29Gateway;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.UUID;
-
 @Service
 public class F29SenderService {
 
     private static final Logger log = LoggerFactory.getLogger(F29SenderService.class);
 
+    private final F29Gateway f29Gateway;
+
+    public F29SenderService(F29Gateway f29Gateway) {
+        this.f29Gateway = f29Gateway;
+    }
+
     /**
-     * Simulates sending the F29 declaration to the SII.
-     * In a real production environment, this would sign the XML and send it via
-     * SOAP/REST.
-     * 
+     * Sends the F29 declaration to the SII through the {@link F29Gateway},
+     * which builds, signs and transmits the XML.
+     * Called from the submission workers, never from a request thread.
+     *
      * @param companyId Company ID
      * @param report    The calculated F29 report
-     * @return A transaction ID (folio) from SII
+     * @return the SII response: received (with its track ID) or rejected
      */
-    public String sendDeclaration(CompanyId companyId, F29Report report) {
-        log.info("Preparing F29 Declaration for Company: {} Period: {}", companyId.value(), report.period());
+    public F29Gateway.Response sendDeclaration(CompanyId companyId, F29Report report) {
+        log.info("Sending F29 Declaration for Company: {} Period: {}", companyId.value(), report.period());
 
         validateReport(report);
 
-        // Simulate XML generation
-        String xmlPayload = generateXmlPayload(report);
-        log.debug("Generated XML Payload: {}", xmlPayload);
-
-        // Simulate Network Call
-        try {
-            Thread.sleep(1000); // Simulate latency
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-
-        // Simulate Success Response
-        String transactionId = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        log.info("F29 Declaration Submitted Successfully. Transaction ID: {}", transactionId);
+        F29Gateway.Response response = f29Gateway.upload(companyId, report);
+        log.info("F29 Declaration for Company: {} Period: {} {}. Track ID: {}", companyId.value(),
+                report.period(), response.outcome(), response.trackId());
+        return response;
+    }
 
-        return transactionId;
+    /**
+     * Queries the SII verdict for a declaration already received.
+     */
+    public F29Gateway.Response checkStatus(CompanyId companyId, String trackId) {
+        return f29Gateway.checkStatus(companyId, trackId);
     }
 
     private void validateReport(F29Report report) {
@@ -51,15 +51,4 @@ public class F29SenderService {
         }
         // Add more validations here
     }
-
-    private String generateXmlPayload(F29Report report) {
-        return String.format("""
-                <F29>
-                    <Periodo>%s</Periodo>
-                    <VentasAfectas>%s</VentasAfectas>
-                    <ComprasAfectas>%s</ComprasAfectas>
-                    <ImpuestoPagar>%s</ImpuestoPagar>
-                </F29>
-                """, report.period(), report.totalSalesTaxable(), report.totalPurchasesTaxable(), report.vatPayable());
-    }
 }
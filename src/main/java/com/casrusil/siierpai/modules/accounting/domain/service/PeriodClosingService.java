@@ -100,10 +100,9 @@ public class PeriodClosingService {
      * Profit/Loss = Total Revenue - Total Expenses
      */
     private BigDecimal calculateProfitLoss(CompanyId companyId, YearMonth period) {
-        List<AccountingEntry> entries = accountingEntryRepository.findByCompanyId(companyId);
-
         LocalDate start = period.atDay(1);
         LocalDate end = period.atEndOfMonth();
+        List<AccountingEntry> entries = accountingEntryRepository.findByCompanyIdAndPeriod(companyId, start, end);
 
         BigDecimal totalRevenue = BigDecimal.ZERO;
         BigDecimal totalExpenses = BigDecimal.ZERO;
@@ -0,0 +1,130 @@
+package com.casrusil.siierpai.modules.accounting.infrastructure.pdf;
+
+import com.casrusil.siierpai.modules.accounting.domain.model.WeeklyReport;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceTotals;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import org.springframework.stereotype.Component;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.text.NumberFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Genera el PDF del reporte semanal con OpenPDF.
+ *
+ * <p>
+ * Lo costoso se prepara una sola vez por proceso: la fuente base (y sus
+ * variantes) y la plantilla de la tabla de totales con anchos y encabezados.
+ * Cada reporte copia la plantilla y solo agrega sus filas. El documento se
+ * escribe directamente en el {@link OutputStream} recibido, sin búfer
+ * intermedio.
+ *
+ * <p>
+ * Es seguro para uso concurrente: las fuentes y la plantilla nunca se
+ * modifican después de crearse.
+ */
+@Component
+public class WeeklyReportPdfRenderer {
+
+    private static final Locale CHILE = Locale.of("es", "CL");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final Color HEADER_BACKGROUND = new Color(0x66, 0x7e, 0xea);
+
+    private static final BaseFont BASE_FONT = loadBaseFont();
+    private static final Font FONT_TITLE = new Font(BASE_FONT, 16, Font.BOLD);
+    private static final Font FONT_SUBTITLE = new Font(BASE_FONT, 10, Font.NORMAL, Color.DARK_GRAY);
+    private static final Font FONT_HEADER = new Font(BASE_FONT, 10, Font.BOLD, Color.WHITE);
+    private static final Font FONT_NORMAL = new Font(BASE_FONT, 10, Font.NORMAL);
+    private static final Font FONT_BOLD = new Font(BASE_FONT, 10, Font.BOLD);
+
+    private static final PdfPTable TOTALS_TEMPLATE = totalsTemplate();
+
+    /**
+     * Escribe el reporte en {@code out}. No cierra el stream.
+     */
+    public void render(WeeklyReport report, OutputStream out) {
+        // NumberFormat no es thread-safe: uno por documento
+        NumberFormat currency = NumberFormat.getCurrencyInstance(CHILE);
+        Document document = new Document(PageSize.A4, 36, 36, 54, 36);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setFullCompression();
+            writer.setCloseStream(false);
+            document.addTitle("Reporte Semanal");
+            document.open();
+
+            document.add(new Paragraph("Reporte Semanal", FONT_TITLE));
+            document.add(new Paragraph("Periodo: " + report.from().format(DATE_FORMAT) + " al "
+                    + report.to().format(DATE_FORMAT), FONT_SUBTITLE));
+            document.add(new Paragraph(" ", FONT_NORMAL));
+
+            PdfPTable totals = new PdfPTable(TOTALS_TEMPLATE);
+            addRow(totals, "Ventas", report.sales(), currency);
+            addRow(totals, "Compras", report.purchases(), currency);
+            document.add(totals);
+
+            Paragraph netTax = new Paragraph("IVA neto del periodo (débito - crédito): "
+                    + currency.format(report.netTax()), FONT_BOLD);
+            netTax.setSpacingBefore(12);
+            document.add(netTax);
+
+            document.close();
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Failed to render weekly report", e);
+        }
+    }
+
+    private static void addRow(PdfPTable table, String label, InvoiceTotals totals, NumberFormat currency) {
+        table.addCell(new Phrase(label, FONT_BOLD));
+        table.addCell(amountCell(String.valueOf(totals.count())));
+        table.addCell(amountCell(currency.format(totals.netAmount())));
+        table.addCell(amountCell(currency.format(totals.taxAmount())));
+        table.addCell(amountCell(currency.format(totals.totalAmount())));
+    }
+
+    private static PdfPCell amountCell(String text) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, FONT_NORMAL));
+        cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        cell.setPadding(4);
+        return cell;
+    }
+
+    private static PdfPTable totalsTemplate() {
+        PdfPTable table = new PdfPTable(new float[] { 2, 1, 2, 2, 2 });
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+        for (String header : new String[] { "Concepto", "Documentos", "Neto", "IVA", "Total" }) {
+            PdfPCell cell = new PdfPCell(new Phrase(header, FONT_HEADER));
+            cell.setBackgroundColor(HEADER_BACKGROUND);
+            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            cell.setPadding(5);
+            table.addCell(cell);
+        }
+        return table;
+    }
+
+    private static BaseFont loadBaseFont() {
+        try {
+            // Fuente estándar PDF: no se embebe, el documento queda liviano
+            return BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Failed to load PDF base font", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
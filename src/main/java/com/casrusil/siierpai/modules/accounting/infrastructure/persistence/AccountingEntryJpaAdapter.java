@@ -4,11 +4,14 @@ package com.casrusil.siierpai.modules.accounting.infrastructure.persistence;
 import com.casrusil.siierpai.modules.accounting.domain.model.AccountingEntry;
 import com.casrusil.siierpai.modules.accounting.domain.model.AccountingEntryLine;
 import com.casrusil.siierpai.modules.accounting.domain.port.out.AccountingEntryRepository;
+import com.casrusil.siierpai.modules.accounting.domain.port.out.LedgerVersionRepository;
 import com.casrusil.siierpai.modules.accounting.infrastructure.persistence.entity.AccountingEntryEntity;
 import com.casrusil.siierpai.modules.accounting.infrastructure.persistence.entity.AccountingEntryLineEmbeddable;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -28,19 +31,30 @@ import java.util.stream.Collectors;
 @Component
 public class AccountingEntryJpaAdapter implements AccountingEntryRepository {
 
+        /**
+         * Zona en que se guardan las fechas de los asientos (inicio del día en
+         * Chile); los rangos de consulta y los límites de partición usan la
+         * misma.
+         */
+        private static final ZoneId CHILE_ZONE = ZoneId.of("America/Santiago");
+
         private final AccountingEntryJpaRepository jpaRepository;
         private final com.casrusil.siierpai.modules.accounting.domain.port.out.AccountRepository accountRepository;
+        private final LedgerVersionRepository ledgerVersionRepository;
 
         public AccountingEntryJpaAdapter(AccountingEntryJpaRepository jpaRepository,
-                        com.casrusil.siierpai.modules.accounting.domain.port.out.AccountRepository accountRepository) {
+                        com.casrusil.siierpai.modules.accounting.domain.port.out.AccountRepository accountRepository,
+                        LedgerVersionRepository ledgerVersionRepository) {
                 this.jpaRepository = jpaRepository;
                 this.accountRepository = accountRepository;
+                this.ledgerVersionRepository = ledgerVersionRepository;
         }
 
         @Override
         public void save(AccountingEntry entry) {
                 AccountingEntryEntity entity = toEntity(entry);
                 jpaRepository.save(entity);
+                ledgerVersionRepository.increment(entry.getCompanyId());
         }
 
         @Override
@@ -50,29 +64,44 @@ public class AccountingEntryJpaAdapter implements AccountingEntryRepository {
                                 .collect(Collectors.toList());
         }
 
+        @Override
+        public List<AccountingEntry> findByCompanyIdAndPeriod(CompanyId companyId, LocalDate from, LocalDate to) {
+                return jpaRepository.findInRange(companyId.value(), startOf(from), endOf(to)).stream()
+                                .map(this::toDomain)
+                                .collect(Collectors.toList());
+        }
+
         @Override
         public List<com.casrusil.siierpai.modules.accounting.domain.model.AccountMovement> findMovementsByAccount(
                         CompanyId companyId, String accountCode, java.time.LocalDate from, java.time.LocalDate to) {
-                java.time.Instant startDate = from.atStartOfDay(ZoneId.systemDefault()).toInstant();
-                java.time.Instant endDate = to.atTime(java.time.LocalTime.MAX).atZone(ZoneId.systemDefault())
-                                .toInstant();
+                return jpaRepository.findMovementsByAccount(companyId.value(), accountCode, startOf(from),
+                                endOf(to));
+        }
 
-                return jpaRepository.findMovementsByAccount(companyId.value(), accountCode, startDate, endDate);
+        /** Inicio (inclusivo) del día {@code from} en Chile. */
+        private static Instant startOf(LocalDate from) {
+                return from.atStartOfDay(CHILE_ZONE).toInstant();
+        }
+
+        /** Fin (exclusivo) del día {@code to} en Chile. */
+        private static Instant endOf(LocalDate to) {
+                return to.plusDays(1).atStartOfDay(CHILE_ZONE).toInstant();
         }
 
         private AccountingEntryEntity toEntity(AccountingEntry entry) {
+                // Convert LocalDate (Domain) to Instant (Entity)
+                // We use start of day at Chile zone to ensure correct date persistence
+                java.time.Instant occurredOn = startOf(entry.getEntryDate());
+
+                // Lines carry the entry date as their partition key
                 List<AccountingEntryLineEmbeddable> lineEntities = entry.getLines().stream()
                                 .map(line -> new AccountingEntryLineEmbeddable(
                                                 line.accountCode(),
                                                 line.debit(),
-                                                line.credit()))
+                                                line.credit(),
+                                                occurredOn))
                                 .collect(Collectors.toList());
 
-                // Convert LocalDate (Domain) to Instant (Entity)
-                // We use start of day at Chile zone to ensure correct date persistence
-                java.time.ZoneId chileZone = java.time.ZoneId.of("America/Santiago");
-                java.time.Instant occurredOn = entry.getEntryDate().atStartOfDay(chileZone).toInstant();
-
                 return new AccountingEntryEntity(
                                 entry.getId(),
                                 entry.getCompanyId().value(),
@@ -106,9 +135,8 @@ public class AccountingEntryJpaAdapter implements AccountingEntryRepository {
                                 .collect(Collectors.toList());
 
                 // Convert Instant (Entity) to LocalDate (Domain)
-                java.time.ZoneId chileZone = java.time.ZoneId.of("America/Santiago");
                 java.time.LocalDate entryDate = java.time.LocalDate.ofInstant(entity.getOccurredOn(),
-                                chileZone);
+                                CHILE_ZONE);
 
                 return new AccountingEntry(
                                 new CompanyId(entity.getCompanyId()),
@@ -128,13 +156,8 @@ public class AccountingEntryJpaAdapter implements AccountingEntryRepository {
         @Override
         public List<AccountingEntry> findInPeriodForClasses(CompanyId companyId, java.time.LocalDate from,
                         java.time.LocalDate to, List<Integer> classes) {
-                // For simplicity and speed in this demo, fetching all by company and filtering
-                // in memory.
-                // In production with millions of rows, use a custom @Query join or Criteria
-                // API.
-                return findByCompanyId(companyId).stream()
-                                .filter(entry -> !entry.getEntryDate().isBefore(from)
-                                                && !entry.getEntryDate().isAfter(to))
+                // The period is filtered in SQL (partition pruning); the account class in memory
+                return findByCompanyIdAndPeriod(companyId, from, to).stream()
                                 .filter(entry -> entry.getLines().stream()
                                                 .anyMatch(line -> classes.stream()
                                                                 .anyMatch(cls -> line.accountCode()
@@ -143,17 +166,15 @@ public class AccountingEntryJpaAdapter implements AccountingEntryRepository {
         }
 
         @Override
+        @org.springframework.transaction.annotation.Transactional
         public void deleteByReferenceTypeAndPeriod(CompanyId companyId, String referenceType, java.time.LocalDate from,
                         java.time.LocalDate to) {
-                java.time.ZoneId zone = java.time.ZoneId.systemDefault();
-                java.time.Instant startDate = from.atStartOfDay(zone).toInstant();
-                // End of day
-                java.time.Instant endDate = to.atTime(java.time.LocalTime.MAX).atZone(zone).toInstant();
-
-                jpaRepository.deleteByCompanyIdAndReferenceTypeAndOccurredOnBetween(
-                                companyId.value(),
-                                referenceType,
-                                startDate,
-                                endDate);
+                // Two set-based deletes confined to the period's partitions, instead of
+                // loading every entry and deleting its lines one by one
+                Instant startDate = startOf(from);
+                Instant endDate = endOf(to);
+                jpaRepository.deleteLinesInRange(companyId.value(), referenceType, startDate, endDate);
+                jpaRepository.deleteEntriesInRange(companyId.value(), referenceType, startDate, endDate);
+                ledgerVersionRepository.increment(companyId);
         }
 }
@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.UUID;
 
 import com.casrusil.siierpai.modules.accounting.domain.model.AccountMovement;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.math.BigDecimal;
@@ -14,6 +15,22 @@ import java.time.Instant;
 public interface AccountingEntryJpaRepository extends JpaRepository<AccountingEntryEntity, UUID> {
     List<AccountingEntryEntity> findByCompanyId(UUID companyId);
 
+    /**
+     * Asientos de un rango {@code [startDate, endDate)} con sus líneas en una
+     * sola consulta. El filtro por {@code occurredOn} permite descartar las
+     * particiones de otros años fiscales.
+     */
+    @Query("""
+                SELECT DISTINCT e FROM AccountingEntryEntity e
+                LEFT JOIN FETCH e.lines
+                WHERE e.companyId = :companyId
+                AND e.occurredOn >= :startDate AND e.occurredOn < :endDate
+            """)
+    List<AccountingEntryEntity> findInRange(
+            @Param("companyId") UUID companyId,
+            @Param("startDate") Instant startDate,
+            @Param("endDate") Instant endDate);
+
     @Query("""
                 SELECT new com.casrusil.siierpai.modules.accounting.domain.model.AccountMovement(
                     e.id,
@@ -27,7 +44,8 @@ public interface AccountingEntryJpaRepository extends JpaRepository<AccountingEn
                 JOIN e.lines l
                 WHERE e.companyId = :companyId
                 AND l.accountCode = :accountCode
-                AND e.occurredOn BETWEEN :startDate AND :endDate
+                AND e.occurredOn >= :startDate AND e.occurredOn < :endDate
+                AND l.occurredOn >= :startDate AND l.occurredOn < :endDate
                 ORDER BY e.occurredOn ASC
             """)
     List<AccountMovement> findMovementsByAccount(
@@ -36,6 +54,38 @@ public interface AccountingEntryJpaRepository extends JpaRepository<AccountingEn
             @Param("startDate") Instant startDate,
             @Param("endDate") Instant endDate);
 
-    void deleteByCompanyIdAndReferenceTypeAndOccurredOnBetween(UUID companyId, String referenceType, Instant startDate,
-            Instant endDate);
+    /**
+     * Borra las líneas de los asientos de un tipo de referencia en el rango
+     * {@code [startDate, endDate)}. Debe ejecutarse antes de
+     * {@link #deleteEntriesInRange}; ambos borrados quedan acotados a las
+     * particiones del rango.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+                DELETE FROM accounting.accounting_entry_lines
+                WHERE occurred_on >= :startDate AND occurred_on < :endDate
+                AND entry_id IN (
+                    SELECT e.id FROM accounting.accounting_entries e
+                    WHERE e.company_id = :companyId
+                    AND e.reference_type = :referenceType
+                    AND e.occurred_on >= :startDate AND e.occurred_on < :endDate)
+            """, nativeQuery = true)
+    int deleteLinesInRange(
+            @Param("companyId") UUID companyId,
+            @Param("referenceType") String referenceType,
+            @Param("startDate") Instant startDate,
+            @Param("endDate") Instant endDate);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+                DELETE FROM accounting.accounting_entries
+                WHERE company_id = :companyId
+                AND reference_type = :referenceType
+                AND occurred_on >= :startDate AND occurred_on < :endDate
+            """, nativeQuery = true)
+    int deleteEntriesInRange(
+            @Param("companyId") UUID companyId,
+            @Param("referenceType") String referenceType,
+            @Param("startDate") Instant startDate,
+            @Param("endDate") Instant endDate);
 }
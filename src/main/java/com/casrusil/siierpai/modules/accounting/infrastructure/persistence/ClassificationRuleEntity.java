@@ -20,7 +20,9 @@ import java.util.UUID;
  * @since 1.0
  */
 @Entity
-@Table(name = "classification_rules")
+@Table(name = "classification_rules", indexes = {
+        @Index(name = "idx_classification_rules_company", columnList = "company_id")
+})
 public class ClassificationRuleEntity {
 
     @Id
@@ -0,0 +1,105 @@
+package com.casrusil.siierpai.modules.accounting.infrastructure.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Mantiene las particiones anuales del libro diario (migración V3).
+ *
+ * <p>
+ * Al arrancar y cada noche crea, si faltan, las particiones del año en curso y
+ * del siguiente mediante {@code accounting.ensure_journal_partition}, para que
+ * los asientos del 1 de enero nunca caigan en la partición DEFAULT.
+ *
+ * <p>
+ * Los años cerrados ya no reciben escrituras: una vez que tienen más de
+ * {@code accounting.partitioning.freeze-after-years} años se les aplica un
+ * único {@code VACUUM (FREEZE, ANALYZE)}, lo que evita que el autovacuum los
+ * vuelva a recorrer completos por wraparound.
+ *
+ * <h2>Configuración:</h2>
+ * <ul>
+ * <li>{@code accounting.partitioning.enabled} - activa el mantenimiento
+ * (requiere las migraciones de PostgreSQL)</li>
+ * <li>{@code accounting.partitioning.cron} - horario del mantenimiento</li>
+ * <li>{@code accounting.partitioning.freeze-after-years} - antigüedad a partir
+ * de la cual se congela un año</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(name = { "schema.migrations.enabled", "accounting.partitioning.enabled" },
+        havingValue = "true", matchIfMissing = true)
+public class JournalPartitionMaintainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalPartitionMaintainer.class);
+    private static final ZoneId CHILE_ZONE = ZoneId.of("America/Santiago");
+    private static final List<String> JOURNAL_TABLES = List.of("accounting_entries", "accounting_entry_lines");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int freezeAfterYears;
+
+    public JournalPartitionMaintainer(JdbcTemplate jdbcTemplate,
+            @Value("${accounting.partitioning.freeze-after-years:2}") int freezeAfterYears) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.freezeAfterYears = freezeAfterYears;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${accounting.partitioning.cron:0 0 3 * * *}", zone = "America/Santiago")
+    public void maintain() {
+        int currentYear = LocalDate.now(CHILE_ZONE).getYear();
+        try {
+            ensurePartition(currentYear);
+            ensurePartition(currentYear + 1);
+            freezeClosedYears(currentYear - freezeAfterYears);
+        } catch (DataAccessException e) {
+            logger.warn("No se pudo mantener las particiones del libro diario: {}", e.getMessage());
+        }
+    }
+
+    void ensurePartition(int year) {
+        Boolean created = jdbcTemplate.queryForObject("SELECT accounting.ensure_journal_partition(?)",
+                Boolean.class, year);
+        if (Boolean.TRUE.equals(created)) {
+            logger.info("Creada la partición {} del libro diario", year);
+        }
+    }
+
+    /**
+     * Congela las particiones de años anteriores o iguales a {@code lastYear}
+     * que nunca han pasado por un VACUUM manual.
+     */
+    void freezeClosedYears(int lastYear) {
+        for (String table : JOURNAL_TABLES) {
+            List<String> partitions = jdbcTemplate.queryForList("""
+                    SELECT relname FROM pg_stat_user_tables
+                    WHERE schemaname = 'accounting'
+                      AND relname ~ ?
+                      AND substring(relname FROM '_y([0-9]{4})$')::int <= ?
+                      AND last_vacuum IS NULL
+                    ORDER BY relname
+                    """, String.class, "^" + table + "_y[0-9]{4}$", lastYear);
+            for (String partition : partitions) {
+                // VACUUM no admite parámetros ni transacciones; el nombre viene del catálogo
+                jdbcTemplate.execute("VACUUM (FREEZE, ANALYZE) accounting.\"" + partition + "\"");
+                logger.info("Partición {} congelada", partition);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.casrusil.siierpai.modules.accounting.infrastructure.persistence.adapter;
+
+import com.casrusil.siierpai.modules.accounting.domain.model.F29Submission;
+import com.casrusil.siierpai.modules.accounting.domain.model.F29SubmissionStatus;
+import com.casrusil.siierpai.modules.accounting.domain.port.out.F29SubmissionRepository;
+import com.casrusil.siierpai.modules.accounting.infrastructure.persistence.entity.F29SubmissionEntity;
+import com.casrusil.siierpai.modules.accounting.infrastructure.persistence.repository.F29SubmissionJpaRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Adaptador de persistencia para envíos de F29.
+ *
+ * <p>
+ * Implementa {@link F29SubmissionRepository}; el reclamo de envíos usa
+ * {@code FOR UPDATE SKIP LOCKED} y deja el lease grabado en la misma
+ * transacción.
+ *
+ * @since 1.0
+ */
+@Component
+public class F29SubmissionJpaAdapter implements F29SubmissionRepository {
+
+    private static final EnumSet<F29SubmissionStatus> PENDING = EnumSet.of(F29SubmissionStatus.QUEUED,
+            F29SubmissionStatus.SENT);
+
+    private final F29SubmissionJpaRepository jpaRepository;
+
+    public F29SubmissionJpaAdapter(F29SubmissionJpaRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+
+    @Override
+    public F29Submission save(F29Submission submission) {
+        return toDomain(jpaRepository.save(toEntity(submission)));
+    }
+
+    @Override
+    public F29Submission insert(F29Submission submission) {
+        // Flush now so a unique-index violation surfaces here, not at some later commit
+        return toDomain(jpaRepository.saveAndFlush(toEntity(submission)));
+    }
+
+    @Override
+    public Optional<F29Submission> findById(CompanyId companyId, UUID id) {
+        return jpaRepository.findByIdAndCompanyId(id, companyId.value()).map(this::toDomain);
+    }
+
+    @Override
+    public Optional<F29Submission> findPending(CompanyId companyId, YearMonth period) {
+        return jpaRepository
+                .findFirstByCompanyIdAndPeriodAndStatusInOrderByCreatedAtDesc(companyId.value(), period.toString(),
+                        PENDING)
+                .map(this::toDomain);
+    }
+
+    @Override
+    public List<F29Submission> findRecent(CompanyId companyId, int limit) {
+        return jpaRepository.findByCompanyIdOrderByCreatedAtDesc(companyId.value(), Limit.of(limit)).stream()
+                .map(this::toDomain)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public List<F29Submission> claim(F29SubmissionStatus status, Instant now, Instant leaseUntil, int limit) {
+        List<F29SubmissionEntity> rows = jpaRepository.lockNextAvailable(status.name(), now, limit);
+        rows.forEach(row -> row.lease(leaseUntil));
+        return jpaRepository.saveAll(rows).stream()
+                .map(this::toDomain)
+                .toList();
+    }
+
+    private F29SubmissionEntity toEntity(F29Submission domain) {
+        return new F29SubmissionEntity(
+                domain.id(),
+                domain.companyId().value(),
+                domain.period().toString(),
+                domain.status(),
+                domain.amountToPay(),
+                domain.trackId(),
+                domain.detail(),
+                domain.attempts(),
+                domain.createdAt(),
+                domain.updatedAt(),
+                domain.availableAt());
+    }
+
+    private F29Submission toDomain(F29SubmissionEntity entity) {
+        return new F29Submission(
+                entity.getId(),
+                new CompanyId(entity.getCompanyId()),
+                YearMonth.parse(entity.getPeriod()),
+                entity.getStatus(),
+                entity.getAmountToPay(),
+                entity.getTrackId(),
+                entity.getDetail(),
+                entity.getAttempts(),
+                entity.getCreatedAt(),
+                entity.getUpdatedAt(),
+                entity.getAvailableAt());
+    }
+}
@@ -0,0 +1,78 @@
+package com.casrusil.siierpai.modules.accounting.infrastructure.persistence.adapter;
+
+import com.casrusil.siierpai.modules.accounting.domain.port.out.LedgerVersionRepository;
+import com.casrusil.siierpai.modules.accounting.infrastructure.persistence.repository.LedgerVersionJpaRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Adaptador de persistencia para la versión del libro diario.
+ *
+ * <p>
+ * Dentro de una transacción las empresas modificadas se acumulan y el
+ * contador se incrementa una vez por empresa justo antes del commit: una
+ * importación masiva hace un solo {@code UPDATE} y el bloqueo de la fila dura
+ * solo lo que tarda el commit. Fuera de una transacción se incrementa de
+ * inmediato.
+ *
+ * @since 1.0
+ */
+@Component
+public class LedgerVersionJpaAdapter implements LedgerVersionRepository {
+
+    private final LedgerVersionJpaRepository jpaRepository;
+
+    public LedgerVersionJpaAdapter(LedgerVersionJpaRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+
+    @Override
+    public long currentVersion(CompanyId companyId) {
+        return jpaRepository.findVersion(companyId.value()).orElse(0L);
+    }
+
+    @Override
+    public void increment(CompanyId companyId) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(companyId.value());
+            return;
+        }
+
+        PendingIncrements pending = (PendingIncrements) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingIncrements();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.companies.add(companyId.value());
+    }
+
+    private void bump(UUID companyId) {
+        if (jpaRepository.increment(companyId) == 0) {
+            jpaRepository.insertIfAbsent(companyId);
+            jpaRepository.increment(companyId);
+        }
+    }
+
+    private final class PendingIncrements implements TransactionSynchronization {
+
+        private final Set<UUID> companies = new LinkedHashSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            companies.forEach(LedgerVersionJpaAdapter.this::bump);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(LedgerVersionJpaAdapter.this);
+        }
+    }
+}
@@ -22,7 +22,9 @@ import java.util.UUID;
  * @since 1.0
  */
 @Entity
-@Table(name = "accounts", schema = "accounting")
+@Table(name = "accounts", schema = "accounting", indexes = {
+        @Index(name = "idx_accounts_company_code", columnList = "company_id, code")
+})
 public class AccountEntity {
 
     @Id
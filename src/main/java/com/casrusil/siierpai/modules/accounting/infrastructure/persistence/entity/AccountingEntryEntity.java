@@ -17,10 +17,18 @@ import java.util.UUID;
  * <p>
  * Incluye metadatos como fecha, glosa general y estado.
  * 
+ * <p>
+ * En PostgreSQL la tabla y sus líneas están particionadas por año fiscal
+ * sobre {@code occurred_on} (migración V3); las consultas deben filtrar por
+ * esa columna para que el planner descarte particiones.
+ * 
  * @since 1.0
  */
 @Entity
-@Table(name = "accounting_entries", schema = "accounting")
+@Table(name = "accounting_entries", schema = "accounting", indexes = {
+        @Index(name = "idx_accounting_entries_company_occurred", columnList = "company_id, occurred_on"),
+        @Index(name = "idx_accounting_entries_company_reference", columnList = "company_id, reference_type, occurred_on")
+})
 public class AccountingEntryEntity {
 
     @Id
@@ -61,7 +69,13 @@ public class AccountingEntryEntity {
     private com.casrusil.siierpai.modules.accounting.domain.model.EntryType type;
 
     @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "accounting_entry_lines", schema = "accounting", joinColumns = @JoinColumn(name = "entry_id"))
+    // Sin FK: en PostgreSQL ambas tablas están particionadas por occurred_on
+    @CollectionTable(name = "accounting_entry_lines", schema = "accounting",
+            joinColumns = @JoinColumn(name = "entry_id"),
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT), indexes = {
+            @Index(name = "idx_entry_lines_entry", columnList = "entry_id"),
+            @Index(name = "idx_entry_lines_account", columnList = "account_code, entry_id")
+    })
     private List<AccountingEntryLineEmbeddable> lines = new ArrayList<>();
 
     public AccountingEntryEntity() {
@@ -3,6 +3,7 @@ package com.casrusil.siierpai.modules.accounting.infrastructure.persistence.enti
 import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @Embeddable
 public class AccountingEntryLineEmbeddable {
@@ -16,13 +17,22 @@ public class AccountingEntryLineEmbeddable {
     @Column(nullable = false)
     private BigDecimal credit;
 
+    /**
+     * Copia de la fecha del asiento: es la clave de partición de
+     * {@code accounting_entry_lines}, igual que en {@code accounting_entries}.
+     */
+    @Column(name = "occurred_on")
+    private Instant occurredOn;
+
     public AccountingEntryLineEmbeddable() {
     }
 
-    public AccountingEntryLineEmbeddable(String accountCode, BigDecimal debit, BigDecimal credit) {
+    public AccountingEntryLineEmbeddable(String accountCode, BigDecimal debit, BigDecimal credit,
+            Instant occurredOn) {
         this.accountCode = accountCode;
         this.debit = debit;
         this.credit = credit;
+        this.occurredOn = occurredOn;
     }
 
     public String getAccountCode() {
@@ -48,4 +58,12 @@ public class AccountingEntryLineEmbeddable {
     public void setCredit(BigDecimal credit) {
         this.credit = credit;
     }
+
+    public Instant getOccurredOn() {
+        return occurredOn;
+    }
+
+    public void setOccurredOn(Instant occurredOn) {
+        this.occurredOn = occurredOn;
+    }
 }
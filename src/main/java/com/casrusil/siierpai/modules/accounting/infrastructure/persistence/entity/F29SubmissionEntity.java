@@ -0,0 +1,129 @@
+package com.casrusil.siierpai.modules.accounting.infrastructure.persistence.entity;
+
+import com.casrusil.siierpai.modules.accounting.domain.model.F29SubmissionStatus;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Entidad JPA de un envío de F29 al SII.
+ *
+ * <p>
+ * La tabla es a la vez el historial de declaraciones y la cola de trabajo de
+ * los workers: {@code (status, available_at)} es el índice por el que se
+ * reclaman los envíos pendientes. El índice único parcial que admite un solo
+ * envío en curso por empresa y periodo existe solo en la migración
+ * {@code V5}.
+ *
+ * @since 1.0
+ */
+@Entity
+@Table(name = "f29_submissions", schema = "accounting", indexes = {
+        @Index(name = "idx_f29_submissions_status_available", columnList = "status, available_at"),
+        @Index(name = "idx_f29_submissions_company_period", columnList = "company_id, period")
+})
+public class F29SubmissionEntity {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "company_id", nullable = false)
+    private UUID companyId;
+
+    @Column(nullable = false, length = 7) // Format: YYYY-MM
+    private String period;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private F29SubmissionStatus status;
+
+    @Column(name = "amount_to_pay", precision = 19, scale = 2)
+    private BigDecimal amountToPay;
+
+    @Column(name = "track_id", length = 64)
+    private String trackId;
+
+    @Column(length = 1000)
+    private String detail;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "available_at", nullable = false)
+    private Instant availableAt;
+
+    public F29SubmissionEntity() {
+    }
+
+    public F29SubmissionEntity(UUID id, UUID companyId, String period, F29SubmissionStatus status,
+            BigDecimal amountToPay, String trackId, String detail, int attempts, Instant createdAt,
+            Instant updatedAt, Instant availableAt) {
+        this.id = id;
+        this.companyId = companyId;
+        this.period = period;
+        this.status = status;
+        this.amountToPay = amountToPay;
+        this.trackId = trackId;
+        this.detail = detail != null && detail.length() > 1000 ? detail.substring(0, 1000) : detail;
+        this.attempts = attempts;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.availableAt = availableAt;
+    }
+
+    public void lease(Instant leaseUntil) {
+        this.availableAt = leaseUntil;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public F29SubmissionStatus getStatus() {
+        return status;
+    }
+
+    public BigDecimal getAmountToPay() {
+        return amountToPay;
+    }
+
+    public String getTrackId() {
+        return trackId;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Instant getAvailableAt() {
+        return availableAt;
+    }
+}
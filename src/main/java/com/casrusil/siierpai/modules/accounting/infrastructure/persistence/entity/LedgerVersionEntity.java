@@ -0,0 +1,49 @@
+package com.casrusil.siierpai.modules.accounting.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import java.util.UUID;
+
+/**
+ * Entidad JPA con la versión del libro diario de una empresa.
+ *
+ * <p>
+ * Una fila por empresa; {@code version} solo se incrementa con un
+ * {@code UPDATE} atómico en la misma transacción que escribe los asientos.
+ *
+ * @since 1.0
+ */
+@Entity
+@Table(name = "ledger_versions", schema = "accounting")
+public class LedgerVersionEntity {
+
+    @Id
+    @Column(name = "company_id")
+    private UUID companyId;
+
+    @Column(nullable = false)
+    private long version;
+
+    public LedgerVersionEntity() {
+    }
+
+    public LedgerVersionEntity(UUID companyId, long version) {
+        this.companyId = companyId;
+        this.version = version;
+    }
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public void setCompanyId(UUID companyId) {
+        this.companyId = companyId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
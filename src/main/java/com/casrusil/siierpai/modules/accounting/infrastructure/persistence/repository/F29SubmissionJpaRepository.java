@@ -0,0 +1,46 @@
+package com.casrusil.siierpai.modules.accounting.infrastructure.persistence.repository;
+
+import com.casrusil.siierpai.modules.accounting.domain.model.F29SubmissionStatus;
+import com.casrusil.siierpai.modules.accounting.infrastructure.persistence.entity.F29SubmissionEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repositorio JPA para envíos de F29.
+ *
+ * @since 1.0
+ */
+@Repository
+public interface F29SubmissionJpaRepository extends JpaRepository<F29SubmissionEntity, UUID> {
+
+    Optional<F29SubmissionEntity> findByIdAndCompanyId(UUID id, UUID companyId);
+
+    Optional<F29SubmissionEntity> findFirstByCompanyIdAndPeriodAndStatusInOrderByCreatedAtDesc(UUID companyId,
+            String period, Collection<F29SubmissionStatus> statuses);
+
+    List<F29SubmissionEntity> findByCompanyIdOrderByCreatedAtDesc(UUID companyId, Limit limit);
+
+    /**
+     * Bloquea los próximos envíos disponibles. Los ya bloqueados por otro
+     * worker se saltan ({@code SKIP LOCKED}) en lugar de esperar.
+     * Debe ejecutarse dentro de una transacción.
+     */
+    @Query(value = """
+            SELECT * FROM accounting.f29_submissions
+            WHERE status = :status AND available_at <= :now
+            ORDER BY available_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<F29SubmissionEntity> lockNextAvailable(@Param("status") String status, @Param("now") Instant now,
+            @Param("limit") int limit);
+}
@@ -0,0 +1,41 @@
+package com.casrusil.siierpai.modules.accounting.infrastructure.persistence.repository;
+
+import com.casrusil.siierpai.modules.accounting.infrastructure.persistence.entity.LedgerVersionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repositorio JPA para la versión del libro diario.
+ *
+ * @since 1.0
+ */
+@Repository
+public interface LedgerVersionJpaRepository extends JpaRepository<LedgerVersionEntity, UUID> {
+
+    @Query("SELECT v.version FROM LedgerVersionEntity v WHERE v.companyId = :companyId")
+    Optional<Long> findVersion(@Param("companyId") UUID companyId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE LedgerVersionEntity v SET v.version = v.version + 1 WHERE v.companyId = :companyId")
+    int increment(@Param("companyId") UUID companyId);
+
+    /**
+     * Crea la fila de la empresa si no existe; dos transacciones que la crean
+     * a la vez no fallan.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+                INSERT INTO accounting.ledger_versions (company_id, version) VALUES (:companyId, 0)
+                ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("companyId") UUID companyId);
+}
@@ -0,0 +1,73 @@
+package com.casrusil.siierpai.modules.accounting.infrastructure.web;
+
+import com.casrusil.siierpai.modules.accounting.domain.event.F29SubmissionStatusChangedEvent;
+import com.casrusil.siierpai.modules.accounting.infrastructure.web.dto.F29SubmissionDto;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Canal SSE con el avance de los envíos de F29 de cada empresa.
+ *
+ * <p>
+ * Cada {@link F29SubmissionStatusChangedEvent} se reenvía como evento
+ * {@code f29-submission} a los clientes suscritos a la empresa del envío.
+ * Los emisores cerrados o con error se descartan.
+ *
+ * @see ReportingController
+ */
+@Component
+public class F29SubmissionEventStream {
+
+    static final String EVENT_NAME = "f29-submission";
+
+    private final Map<CompanyId, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe(CompanyId companyId, long timeoutMillis) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        emitters.compute(companyId, (k, list) -> {
+            List<SseEmitter> updated = list != null ? list : new CopyOnWriteArrayList<>();
+            updated.add(emitter);
+            return updated;
+        });
+
+        emitter.onCompletion(() -> remove(companyId, emitter));
+        emitter.onTimeout(() -> remove(companyId, emitter));
+        emitter.onError(e -> remove(companyId, emitter));
+
+        return emitter;
+    }
+
+    @EventListener
+    public void onStatusChanged(F29SubmissionStatusChangedEvent event) {
+        List<SseEmitter> companyEmitters = emitters.get(event.submission().companyId());
+        if (companyEmitters == null || companyEmitters.isEmpty()) {
+            return;
+        }
+        F29SubmissionDto dto = F29SubmissionDto.from(event.submission());
+        for (SseEmitter emitter : companyEmitters) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .id(dto.submissionId() + ":" + dto.status())
+                        .data(dto));
+            } catch (IOException | IllegalStateException e) {
+                remove(event.submission().companyId(), emitter);
+            }
+        }
+    }
+
+    private void remove(CompanyId companyId, SseEmitter emitter) {
+        emitters.computeIfPresent(companyId, (k, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
@@ -1,26 +1,33 @@
 package com.casrusil.siierpai.modules.accounting.infrastructure.web;
 
+import com.casrusil.siierpai.modules.accounting.application.service.F29SubmissionService;
+import com.casrusil.siierpai.modules.accounting.application.service.ReportCache;
 import com.casrusil.siierpai.modules.accounting.domain.model.BalanceSheetReport;
-import com.casrusil.siierpai.modules.accounting.domain.model.F29Report;
+import com.casrusil.siierpai.modules.accounting.domain.model.F29Submission;
 import com.casrusil.siierpai.modules.accounting.domain.service.BalanceSheetService;
-import com.casrusil.siierpai.modules.accounting.domain.service.F29CalculatorService;
-import com.casrusil.siierpai.modules.accounting.domain.service.F29SenderService;
+import com.casrusil.siierpai.modules.accounting.infrastructure.web.dto.F29SubmissionDto;
 import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
 import com.casrusil.siierpai.modules.invoicing.domain.port.in.SearchInvoicesUseCase;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
+import com.casrusil.siierpai.shared.infrastructure.reporting.ExcelColumn;
 import com.casrusil.siierpai.shared.infrastructure.reporting.ExcelExportService;
+import com.casrusil.siierpai.shared.infrastructure.reporting.ExcelSheetWriter;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.YearMonth;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.UUID;
 
 /**
  * Controlador REST para reportes financieros y fiscales.
@@ -33,11 +40,24 @@ import java.util.Map;
  * <ul>
  * <li>{@code GET /api/v1/reports/sales/excel}: Descargar reporte de ventas en
  * Excel.</li>
+ * <li>{@code GET /api/v1/reports/weekly/pdf}: Descargar el reporte semanal en
+ * PDF.</li>
  * <li>{@code GET /api/v1/reports/balance-sheet}: Obtener Balance General.</li>
- * <li>{@code POST /api/v1/reports/f29/submit}: Enviar declaración F29 al
- * SII.</li>
+ * <li>{@code GET /api/v1/reports/income-statement}: Obtener Estado de
+ * Resultados.</li>
+ * <li>{@code POST /api/v1/reports/f29/submit}: Encolar la declaración F29
+ * para su envío al SII ({@code 202 Accepted}).</li>
+ * <li>{@code GET /api/v1/reports/f29/submissions/{id}}: Estado de un
+ * envío.</li>
+ * <li>{@code GET /api/v1/reports/f29/submissions/events}: Avance de los envíos
+ * de la empresa por SSE.</li>
  * </ul>
  * 
+ * <p>
+ * Los reportes derivados del libro se sirven desde {@link ReportCache} con
+ * ETag: mientras no se contabilicen asientos, {@code If-None-Match} responde
+ * {@code 304 Not Modified} sin recalcular nada.
+ * 
  * @see ExcelExportService
  * @see BalanceSheetService
  * @since 1.0
@@ -46,28 +66,39 @@ import java.util.Map;
 @RequestMapping("/api/v1/reports")
 public class ReportingController {
 
+    private static final List<ExcelColumn<Invoice>> SALES_COLUMNS = List.of(
+            ExcelColumn.of("Folio", Invoice::getFolio),
+            ExcelColumn.of("RUT Emisor", Invoice::getIssuerRut, 12),
+            ExcelColumn.of("Fecha", Invoice::getDate, 12),
+            ExcelColumn.of("Monto Neto", Invoice::getNetAmount),
+            ExcelColumn.of("IVA", Invoice::getTaxAmount),
+            ExcelColumn.of("Total", Invoice::getTotalAmount));
+
     private final SearchInvoicesUseCase searchInvoicesUseCase;
     private final ExcelExportService excelExportService;
     private final BalanceSheetService balanceSheetService;
-    private final F29CalculatorService f29CalculatorService;
-    private final F29SenderService f29SenderService;
+    private final F29SubmissionService f29SubmissionService;
+    private final F29SubmissionEventStream f29SubmissionEventStream;
     private final com.casrusil.siierpai.modules.accounting.application.service.ReportingService reportingService;
     private final com.casrusil.siierpai.modules.accounting.application.service.WeeklyReportService weeklyReportService;
+    private final ReportCache reportCache;
 
     public ReportingController(SearchInvoicesUseCase searchInvoicesUseCase,
             ExcelExportService excelExportService,
             BalanceSheetService balanceSheetService,
-            F29CalculatorService f29CalculatorService,
-            F29SenderService f29SenderService,
+            F29SubmissionService f29SubmissionService,
+            F29SubmissionEventStream f29SubmissionEventStream,
             com.casrusil.siierpai.modules.accounting.application.service.ReportingService reportingService,
-            com.casrusil.siierpai.modules.accounting.application.service.WeeklyReportService weeklyReportService) {
+            com.casrusil.siierpai.modules.accounting.application.service.WeeklyReportService weeklyReportService,
+            ReportCache reportCache) {
         this.searchInvoicesUseCase = searchInvoicesUseCase;
         this.excelExportService = excelExportService;
         this.balanceSheetService = balanceSheetService;
-        this.f29CalculatorService = f29CalculatorService;
-        this.f29SenderService = f29SenderService;
+        this.f29SubmissionService = f29SubmissionService;
+        this.f29SubmissionEventStream = f29SubmissionEventStream;
         this.reportingService = reportingService;
         this.weeklyReportService = weeklyReportService;
+        this.reportCache = reportCache;
     }
 
     @PostMapping("/weekly/generate")
@@ -87,66 +118,118 @@ public class ReportingController {
     @GetMapping("/income-statement")
     public ResponseEntity<com.casrusil.siierpai.modules.accounting.domain.dto.IncomeStatementReportDTO> getIncomeStatement(
             @RequestParam(defaultValue = "#{T(java.time.LocalDate).now().getMonthValue()}") int month,
-            @RequestParam(defaultValue = "#{T(java.time.LocalDate).now().getYear()}") int year) {
-        return ResponseEntity.ok(reportingService.generateIncomeStatement(month, year));
+            @RequestParam(defaultValue = "#{T(java.time.LocalDate).now().getYear()}") int year,
+            WebRequest request) {
+        ReportCache.ReportKey key = reportCache.key(CompanyContext.requireCompanyId(), "income-statement", year,
+                month);
+        if (request.checkNotModified(key.etag())) {
+            return null;
+        }
+        return cached(key, () -> reportingService.generateIncomeStatement(month, year));
     }
 
     @GetMapping("/sales/excel")
-    public ResponseEntity<byte[]> downloadSalesExcel(@RequestParam(name = "period", required = false) String periodStr)
-            throws IOException {
+    public ResponseEntity<StreamingResponseBody> downloadSalesExcel(
+            @RequestParam(name = "period", required = false) String periodStr) {
         CompanyId companyId = CompanyContext.requireCompanyId();
         YearMonth period = (periodStr != null) ? YearMonth.parse(periodStr) : YearMonth.now();
 
-        List<Invoice> invoices = searchInvoicesUseCase.getInvoicesByCompany(companyId);
-        // Filter by period
-        LocalDate start = period.atDay(1);
-        LocalDate end = period.atEndOfMonth();
-        List<Invoice> filtered = invoices.stream()
-                .filter(inv -> !inv.getDate().isBefore(start) && !inv.getDate().isAfter(end))
-                .toList();
-
-        List<String> headers = List.of("Folio", "RUT Emisor", "Fecha", "Monto Neto", "IVA", "Total");
-        List<List<Object>> data = new ArrayList<>();
-        for (Invoice inv : filtered) {
-            data.add(List.of(
-                    inv.getFolio(),
-                    inv.getIssuerRut(),
-                    inv.getDate(),
-                    inv.getNetAmount(),
-                    inv.getTaxAmount(),
-                    inv.getTotalAmount()));
-        }
-
-        byte[] excelBytes = excelExportService.generateExcel("Ventas " + period, headers, data);
+        // Written straight to the response from a database cursor; runs after the
+        // handler returns, so the company is captured here
+        StreamingResponseBody body = out -> {
+            try (ExcelSheetWriter<Invoice> sheet = excelExportService.openSheet("Ventas " + period, SALES_COLUMNS,
+                    out)) {
+                searchInvoicesUseCase.forEachInvoiceInPeriod(companyId, period.atDay(1), period.atEndOfMonth(),
+                        sheet::write);
+            }
+        };
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=sales_report_" + period + ".xlsx")
                 .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(excelBytes);
+                .body(body);
+    }
+
+    @GetMapping("/weekly/pdf")
+    public ResponseEntity<StreamingResponseBody> downloadWeeklyReport(
+            @RequestParam(name = "from", required = false) String fromStr,
+            @RequestParam(name = "to", required = false) String toStr) {
+        CompanyId companyId = CompanyContext.requireCompanyId();
+        LocalDate to = (toStr != null) ? LocalDate.parse(toStr) : LocalDate.now();
+        LocalDate from = (fromStr != null) ? LocalDate.parse(fromStr) : to.minusDays(7);
+
+        StreamingResponseBody body = out -> weeklyReportService.writeWeeklyReport(companyId, from, to, out);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=weekly_report_" + from + "_" + to
+                        + ".pdf")
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(body);
     }
 
     @GetMapping("/balance-sheet")
     public ResponseEntity<BalanceSheetReport> getBalanceSheet(
-            @RequestParam(name = "date", required = false) String dateStr) {
+            @RequestParam(name = "date", required = false) String dateStr,
+            WebRequest request) {
         CompanyId companyId = CompanyContext.requireCompanyId();
         LocalDate date = (dateStr != null) ? LocalDate.parse(dateStr) : LocalDate.now();
 
-        BalanceSheetReport report = balanceSheetService.generateBalanceSheet(companyId, date);
-        return ResponseEntity.ok(report);
+        ReportCache.ReportKey key = reportCache.key(companyId, "balance-sheet", date);
+        if (request.checkNotModified(key.etag())) {
+            return null;
+        }
+        return cached(key, () -> balanceSheetService.generateBalanceSheet(companyId, date));
+    }
+
+    /**
+     * Responde el reporte desde la caché con su ETag; el cliente debe
+     * revalidar siempre ({@code no-cache}) y recibe 304 mientras el libro no
+     * cambie.
+     */
+    private <T> ResponseEntity<T> cached(ReportCache.ReportKey key, java.util.function.Supplier<T> loader) {
+        return ResponseEntity.ok()
+                .eTag(key.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(reportCache.get(key, loader));
     }
 
+    /**
+     * Encola la declaración y responde de inmediato; el cálculo, la firma y el
+     * envío al SII ocurren en los workers. El avance se consulta en
+     * {@code Location} o se recibe por {@code /f29/submissions/events}.
+     */
     @PostMapping("/f29/submit")
-    public ResponseEntity<Map<String, String>> submitF29(@RequestParam("period") String periodStr) {
+    public ResponseEntity<F29SubmissionDto> submitF29(@RequestParam("period") String periodStr) {
         CompanyId companyId = CompanyContext.requireCompanyId();
         YearMonth period = YearMonth.parse(periodStr);
 
-        F29Report report = f29CalculatorService.calculateF29(companyId, period);
-        String transactionId = f29SenderService.sendDeclaration(companyId, report);
+        F29Submission submission = f29SubmissionService.submit(companyId, period);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/reports/f29/submissions/" + submission.id()))
+                .body(F29SubmissionDto.from(submission));
+    }
+
+    @GetMapping("/f29/submissions/{submissionId}")
+    public ResponseEntity<F29SubmissionDto> getF29Submission(@PathVariable UUID submissionId) {
+        CompanyId companyId = CompanyContext.requireCompanyId();
+        return f29SubmissionService.find(companyId, submissionId)
+                .map(F29SubmissionDto::from)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/f29/submissions")
+    public List<F29SubmissionDto> listF29Submissions(@RequestParam(defaultValue = "12") int limit) {
+        CompanyId companyId = CompanyContext.requireCompanyId();
+        return f29SubmissionService.findRecent(companyId, Math.min(Math.max(limit, 1), 100)).stream()
+                .map(F29SubmissionDto::from)
+                .toList();
+    }
 
-        return ResponseEntity.ok(Map.of(
-                "status", "SUBMITTED",
-                "transactionId", transactionId,
-                "period", period.toString(),
-                "amountToPay", report.vatPayable().toString()));
+    @GetMapping(value = "/f29/submissions/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamF29Submissions() {
+        return f29SubmissionEventStream.subscribe(CompanyContext.requireCompanyId(),
+                Duration.ofMinutes(30).toMillis());
     }
 }
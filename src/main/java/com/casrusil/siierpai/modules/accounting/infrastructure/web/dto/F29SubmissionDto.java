@@ -0,0 +1,35 @@
+package com.casrusil.siierpai.modules.accounting.infrastructure.web.dto;
+
+import com.casrusil.siierpai.modules.accounting.domain.model.F29Submission;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * DTO del estado de un envío de F29 (respuesta REST y eventos SSE).
+ */
+public record F29SubmissionDto(
+        UUID submissionId,
+        String period, // Ej: "2025-10"
+        String status, // QUEUED, SENT, ACCEPTED, REJECTED
+        BigDecimal amountToPay, // null hasta que el worker calcula el formulario
+        String trackId, // Track ID del SII, una vez recibido
+        String detail, // Glosa del SII o último error
+        int attempts,
+        Instant createdAt,
+        Instant updatedAt) {
+
+    public static F29SubmissionDto from(F29Submission submission) {
+        return new F29SubmissionDto(
+                submission.id(),
+                submission.period().toString(),
+                submission.status().name(),
+                submission.amountToPay(),
+                submission.trackId(),
+                submission.detail(),
+                submission.attempts(),
+                submission.createdAt(),
+                submission.updatedAt());
+    }
+}
@@ -0,0 +1,31 @@
+package com.casrusil.siierpai.modules.ai_assistant.application.service;
+
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.Message;
+
+import java.util.List;
+
+/**
+ * Receives the events of a streamed assistant answer.
+ * Callbacks arrive on the model's I/O thread, in order, never concurrently.
+ */
+public interface ChatStreamListener {
+
+    /**
+     * A partial token of the answer.
+     */
+    void onToken(String token);
+
+    /**
+     * The model requested tools; their results are fed back before the answer
+     * continues.
+     */
+    default void onToolCalls(List<String> toolNames) {
+    }
+
+    /**
+     * The full answer, already stored in the conversation.
+     */
+    void onComplete(Message message);
+
+    void onError(Throwable error);
+}
@@ -0,0 +1,110 @@
+package com.casrusil.siierpai.modules.ai_assistant.application.service;
+
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.ReindexCheckpoint;
+import com.casrusil.siierpai.modules.ai_assistant.domain.port.out.ReindexCheckpointRepository;
+import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceCursor;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoicePage;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceQuery;
+import com.casrusil.siierpai.modules.invoicing.domain.port.in.SearchInvoicesUseCase;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.infrastructure.config.VirtualThreadConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Bulk "reindex company" job.
+ *
+ * <p>
+ * Walks every invoice of a company in ascending ID order, one keyset page per
+ * chunk ({@code id > :after ORDER BY id LIMIT :n}, so the database defines the
+ * order), and feeds each page to
+ * {@link DocumentIndexingService#indexInvoices(List)}. Only one chunk is held
+ * in memory at a time. Unchanged
+ * invoices are skipped by the content-hash cache, so a reindex only pays
+ * inference for documents whose text actually changed.
+ *
+ * <p>
+ * A {@link ReindexCheckpoint} is persisted after every chunk; an interrupted
+ * run resumes after the last checkpointed invoice instead of starting over.
+ */
+@Service
+public class CompanyReindexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompanyReindexService.class);
+
+    private final SearchInvoicesUseCase searchInvoicesUseCase;
+    private final DocumentIndexingService documentIndexingService;
+    private final ReindexCheckpointRepository checkpointRepository;
+    private final int chunkSize;
+
+    public CompanyReindexService(SearchInvoicesUseCase searchInvoicesUseCase,
+            DocumentIndexingService documentIndexingService,
+            ReindexCheckpointRepository checkpointRepository,
+            @Value("${ai.indexing.reindex-chunk-size:200}") int chunkSize) {
+        this.searchInvoicesUseCase = searchInvoicesUseCase;
+        this.documentIndexingService = documentIndexingService;
+        this.checkpointRepository = checkpointRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Starts (or resumes) a reindex in the background. The indexing bulkhead
+     * allows one reindex per company and rejects the request when saturated.
+     */
+    @Async(VirtualThreadConfig.INDEXING_TASK_EXECUTOR)
+    public void reindexCompanyAsync(CompanyId companyId) {
+        reindexCompany(companyId);
+    }
+
+    /**
+     * Reindexes all invoices of the company, resuming from the last checkpoint
+     * if a previous run did not complete.
+     *
+     * @return the final checkpoint
+     */
+    public ReindexCheckpoint reindexCompany(CompanyId companyId) {
+        ReindexCheckpoint checkpoint = checkpointRepository.findByCompanyId(companyId)
+                .filter(previous -> !previous.completed())
+                .orElseGet(() -> ReindexCheckpoint.start(companyId));
+        UUID resumeAfter = checkpoint.lastDocumentId();
+
+        if (resumeAfter != null) {
+            logger.info("Resuming reindex of company {} after {} documents", companyId, checkpoint.processed());
+        }
+
+        InvoiceQuery query = InvoiceQuery.forCompany(companyId).orderBy(InvoiceQuery.Order.ID_ASC);
+        // ID_ASC pages only compare the ID, so the checkpoint alone is a valid cursor
+        InvoiceCursor after = resumeAfter != null ? new InvoiceCursor(null, resumeAfter) : null;
+
+        InvoicePage<Invoice> page;
+        do {
+            page = searchInvoicesUseCase.searchInvoicePage(query, after, chunkSize);
+            List<Invoice> chunk = page.items();
+            if (chunk.isEmpty()) {
+                break;
+            }
+            documentIndexingService.indexInvoices(chunk);
+            UUID lastId = chunk.get(chunk.size() - 1).getId();
+            checkpoint = checkpoint.advance(lastId, chunk.size());
+            checkpointRepository.save(checkpoint);
+            after = page.next();
+        } while (page.hasNext());
+
+        checkpoint = checkpoint.complete();
+        checkpointRepository.save(checkpoint);
+        logger.info("Reindex of company {} completed: {} documents processed", companyId, checkpoint.processed());
+        return checkpoint;
+    }
+
+    public Optional<ReindexCheckpoint> getCheckpoint(CompanyId companyId) {
+        return checkpointRepository.findByCompanyId(companyId);
+    }
+}
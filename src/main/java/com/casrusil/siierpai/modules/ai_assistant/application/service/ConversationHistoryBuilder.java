@@ -0,0 +1,170 @@
+package com.casrusil.siierpai.modules.ai_assistant.application.service;
+
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.Conversation;
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.Message;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the message history sent to the model within a token budget.
+ *
+ * <p>
+ * Recent turns are sent verbatim. When the unsummarized history exceeds
+ * {@code ai.conversation.history.token-budget}, the oldest turns are folded
+ * into a rolling summary (one extra model call) until the verbatim part fits
+ * in {@code retain-ratio} of the budget, keeping at least
+ * {@code min-recent-messages}. Compaction leaves headroom, so it only happens
+ * every few turns and the prompt size per turn stays roughly constant.
+ *
+ * <p>
+ * Tokens are estimated at ~4 characters per token; the estimate only needs
+ * to be stable, not exact.
+ */
+@Component
+public class ConversationHistoryBuilder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationHistoryBuilder.class);
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final String SUMMARY_INSTRUCTIONS = "Resume la siguiente conversación entre un usuario y un "
+            + "asistente contable. Conserva cifras, RUTs, folios, períodos y decisiones. Máximo 200 palabras.";
+
+    private final ChatLanguageModel chatLanguageModel;
+    private final int tokenBudget;
+    private final int minRecentMessages;
+    private final double retainRatio;
+
+    public ConversationHistoryBuilder(ChatLanguageModel chatLanguageModel,
+            @Value("${ai.conversation.history.token-budget:4000}") int tokenBudget,
+            @Value("${ai.conversation.history.min-recent-messages:4}") int minRecentMessages,
+            @Value("${ai.conversation.history.retain-ratio:0.5}") double retainRatio) {
+        this.chatLanguageModel = chatLanguageModel;
+        this.tokenBudget = tokenBudget;
+        this.minRecentMessages = minRecentMessages;
+        this.retainRatio = retainRatio;
+    }
+
+    /**
+     * Returns the history window for the next model call, compacting old turns
+     * into the conversation summary if the budget is exceeded.
+     */
+    public HistoryWindow build(Conversation conversation) {
+        List<Message> messages = conversation.getMessages();
+        int start = conversation.getSummarizedCount();
+        boolean compacted = false;
+
+        int tokens = estimateTokens(conversation.getSummary())
+                + estimateTokens(messages.subList(start, messages.size()));
+        if (tokens > tokenBudget) {
+            int cut = compactionPoint(messages, start);
+            if (cut > start) {
+                String summary = summarize(conversation.getSummary(), messages.subList(start, cut));
+                conversation.applySummary(summary, cut);
+                start = cut;
+                compacted = true;
+            }
+        }
+
+        List<ChatMessage> history = new ArrayList<>();
+        if (conversation.getSummary() != null) {
+            history.add(SystemMessage.from("Resumen de la conversación previa: " + conversation.getSummary()));
+        }
+        for (Message msg : messages.subList(start, messages.size())) {
+            ChatMessage chatMessage = toChatMessage(msg);
+            if (chatMessage != null) {
+                history.add(chatMessage);
+            }
+        }
+        return new HistoryWindow(history, compacted);
+    }
+
+    private int compactionPoint(List<Message> messages, int start) {
+        int target = (int) (tokenBudget * retainRatio);
+        int kept = 0;
+        int tokens = 0;
+        int cut = messages.size();
+        while (cut > start) {
+            int messageTokens = estimateTokens(messages.get(cut - 1).content());
+            if (kept >= minRecentMessages && tokens + messageTokens > target) {
+                break;
+            }
+            tokens += messageTokens;
+            kept++;
+            cut--;
+        }
+        return cut;
+    }
+
+    private String summarize(String previousSummary, List<Message> messages) {
+        StringBuilder transcript = new StringBuilder();
+        if (previousSummary != null) {
+            transcript.append("Resumen anterior: ").append(previousSummary).append("\n\n");
+        }
+        for (Message msg : messages) {
+            transcript.append(msg.role()).append(": ").append(msg.content()).append('\n');
+        }
+
+        try {
+            Response<AiMessage> response = chatLanguageModel.generate(List.of(
+                    SystemMessage.from(SUMMARY_INSTRUCTIONS),
+                    UserMessage.from(transcript.toString())));
+            if (response != null && response.content() != null && response.content().text() != null) {
+                return response.content().text();
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to summarize conversation history: {}", e.getMessage());
+        }
+        // Keep the previous summary; the dropped turns are lost but the prompt stays bounded
+        return previousSummary;
+    }
+
+    private ChatMessage toChatMessage(Message msg) {
+        if ("user".equals(msg.role())) {
+            return new UserMessage(msg.content());
+        } else if ("assistant".equals(msg.role())) {
+            return new AiMessage(msg.content());
+        }
+        return null;
+    }
+
+    public static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    public static int estimateTokens(List<Message> messages) {
+        return messages.stream().mapToInt(msg -> estimateTokens(msg.content())).sum();
+    }
+
+    /**
+     * Estimated prompt size of an arbitrary list of chat messages.
+     */
+    public static int estimateChatTokens(List<ChatMessage> messages) {
+        int tokens = 0;
+        for (ChatMessage message : messages) {
+            if (message instanceof UserMessage userMessage) {
+                tokens += estimateTokens(userMessage.singleText());
+            } else if (message instanceof AiMessage aiMessage) {
+                tokens += estimateTokens(aiMessage.text());
+            } else if (message instanceof SystemMessage systemMessage) {
+                tokens += estimateTokens(systemMessage.text());
+            } else if (message instanceof ToolExecutionResultMessage toolResult) {
+                tokens += estimateTokens(toolResult.text());
+            }
+        }
+        return tokens;
+    }
+
+    public record HistoryWindow(List<ChatMessage> messages, boolean compacted) {
+    }
+}
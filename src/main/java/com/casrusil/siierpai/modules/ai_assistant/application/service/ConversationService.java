@@ -2,122 +2,110 @@ package com.casrusil.siierpai.modules.ai_assistant.application.service;
 
 import com.casrusil.siierpai.modules.ai_assistant.domain.model.Conversation;
 import com.casrusil.siierpai.modules.ai_assistant.domain.model.Message;
-import com.casrusil.siierpai.modules.ai_assistant.domain.model.Tool;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import com.casrusil.siierpai.shared.domain.valueobject.UserId;
 import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
 import dev.langchain4j.agent.tool.ToolSpecification;
 import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.SystemMessage;
-import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
 import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
 import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class ConversationService {
 
-    private final ChatLanguageModel chatLanguageModel;
-    private final List<Tool> tools;
-    private final Map<UUID, Conversation> conversations = new ConcurrentHashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(ConversationService.class);
 
-    public ConversationService(ChatLanguageModel chatLanguageModel, List<Tool> tools) {
+    private final ChatLanguageModel chatLanguageModel;
+    private final StreamingChatLanguageModel streamingChatLanguageModel;
+    private final ToolRegistry toolRegistry;
+    private final ToolExecutionService toolExecutionService;
+    private final int maxToolRounds;
+    private final ConversationStore conversationStore;
+    private final ConversationHistoryBuilder historyBuilder;
+    private final DistributionSummary promptTokens;
+    private final Timer timeToFirstToken;
+    private final Timer streamDuration;
+
+    public ConversationService(ChatLanguageModel chatLanguageModel,
+            StreamingChatLanguageModel streamingChatLanguageModel, ToolRegistry toolRegistry,
+            ToolExecutionService toolExecutionService, ConversationStore conversationStore,
+            ConversationHistoryBuilder historyBuilder, MeterRegistry meterRegistry,
+            @Value("${ai.tools.max-rounds:5}") int maxToolRounds) {
         this.chatLanguageModel = chatLanguageModel;
-        this.tools = tools;
+        this.streamingChatLanguageModel = streamingChatLanguageModel;
+        this.toolRegistry = toolRegistry;
+        this.toolExecutionService = toolExecutionService;
+        this.maxToolRounds = maxToolRounds;
+        this.conversationStore = conversationStore;
+        this.historyBuilder = historyBuilder;
+        this.promptTokens = DistributionSummary.builder("ai.conversation.prompt.tokens")
+                .description("Prompt tokens sent to the chat model per call")
+                .baseUnit("tokens")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.timeToFirstToken = Timer.builder("ai.conversation.stream.first-token")
+                .description("Time from user message to the first streamed token")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.streamDuration = Timer.builder("ai.conversation.stream")
+                .description("Time to stream a complete answer, including tool rounds")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     public Conversation startConversation(CompanyId companyId, UserId userId) {
-        Conversation conversation = new Conversation(companyId, userId);
-        conversations.put(conversation.getId(), conversation);
-        return conversation;
+        return conversationStore.create(companyId, userId);
     }
 
     public Conversation getConversation(UUID conversationId) {
-        return conversations.get(conversationId);
+        return conversationStore.find(conversationId).orElse(null);
     }
 
     public Message sendMessage(UUID conversationId, String content) {
-        Conversation conversation = conversations.get(conversationId);
-        if (conversation == null) {
-            throw new IllegalArgumentException("Conversation not found: " + conversationId);
-        }
-
-        // 1. Add User Message
-        Message userMsg = Message.user(content);
-        conversation.addMessage(userMsg);
-
-        // 2. Prepare LangChain4j messages
-        List<ChatMessage> chatMessages = new ArrayList<>();
-        chatMessages.add(new SystemMessage(
-                "You are an AI Assistant for an ERP system in Chile. You help users with financial tasks like searching invoices, generating reports, and calculating F29 (VAT declarations). Current Company ID: "
-                        + conversation.getCompanyId().value()));
-
-        for (Message msg : conversation.getMessages()) {
-            if ("user".equals(msg.role())) {
-                chatMessages.add(new UserMessage(msg.content()));
-            } else if ("assistant".equals(msg.role())) {
-                chatMessages.add(new AiMessage(msg.content()));
-            }
-        }
+        Conversation conversation = conversationStore.find(conversationId)
+                .orElseThrow(() -> new IllegalArgumentException("Conversation not found: " + conversationId));
+        List<ChatMessage> chatMessages = prepareChatMessages(conversation, content);
 
-        // 3. Prepare Tools
-        List<ToolSpecification> toolSpecs = tools.stream()
-                .map(tool -> ToolSpecification.builder()
-                        .name(tool.name())
-                        .description(tool.description())
-                        .build())
-                .collect(Collectors.toList());
-
-        // 4. Tool Execution Loop
+        // 3. Tool Execution Loop: each round runs the requested tools in parallel
+        // and feeds the results back, until the model answers or the depth is reached
+        List<ToolSpecification> toolSpecs = toolRegistry.specifications();
         final String[] finalResponseHolder = new String[1];
         try {
             // Run in company context to ensure tools have access to CompanyContext
             CompanyContext.runInCompanyContext(conversation.getCompanyId(), () -> {
-                Response<AiMessage> response = chatLanguageModel.generate(chatMessages, toolSpecs);
-                AiMessage aiMessage = response.content();
+                AiMessage aiMessage = generate(chatMessages, toolSpecs).content();
+
+                int round = 0;
+                while (aiMessage.hasToolExecutionRequests() && round < maxToolRounds) {
+                    round++;
+                    chatMessages.add(aiMessage);
+                    chatMessages.addAll(toolExecutionService.executeAll(
+                            conversation.getCompanyId(), aiMessage.toolExecutionRequests()));
+                    aiMessage = generate(chatMessages, toolSpecs).content();
+                }
 
-                // Check if AI wants to execute a tool
                 if (aiMessage.hasToolExecutionRequests()) {
-                    // Execute all requested tools
-                    for (var toolRequest : aiMessage.toolExecutionRequests()) {
-                        String toolName = toolRequest.name();
-                        String toolArgs = toolRequest.arguments();
-
-                        // Find and execute the tool
-                        Tool tool = tools.stream()
-                                .filter(t -> t.name().equals(toolName))
-                                .findFirst()
-                                .orElse(null);
-
-                        String toolResult;
-                        if (tool != null) {
-                            toolResult = tool.execute(toolArgs);
-                        } else {
-                            toolResult = "Tool not found: " + toolName;
-                        }
-
-                        // Add tool result to messages
-                        chatMessages.add(new dev.langchain4j.data.message.ToolExecutionResultMessage(
-                                toolRequest.id(),
-                                toolName,
-                                toolResult));
-                    }
-
-                    // Get final response after tool execution
-                    Response<AiMessage> finalResp = chatLanguageModel.generate(chatMessages, toolSpecs);
-                    finalResponseHolder[0] = finalResp.content().text();
-                } else {
-                    // No tool execution needed, return direct response
-                    finalResponseHolder[0] = aiMessage.text();
+                    // Depth exhausted: ask for an answer with the results gathered so far
+                    aiMessage = generate(chatMessages, List.of()).content();
                 }
+                finalResponseHolder[0] = aiMessage.text();
             });
         } catch (Exception e) {
             finalResponseHolder[0] = "Error processing request: " + e.getMessage();
@@ -125,10 +113,141 @@ public class ConversationService {
 
         String finalResponse = finalResponseHolder[0];
 
-        // 5. Add Assistant Message
+        // 4. Add Assistant Message
         Message aiMsg = Message.assistant(finalResponse);
-        conversation.addMessage(aiMsg);
+        conversationStore.append(conversation, aiMsg);
 
         return aiMsg;
     }
+
+    /**
+     * Streams the answer token by token to the listener.
+     * Returns as soon as the request is sent; tool rounds run between stream
+     * segments on a virtual thread, never on the model's I/O thread.
+     */
+    public void streamMessage(UUID conversationId, String content, ChatStreamListener listener) {
+        Conversation conversation = conversationStore.find(conversationId)
+                .orElseThrow(() -> new IllegalArgumentException("Conversation not found: " + conversationId));
+        List<ChatMessage> chatMessages = prepareChatMessages(conversation, content);
+        new StreamingTurn(conversation, chatMessages, listener).start();
+    }
+
+    private List<ChatMessage> prepareChatMessages(Conversation conversation, String content) {
+        // 1. Add User Message
+        Message userMsg = Message.user(content);
+        conversationStore.append(conversation, userMsg);
+
+        // 2. Prepare LangChain4j messages (summary + recent turns within the token budget)
+        ConversationHistoryBuilder.HistoryWindow window = historyBuilder.build(conversation);
+        if (window.compacted()) {
+            conversationStore.update(conversation);
+        }
+
+        List<ChatMessage> chatMessages = new ArrayList<>();
+        chatMessages.add(new SystemMessage(
+                "You are an AI Assistant for an ERP system in Chile. You help users with financial tasks like searching invoices, generating reports, and calculating F29 (VAT declarations). Current Company ID: "
+                        + conversation.getCompanyId().value()));
+        chatMessages.addAll(window.messages());
+        return chatMessages;
+    }
+
+    private Response<AiMessage> generate(List<ChatMessage> chatMessages, List<ToolSpecification> toolSpecs) {
+        Response<AiMessage> response = toolSpecs.isEmpty()
+                ? chatLanguageModel.generate(chatMessages)
+                : chatLanguageModel.generate(chatMessages, toolSpecs);
+        recordPromptTokens(response, chatMessages);
+        return response;
+    }
+
+    private void recordPromptTokens(Response<AiMessage> response, List<ChatMessage> chatMessages) {
+        // Prefer the provider's token count; fall back to the local estimate
+        if (response != null && response.tokenUsage() != null && response.tokenUsage().inputTokenCount() != null) {
+            promptTokens.record(response.tokenUsage().inputTokenCount());
+        } else {
+            promptTokens.record(ConversationHistoryBuilder.estimateChatTokens(chatMessages));
+        }
+    }
+
+    /**
+     * One streamed user turn. The model calls back sequentially, so the state
+     * needs no synchronization.
+     */
+    private final class StreamingTurn implements StreamingResponseHandler<AiMessage> {
+
+        private final Conversation conversation;
+        private final List<ChatMessage> chatMessages;
+        private final ChatStreamListener listener;
+        private final long startNanos = System.nanoTime();
+        private boolean firstTokenSeen;
+        private int round;
+
+        private StreamingTurn(Conversation conversation, List<ChatMessage> chatMessages,
+                ChatStreamListener listener) {
+            this.conversation = conversation;
+            this.chatMessages = chatMessages;
+            this.listener = listener;
+        }
+
+        void start() {
+            stream(toolRegistry.specifications());
+        }
+
+        private void stream(List<ToolSpecification> toolSpecs) {
+            if (toolSpecs.isEmpty()) {
+                streamingChatLanguageModel.generate(chatMessages, this);
+            } else {
+                streamingChatLanguageModel.generate(chatMessages, toolSpecs, this);
+            }
+        }
+
+        @Override
+        public void onNext(String token) {
+            if (!firstTokenSeen) {
+                firstTokenSeen = true;
+                timeToFirstToken.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+            listener.onToken(token);
+        }
+
+        @Override
+        public void onComplete(Response<AiMessage> response) {
+            recordPromptTokens(response, chatMessages);
+            AiMessage aiMessage = response.content();
+            if (aiMessage.hasToolExecutionRequests()) {
+                Thread.ofVirtual().name("ai-stream-tools").start(() -> runToolRound(aiMessage));
+                return;
+            }
+
+            try {
+                Message aiMsg = Message.assistant(aiMessage.text());
+                conversationStore.append(conversation, aiMsg);
+                streamDuration.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                listener.onComplete(aiMsg);
+            } catch (Exception e) {
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            logger.warn("Streaming answer failed for conversation {}: {}", conversation.getId(), error.getMessage());
+            listener.onError(error);
+        }
+
+        private void runToolRound(AiMessage aiMessage) {
+            try {
+                round++;
+                listener.onToolCalls(aiMessage.toolExecutionRequests().stream()
+                        .map(ToolExecutionRequest::name)
+                        .toList());
+                chatMessages.add(aiMessage);
+                chatMessages.addAll(toolExecutionService.executeAll(
+                        conversation.getCompanyId(), aiMessage.toolExecutionRequests()));
+                // Depth exhausted: the next segment must answer with what it has
+                stream(round < maxToolRounds ? toolRegistry.specifications() : List.of());
+            } catch (Exception e) {
+                onError(e);
+            }
+        }
+    }
 }
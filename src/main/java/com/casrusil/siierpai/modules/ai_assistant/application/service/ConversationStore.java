@@ -0,0 +1,79 @@
+package com.casrusil.siierpai.modules.ai_assistant.application.service;
+
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.Conversation;
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.Message;
+import com.casrusil.siierpai.modules.ai_assistant.domain.port.out.ConversationRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.domain.valueobject.UserId;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Two-tier conversation store.
+ *
+ * <p>
+ * Active conversations live in a bounded Caffeine cache (LRU by size, TTL by
+ * idle time). Every message is written through to the
+ * {@link ConversationRepository}, so evicting a conversation never loses data:
+ * it is simply reloaded from the database on its next access.
+ *
+ * <h2>Configuration:</h2>
+ * <ul>
+ * <li>{@code ai.conversation.cache.max-size} - conversations kept in memory</li>
+ * <li>{@code ai.conversation.cache.ttl-minutes} - idle time before eviction</li>
+ * </ul>
+ */
+@Component
+public class ConversationStore {
+
+    private final ConversationRepository conversationRepository;
+    private final Cache<UUID, Conversation> cache;
+
+    public ConversationStore(ConversationRepository conversationRepository,
+            MeterRegistry meterRegistry,
+            @Value("${ai.conversation.cache.max-size:10000}") long maxSize,
+            @Value("${ai.conversation.cache.ttl-minutes:30}") long ttlMinutes) {
+        this.conversationRepository = conversationRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "ai.conversations");
+    }
+
+    public Conversation create(CompanyId companyId, UserId userId) {
+        Conversation conversation = new Conversation(companyId, userId);
+        conversationRepository.saveConversation(conversation);
+        cache.put(conversation.getId(), conversation);
+        return conversation;
+    }
+
+    public Optional<Conversation> find(UUID conversationId) {
+        return Optional.ofNullable(cache.get(conversationId,
+                id -> conversationRepository.findById(id).orElse(null)));
+    }
+
+    /**
+     * Adds a message to the conversation and persists it.
+     */
+    public void append(Conversation conversation, Message message) {
+        conversation.addMessage(message);
+        conversationRepository.appendMessage(conversation.getId(), conversation.getMessages().size() - 1, message);
+    }
+
+    /**
+     * Persists header changes such as a new rolling summary.
+     */
+    public void update(Conversation conversation) {
+        conversationRepository.saveConversation(conversation);
+    }
+}
@@ -1,7 +1,10 @@
 package com.casrusil.siierpai.modules.ai_assistant.application.service;
 
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.IndexedDocument;
+import com.casrusil.siierpai.modules.ai_assistant.domain.port.out.IndexedDocumentRepository;
 import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.infrastructure.observability.Monitored;
 import dev.langchain4j.data.document.Document;
 import dev.langchain4j.data.document.Metadata;
 import dev.langchain4j.data.embedding.Embedding;
@@ -12,14 +15,32 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service for indexing documents into the embedding store for RAG.
  * Converts domain objects (invoices, accounting entries) into searchable
  * embeddings.
+ *
+ * <p>
+ * Every indexed document is recorded in the {@link IndexedDocumentRepository}
+ * with the SHA-256 of its normalized text. A document whose hash is unchanged
+ * is skipped (no ONNX inference, no store write), and a vector already
+ * computed for the same text is reused instead of re-embedding.
  */
 @Service
 public class DocumentIndexingService {
@@ -28,49 +49,44 @@ public class DocumentIndexingService {
 
     private final EmbeddingModel embeddingModel;
     private final EmbeddingStore<TextSegment> embeddingStore;
+    private final IndexedDocumentRepository indexedDocumentRepository;
 
     public DocumentIndexingService(
             EmbeddingModel embeddingModel,
-            EmbeddingStore<TextSegment> embeddingStore) {
+            EmbeddingStore<TextSegment> embeddingStore,
+            IndexedDocumentRepository indexedDocumentRepository) {
         this.embeddingModel = embeddingModel;
         this.embeddingStore = embeddingStore;
+        this.indexedDocumentRepository = indexedDocumentRepository;
     }
 
     /**
      * Index an invoice for RAG retrieval.
      * Creates a text representation and stores its embedding.
      */
+    @Monitored(module = "ai_assistant", operation = "index.invoice")
     public void indexInvoice(Invoice invoice) {
         try {
-            // Create text representation of invoice
-            String text = String.format(
-                    "Factura #%d del %s. Emisor: %s, Receptor: %s. " +
-                            "Tipo: %s. Monto Neto: $%s, IVA: $%s, Total: $%s",
-                    invoice.getFolio(),
-                    invoice.getDate(),
-                    invoice.getIssuerRut(),
-                    invoice.getReceiverRut(),
-                    invoice.getType().name(),
-                    invoice.getNetAmount(),
-                    invoice.getTaxAmount(),
-                    invoice.getTotalAmount());
-
-            // Create metadata
-            Map<String, Object> metadata = new HashMap<>();
-            metadata.put("companyId", invoice.getCompanyId().value().toString());
-            metadata.put("invoiceId", invoice.getId().toString());
-            metadata.put("folio", invoice.getFolio());
-            metadata.put("type", "invoice");
-            metadata.put("date", invoice.getDate().toString());
-
-            // Create text segment
-            TextSegment segment = TextSegment.from(text, new Metadata(metadata));
-
-            // Generate embedding
-            Embedding embedding = embeddingModel.embed(segment).content();
-
-            // Store in embedding store
-            embeddingStore.add(embedding, segment);
+            TextSegment segment = toSegment(invoice);
+            String contentHash = contentHash(segment.text());
+
+            Optional<IndexedDocument> existing = indexedDocumentRepository.findById(invoice.getId());
+            if (existing.isPresent() && existing.get().contentHash().equals(contentHash)) {
+                logger.debug("Invoice #{} unchanged, skipping reindex", invoice.getFolio());
+                return;
+            }
+
+            // Generate embedding, unless the same text was already embedded
+            Embedding embedding = indexedDocumentRepository.findVectorByContentHash(contentHash)
+                    .map(Embedding::from)
+                    .orElseGet(() -> embeddingModel.embed(segment).content());
+
+            // Store in embedding store, replacing the stale version if any
+            existing.ifPresent(document -> removeFromStore(List.of(document)));
+            String embeddingId = embeddingStore.add(embedding, segment);
+
+            indexedDocumentRepository.save(toIndexedDocument(invoice, contentHash, embeddingId, embedding,
+                    segment));
 
             logger.debug("Indexed invoice #{} for company {}",
                     invoice.getFolio(), invoice.getCompanyId());
@@ -81,6 +97,186 @@ public class DocumentIndexingService {
         }
     }
 
+    /**
+     * Index a batch of invoices with a single {@code embedAll} inference call
+     * and a single bulk write to the store.
+     * Unlike {@link #indexInvoice(Invoice)}, failures are propagated so the
+     * caller can retry the batch.
+     */
+    @Monitored(module = "ai_assistant", operation = "index.batch")
+    public void indexInvoices(List<Invoice> invoices) {
+        if (invoices.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, IndexedDocument> existing = indexedDocumentRepository
+                .findAllById(invoices.stream().map(Invoice::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(IndexedDocument::documentId, Function.identity()));
+
+        List<Invoice> changed = new ArrayList<>();
+        List<TextSegment> segments = new ArrayList<>();
+        List<String> hashes = new ArrayList<>();
+        for (Invoice invoice : invoices) {
+            TextSegment segment = toSegment(invoice);
+            String contentHash = contentHash(segment.text());
+            IndexedDocument previous = existing.get(invoice.getId());
+            if (previous != null && previous.contentHash().equals(contentHash)) {
+                continue;
+            }
+            changed.add(invoice);
+            segments.add(segment);
+            hashes.add(contentHash);
+        }
+
+        if (changed.isEmpty()) {
+            logger.debug("Batch of {} invoices unchanged, nothing to index", invoices.size());
+            return;
+        }
+
+        // Reuse cached vectors and only run inference for unseen text
+        Map<String, float[]> cachedVectors = indexedDocumentRepository.findVectorsByContentHash(hashes);
+        Embedding[] embeddings = new Embedding[changed.size()];
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < changed.size(); i++) {
+            float[] cached = cachedVectors.get(hashes.get(i));
+            if (cached != null) {
+                embeddings[i] = Embedding.from(cached);
+            } else {
+                missing.add(i);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<Embedding> computed = embeddingModel
+                    .embedAll(missing.stream().map(segments::get).toList())
+                    .content();
+            for (int i = 0; i < missing.size(); i++) {
+                embeddings[missing.get(i)] = computed.get(i);
+            }
+        }
+
+        removeFromStore(changed.stream()
+                .map(invoice -> existing.get(invoice.getId()))
+                .filter(document -> document != null)
+                .toList());
+        List<String> embeddingIds = embeddingStore.addAll(List.of(embeddings), segments);
+
+        List<IndexedDocument> documents = new ArrayList<>(changed.size());
+        for (int i = 0; i < changed.size(); i++) {
+            documents.add(toIndexedDocument(changed.get(i), hashes.get(i), embeddingIds.get(i), embeddings[i],
+                    segments.get(i)));
+        }
+        indexedDocumentRepository.saveAll(documents);
+
+        logger.debug("Indexed batch of {} invoices ({} skipped, {} embedded)",
+                invoices.size(), invoices.size() - changed.size(), missing.size());
+    }
+
+    /**
+     * Reload every cached document into the embedding store without running
+     * inference. Used to warm a volatile (in-memory) store after a restart.
+     *
+     * @return number of documents restored
+     */
+    public long restoreFromCache(int pageSize) {
+        long restored = 0;
+        UUID after = null;
+        List<IndexedDocument> page;
+        while (!(page = indexedDocumentRepository.findPageAfter(after, pageSize)).isEmpty()) {
+            List<Embedding> embeddings = page.stream().map(document -> Embedding.from(document.vector())).toList();
+            List<TextSegment> segments = page.stream()
+                    .map(document -> TextSegment.from(document.text(), segmentMetadata(document.companyId(),
+                            document.documentId(), document.folio(), document.documentDate())))
+                    .toList();
+            List<String> embeddingIds = embeddingStore.addAll(embeddings, segments);
+
+            List<IndexedDocument> updated = new ArrayList<>(page.size());
+            for (int i = 0; i < page.size(); i++) {
+                updated.add(page.get(i).withEmbeddingId(embeddingIds.get(i)));
+            }
+            indexedDocumentRepository.saveAll(updated);
+
+            restored += page.size();
+            after = page.get(page.size() - 1).documentId();
+        }
+        return restored;
+    }
+
+    private void removeFromStore(List<IndexedDocument> documents) {
+        List<String> embeddingIds = documents.stream()
+                .map(IndexedDocument::embeddingId)
+                .filter(id -> id != null)
+                .toList();
+        if (embeddingIds.isEmpty()) {
+            return;
+        }
+        try {
+            embeddingStore.removeAll(embeddingIds);
+        } catch (UnsupportedOperationException e) {
+            logger.warn("Embedding store does not support removal; stale vectors kept for {} documents",
+                    embeddingIds.size());
+        }
+    }
+
+    private TextSegment toSegment(Invoice invoice) {
+        // Create text representation of invoice
+        String text = String.format(
+                "Factura #%d del %s. Emisor: %s, Receptor: %s. " +
+                        "Tipo: %s. Monto Neto: $%s, IVA: $%s, Total: $%s",
+                invoice.getFolio(),
+                invoice.getDate(),
+                invoice.getIssuerRut(),
+                invoice.getReceiverRut(),
+                invoice.getType().name(),
+                invoice.getNetAmount(),
+                invoice.getTaxAmount(),
+                invoice.getTotalAmount());
+
+        // Create text segment
+        return TextSegment.from(text, segmentMetadata(invoice.getCompanyId(), invoice.getId(),
+                invoice.getFolio(), invoice.getDate()));
+    }
+
+    private Metadata segmentMetadata(CompanyId companyId, UUID invoiceId, Long folio, LocalDate date) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("companyId", companyId.value().toString());
+        metadata.put("invoiceId", invoiceId.toString());
+        metadata.put("folio", folio);
+        metadata.put("type", "invoice");
+        metadata.put("date", date.toString());
+        return new Metadata(metadata);
+    }
+
+    private IndexedDocument toIndexedDocument(Invoice invoice, String contentHash, String embeddingId,
+            Embedding embedding, TextSegment segment) {
+        return new IndexedDocument(
+                invoice.getId(),
+                invoice.getCompanyId(),
+                contentHash,
+                embeddingId,
+                embedding.vector(),
+                segment.text(),
+                invoice.getFolio(),
+                invoice.getDate(),
+                Instant.now());
+    }
+
+    /**
+     * SHA-256 (hex) of the text after Unicode NFC normalization and whitespace
+     * collapsing, so cosmetic differences do not force a re-embed.
+     */
+    static String contentHash(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC)
+                .strip()
+                .replaceAll("\\s+", " ");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     /**
      * Search for relevant documents based on a query.
      * Returns text segments that match the query semantically.
@@ -111,11 +307,9 @@ public class DocumentIndexingService {
 
     /**
      * Get count of indexed documents for a company.
+     * Answered from the embedding cache with a single indexed count query.
      */
     public int getIndexedCount(CompanyId companyId) {
-        // Note: InMemoryEmbeddingStore doesn't provide count by metadata
-        // This is a limitation of the in-memory implementation
-        logger.warn("getIndexedCount not fully supported with in-memory store");
-        return 0;
+        return Math.toIntExact(indexedDocumentRepository.countByCompanyId(companyId));
     }
 }
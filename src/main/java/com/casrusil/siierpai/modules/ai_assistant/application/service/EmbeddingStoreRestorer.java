@@ -0,0 +1,44 @@
+package com.casrusil.siierpai.modules.ai_assistant.application.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the in-memory embedding store from the persisted embedding cache
+ * on startup, so a restart does not require re-running inference for every
+ * invoice.
+ * Disable with {@code ai.indexing.restore-on-startup=false} when the store is
+ * itself persistent.
+ */
+@Component
+public class EmbeddingStoreRestorer {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddingStoreRestorer.class);
+    private static final int PAGE_SIZE = 500;
+
+    private final DocumentIndexingService documentIndexingService;
+    private final boolean enabled;
+
+    public EmbeddingStoreRestorer(DocumentIndexingService documentIndexingService,
+            @Value("${ai.indexing.restore-on-startup:true}") boolean enabled) {
+        this.documentIndexingService = documentIndexingService;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long restored = documentIndexingService.restoreFromCache(PAGE_SIZE);
+            logger.info("Restored {} cached embeddings into the embedding store", restored);
+        } catch (Exception e) {
+            logger.error("Failed to restore embedding store from cache: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package com.casrusil.siierpai.modules.ai_assistant.application.service;
 
 import com.casrusil.siierpai.modules.invoicing.domain.event.InvoiceCreatedEvent;
-import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
-import com.casrusil.siierpai.modules.invoicing.domain.port.out.InvoiceRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.event.EventListener;
@@ -10,16 +8,18 @@ import org.springframework.stereotype.Component;
 
 /**
  * Listener for invoice events to automatically index them for RAG.
+ * Only enqueues the invoice; embedding happens in batches on the
+ * {@link InvoiceIndexingQueue} workers, off the event thread.
  */
 @Component
 public class InvoiceIndexingListener {
 
     private static final Logger logger = LoggerFactory.getLogger(InvoiceIndexingListener.class);
 
-    private final DocumentIndexingService documentIndexingService;
+    private final InvoiceIndexingQueue indexingQueue;
 
-    public InvoiceIndexingListener(DocumentIndexingService documentIndexingService) {
-        this.documentIndexingService = documentIndexingService;
+    public InvoiceIndexingListener(InvoiceIndexingQueue indexingQueue) {
+        this.indexingQueue = indexingQueue;
     }
 
     /**
@@ -27,16 +27,13 @@ public class InvoiceIndexingListener {
      */
     @EventListener
     public void onInvoiceCreated(InvoiceCreatedEvent event) {
-        logger.info("Indexing invoice for RAG: {}", event.invoice().getFolio());
+        logger.debug("Queueing invoice for RAG: {}", event.invoice().getFolio());
 
         try {
-            // Index for RAG using the invoice directly from the event
-            documentIndexingService.indexInvoice(event.invoice());
-
-            logger.info("Successfully indexed invoice #{} for RAG", event.invoice().getFolio());
-
+            // Queue the invoice snapshot from the event; no need to reload it
+            indexingQueue.enqueue(event.invoice());
         } catch (Exception e) {
-            logger.error("Failed to index invoice {}: {}",
+            logger.error("Failed to queue invoice {} for indexing: {}",
                     event.invoice().getFolio(), e.getMessage(), e);
         }
     }
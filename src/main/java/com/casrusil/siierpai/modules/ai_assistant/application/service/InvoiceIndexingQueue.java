@@ -0,0 +1,235 @@
+package com.casrusil.siierpai.modules.ai_assistant.application.service;
+
+import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded queue that decouples invoice creation from embedding generation.
+ *
+ * <p>
+ * Invoices are collected from {@link InvoiceIndexingListener} and drained by a
+ * fixed pool of worker threads (sized to the CPU count, since ONNX inference
+ * is CPU bound). Each worker takes up to {@code ai.indexing.batch-size}
+ * invoices and indexes them with a single
+ * {@link DocumentIndexingService#indexInvoices(List)} call.
+ *
+ * <h2>Back-pressure:</h2>
+ * <p>
+ * When the queue is full, {@link #enqueue(Invoice)} blocks the producer for up
+ * to {@code ai.indexing.offer-timeout-ms}. If there is still no room, the
+ * invoice is indexed on the caller thread, so bulk imports slow down to the
+ * indexing rate instead of growing memory without bound.
+ *
+ * <h2>Retries:</h2>
+ * <p>
+ * A failed batch is re-queued with a linear backoff. Invoices that fail
+ * {@code ai.indexing.max-attempts} times are dropped and counted as failed.
+ *
+ * <h2>Metrics:</h2>
+ * <ul>
+ * <li>{@code ai.indexing.queue.depth} - invoices waiting to be indexed</li>
+ * <li>{@code ai.indexing.invoices} - invoices processed, tagged by outcome</li>
+ * <li>{@code ai.indexing.batch} - batch latency</li>
+ * <li>{@code ai.indexing.batch.size} - invoices per batch</li>
+ * </ul>
+ */
+@Component
+public class InvoiceIndexingQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceIndexingQueue.class);
+    private static final long POLL_INTERVAL_MS = 250;
+
+    private final DocumentIndexingService documentIndexingService;
+    private final BlockingQueue<PendingInvoice> queue;
+    private final int workerCount;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long offerTimeoutMillis;
+    private final long retryBackoffMillis;
+
+    private final Counter indexedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Counter callerRunsCounter;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizeSummary;
+
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    public InvoiceIndexingQueue(
+            DocumentIndexingService documentIndexingService,
+            MeterRegistry meterRegistry,
+            @Value("${ai.indexing.queue-capacity:10000}") int queueCapacity,
+            @Value("${ai.indexing.batch-size:64}") int batchSize,
+            @Value("${ai.indexing.workers:0}") int workers,
+            @Value("${ai.indexing.max-attempts:3}") int maxAttempts,
+            @Value("${ai.indexing.offer-timeout-ms:2000}") long offerTimeoutMillis,
+            @Value("${ai.indexing.retry-backoff-ms:500}") long retryBackoffMillis) {
+        this.documentIndexingService = documentIndexingService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.retryBackoffMillis = retryBackoffMillis;
+
+        Gauge.builder("ai.indexing.queue.depth", queue, BlockingQueue::size)
+                .description("Invoices waiting to be embedded")
+                .register(meterRegistry);
+        this.indexedCounter = outcomeCounter(meterRegistry, "indexed");
+        this.retriedCounter = outcomeCounter(meterRegistry, "retried");
+        this.failedCounter = outcomeCounter(meterRegistry, "failed");
+        this.callerRunsCounter = outcomeCounter(meterRegistry, "caller_runs");
+        this.batchTimer = Timer.builder("ai.indexing.batch")
+                .description("Time to embed and store one batch of invoices")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("ai.indexing.batch.size")
+                .description("Invoices per indexing batch")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "invoice-indexer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::drainLoop);
+        }
+        logger.info("Invoice indexing queue started with {} workers (batch size {})", workerCount, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Invoice indexing queue stopped with {} invoices pending", queue.size());
+        }
+    }
+
+    /**
+     * Queue an invoice for asynchronous indexing.
+     * Blocks briefly when the queue is full and falls back to indexing on the
+     * caller thread if it stays full.
+     */
+    public void enqueue(Invoice invoice) {
+        if (running) {
+            try {
+                if (queue.offer(new PendingInvoice(invoice, 0), offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        callerRunsCounter.increment();
+        logger.debug("Indexing queue saturated, indexing invoice #{} on caller thread", invoice.getFolio());
+        documentIndexingService.indexInvoice(invoice);
+    }
+
+    /**
+     * Number of invoices waiting to be indexed.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void drainLoop() {
+        List<PendingInvoice> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingInvoice first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Unexpected error in invoice indexing worker: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void processBatch(List<PendingInvoice> batch) throws InterruptedException {
+        List<Invoice> invoices = batch.stream().map(PendingInvoice::invoice).toList();
+        long start = System.nanoTime();
+        try {
+            documentIndexingService.indexInvoices(invoices);
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizeSummary.record(batch.size());
+            indexedCounter.increment(batch.size());
+        } catch (Exception e) {
+            logger.warn("Failed to index batch of {} invoices: {}", batch.size(), e.getMessage());
+            retry(batch);
+        }
+    }
+
+    private void retry(List<PendingInvoice> batch) throws InterruptedException {
+        int attempt = batch.get(0).attempts() + 1;
+        Thread.sleep(retryBackoffMillis * attempt);
+
+        for (PendingInvoice pending : batch) {
+            PendingInvoice next = pending.nextAttempt();
+            if (next.attempts() >= maxAttempts || !queue.offer(next)) {
+                failedCounter.increment();
+                logger.error("Giving up indexing invoice #{} after {} attempts",
+                        pending.invoice().getFolio(), next.attempts());
+            } else {
+                retriedCounter.increment();
+            }
+        }
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ai.indexing.invoices")
+                .description("Invoices processed by the indexing queue")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record PendingInvoice(Invoice invoice, int attempts) {
+        PendingInvoice nextAttempt() {
+            return new PendingInvoice(invoice, attempts + 1);
+        }
+    }
+}
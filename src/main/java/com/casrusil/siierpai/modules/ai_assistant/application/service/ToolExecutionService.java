@@ -0,0 +1,128 @@
+package com.casrusil.siierpai.modules.ai_assistant.application.service;
+
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.Tool;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Executes the tool calls requested by the model.
+ *
+ * <p>
+ * All {@link ToolExecutionRequest}s of one model response are independent, so
+ * they run concurrently, each on its own virtual thread and bound to the
+ * caller's company context. The round shares a single deadline
+ * ({@code ai.tools.timeout-seconds}); a tool that misses it is cancelled and
+ * reported back to the model as timed out instead of blocking the answer.
+ *
+ * <p>
+ * Latency is recorded per tool in {@code ai.tool.execution}, tagged with the
+ * tool name and outcome ({@code success}, {@code error}, {@code timeout},
+ * {@code not_found}).
+ */
+@Component
+public class ToolExecutionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToolExecutionService.class);
+    private static final String UNKNOWN_TOOL = "unknown";
+
+    private final ToolRegistry toolRegistry;
+    private final MeterRegistry meterRegistry;
+    private final long timeoutMillis;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ToolExecutionService(ToolRegistry toolRegistry, MeterRegistry meterRegistry,
+            @Value("${ai.tools.timeout-seconds:30}") long timeoutSeconds) {
+        this.toolRegistry = toolRegistry;
+        this.meterRegistry = meterRegistry;
+        this.timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+    }
+
+    /**
+     * Runs all requests concurrently and returns their results in request
+     * order.
+     */
+    public List<ToolExecutionResultMessage> executeAll(CompanyId companyId, List<ToolExecutionRequest> requests) {
+        List<Future<String>> futures = new ArrayList<>(requests.size());
+        for (ToolExecutionRequest request : requests) {
+            futures.add(executor.submit(
+                    () -> CompanyContext.supplyInCompanyContext(companyId, () -> execute(request))));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        List<ToolExecutionResultMessage> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            ToolExecutionRequest request = requests.get(i);
+            results.add(ToolExecutionResultMessage.from(request, awaitResult(request, futures.get(i), deadline)));
+        }
+        return results;
+    }
+
+    private String awaitResult(ToolExecutionRequest request, Future<String> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timer(request.name(), "timeout").record(timeoutMillis, TimeUnit.MILLISECONDS);
+            logger.warn("AI tool {} timed out after {} ms", request.name(), timeoutMillis);
+            return "Tool " + request.name() + " timed out";
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return "Tool " + request.name() + " was interrupted";
+        } catch (ExecutionException e) {
+            return "Error executing tool " + request.name() + ": " + e.getCause().getMessage();
+        }
+    }
+
+    private String execute(ToolExecutionRequest request) {
+        Optional<Tool> tool = toolRegistry.find(request.name());
+        if (tool.isEmpty()) {
+            timer(UNKNOWN_TOOL, "not_found").record(0, TimeUnit.NANOSECONDS);
+            return "Tool not found: " + request.name();
+        }
+
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return tool.get().execute(request.arguments());
+        } catch (Exception e) {
+            outcome = "error";
+            logger.error("AI tool {} failed: {}", request.name(), e.getMessage(), e);
+            return "Error executing tool " + request.name() + ": " + e.getMessage();
+        } finally {
+            timer(request.name(), outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String toolName, String outcome) {
+        return Timer.builder("ai.tool.execution")
+                .description("AI tool execution latency")
+                .tag("tool", toolName)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
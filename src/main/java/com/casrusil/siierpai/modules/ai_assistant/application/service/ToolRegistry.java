@@ -0,0 +1,49 @@
+package com.casrusil.siierpai.modules.ai_assistant.application.service;
+
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.Tool;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Registry of the AI tools available to the assistant.
+ *
+ * <p>
+ * Built once at startup from every {@link Tool} bean. Lookups by name are a
+ * single map access and the {@link ToolSpecification}s sent to the model on
+ * every call are computed only once.
+ */
+@Component
+public class ToolRegistry {
+
+    private final Map<String, Tool> toolsByName;
+    private final List<ToolSpecification> specifications;
+
+    public ToolRegistry(List<Tool> tools) {
+        Map<String, Tool> byName = new HashMap<>();
+        for (Tool tool : tools) {
+            if (byName.putIfAbsent(tool.name(), tool) != null) {
+                throw new IllegalStateException("Duplicate AI tool name: " + tool.name());
+            }
+        }
+        this.toolsByName = Map.copyOf(byName);
+        this.specifications = tools.stream()
+                .map(tool -> ToolSpecification.builder()
+                        .name(tool.name())
+                        .description(tool.description())
+                        .build())
+                .toList();
+    }
+
+    public Optional<Tool> find(String name) {
+        return Optional.ofNullable(toolsByName.get(name));
+    }
+
+    public List<ToolSpecification> specifications() {
+        return specifications;
+    }
+}
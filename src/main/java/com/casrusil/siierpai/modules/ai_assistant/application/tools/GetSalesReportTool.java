@@ -1,13 +1,13 @@
 package com.casrusil.siierpai.modules.ai_assistant.application.tools;
 
 import com.casrusil.siierpai.modules.ai_assistant.domain.model.Tool;
-import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceQuery;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceSummary;
 import com.casrusil.siierpai.modules.invoicing.domain.port.in.SearchInvoicesUseCase;
 import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeParseException;
 import java.util.List;
@@ -60,14 +60,8 @@ public class GetSalesReportTool implements Tool {
                 period = YearMonth.parse(arguments.trim());
             }
 
-            LocalDate startDate = period.atDay(1);
-            LocalDate endDate = period.atEndOfMonth();
-
-            List<Invoice> invoices = searchInvoicesUseCase
-                    .getInvoicesByCompany(CompanyContext.requireCompanyId())
-                    .stream()
-                    .filter(inv -> !inv.getDate().isBefore(startDate) && !inv.getDate().isAfter(endDate))
-                    .collect(Collectors.toList());
+            List<InvoiceSummary> invoices = searchInvoicesUseCase.searchSummaries(
+                    InvoiceQuery.forCompany(CompanyContext.requireCompanyId()).inPeriod(period));
 
             if (invoices.isEmpty()) {
                 return String.format("No sales found for period %s.", period);
@@ -75,21 +69,21 @@ public class GetSalesReportTool implements Tool {
 
             // Calculate totals
             BigDecimal totalNet = invoices.stream()
-                    .map(Invoice::getNetAmount)
+                    .map(InvoiceSummary::netAmount)
                     .reduce(BigDecimal.ZERO, BigDecimal::add);
 
             BigDecimal totalTax = invoices.stream()
-                    .map(Invoice::getTaxAmount)
+                    .map(InvoiceSummary::taxAmount)
                     .reduce(BigDecimal.ZERO, BigDecimal::add);
 
             BigDecimal totalGross = invoices.stream()
-                    .map(Invoice::getTotalAmount)
+                    .map(InvoiceSummary::totalAmount)
                     .reduce(BigDecimal.ZERO, BigDecimal::add);
 
             // Group by type
             var byType = invoices.stream()
                     .collect(Collectors.groupingBy(
-                            inv -> inv.getType().name(),
+                            inv -> inv.type().name(),
                             Collectors.counting()));
 
             StringBuilder report = new StringBuilder();
@@ -1,14 +1,14 @@
 package com.casrusil.siierpai.modules.ai_assistant.application.tools;
 
 import com.casrusil.siierpai.modules.ai_assistant.domain.model.Tool;
-import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoicePage;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceQuery;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceSummary;
 import com.casrusil.siierpai.modules.invoicing.domain.port.in.SearchInvoicesUseCase;
 import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Herramienta de IA para buscar facturas específicas.
@@ -21,8 +21,9 @@ import java.util.stream.Collectors;
  * <h2>Uso por la IA:</h2>
  * <ul>
  * <li>Nombre: {@code search_invoices}</li>
- * <li>Argumentos: Ninguno (por ahora busca todo, filtrado futuro).</li>
- * <li>Retorno: JSON con la lista de facturas encontradas.</li>
+ * <li>Argumentos: Ninguno (por ahora sin filtros).</li>
+ * <li>Retorno: JSON con las facturas más recientes (máximo
+ * {@value #MAX_RESULTS}).</li>
  * </ul>
  * 
  * @see SearchInvoicesUseCase
@@ -31,6 +32,8 @@ import java.util.stream.Collectors;
 @Component
 public class SearchInvoicesTool implements Tool {
 
+    static final int MAX_RESULTS = 50;
+
     private final SearchInvoicesUseCase searchInvoicesUseCase;
     private final ObjectMapper objectMapper;
 
@@ -52,15 +55,20 @@ public class SearchInvoicesTool implements Tool {
     @Override
     public String execute(String arguments) {
         // In a real scenario, arguments could be filters (date range, etc.)
-        // For now, we return all invoices for the company
+        // For now, only the most recent page is returned to keep the prompt small
         try {
-            List<Invoice> invoices = searchInvoicesUseCase.getInvoicesByCompany(CompanyContext.requireCompanyId());
-            if (invoices.isEmpty()) {
+            InvoicePage<InvoiceSummary> page = searchInvoicesUseCase.searchSummaryPage(
+                    InvoiceQuery.forCompany(CompanyContext.requireCompanyId())
+                            .orderBy(InvoiceQuery.Order.DATE_DESC),
+                    null, MAX_RESULTS);
+            if (page.items().isEmpty()) {
                 return "[]";
             }
             java.util.Map<String, Object> response = new java.util.HashMap<>();
-            response.put("summary", "Found " + invoices.size() + " invoices.");
-            response.put("invoices", invoices);
+            response.put("summary", page.hasNext()
+                    ? "Showing the " + page.items().size() + " most recent invoices."
+                    : "Found " + page.items().size() + " invoices.");
+            response.put("invoices", page.items());
             return objectMapper.writeValueAsString(response);
         } catch (Exception e) {
             return "Error searching invoices: " + e.getMessage();
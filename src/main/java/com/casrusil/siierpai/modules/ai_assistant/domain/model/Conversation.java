@@ -16,6 +16,11 @@ public class Conversation {
     private final Instant startedAt;
     private final List<Message> messages;
 
+    // Rolling summary of messages[0, summarizedCount), which are no longer
+    // sent verbatim to the model
+    private String summary;
+    private int summarizedCount;
+
     public Conversation(CompanyId companyId, UserId userId) {
         this.id = UUID.randomUUID();
         this.companyId = companyId;
@@ -24,10 +29,36 @@ public class Conversation {
         this.messages = new ArrayList<>();
     }
 
+    /**
+     * Rehydrates a persisted conversation.
+     */
+    public Conversation(UUID id, CompanyId companyId, UserId userId, Instant startedAt, List<Message> messages,
+            String summary, int summarizedCount) {
+        this.id = id;
+        this.companyId = companyId;
+        this.userId = userId;
+        this.startedAt = startedAt;
+        this.messages = new ArrayList<>(messages);
+        this.summary = summary;
+        this.summarizedCount = summarizedCount;
+    }
+
     public void addMessage(Message message) {
         this.messages.add(message);
     }
 
+    /**
+     * Replaces the rolling summary, which now covers the first
+     * {@code summarizedCount} messages.
+     */
+    public void applySummary(String summary, int summarizedCount) {
+        if (summarizedCount < this.summarizedCount || summarizedCount > messages.size()) {
+            throw new IllegalArgumentException("Invalid summarized count: " + summarizedCount);
+        }
+        this.summary = summary;
+        this.summarizedCount = summarizedCount;
+    }
+
     public UUID getId() {
         return id;
     }
@@ -47,4 +78,12 @@ public class Conversation {
     public List<Message> getMessages() {
         return Collections.unmodifiableList(messages);
     }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public int getSummarizedCount() {
+        return summarizedCount;
+    }
 }
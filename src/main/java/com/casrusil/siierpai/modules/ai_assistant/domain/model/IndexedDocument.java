@@ -0,0 +1,43 @@
+package com.casrusil.siierpai.modules.ai_assistant.domain.model;
+
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A document that has been embedded into the RAG store.
+ *
+ * <p>
+ * Keeps the SHA-256 hash of the normalized text together with its vector, so
+ * an unchanged document can be skipped and identical text never goes through
+ * the embedding model twice. The text and vector also allow rebuilding a
+ * volatile (in-memory) embedding store without re-running inference.
+ *
+ * @param documentId   ID of the source document (the invoice ID)
+ * @param companyId    Owning company
+ * @param contentHash  SHA-256 (hex) of the normalized segment text
+ * @param embeddingId  ID assigned by the embedding store, if known
+ * @param vector       Embedding vector
+ * @param text         Segment text that was embedded
+ * @param folio        Invoice folio, kept to rebuild segment metadata
+ * @param documentDate Invoice date, kept to rebuild segment metadata
+ * @param indexedAt    When the document was last written to the store
+ */
+public record IndexedDocument(
+        UUID documentId,
+        CompanyId companyId,
+        String contentHash,
+        String embeddingId,
+        float[] vector,
+        String text,
+        Long folio,
+        LocalDate documentDate,
+        Instant indexedAt) {
+
+    public IndexedDocument withEmbeddingId(String newEmbeddingId) {
+        return new IndexedDocument(documentId, companyId, contentHash, newEmbeddingId, vector, text, folio,
+                documentDate, indexedAt);
+    }
+}
@@ -0,0 +1,41 @@
+package com.casrusil.siierpai.modules.ai_assistant.domain.model;
+
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of a bulk "reindex company" run.
+ *
+ * <p>
+ * Documents are processed in the database's ascending ID order, so
+ * {@code lastDocumentId} is enough to resume an interrupted run where it
+ * stopped. IDs are never compared in Java: {@link UUID#compareTo} does not
+ * match PostgreSQL's {@code uuid} ordering.
+ *
+ * @param companyId      Company being reindexed
+ * @param lastDocumentId Last document ID fully processed, or {@code null}
+ * @param processed      Documents processed in the current run
+ * @param completed      Whether the run reached the end
+ * @param updatedAt      Last checkpoint time
+ */
+public record ReindexCheckpoint(
+        CompanyId companyId,
+        UUID lastDocumentId,
+        long processed,
+        boolean completed,
+        Instant updatedAt) {
+
+    public static ReindexCheckpoint start(CompanyId companyId) {
+        return new ReindexCheckpoint(companyId, null, 0, false, Instant.now());
+    }
+
+    public ReindexCheckpoint advance(UUID documentId, int count) {
+        return new ReindexCheckpoint(companyId, documentId, processed + count, false, Instant.now());
+    }
+
+    public ReindexCheckpoint complete() {
+        return new ReindexCheckpoint(companyId, lastDocumentId, processed, true, Instant.now());
+    }
+}
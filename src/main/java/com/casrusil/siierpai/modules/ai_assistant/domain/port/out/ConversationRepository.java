@@ -0,0 +1,30 @@
+package com.casrusil.siierpai.modules.ai_assistant.domain.port.out;
+
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.Conversation;
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.Message;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Persistence port for AI assistant conversations.
+ *
+ * <p>
+ * Messages are appended one at a time so a turn costs a constant number of
+ * writes regardless of conversation length.
+ */
+public interface ConversationRepository {
+
+    /**
+     * Inserts or updates the conversation header (including its rolling
+     * summary). Messages are not written.
+     */
+    void saveConversation(Conversation conversation);
+
+    /**
+     * Appends a message at the given position of the conversation.
+     */
+    void appendMessage(UUID conversationId, int sequence, Message message);
+
+    Optional<Conversation> findById(UUID conversationId);
+}
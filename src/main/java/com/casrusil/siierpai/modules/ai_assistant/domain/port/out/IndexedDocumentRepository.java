@@ -0,0 +1,45 @@
+package com.casrusil.siierpai.modules.ai_assistant.domain.port.out;
+
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.IndexedDocument;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Persistence port for the content-addressable embedding cache.
+ */
+public interface IndexedDocumentRepository {
+
+    Optional<IndexedDocument> findById(UUID documentId);
+
+    List<IndexedDocument> findAllById(Collection<UUID> documentIds);
+
+    /**
+     * Looks up a previously computed vector by the hash of its text.
+     */
+    Optional<float[]> findVectorByContentHash(String contentHash);
+
+    /**
+     * Bulk variant of {@link #findVectorByContentHash(String)}; hashes with no
+     * cached vector are absent from the result.
+     */
+    Map<String, float[]> findVectorsByContentHash(Collection<String> contentHashes);
+
+    /**
+     * Keyset page over all cached documents in ascending ID order.
+     *
+     * @param afterDocumentId exclusive lower bound, or {@code null} to start
+     * @param limit           maximum number of documents to return
+     */
+    List<IndexedDocument> findPageAfter(UUID afterDocumentId, int limit);
+
+    void save(IndexedDocument document);
+
+    void saveAll(List<IndexedDocument> documents);
+
+    long countByCompanyId(CompanyId companyId);
+}
@@ -0,0 +1,16 @@
+package com.casrusil.siierpai.modules.ai_assistant.domain.port.out;
+
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.ReindexCheckpoint;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+import java.util.Optional;
+
+/**
+ * Persistence port for reindex job checkpoints (one per company).
+ */
+public interface ReindexCheckpointRepository {
+
+    Optional<ReindexCheckpoint> findByCompanyId(CompanyId companyId);
+
+    void save(ReindexCheckpoint checkpoint);
+}
@@ -6,7 +6,8 @@ import com.casrusil.siierpai.modules.accounting.application.service.SuspiciousAm
 import com.casrusil.siierpai.modules.accounting.domain.model.AuditAlert;
 import com.casrusil.siierpai.modules.accounting.domain.model.DraftF29;
 import com.casrusil.siierpai.modules.accounting.domain.service.F29CalculatorService;
-import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceQuery;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceSummary;
 import com.casrusil.siierpai.modules.invoicing.domain.port.in.SearchInvoicesUseCase;
 import com.casrusil.siierpai.modules.sustainability.infrastructure.persistence.repository.SustainabilityRecordRepository;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
@@ -60,19 +61,16 @@ public class FinancialContextBuilder {
                 var f29 = f29Draft.report();
 
                 // 2. Análisis de Facturas
-                List<Invoice> allInvoices = searchInvoicesUseCase.getInvoicesByCompany(companyId);
-
-                List<Invoice> currentMonthInvoices = allInvoices.stream()
-                                .filter(inv -> YearMonth.from(inv.getDate()).equals(currentMonth))
-                                .toList();
+                InvoiceQuery companyInvoices = InvoiceQuery.forCompany(companyId);
+                List<InvoiceSummary> currentMonthInvoices = searchInvoicesUseCase
+                                .searchSummaries(companyInvoices.inPeriod(currentMonth));
 
                 // Facturas potencialmente vencidas (>30 días)
-                List<Invoice> overdueInvoices = allInvoices.stream()
-                                .filter(inv -> inv.getDate().isBefore(today.minusDays(30)))
-                                .toList();
+                List<InvoiceSummary> overdueInvoices = searchInvoicesUseCase
+                                .searchSummaries(companyInvoices.between(null, today.minusDays(31)));
 
                 BigDecimal totalOverdue = overdueInvoices.stream()
-                                .map(Invoice::getTotalAmount)
+                                .map(InvoiceSummary::totalAmount)
                                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
                 // 3. Proyección de Flujo de Caja (3 meses)
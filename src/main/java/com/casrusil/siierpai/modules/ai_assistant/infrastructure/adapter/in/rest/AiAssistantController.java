@@ -1,14 +1,23 @@
 package com.casrusil.siierpai.modules.ai_assistant.infrastructure.adapter.in.rest;
 
+import com.casrusil.siierpai.modules.ai_assistant.application.service.ChatStreamListener;
+import com.casrusil.siierpai.modules.ai_assistant.application.service.CompanyReindexService;
 import com.casrusil.siierpai.modules.ai_assistant.application.service.ConversationService;
+import com.casrusil.siierpai.modules.ai_assistant.application.service.DocumentIndexingService;
 import com.casrusil.siierpai.modules.ai_assistant.domain.model.Conversation;
 import com.casrusil.siierpai.modules.ai_assistant.domain.model.Message;
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.ReindexCheckpoint;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import com.casrusil.siierpai.shared.domain.valueobject.UserId;
 import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -24,6 +33,13 @@ import java.util.UUID;
  * <li>{@code POST /api/v1/ai/conversations}: Iniciar nueva conversación.</li>
  * <li>{@code POST /api/v1/ai/conversations/{id}/messages}: Enviar mensaje al
  * asistente.</li>
+ * <li>{@code POST /api/v1/ai/conversations/{id}/messages/stream}: Enviar
+ * mensaje y recibir la respuesta token a token vía SSE (eventos
+ * {@code token}, {@code tool}, {@code done} y {@code error}).</li>
+ * <li>{@code POST /api/v1/ai/index/reindex}: Reindexar (o reanudar) las
+ * facturas de la empresa en segundo plano.</li>
+ * <li>{@code GET /api/v1/ai/index/status}: Documentos indexados y último
+ * checkpoint de reindexación.</li>
  * </ul>
  * 
  * @see ConversationService
@@ -34,9 +50,18 @@ import java.util.UUID;
 public class AiAssistantController {
 
     private final ConversationService conversationService;
+    private final DocumentIndexingService documentIndexingService;
+    private final CompanyReindexService companyReindexService;
+    private final long streamTimeoutMillis;
 
-    public AiAssistantController(ConversationService conversationService) {
+    public AiAssistantController(ConversationService conversationService,
+            DocumentIndexingService documentIndexingService,
+            CompanyReindexService companyReindexService,
+            @Value("${ai.chat.stream-timeout-ms:120000}") long streamTimeoutMillis) {
         this.conversationService = conversationService;
+        this.documentIndexingService = documentIndexingService;
+        this.companyReindexService = companyReindexService;
+        this.streamTimeoutMillis = streamTimeoutMillis;
     }
 
     @PostMapping("/conversations")
@@ -55,6 +80,88 @@ public class AiAssistantController {
         return ResponseEntity.ok(conversationService.sendMessage(conversationId, request.content()));
     }
 
+    @PostMapping(value = "/conversations/{conversationId}/messages/stream",
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMessage(
+            @PathVariable UUID conversationId,
+            @RequestBody SendMessageRequest request) {
+        // The request thread is released as soon as the model call is sent
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        conversationService.streamMessage(conversationId, request.content(), new SseChatStreamListener(emitter));
+        return emitter;
+    }
+
+    @PostMapping("/index/reindex")
+    public ResponseEntity<Void> reindexCompany() {
+        companyReindexService.reindexCompanyAsync(CompanyContext.requireCompanyId());
+        return ResponseEntity.accepted().build();
+    }
+
+    @GetMapping("/index/status")
+    public ResponseEntity<IndexStatusResponse> getIndexStatus() {
+        CompanyId companyId = CompanyContext.requireCompanyId();
+        return ResponseEntity.ok(new IndexStatusResponse(
+                documentIndexingService.getIndexedCount(companyId),
+                companyReindexService.getCheckpoint(companyId).orElse(null)));
+    }
+
     public record SendMessageRequest(String content) {
     }
+
+    public record IndexStatusResponse(int indexedDocuments, ReindexCheckpoint lastReindex) {
+    }
+
+    /**
+     * Relays the stream to the browser. Once the client disconnects, further
+     * events are dropped.
+     */
+    private static final class SseChatStreamListener implements ChatStreamListener {
+
+        private final SseEmitter emitter;
+        private volatile boolean closed;
+
+        private SseChatStreamListener(SseEmitter emitter) {
+            this.emitter = emitter;
+            emitter.onCompletion(() -> closed = true);
+            emitter.onTimeout(() -> closed = true);
+            emitter.onError(error -> closed = true);
+        }
+
+        @Override
+        public void onToken(String token) {
+            send(SseEmitter.event().name("token").data(token));
+        }
+
+        @Override
+        public void onToolCalls(List<String> toolNames) {
+            send(SseEmitter.event().name("tool").data(toolNames));
+        }
+
+        @Override
+        public void onComplete(Message message) {
+            if (send(SseEmitter.event().name("done").data(message))) {
+                emitter.complete();
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            if (send(SseEmitter.event().name("error").data("Error processing request: " + error.getMessage()))) {
+                emitter.complete();
+            }
+        }
+
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return false;
+            }
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                closed = true;
+                return false;
+            }
+        }
+    }
 }
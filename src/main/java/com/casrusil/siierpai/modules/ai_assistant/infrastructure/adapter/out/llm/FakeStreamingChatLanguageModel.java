@@ -0,0 +1,107 @@
+package com.casrusil.siierpai.modules.ai_assistant.infrastructure.adapter.out.llm;
+
+import com.casrusil.siierpai.modules.ai_assistant.application.service.ConversationHistoryBuilder;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local streaming chat model for tests and benchmarks.
+ *
+ * <p>
+ * Replies are taken from a script queued with {@link #enqueue(AiMessage)};
+ * when the script is empty the last user message is echoed back. Text is
+ * emitted word by word on a virtual thread after {@code firstTokenDelay},
+ * with {@code interTokenDelay} between tokens, so time-to-first-token and
+ * total latency can be measured without calling Gemini. Scripted tool calls
+ * complete immediately without tokens, as the real model does.
+ */
+public class FakeStreamingChatLanguageModel implements StreamingChatLanguageModel {
+
+    private static final Pattern TOKEN = Pattern.compile("\\S+\\s*|\\s+");
+
+    private final Duration firstTokenDelay;
+    private final Duration interTokenDelay;
+    private final Queue<AiMessage> script = new ConcurrentLinkedQueue<>();
+
+    public FakeStreamingChatLanguageModel(Duration firstTokenDelay, Duration interTokenDelay) {
+        this.firstTokenDelay = firstTokenDelay;
+        this.interTokenDelay = interTokenDelay;
+    }
+
+    /**
+     * Queue the reply for the next call.
+     */
+    public FakeStreamingChatLanguageModel enqueue(AiMessage reply) {
+        script.add(reply);
+        return this;
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler) {
+        generate(messages, List.of(), handler);
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications,
+            StreamingResponseHandler<AiMessage> handler) {
+        AiMessage reply = script.poll();
+        if (reply == null) {
+            reply = AiMessage.from(lastUserText(messages));
+        }
+        AiMessage response = reply;
+        Thread.ofVirtual().name("fake-llm-stream").start(() -> stream(messages, response, handler));
+    }
+
+    private void stream(List<ChatMessage> messages, AiMessage reply, StreamingResponseHandler<AiMessage> handler) {
+        try {
+            sleep(firstTokenDelay);
+            int outputTokens = 0;
+            if (!reply.hasToolExecutionRequests() && reply.text() != null) {
+                Matcher matcher = TOKEN.matcher(reply.text());
+                while (matcher.find()) {
+                    if (outputTokens > 0) {
+                        sleep(interTokenDelay);
+                    }
+                    handler.onNext(matcher.group());
+                    outputTokens++;
+                }
+            }
+            handler.onComplete(Response.from(reply, new TokenUsage(
+                    ConversationHistoryBuilder.estimateChatTokens(messages), outputTokens)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            handler.onError(e);
+        } catch (RuntimeException e) {
+            handler.onError(e);
+        }
+    }
+
+    private static String lastUserText(List<ChatMessage> messages) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i) instanceof UserMessage userMessage && userMessage.hasSingleText()) {
+                return userMessage.singleText();
+            }
+        }
+        return "";
+    }
+
+    private static void sleep(Duration delay) throws InterruptedException {
+        if (!delay.isZero()) {
+            TimeUnit.NANOSECONDS.sleep(delay.toNanos());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.casrusil.siierpai.modules.ai_assistant.infrastructure.adapter.out.llm;
+
+import com.casrusil.siierpai.shared.infrastructure.observability.BusinessMetricsAspect;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Decorator that reports every blocking chat model call as a
+ * {@code business.operation} observation (module {@code ai_assistant},
+ * operation {@code llm.generate}), next to the other business hot paths.
+ *
+ * <p>
+ * The tag set matches {@code BusinessMetricsAspect} (the Prometheus registry
+ * requires one key set per meter name); {@code outcome} is {@code tool_calls}
+ * when the model answered with tool requests instead of text. Token usage reported by the provider is counted
+ * in {@code ai.llm.tokens}, tagged by {@code direction}.
+ */
+public class ObservedChatLanguageModel implements ChatLanguageModel {
+
+    private static final String MODULE = "ai_assistant";
+    private static final String OPERATION = "llm.generate";
+
+    private final ChatLanguageModel delegate;
+    private final ObservationRegistry observationRegistry;
+    private final Counter inputTokens;
+    private final Counter outputTokens;
+
+    public ObservedChatLanguageModel(ChatLanguageModel delegate, ObservationRegistry observationRegistry,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.observationRegistry = observationRegistry;
+        this.inputTokens = tokenCounter(meterRegistry, "input");
+        this.outputTokens = tokenCounter(meterRegistry, "output");
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages) {
+        return observe(() -> delegate.generate(messages));
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications) {
+        return observe(() -> delegate.generate(messages, toolSpecifications));
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, ToolSpecification toolSpecification) {
+        return observe(() -> delegate.generate(messages, toolSpecification));
+    }
+
+    private Response<AiMessage> observe(Supplier<Response<AiMessage>> call) {
+        Observation observation = Observation.createNotStarted(BusinessMetricsAspect.OPERATION_METRIC,
+                observationRegistry)
+                .contextualName(MODULE + " " + OPERATION)
+                .lowCardinalityKeyValue("module", MODULE)
+                .lowCardinalityKeyValue("operation", OPERATION)
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            Response<AiMessage> response = call.get();
+            boolean toolCalls = response.content() != null && response.content().hasToolExecutionRequests();
+            observation.lowCardinalityKeyValue("outcome", toolCalls ? "tool_calls" : "success");
+            recordTokens(response);
+            return response;
+        } catch (RuntimeException e) {
+            observation.lowCardinalityKeyValue("outcome", "error");
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private void recordTokens(Response<AiMessage> response) {
+        if (response.tokenUsage() == null) {
+            return;
+        }
+        if (response.tokenUsage().inputTokenCount() != null) {
+            inputTokens.increment(response.tokenUsage().inputTokenCount());
+        }
+        if (response.tokenUsage().outputTokenCount() != null) {
+            outputTokens.increment(response.tokenUsage().outputTokenCount());
+        }
+    }
+
+    private static Counter tokenCounter(MeterRegistry meterRegistry, String direction) {
+        return Counter.builder("ai.llm.tokens")
+                .description("Tokens exchanged with the chat model")
+                .baseUnit("tokens")
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+}
@@ -1,26 +1,42 @@
 package com.casrusil.siierpai.modules.ai_assistant.infrastructure.config;
 
+import com.casrusil.siierpai.modules.ai_assistant.infrastructure.adapter.out.llm.FakeStreamingChatLanguageModel;
+import com.casrusil.siierpai.modules.ai_assistant.infrastructure.adapter.out.llm.ObservedChatLanguageModel;
 import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
 import dev.langchain4j.model.googleai.GoogleAiGeminiChatModel;
+import dev.langchain4j.model.googleai.GoogleAiGeminiStreamingChatModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 /**
  * Configuración para la integración con Google Gemini AI.
  * 
  * <p>
- * Configura el bean {@link ChatLanguageModel} usando LangChain4j.
+ * Configura los beans {@link ChatLanguageModel} y
+ * {@link StreamingChatLanguageModel} usando LangChain4j.
  * Se utiliza una temperatura de 0.0 para garantizar respuestas deterministas,
  * crucial para aplicaciones contables y financieras donde la precisión es
  * prioritaria
  * sobre la creatividad.
  * 
+ * <p>
+ * El modelo bloqueante se envuelve en {@link ObservedChatLanguageModel} para
+ * medir latencia y tokens de cada llamada a Gemini.
+ * 
  * <h2>Propiedades requeridas:</h2>
  * <ul>
  * <li>{@code langchain4j.google-ai-gemini.chat-model.api-key}</li>
  * <li>{@code langchain4j.google-ai-gemini.chat-model.model-name} (default:
  * gemini-1.5-flash)</li>
+ * <li>{@code ai.chat.fake-streaming} (default: false): usa
+ * {@link FakeStreamingChatLanguageModel} en lugar de Gemini para el streaming,
+ * útil en pruebas de carga sin consumir cuota.</li>
  * </ul>
  * 
  * @since 1.0
@@ -35,11 +51,26 @@ public class GeminiConfig {
     private String modelName;
 
     @Bean
-    public ChatLanguageModel chatLanguageModel() {
-        return GoogleAiGeminiChatModel.builder()
+    public ChatLanguageModel chatLanguageModel(ObservationRegistry observationRegistry,
+            MeterRegistry meterRegistry) {
+        ChatLanguageModel gemini = GoogleAiGeminiChatModel.builder()
                 .apiKey(apiKey)
                 .modelName(modelName)
                 .temperature(0.0) // Deterministic for accounting
                 .build();
+        return new ObservedChatLanguageModel(gemini, observationRegistry, meterRegistry);
+    }
+
+    @Bean
+    public StreamingChatLanguageModel streamingChatLanguageModel(
+            @Value("${ai.chat.fake-streaming:false}") boolean fakeStreaming) {
+        if (fakeStreaming) {
+            return new FakeStreamingChatLanguageModel(Duration.ofMillis(300), Duration.ofMillis(20));
+        }
+        return GoogleAiGeminiStreamingChatModel.builder()
+                .apiKey(apiKey)
+                .modelName(modelName)
+                .temperature(0.0)
+                .build();
     }
 }
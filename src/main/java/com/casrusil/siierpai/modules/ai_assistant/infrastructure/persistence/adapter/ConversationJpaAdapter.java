@@ -0,0 +1,69 @@
+package com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.adapter;
+
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.Conversation;
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.Message;
+import com.casrusil.siierpai.modules.ai_assistant.domain.port.out.ConversationRepository;
+import com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.entity.ConversationEntity;
+import com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.entity.ConversationMessageEntity;
+import com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.repository.ConversationJpaRepository;
+import com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.repository.ConversationMessageJpaRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.domain.valueobject.UserId;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+public class ConversationJpaAdapter implements ConversationRepository {
+
+    private final ConversationJpaRepository conversationJpaRepository;
+    private final ConversationMessageJpaRepository messageJpaRepository;
+
+    public ConversationJpaAdapter(ConversationJpaRepository conversationJpaRepository,
+            ConversationMessageJpaRepository messageJpaRepository) {
+        this.conversationJpaRepository = conversationJpaRepository;
+        this.messageJpaRepository = messageJpaRepository;
+    }
+
+    @Override
+    public void saveConversation(Conversation conversation) {
+        conversationJpaRepository.save(new ConversationEntity(
+                conversation.getId(),
+                conversation.getCompanyId().value(),
+                conversation.getUserId().value(),
+                conversation.getStartedAt(),
+                conversation.getSummary(),
+                conversation.getSummarizedCount()));
+    }
+
+    @Override
+    public void appendMessage(UUID conversationId, int sequence, Message message) {
+        messageJpaRepository.save(new ConversationMessageEntity(
+                UUID.randomUUID(),
+                conversationId,
+                sequence,
+                message.role(),
+                message.content(),
+                message.timestamp()));
+    }
+
+    @Override
+    public Optional<Conversation> findById(UUID conversationId) {
+        return conversationJpaRepository.findById(conversationId).map(entity -> {
+            List<Message> messages = messageJpaRepository.findByConversationIdOrderBySequenceAsc(conversationId)
+                    .stream()
+                    .map(message -> new Message(message.getRole(), message.getContent(), message.getCreatedAt()))
+                    .toList();
+            return new Conversation(
+                    entity.getId(),
+                    new CompanyId(entity.getCompanyId()),
+                    new UserId(entity.getUserId()),
+                    entity.getStartedAt(),
+                    messages,
+                    entity.getSummary(),
+                    entity.getSummarizedCount());
+        });
+    }
+}
@@ -0,0 +1,115 @@
+package com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.adapter;
+
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.IndexedDocument;
+import com.casrusil.siierpai.modules.ai_assistant.domain.port.out.IndexedDocumentRepository;
+import com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.entity.IndexedDocumentEntity;
+import com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.repository.IndexedDocumentJpaRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+public class IndexedDocumentJpaAdapter implements IndexedDocumentRepository {
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final IndexedDocumentJpaRepository jpaRepository;
+
+    public IndexedDocumentJpaAdapter(IndexedDocumentJpaRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+
+    @Override
+    public Optional<IndexedDocument> findById(UUID documentId) {
+        return jpaRepository.findById(documentId).map(this::toDomain);
+    }
+
+    @Override
+    public List<IndexedDocument> findAllById(Collection<UUID> documentIds) {
+        return jpaRepository.findAllById(documentIds).stream().map(this::toDomain).toList();
+    }
+
+    @Override
+    public Optional<float[]> findVectorByContentHash(String contentHash) {
+        return jpaRepository.findFirstByContentHash(contentHash).map(entity -> toFloats(entity.getVector()));
+    }
+
+    @Override
+    public Map<String, float[]> findVectorsByContentHash(Collection<String> contentHashes) {
+        Map<String, float[]> vectors = new HashMap<>();
+        if (contentHashes.isEmpty()) {
+            return vectors;
+        }
+        for (IndexedDocumentEntity entity : jpaRepository.findByContentHashIn(contentHashes)) {
+            vectors.putIfAbsent(entity.getContentHash(), toFloats(entity.getVector()));
+        }
+        return vectors;
+    }
+
+    @Override
+    public List<IndexedDocument> findPageAfter(UUID afterDocumentId, int limit) {
+        UUID after = afterDocumentId != null ? afterDocumentId : MIN_UUID;
+        return jpaRepository.findPageAfter(after, PageRequest.of(0, limit)).stream().map(this::toDomain).toList();
+    }
+
+    @Override
+    public void save(IndexedDocument document) {
+        jpaRepository.save(toEntity(document));
+    }
+
+    @Override
+    public void saveAll(List<IndexedDocument> documents) {
+        jpaRepository.saveAll(documents.stream().map(this::toEntity).toList());
+    }
+
+    @Override
+    public long countByCompanyId(CompanyId companyId) {
+        return jpaRepository.countByCompanyId(companyId.value());
+    }
+
+    private IndexedDocumentEntity toEntity(IndexedDocument document) {
+        return new IndexedDocumentEntity(
+                document.documentId(),
+                document.companyId().value(),
+                document.contentHash(),
+                document.embeddingId(),
+                toBytes(document.vector()),
+                document.text(),
+                document.folio(),
+                document.documentDate(),
+                document.indexedAt());
+    }
+
+    private IndexedDocument toDomain(IndexedDocumentEntity entity) {
+        return new IndexedDocument(
+                entity.getDocumentId(),
+                new CompanyId(entity.getCompanyId()),
+                entity.getContentHash(),
+                entity.getEmbeddingId(),
+                toFloats(entity.getVector()),
+                entity.getText(),
+                entity.getFolio(),
+                entity.getDocumentDate(),
+                entity.getIndexedAt());
+    }
+
+    private static byte[] toBytes(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    private static float[] toFloats(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).asFloatBuffer().get(vector);
+        return vector;
+    }
+}
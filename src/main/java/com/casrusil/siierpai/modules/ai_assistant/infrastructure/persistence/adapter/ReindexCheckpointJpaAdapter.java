@@ -0,0 +1,41 @@
+package com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.adapter;
+
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.ReindexCheckpoint;
+import com.casrusil.siierpai.modules.ai_assistant.domain.port.out.ReindexCheckpointRepository;
+import com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.entity.ReindexCheckpointEntity;
+import com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.repository.ReindexCheckpointJpaRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+public class ReindexCheckpointJpaAdapter implements ReindexCheckpointRepository {
+
+    private final ReindexCheckpointJpaRepository jpaRepository;
+
+    public ReindexCheckpointJpaAdapter(ReindexCheckpointJpaRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+
+    @Override
+    public Optional<ReindexCheckpoint> findByCompanyId(CompanyId companyId) {
+        return jpaRepository.findById(companyId.value())
+                .map(entity -> new ReindexCheckpoint(
+                        new CompanyId(entity.getCompanyId()),
+                        entity.getLastDocumentId(),
+                        entity.getProcessed(),
+                        entity.isCompleted(),
+                        entity.getUpdatedAt()));
+    }
+
+    @Override
+    public void save(ReindexCheckpoint checkpoint) {
+        jpaRepository.save(new ReindexCheckpointEntity(
+                checkpoint.companyId().value(),
+                checkpoint.lastDocumentId(),
+                checkpoint.processed(),
+                checkpoint.completed(),
+                checkpoint.updatedAt()));
+    }
+}
@@ -0,0 +1,71 @@
+package com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Entidad JPA para la cabecera de una conversación con el asistente.
+ *
+ * @since 1.0
+ */
+@Entity
+@Table(name = "conversations", schema = "ai_assistant")
+public class ConversationEntity {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "company_id", nullable = false)
+    private UUID companyId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "summary", columnDefinition = "TEXT")
+    private String summary;
+
+    @Column(name = "summarized_count", nullable = false)
+    private int summarizedCount;
+
+    public ConversationEntity() {
+    }
+
+    public ConversationEntity(UUID id, UUID companyId, UUID userId, Instant startedAt, String summary,
+            int summarizedCount) {
+        this.id = id;
+        this.companyId = companyId;
+        this.userId = userId;
+        this.startedAt = startedAt;
+        this.summary = summary;
+        this.summarizedCount = summarizedCount;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public int getSummarizedCount() {
+        return summarizedCount;
+    }
+}
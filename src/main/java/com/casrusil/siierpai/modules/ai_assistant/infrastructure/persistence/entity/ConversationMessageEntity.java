@@ -0,0 +1,72 @@
+package com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Entidad JPA para un mensaje de una conversación.
+ *
+ * @since 1.0
+ */
+@Entity
+@Table(name = "conversation_messages", schema = "ai_assistant", uniqueConstraints = @UniqueConstraint(columnNames = {
+        "conversation_id", "seq_no" }))
+public class ConversationMessageEntity {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "conversation_id", nullable = false)
+    private UUID conversationId;
+
+    @Column(name = "seq_no", nullable = false)
+    private int sequence;
+
+    @Column(name = "role", nullable = false, length = 20)
+    private String role;
+
+    @Column(name = "content", columnDefinition = "TEXT")
+    private String content;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public ConversationMessageEntity() {
+    }
+
+    public ConversationMessageEntity(UUID id, UUID conversationId, int sequence, String role, String content,
+            Instant createdAt) {
+        this.id = id;
+        this.conversationId = conversationId;
+        this.sequence = sequence;
+        this.role = role;
+        this.content = content;
+        this.createdAt = createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getConversationId() {
+        return conversationId;
+    }
+
+    public int getSequence() {
+        return sequence;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
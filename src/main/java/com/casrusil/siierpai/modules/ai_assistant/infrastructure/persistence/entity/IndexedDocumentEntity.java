@@ -0,0 +1,104 @@
+package com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Entidad JPA del caché de embeddings.
+ *
+ * <p>
+ * Un registro por documento indexado. El vector se guarda como bytes
+ * (float32 big-endian) para no depender de extensiones de la base de datos.
+ *
+ * @since 1.0
+ */
+@Entity
+@Table(name = "indexed_documents", schema = "ai_assistant", indexes = {
+        @Index(name = "idx_indexed_documents_company", columnList = "company_id"),
+        @Index(name = "idx_indexed_documents_hash", columnList = "content_hash")
+})
+public class IndexedDocumentEntity {
+
+    @Id
+    @Column(name = "document_id")
+    private UUID documentId;
+
+    @Column(name = "company_id", nullable = false)
+    private UUID companyId;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "embedding_id")
+    private String embeddingId;
+
+    @Column(name = "embedding_vector", nullable = false, length = 8192)
+    private byte[] vector;
+
+    @Column(name = "segment_text", nullable = false, columnDefinition = "TEXT")
+    private String text;
+
+    @Column(name = "folio")
+    private Long folio;
+
+    @Column(name = "document_date")
+    private LocalDate documentDate;
+
+    @Column(name = "indexed_at", nullable = false)
+    private Instant indexedAt;
+
+    public IndexedDocumentEntity() {
+    }
+
+    public IndexedDocumentEntity(UUID documentId, UUID companyId, String contentHash, String embeddingId,
+            byte[] vector, String text, Long folio, LocalDate documentDate, Instant indexedAt) {
+        this.documentId = documentId;
+        this.companyId = companyId;
+        this.contentHash = contentHash;
+        this.embeddingId = embeddingId;
+        this.vector = vector;
+        this.text = text;
+        this.folio = folio;
+        this.documentDate = documentDate;
+        this.indexedAt = indexedAt;
+    }
+
+    public UUID getDocumentId() {
+        return documentId;
+    }
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public String getEmbeddingId() {
+        return embeddingId;
+    }
+
+    public byte[] getVector() {
+        return vector;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Long getFolio() {
+        return folio;
+    }
+
+    public LocalDate getDocumentDate() {
+        return documentDate;
+    }
+
+    public Instant getIndexedAt() {
+        return indexedAt;
+    }
+}
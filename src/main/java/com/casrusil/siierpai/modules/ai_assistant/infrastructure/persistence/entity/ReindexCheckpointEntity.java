@@ -0,0 +1,64 @@
+package com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Entidad JPA para el checkpoint de reindexación por empresa.
+ *
+ * @since 1.0
+ */
+@Entity
+@Table(name = "reindex_checkpoints", schema = "ai_assistant")
+public class ReindexCheckpointEntity {
+
+    @Id
+    @Column(name = "company_id")
+    private UUID companyId;
+
+    @Column(name = "last_document_id")
+    private UUID lastDocumentId;
+
+    @Column(name = "processed", nullable = false)
+    private long processed;
+
+    @Column(name = "completed", nullable = false)
+    private boolean completed;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public ReindexCheckpointEntity() {
+    }
+
+    public ReindexCheckpointEntity(UUID companyId, UUID lastDocumentId, long processed, boolean completed,
+            Instant updatedAt) {
+        this.companyId = companyId;
+        this.lastDocumentId = lastDocumentId;
+        this.processed = processed;
+        this.completed = completed;
+        this.updatedAt = updatedAt;
+    }
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public UUID getLastDocumentId() {
+        return lastDocumentId;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
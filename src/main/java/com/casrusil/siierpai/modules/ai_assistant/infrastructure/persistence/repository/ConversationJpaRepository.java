@@ -0,0 +1,11 @@
+package com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.repository;
+
+import com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.entity.ConversationEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ConversationJpaRepository extends JpaRepository<ConversationEntity, UUID> {
+}
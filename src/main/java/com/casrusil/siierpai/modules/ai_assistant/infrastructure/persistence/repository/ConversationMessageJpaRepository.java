@@ -0,0 +1,14 @@
+package com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.repository;
+
+import com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.entity.ConversationMessageEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ConversationMessageJpaRepository extends JpaRepository<ConversationMessageEntity, UUID> {
+
+    List<ConversationMessageEntity> findByConversationIdOrderBySequenceAsc(UUID conversationId);
+}
@@ -0,0 +1,26 @@
+package com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.repository;
+
+import com.casrusil.siierpai.modules.ai_assistant.infrastructure.persistence.entity.IndexedDocumentEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface IndexedDocumentJpaRepository extends JpaRepository<IndexedDocumentEntity, UUID> {
+
+    Optional<IndexedDocumentEntity> findFirstByContentHash(String contentHash);
+
+    List<IndexedDocumentEntity> findByContentHashIn(Collection<String> contentHashes);
+
+    @Query("SELECT d FROM IndexedDocumentEntity d WHERE d.documentId > :after ORDER BY d.documentId")
+    List<IndexedDocumentEntity> findPageAfter(@Param("after") UUID after, Pageable pageable);
+
+    long countByCompanyId(UUID companyId);
+}
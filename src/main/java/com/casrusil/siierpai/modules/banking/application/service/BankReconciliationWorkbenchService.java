@@ -5,6 +5,7 @@ import com.casrusil.siierpai.modules.banking.application.dto.ReconciliationDashb
 import com.casrusil.siierpai.modules.banking.domain.model.BankTransaction;
 import com.casrusil.siierpai.modules.banking.domain.port.out.BankTransactionRepository;
 import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceQuery;
 import com.casrusil.siierpai.modules.invoicing.domain.model.PaymentStatus;
 import com.casrusil.siierpai.modules.invoicing.domain.model.TransactionType;
 import com.casrusil.siierpai.modules.invoicing.domain.port.out.InvoiceRepository;
@@ -44,9 +45,7 @@ public class BankReconciliationWorkbenchService {
         List<BankTransaction> bankLines = bankTransactionRepository.findUnreconciledByCompanyId(companyId);
 
         // 2. Fetch Unmatched ERP Lines (Pending Invoices)
-        List<Invoice> erpLines = invoiceRepository.findByCompanyId(companyId).stream()
-                .filter(inv -> inv.getStatus() != PaymentStatus.PAID)
-                .toList();
+        List<Invoice> erpLines = invoiceRepository.find(InvoiceQuery.forCompany(companyId).open());
 
         // 3. Run AI Matching
         List<MatchSuggestionDTO> suggestions = runAiMatching(bankLines, erpLines);
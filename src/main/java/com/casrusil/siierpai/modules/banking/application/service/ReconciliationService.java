@@ -7,6 +7,7 @@ import com.casrusil.siierpai.modules.banking.domain.model.BankTransaction;
 import com.casrusil.siierpai.modules.banking.domain.model.ReconciliationMatch;
 import com.casrusil.siierpai.modules.banking.domain.port.out.BankTransactionRepository;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.infrastructure.observability.Monitored;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -53,6 +54,7 @@ public class ReconciliationService {
     /**
      * Encuentra coincidencias automáticas.
      */
+    @Monitored(module = "banking", operation = "reconciliation.match")
     @Transactional(readOnly = true)
     public List<ReconciliationMatch> findMatches(CompanyId companyId) {
         List<ReconciliationMatch> matches = new ArrayList<>();
@@ -21,7 +21,9 @@ import java.util.UUID;
  * @since 1.0
  */
 @Entity
-@Table(name = "bank_transactions")
+@Table(name = "bank_transactions", indexes = {
+        @Index(name = "idx_bank_transactions_company_date", columnList = "company_id, date, reconciled")
+})
 public class BankTransactionEntity {
 
     @Id
@@ -6,7 +6,10 @@ import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "fee_receipts", schema = "fees")
+@Table(name = "fee_receipts", schema = "fees", indexes = {
+        @Index(name = "idx_fee_receipts_company_issue_date", columnList = "company_id, issue_date"),
+        @Index(name = "idx_fee_receipts_company_document", columnList = "company_id, folio, issuer_rut")
+})
 public class FeeReceiptEntity {
 
     public enum Status {
@@ -0,0 +1,94 @@
+package com.casrusil.siierpai.modules.integration_sii.application.service;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.event.DteTrackResolvedEvent;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrack;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrackDocument;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.DteTrackRepository;
+import com.casrusil.siierpai.shared.domain.event.EventPublisher;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Registers uploaded DTE envelopes for status tracking and records their
+ * outcome.
+ *
+ * <p>
+ * {@link #track} only stores the envelope; the status queries run in
+ * {@link com.casrusil.siierpai.modules.integration_sii.infrastructure.scheduler.DteTrackPoller},
+ * one per envelope however many DTEs it carries.
+ */
+@Service
+public class DteTrackingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DteTrackingService.class);
+
+    private final DteTrackRepository trackRepository;
+    private final EventPublisher eventPublisher;
+    private final Duration initialDelay;
+
+    public DteTrackingService(DteTrackRepository trackRepository, EventPublisher eventPublisher,
+            @Value("${sii.dte.tracking.initial-delay-ms:5000}") long initialDelayMillis) {
+        this.trackRepository = trackRepository;
+        this.eventPublisher = eventPublisher;
+        this.initialDelay = Duration.ofMillis(initialDelayMillis);
+    }
+
+    /**
+     * Starts tracking the envelope {@code trackId}. If the company already
+     * tracks it, the documents are added to that track instead, so the
+     * envelope is still queried once.
+     *
+     * @param companyRut RUT of the company the envelope was sent for
+     */
+    @Transactional
+    public DteTrack track(CompanyId companyId, String trackId, String companyRut,
+            List<DteTrackDocument> documents) {
+        Instant now = Instant.now();
+        DteTrack track = trackRepository.findByTrackId(companyId, trackId)
+                .map(existing -> existing.withDocuments(documents, now))
+                .orElseGet(() -> DteTrack.register(companyId, trackId, companyRut, documents, now,
+                        now.plus(initialDelay)));
+        track = trackRepository.save(track);
+        logger.debug("Tracking envelope {} of company {} with {} DTEs", trackId, companyId,
+                track.documents().size());
+        return track;
+    }
+
+    /**
+     * Saves a track that reached a final state and announces the verdict of
+     * all its documents in the same transaction.
+     */
+    @Transactional
+    public DteTrack resolve(DteTrack track) {
+        if (!track.status().isFinal()) {
+            throw new IllegalArgumentException("Track " + track.trackId() + " is not final: " + track.status());
+        }
+        DteTrack saved = trackRepository.save(track);
+        eventPublisher.publish(new DteTrackResolvedEvent(saved.companyId(), saved.trackId(), saved.status(),
+                saved.siiState(), saved.documents(), saved.updatedAt()));
+        return saved;
+    }
+
+    public Optional<DteTrack> find(CompanyId companyId, String trackId) {
+        return trackRepository.findByTrackId(companyId, trackId);
+    }
+
+    /**
+     * Latest SII verdict of each of the given invoices; invoices never sent
+     * are left out.
+     */
+    public List<DteTrackDocument> findDocuments(CompanyId companyId, Collection<UUID> invoiceIds) {
+        return trackRepository.findDocuments(companyId, invoiceIds);
+    }
+}
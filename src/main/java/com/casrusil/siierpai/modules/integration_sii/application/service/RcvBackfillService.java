@@ -0,0 +1,81 @@
+package com.casrusil.siierpai.modules.integration_sii.application.service;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvBackfillJob;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.RcvBackfillJobRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Registers and looks up RCV backfill jobs.
+ *
+ * <p>
+ * {@link #start} only queues the job; the download and import run in
+ * {@link com.casrusil.siierpai.modules.integration_sii.infrastructure.scheduler.RcvBackfillWorker},
+ * outside the request thread.
+ */
+@Service
+public class RcvBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RcvBackfillService.class);
+    private static final ZoneId CHILE_ZONE = ZoneId.of("America/Santiago");
+
+    private final RcvBackfillJobRepository jobRepository;
+    private final int maxMonths;
+
+    public RcvBackfillService(RcvBackfillJobRepository jobRepository,
+            @Value("${sii.rcv.backfill.max-months:72}") int maxMonths) {
+        this.jobRepository = jobRepository;
+        this.maxMonths = maxMonths;
+    }
+
+    /**
+     * Queues the backfill of {@code from}..{@code to}. If the company already
+     * has an unfinished job, that one is returned instead: one backfill per
+     * company at a time, and retrying the request does not duplicate it.
+     *
+     * @param notifyUserId user that receives progress notifications, or
+     *                     {@code null}
+     * @throws IllegalArgumentException if the range is empty, in the future or
+     *                                  longer than
+     *                                  {@code sii.rcv.backfill.max-months}
+     */
+    @Transactional
+    public RcvBackfillJob start(CompanyId companyId, YearMonth from, YearMonth to, String notifyUserId) {
+        if (to.isAfter(YearMonth.now(CHILE_ZONE))) {
+            throw new IllegalArgumentException("Backfill cannot reach a future period: " + to);
+        }
+        Optional<RcvBackfillJob> active = jobRepository.findActive(companyId);
+        if (active.isPresent()) {
+            logger.info("RCV backfill of company {} already in progress ({})", companyId, active.get().id());
+            return active.get();
+        }
+
+        RcvBackfillJob job = RcvBackfillJob.queue(companyId, from, to, notifyUserId, Instant.now());
+        if (job.totalPeriods() > maxMonths) {
+            throw new IllegalArgumentException(
+                    "Backfill of " + job.totalPeriods() + " periods exceeds the limit of " + maxMonths);
+        }
+        job = jobRepository.save(job);
+        logger.info("RCV backfill {}..{} of company {} queued as {}", from, to, companyId, job.id());
+        return job;
+    }
+
+    public Optional<RcvBackfillJob> find(CompanyId companyId, UUID jobId) {
+        return jobRepository.findById(companyId, jobId);
+    }
+
+    public List<RcvBackfillJob> findRecent(CompanyId companyId, int limit) {
+        return jobRepository.findRecent(companyId, limit);
+    }
+}
@@ -1,13 +1,32 @@
 package com.casrusil.siierpai.modules.integration_sii.application.service;
 
 import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvData;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvRegister;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvRegisters;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvSnapshot;
 import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiToken;
 import com.casrusil.siierpai.modules.integration_sii.domain.port.in.DownloadRcvUseCase;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.RcvSnapshotRepository;
 import com.casrusil.siierpai.modules.integration_sii.domain.port.out.SiiSoapPort;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Servicio de aplicación para la descarga del Registro de Compras y Ventas
@@ -24,6 +43,14 @@ import java.util.List;
  * <li>Descargar registro de ventas (para declarar IVA Débito).</li>
  * </ul>
  * 
+ * <p>
+ * {@link #downloadRegisters} descarga ambos registros en paralelo dentro de un
+ * {@link StructuredTaskScope} (si uno falla, el otro se cancela) y los guarda
+ * como {@link RcvSnapshot}. Mientras la copia esté vigente se sirve sin llamar
+ * al SII: {@code sii.rcv.cache.open-ttl-minutes} para periodos abiertos y
+ * {@code sii.rcv.cache.closed-ttl-days} para periodos cerrados, cuyo RCV ya no
+ * cambia.
+ * 
  * @see DownloadRcvUseCase
  * @see RcvData
  * @since 1.0
@@ -31,10 +58,100 @@ import java.util.List;
 @Service
 public class SiiRcvService implements DownloadRcvUseCase {
 
+    private static final Logger logger = LoggerFactory.getLogger(SiiRcvService.class);
+    private static final DateTimeFormatter SII_PERIOD = DateTimeFormatter.ofPattern("yyyyMM");
+
     private final SiiSoapPort siiSoapPort;
+    private final RcvSnapshotRepository snapshotRepository;
+    private final Duration openTtl;
+    private final Duration closedTtl;
+    private final Duration downloadTimeout;
 
-    public SiiRcvService(SiiSoapPort siiSoapPort) {
+    public SiiRcvService(SiiSoapPort siiSoapPort,
+            RcvSnapshotRepository snapshotRepository,
+            @Value("${sii.rcv.cache.open-ttl-minutes:15}") long openTtlMinutes,
+            @Value("${sii.rcv.cache.closed-ttl-days:30}") long closedTtlDays,
+            @Value("${sii.rcv.download-timeout-seconds:120}") long downloadTimeoutSeconds) {
         this.siiSoapPort = siiSoapPort;
+        this.snapshotRepository = snapshotRepository;
+        this.openTtl = Duration.ofMinutes(openTtlMinutes);
+        this.closedTtl = Duration.ofDays(closedTtlDays);
+        this.downloadTimeout = Duration.ofSeconds(downloadTimeoutSeconds);
+    }
+
+    /**
+     * Obtiene los registros de compras y ventas del periodo, en paralelo y desde
+     * la caché cuando está vigente.
+     *
+     * @param periodClosed si el periodo está cerrado (su RCV se cachea por más
+     *                     tiempo)
+     */
+    public RcvRegisters downloadRegisters(SiiToken token, CompanyId companyId, String rutEmpresa, YearMonth period,
+            boolean periodClosed) {
+        if (!token.isValid()) {
+            throw new IllegalArgumentException("Token is expired or invalid");
+        }
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            StructuredTaskScope.Subtask<List<RcvData>> purchases = scope.fork(
+                    () -> cachedRegister(token, companyId, rutEmpresa, period, RcvRegister.PURCHASES, periodClosed));
+            StructuredTaskScope.Subtask<List<RcvData>> sales = scope.fork(
+                    () -> cachedRegister(token, companyId, rutEmpresa, period, RcvRegister.SALES, periodClosed));
+
+            scope.joinUntil(Instant.now().plus(downloadTimeout));
+            scope.throwIfFailed(e -> e instanceof RuntimeException runtime ? runtime
+                    : new IllegalStateException("RCV download failed: " + e.getMessage(), e));
+            return new RcvRegisters(purchases.get(), sales.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while downloading the RCV", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("RCV download of " + period + " timed out after " + downloadTimeout, e);
+        }
+    }
+
+    private List<RcvData> cachedRegister(SiiToken token, CompanyId companyId, String rutEmpresa, YearMonth period,
+            RcvRegister register, boolean periodClosed) {
+        Instant now = Instant.now();
+        Optional<RcvSnapshot> cached = snapshotRepository.find(companyId, period, register);
+        if (cached.isPresent() && cached.get().isFresh(now)) {
+            logger.debug("RCV {} {} of company {} served from snapshot", register, period, companyId);
+            return cached.get().entries();
+        }
+
+        List<RcvData> entries = siiSoapPort.getRcv(token, rutEmpresa, period.format(SII_PERIOD),
+                register == RcvRegister.PURCHASES);
+        String contentHash = contentHash(entries);
+        if (cached.isPresent() && cached.get().contentHash().equals(contentHash)) {
+            logger.debug("RCV {} {} of company {} unchanged since {}", register, period, companyId,
+                    cached.get().fetchedAt());
+        }
+
+        RcvSnapshot snapshot = new RcvSnapshot(companyId, period, register, contentHash, entries, now,
+                now.plus(periodClosed ? closedTtl : openTtl));
+        try {
+            snapshotRepository.save(snapshot);
+        } catch (DataAccessException e) {
+            // A concurrent audit stored the same register first; the download is still valid
+            logger.debug("RCV snapshot {} {} of company {} not stored: {}", register, period, companyId,
+                    e.getMessage());
+        }
+        return entries;
+    }
+
+    /**
+     * SHA-256 (hex) of the register entries in download order.
+     */
+    static String contentHash(List<RcvData> entries) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (RcvData entry : entries) {
+                digest.update(entry.toString().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     @Override
@@ -0,0 +1,36 @@
+package com.casrusil.siierpai.modules.integration_sii.domain.event;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrackDocument;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrackStatus;
+import com.casrusil.siierpai.shared.domain.event.DomainEvent;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Evento de dominio que indica que un envío de DTE tiene respuesta final del
+ * SII (o dejó de seguirse sin ella).
+ *
+ * <p>
+ * Lleva el resultado de todos los documentos del envío, para que los
+ * interesados actualicen sus facturas de una vez en lugar de consultar el
+ * estado de cada una.
+ *
+ * @param companyId  ID de la empresa.
+ * @param trackId    Track ID asignado por el SII al envío.
+ * @param status     {@code PROCESSED}, {@code REJECTED} o {@code EXPIRED}.
+ * @param siiState   Último estado del envío informado por el SII.
+ * @param documents  Resultado de cada documento del envío.
+ * @param occurredOn Momento de la resolución.
+ *
+ * @see com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrack
+ */
+public record DteTrackResolvedEvent(
+        CompanyId companyId,
+        String trackId,
+        DteTrackStatus status,
+        String siiState,
+        List<DteTrackDocument> documents,
+        Instant occurredOn) implements DomainEvent {
+}
@@ -0,0 +1,18 @@
+package com.casrusil.siierpai.modules.integration_sii.domain.model;
+
+/**
+ * SII verdict on a single DTE of a tracked envelope.
+ *
+ * <ul>
+ * <li>{@link #PENDING}: the envelope has not been processed yet.</li>
+ * <li>{@link #ACCEPTED}: accepted.</li>
+ * <li>{@link #ACCEPTED_WITH_REPAIRS}: accepted with objections
+ * ("reparos").</li>
+ * <li>{@link #REJECTED}: rejected, alone or with its envelope.</li>
+ * <li>{@link #UNKNOWN}: the envelope result does not tell, e.g. mixed totals
+ * for its type without per-document detail, or tracking expired.</li>
+ * </ul>
+ */
+public enum DteDocumentStatus {
+    PENDING, ACCEPTED, ACCEPTED_WITH_REPAIRS, REJECTED, UNKNOWN
+}
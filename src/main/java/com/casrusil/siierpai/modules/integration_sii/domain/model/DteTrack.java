@@ -0,0 +1,163 @@
+package com.casrusil.siierpai.modules.integration_sii.domain.model;
+
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * An uploaded DTE envelope whose SII verdict is still being followed, with
+ * the documents it carries.
+ *
+ * <p>
+ * A company has at most one track per SII trackId, however many invoices were
+ * sent in the envelope, so each envelope costs one status query per poll.
+ * {@code availableAt} is when the poller may query it again: the next poll,
+ * or the end of the lease of the instance polling it. Every transition
+ * returns a copy.
+ *
+ * @param companyRut RUT of the company the envelope was sent for, as the
+ *                   status query requires it
+ * @param siiState   last envelope state reported by the SII
+ * @param polls      status queries made so far; drives the backoff
+ * @param detail     last SII gloss or query error
+ */
+public record DteTrack(
+        UUID id,
+        CompanyId companyId,
+        String trackId,
+        String companyRut,
+        DteTrackStatus status,
+        String siiState,
+        List<DteTrackDocument> documents,
+        int polls,
+        String detail,
+        Instant createdAt,
+        Instant updatedAt,
+        Instant availableAt) {
+
+    public DteTrack {
+        documents = List.copyOf(documents);
+    }
+
+    public static DteTrack register(CompanyId companyId, String trackId, String companyRut,
+            List<DteTrackDocument> documents, Instant now, Instant firstPoll) {
+        return new DteTrack(UUID.randomUUID(), companyId, trackId, companyRut, DteTrackStatus.PENDING, null,
+                documents, 0, null, now, now, firstPoll);
+    }
+
+    /**
+     * Adds the documents of {@code more} that are not tracked yet; the poll
+     * schedule is kept.
+     */
+    public DteTrack withDocuments(List<DteTrackDocument> more, Instant now) {
+        Set<UUID> tracked = new HashSet<>();
+        documents.forEach(document -> tracked.add(document.invoiceId()));
+        List<DteTrackDocument> merged = new ArrayList<>(documents);
+        more.stream().filter(document -> tracked.add(document.invoiceId())).forEach(merged::add);
+        return new DteTrack(id, companyId, trackId, companyRut, status, siiState, merged, polls, detail, createdAt,
+                now, availableAt);
+    }
+
+    /**
+     * The SII is still processing the envelope; query again at
+     * {@code nextPoll}.
+     */
+    public DteTrack inProcess(String state, Instant now, Instant nextPoll) {
+        return new DteTrack(id, companyId, trackId, companyRut, DteTrackStatus.PENDING, state, documents, polls + 1,
+                null, createdAt, now, nextPoll);
+    }
+
+    /**
+     * The query failed; it counts as a poll, so retries back off as well.
+     */
+    public DteTrack retry(String error, Instant now, Instant nextPoll) {
+        return new DteTrack(id, companyId, trackId, companyRut, DteTrackStatus.PENDING, siiState, documents,
+                polls + 1, error, createdAt, now, nextPoll);
+    }
+
+    /**
+     * Throttled or the SII circuit is open: query again at {@code nextPoll}
+     * without counting a poll.
+     */
+    public DteTrack postpone(Instant now, Instant nextPoll) {
+        return new DteTrack(id, companyId, trackId, companyRut, DteTrackStatus.PENDING, siiState, documents, polls,
+                detail, createdAt, now, nextPoll);
+    }
+
+    /**
+     * No final answer within the tracking window; documents still pending
+     * become {@link DteDocumentStatus#UNKNOWN}.
+     */
+    public DteTrack expired(Instant now) {
+        List<DteTrackDocument> resolved = documents.stream()
+                .map(document -> document.status() == DteDocumentStatus.PENDING
+                        ? document.resolve(DteDocumentStatus.UNKNOWN, "No final answer from the SII")
+                        : document)
+                .toList();
+        return new DteTrack(id, companyId, trackId, companyRut, DteTrackStatus.EXPIRED, siiState, resolved, polls,
+                detail, createdAt, now, now);
+    }
+
+    /**
+     * Applies a final answer to every document of the envelope at once.
+     * Per-document results win; otherwise the totals of the document type
+     * decide when they are unanimous.
+     */
+    public DteTrack resolve(DteUploadStatus answer, Instant now) {
+        if (answer.envelopeRejected()) {
+            String reason = answer.state() + (answer.gloss() != null ? ": " + answer.gloss() : "");
+            List<DteTrackDocument> rejected = documents.stream()
+                    .map(document -> document.resolve(DteDocumentStatus.REJECTED, reason))
+                    .toList();
+            return new DteTrack(id, companyId, trackId, companyRut, DteTrackStatus.REJECTED, answer.state(),
+                    rejected, polls + 1, answer.gloss(), createdAt, now, now);
+        }
+
+        Map<String, DteUploadStatus.DocumentResult> reported = new HashMap<>();
+        answer.documents().forEach(result -> reported.put(key(result.type(), result.folio()), result));
+        Map<Integer, DteUploadStatus.TypeTotals> totals = new HashMap<>();
+        answer.totals().forEach(typeTotals -> totals.put(typeTotals.type(), typeTotals));
+
+        List<DteTrackDocument> resolved = documents.stream()
+                .map(document -> {
+                    DteUploadStatus.DocumentResult result = reported.get(key(document.type(), document.folio()));
+                    if (result != null) {
+                        return document.resolve(result.status(), result.detail());
+                    }
+                    DteDocumentStatus fromTotals = fromTotals(totals.get(document.type()));
+                    return document.resolve(fromTotals, fromTotals == DteDocumentStatus.UNKNOWN
+                            ? "No per-document result for DTE type " + document.type()
+                            : null);
+                })
+                .toList();
+        return new DteTrack(id, companyId, trackId, companyRut, DteTrackStatus.PROCESSED, answer.state(), resolved,
+                polls + 1, answer.gloss(), createdAt, now, now);
+    }
+
+    private static DteDocumentStatus fromTotals(DteUploadStatus.TypeTotals totals) {
+        if (totals == null) {
+            return DteDocumentStatus.UNKNOWN;
+        }
+        if (totals.rejected() == 0 && totals.repairs() == 0 && totals.accepted() > 0) {
+            return DteDocumentStatus.ACCEPTED;
+        }
+        if (totals.accepted() == 0 && totals.repairs() == 0 && totals.rejected() > 0) {
+            return DteDocumentStatus.REJECTED;
+        }
+        if (totals.accepted() == 0 && totals.rejected() == 0 && totals.repairs() > 0) {
+            return DteDocumentStatus.ACCEPTED_WITH_REPAIRS;
+        }
+        return DteDocumentStatus.UNKNOWN;
+    }
+
+    private static String key(int type, long folio) {
+        return type + ":" + folio;
+    }
+}
@@ -0,0 +1,27 @@
+package com.casrusil.siierpai.modules.integration_sii.domain.model;
+
+import java.util.UUID;
+
+/**
+ * One DTE inside a tracked envelope, with its SII verdict.
+ *
+ * @param invoiceId invoice the DTE was issued from
+ * @param type      DTE type code (33, 61, ...)
+ * @param folio     DTE folio
+ * @param detail    SII reason for a rejection or objection, if any
+ */
+public record DteTrackDocument(
+        UUID invoiceId,
+        int type,
+        long folio,
+        DteDocumentStatus status,
+        String detail) {
+
+    public static DteTrackDocument pending(UUID invoiceId, int type, long folio) {
+        return new DteTrackDocument(invoiceId, type, folio, DteDocumentStatus.PENDING, null);
+    }
+
+    public DteTrackDocument resolve(DteDocumentStatus status, String detail) {
+        return new DteTrackDocument(invoiceId, type, folio, status, detail);
+    }
+}
@@ -0,0 +1,24 @@
+package com.casrusil.siierpai.modules.integration_sii.domain.model;
+
+/**
+ * States of a DTE envelope being tracked after upload.
+ *
+ * <ul>
+ * <li>{@link #PENDING}: waiting for its next status query.</li>
+ * <li>{@link #POLLING}: taken by the poller under a lease. A track whose lease
+ * expired (the instance died) is taken again.</li>
+ * <li>{@link #PROCESSED}: the SII processed the envelope; each document has
+ * its own verdict. Final.</li>
+ * <li>{@link #REJECTED}: the SII rejected the whole envelope (schema,
+ * signature, cover). Final.</li>
+ * <li>{@link #EXPIRED}: no final answer within the tracking window.
+ * Final.</li>
+ * </ul>
+ */
+public enum DteTrackStatus {
+    PENDING, POLLING, PROCESSED, REJECTED, EXPIRED;
+
+    public boolean isFinal() {
+        return this == PROCESSED || this == REJECTED || this == EXPIRED;
+    }
+}
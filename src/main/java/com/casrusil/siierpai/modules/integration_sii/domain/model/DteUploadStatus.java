@@ -0,0 +1,60 @@
+package com.casrusil.siierpai.modules.integration_sii.domain.model;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * SII answer to an upload status query ({@code QueryEstUp}) for one
+ * envelope.
+ *
+ * <p>
+ * {@code state} is the SII code of the envelope: in process ({@code REC},
+ * {@code SOK}, {@code FOK}, {@code PDR}, ...), processed ({@code EPR}, or
+ * {@code RPR}/{@code RLV} with objections), or a rejection of the whole
+ * envelope ({@code RSC}, {@code RFR}, {@code RCT}, ...). Negative or numeric
+ * codes mean the query itself failed (token, RUT or trackId not valid).
+ *
+ * @param totals    counts per DTE type, only once processed
+ * @param documents per-document results, when the answer carries them
+ */
+public record DteUploadStatus(
+        String state,
+        String gloss,
+        List<TypeTotals> totals,
+        List<DocumentResult> documents) {
+
+    private static final Set<String> IN_PROCESS = Set.of("REC", "SOK", "FOK", "PDR", "PRD", "CRT");
+    private static final Set<String> PROCESSED = Set.of("EPR", "RPR", "RLV");
+
+    /**
+     * Counts of one DTE type in a processed envelope.
+     */
+    public record TypeTotals(int type, int reported, int accepted, int rejected, int repairs) {
+    }
+
+    /**
+     * Verdict of one DTE, as reported by the SII.
+     */
+    public record DocumentResult(int type, long folio, DteDocumentStatus status, String detail) {
+    }
+
+    public boolean inProcess() {
+        return IN_PROCESS.contains(state);
+    }
+
+    public boolean processed() {
+        return PROCESSED.contains(state);
+    }
+
+    /**
+     * The query was not answered for this envelope: the SII returned an error
+     * code instead of an envelope state.
+     */
+    public boolean queryFailed() {
+        return state == null || state.isEmpty() || state.startsWith("-") || Character.isDigit(state.charAt(0));
+    }
+
+    public boolean envelopeRejected() {
+        return !inProcess() && !processed() && !queryFailed();
+    }
+}
@@ -0,0 +1,111 @@
+package com.casrusil.siierpai.modules.integration_sii.domain.model;
+
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Download and import of the purchase and sales RCV of a range of periods,
+ * typically the history of a newly onboarded company.
+ *
+ * <p>
+ * Periods are processed oldest first, both registers of a period at a time.
+ * {@code checkpoint} is the last period fully imported; a resumed job starts
+ * right after it. {@code availableAt} is when a worker may take the job: now,
+ * the next retry, or the end of the lease of the worker running it. Every
+ * transition returns a copy.
+ *
+ * @param checkpoint        last period fully imported, {@code null} before the
+ *                          first one
+ * @param documentsImported invoices created so far (already existing documents
+ *                          are not counted)
+ * @param attempts          consecutive failed attempts; reset by progress
+ * @param detail            last error
+ * @param notifyUserId      user that receives progress notifications, if any
+ */
+public record RcvBackfillJob(
+        UUID id,
+        CompanyId companyId,
+        YearMonth fromPeriod,
+        YearMonth toPeriod,
+        YearMonth checkpoint,
+        RcvBackfillStatus status,
+        long documentsImported,
+        int attempts,
+        String detail,
+        String notifyUserId,
+        Instant createdAt,
+        Instant updatedAt,
+        Instant availableAt) {
+
+    public static RcvBackfillJob queue(CompanyId companyId, YearMonth fromPeriod, YearMonth toPeriod,
+            String notifyUserId, Instant now) {
+        if (fromPeriod.isAfter(toPeriod)) {
+            throw new IllegalArgumentException("Backfill range is empty: " + fromPeriod + " > " + toPeriod);
+        }
+        return new RcvBackfillJob(UUID.randomUUID(), companyId, fromPeriod, toPeriod, null, RcvBackfillStatus.QUEUED,
+                0, 0, null, notifyUserId, now, now, now);
+    }
+
+    public int totalPeriods() {
+        return (int) ChronoUnit.MONTHS.between(fromPeriod, toPeriod) + 1;
+    }
+
+    public int completedPeriods() {
+        return checkpoint == null ? 0 : (int) ChronoUnit.MONTHS.between(fromPeriod, checkpoint) + 1;
+    }
+
+    /**
+     * Periods still to import, oldest first. Each one stands for its
+     * (period, {@link RcvRegister}) pairs.
+     */
+    public List<YearMonth> remainingPeriods() {
+        List<YearMonth> periods = new ArrayList<>(totalPeriods() - completedPeriods());
+        for (YearMonth period = checkpoint == null ? fromPeriod : checkpoint.plusMonths(1);
+                !period.isAfter(toPeriod); period = period.plusMonths(1)) {
+            periods.add(period);
+        }
+        return periods;
+    }
+
+    /**
+     * {@code period} fully imported; the lease is renewed until
+     * {@code leaseUntil}.
+     */
+    public RcvBackfillJob checkpoint(YearMonth period, int imported, Instant now, Instant leaseUntil) {
+        return new RcvBackfillJob(id, companyId, fromPeriod, toPeriod, period, status, documentsImported + imported,
+                0, null, notifyUserId, createdAt, now, leaseUntil);
+    }
+
+    public RcvBackfillJob completed(Instant now) {
+        return new RcvBackfillJob(id, companyId, fromPeriod, toPeriod, checkpoint, RcvBackfillStatus.COMPLETED,
+                documentsImported, attempts, null, notifyUserId, createdAt, now, now);
+    }
+
+    public RcvBackfillJob failed(String error, Instant now) {
+        return new RcvBackfillJob(id, companyId, fromPeriod, toPeriod, checkpoint, RcvBackfillStatus.FAILED,
+                documentsImported, attempts + 1, error, notifyUserId, createdAt, now, now);
+    }
+
+    /**
+     * An attempt failed; back to the queue from {@code nextAttempt}.
+     */
+    public RcvBackfillJob retry(String error, Instant now, Instant nextAttempt) {
+        return new RcvBackfillJob(id, companyId, fromPeriod, toPeriod, checkpoint, RcvBackfillStatus.QUEUED,
+                documentsImported, attempts + 1, error, notifyUserId, createdAt, now, nextAttempt);
+    }
+
+    /**
+     * Throttled or the SII circuit is open: back to the queue from
+     * {@code nextAttempt} without spending an attempt.
+     */
+    public RcvBackfillJob postpone(Instant now, Instant nextAttempt) {
+        return new RcvBackfillJob(id, companyId, fromPeriod, toPeriod, checkpoint, RcvBackfillStatus.QUEUED,
+                documentsImported, attempts, detail, notifyUserId, createdAt, now, nextAttempt);
+    }
+}
@@ -0,0 +1,21 @@
+package com.casrusil.siierpai.modules.integration_sii.domain.model;
+
+/**
+ * States of an RCV backfill job.
+ *
+ * <ul>
+ * <li>{@link #QUEUED}: waiting for a worker (new, retrying or throttled).</li>
+ * <li>{@link #RUNNING}: taken by a worker under a lease. A job whose lease
+ * expired (the worker died) is taken again and resumes from its
+ * checkpoint.</li>
+ * <li>{@link #COMPLETED}: every period imported. Final.</li>
+ * <li>{@link #FAILED}: gave up after the configured attempts. Final.</li>
+ * </ul>
+ */
+public enum RcvBackfillStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED;
+
+    public boolean isFinal() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -0,0 +1,8 @@
+package com.casrusil.siierpai.modules.integration_sii.domain.model;
+
+/**
+ * The two registers of the SII RCV (Registro de Compras y Ventas).
+ */
+public enum RcvRegister {
+    PURCHASES, SALES
+}
@@ -0,0 +1,18 @@
+package com.casrusil.siierpai.modules.integration_sii.domain.model;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Purchase and sales registers of one tax period.
+ */
+public record RcvRegisters(List<RcvData> purchases, List<RcvData> sales) {
+
+    public Stream<RcvData> all() {
+        return Stream.concat(purchases.stream(), sales.stream());
+    }
+
+    public int size() {
+        return purchases.size() + sales.size();
+    }
+}
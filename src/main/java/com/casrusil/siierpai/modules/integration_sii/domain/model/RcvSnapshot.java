@@ -0,0 +1,28 @@
+package com.casrusil.siierpai.modules.integration_sii.domain.model;
+
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * A persisted copy of one RCV register as downloaded from the SII.
+ * Served instead of calling the SII again until {@code expiresAt}.
+ *
+ * @param contentHash SHA-256 of the entries, to tell a changed register from
+ *                    an unchanged one on refresh
+ */
+public record RcvSnapshot(
+        CompanyId companyId,
+        YearMonth period,
+        RcvRegister register,
+        String contentHash,
+        List<RcvData> entries,
+        Instant fetchedAt,
+        Instant expiresAt) {
+
+    public boolean isFresh(Instant now) {
+        return now.isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,39 @@
+package com.casrusil.siierpai.modules.integration_sii.domain.port.out;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrack;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrackDocument;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Port for tracked DTE envelopes; the table is also the work queue of the
+ * status poller.
+ */
+public interface DteTrackRepository {
+
+    /**
+     * Saves the track and its documents. Documents whose verdict changed are
+     * updated in bulk, one statement per distinct verdict.
+     */
+    DteTrack save(DteTrack track);
+
+    Optional<DteTrack> findByTrackId(CompanyId companyId, String trackId);
+
+    /**
+     * Latest tracked verdict of each of the given invoices that was ever
+     * sent.
+     */
+    List<DteTrackDocument> findDocuments(CompanyId companyId, Collection<UUID> invoiceIds);
+
+    /**
+     * Takes up to {@code limit} unfinished tracks due at {@code now} and marks
+     * them polling until {@code leaseUntil}. Several instances may claim at
+     * once without taking the same track.
+     */
+    List<DteTrack> claim(Instant now, Instant leaseUntil, int limit);
+}
@@ -0,0 +1,34 @@
+package com.casrusil.siierpai.modules.integration_sii.domain.port.out;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvBackfillJob;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Port for RCV backfill jobs; the table is also the work queue of the
+ * backfill workers.
+ */
+public interface RcvBackfillJobRepository {
+
+    RcvBackfillJob save(RcvBackfillJob job);
+
+    Optional<RcvBackfillJob> findById(CompanyId companyId, UUID id);
+
+    /**
+     * The company's job that is not finished yet, if any.
+     */
+    Optional<RcvBackfillJob> findActive(CompanyId companyId);
+
+    List<RcvBackfillJob> findRecent(CompanyId companyId, int limit);
+
+    /**
+     * Takes up to {@code limit} unfinished jobs available at {@code now} and
+     * marks them running until {@code leaseUntil}. Several instances may claim
+     * at once without taking the same job.
+     */
+    List<RcvBackfillJob> claim(Instant now, Instant leaseUntil, int limit);
+}
@@ -0,0 +1,22 @@
+package com.casrusil.siierpai.modules.integration_sii.domain.port.out;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvRegister;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvSnapshot;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+import java.time.YearMonth;
+import java.util.Optional;
+
+/**
+ * Port for the persisted RCV snapshot cache, one snapshot per
+ * (company, period, register).
+ */
+public interface RcvSnapshotRepository {
+
+    Optional<RcvSnapshot> find(CompanyId companyId, YearMonth period, RcvRegister register);
+
+    /**
+     * Inserts or replaces the snapshot of the same (company, period, register).
+     */
+    RcvSnapshot save(RcvSnapshot snapshot);
+}
@@ -1,5 +1,6 @@
 package com.casrusil.siierpai.modules.integration_sii.domain.port.out;
 
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteUploadStatus;
 import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvData;
 import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiToken;
 import java.util.List;
@@ -10,4 +11,6 @@ public interface SiiSoapPort {
     String getToken(String signedSeed);
 
     List<RcvData> getRcv(SiiToken token, String rutEmpresa, String period, boolean isPurchase);
+
+    DteUploadStatus getUploadStatus(SiiToken token, String rutEmpresa, String trackId);
 }
@@ -1,5 +1,7 @@
 package com.casrusil.siierpai.modules.integration_sii.domain.service;
 
+import com.casrusil.siierpai.modules.integration_sii.application.service.DteTrackingService;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrackDocument;
 import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiCertificate;
 import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiToken;
 import com.casrusil.siierpai.modules.integration_sii.domain.port.out.SiiTokenRepository;
@@ -12,10 +14,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.w3c.dom.Document;
 
 import java.time.format.DateTimeFormatter;
 import com.casrusil.siierpai.modules.sso.domain.exception.CertificateNotFoundException;
 import com.casrusil.siierpai.modules.sso.domain.port.out.CompanyCertificateRepository;
+import com.casrusil.siierpai.shared.infrastructure.observability.Monitored;
+import java.util.List;
 import java.util.Optional;
 import java.io.ByteArrayInputStream;
 
@@ -44,6 +49,7 @@ public class DteSenderService {
 
     private final com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.rest.SiiUploadClient siiUploadClient;
     private final com.casrusil.siierpai.modules.sso.domain.port.out.CompanyCertificateRepository certificateRepository;
+    private final DteTrackingService dteTrackingService;
 
     public DteSenderService(
             XmlDsigSigner xmlDsigSigner,
@@ -54,7 +60,8 @@ public class DteSenderService {
             com.casrusil.siierpai.modules.integration_sii.infrastructure.xml.DteXmlBuilder dteXmlBuilder,
             com.casrusil.siierpai.modules.integration_sii.infrastructure.xml.EnvioDteBuilder envioDteBuilder,
             com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.rest.SiiUploadClient siiUploadClient,
-            com.casrusil.siierpai.modules.sso.domain.port.out.CompanyCertificateRepository certificateRepository) {
+            com.casrusil.siierpai.modules.sso.domain.port.out.CompanyCertificateRepository certificateRepository,
+            DteTrackingService dteTrackingService) {
         this.xmlDsigSigner = xmlDsigSigner;
         this.tokenRepository = tokenRepository;
         this.pkcs12Handler = pkcs12Handler;
@@ -64,6 +71,7 @@ public class DteSenderService {
         this.envioDteBuilder = envioDteBuilder;
         this.siiUploadClient = siiUploadClient;
         this.certificateRepository = certificateRepository;
+        this.dteTrackingService = dteTrackingService;
     }
 
     /**
@@ -73,6 +81,7 @@ public class DteSenderService {
      * @param companyId The company ID
      * @return true if sent successfully, false otherwise
      */
+    @Monitored(module = "integration_sii", operation = "dte.send")
     public boolean sendInvoice(Invoice invoice, CompanyId companyId) {
         logger.info("Sending Invoice #{} to SII for company {}", invoice.getFolio(), companyId);
 
@@ -90,19 +99,19 @@ public class DteSenderService {
             // 3. Build DTE XML (Injecting TED)
             String dteXml = dteXmlBuilder.buildDte(invoice, tedXml);
 
-            // 4. Sign DTE (Individual Signature)
+            // 4. Sign DTE (Individual Signature); the DOM is kept through the envelope and the upload
             SiiCertificate certificate = loadCertificateForCompany(companyId);
             String dteId = "DTE_" + invoice.getFolio(); // Must match ID in DteXmlBuilder
-            String signedDteXml = xmlDsigSigner.signXml(dteXml, dteId, certificate);
+            Document signedDte = xmlDsigSigner.sign(xmlDsigSigner.parse(dteXml), dteId, certificate);
 
             // 5. Wrap in EnvioDTE
             // Extract RUTs from invoice (real data from SII)
             String rutEmisor = invoice.getIssuerRut(); // RUT del emisor (quien emite la factura)
             String rutEmpresa = invoice.getIssuerRut(); // RUT de la empresa (usualmente el mismo)
-            String envioXml = envioDteBuilder.wrap(signedDteXml, companyId, rutEmisor, rutEmpresa);
+            Document envio = envioDteBuilder.wrap(signedDte, companyId, rutEmisor, rutEmpresa);
 
             // 6. Sign EnvioDTE (SetDoc Signature)
-            String signedEnvioXml = xmlDsigSigner.signXml(envioXml, "SetDoc", certificate);
+            Document signedEnvio = xmlDsigSigner.sign(envio, "SetDoc", certificate);
 
             // 7. Get SII Token
             SiiToken token = tokenRepository.findByCompanyId(companyId)
@@ -115,9 +124,13 @@ public class DteSenderService {
             }
 
             // 8. Upload to SII
-            String trackId = siiUploadClient.uploadEnvioDte(token.token(), signedEnvioXml, rutEmisor, rutEmpresa);
+            String trackId = siiUploadClient.uploadEnvioDte(token.token(),
+                    out -> xmlDsigSigner.write(signedEnvio, out), rutEmisor, rutEmpresa);
 
             logger.info("Invoice #{} sent successfully. Track ID: {}", invoice.getFolio(), trackId);
+
+            // 9. Track the envelope; its SII status is polled in bulk by DteTrackPoller
+            trackEnvelope(invoice, companyId, trackId, rutEmpresa);
             return true;
 
         } catch (Exception e) {
@@ -126,6 +139,20 @@ public class DteSenderService {
         }
     }
 
+    /**
+     * Register the uploaded envelope for status polling. The DTE is already at
+     * the SII, so a failure here is logged without failing the send.
+     */
+    private void trackEnvelope(Invoice invoice, CompanyId companyId, String trackId, String rutEmpresa) {
+        try {
+            dteTrackingService.track(companyId, trackId, rutEmpresa, List.of(DteTrackDocument.pending(
+                    invoice.getId(), invoice.getType().getCode(), invoice.getFolio())));
+        } catch (Exception e) {
+            logger.error("Invoice #{} was sent with Track ID {} but could not be tracked: {}", invoice.getFolio(),
+                    trackId, e.getMessage(), e);
+        }
+    }
+
     /**
      * Load SII certificate for a company.
      * 
@@ -0,0 +1,153 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.in.rest;
+
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.simulator.SiiSimulator;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.simulator.SiiSimulator.Encoded;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.simulator.SiiSimulator.Reply;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.simulator.SiiSimulator.SignatureCheck;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Sustituto local de los servicios del SII, publicado dentro de la propia
+ * aplicación sobre un {@link SiiSimulator}: semilla y token, recepción de DTE,
+ * estado del envío y descarga del RCV.
+ *
+ * <p>
+ * Las rutas replican las del SII bajo {@code /fake-sii}, así que basta activar
+ * el perfil {@code sii-sim} para que {@code SiiAuthService},
+ * {@code DteSenderService} y {@code RcvDownloadService} hablen con él. Para
+ * pruebas de carga donde el simulador no debe competir por CPU con la
+ * aplicación, la misma lógica corre aparte con {@code SiiSimulatorServer}.
+ * Igual que {@link FakeSiiF29Controller}, la latencia se simula sin ocupar el
+ * hilo de la petición.
+ *
+ * <h2>Configuración:</h2>
+ * <ul>
+ * <li>{@code sii.fake.enabled} - publica el sustituto en
+ * {@code /fake-sii}</li>
+ * <li>{@code sii.fake.latency-ms} / {@code jitter-ms} - latencia de cada
+ * respuesta</li>
+ * <li>{@code sii.fake.error-rate} - fracción de respuestas {@code 503}</li>
+ * <li>{@code sii.fake.rcv-documents} - documentos por registro del RCV</li>
+ * <li>{@code sii.fake.processing-ms} - tiempo hasta que un envío queda
+ * procesado</li>
+ * <li>{@code sii.fake.rejection-rate} - fracción de documentos rechazados</li>
+ * <li>{@code sii.fake.signature-check} - {@code NONE}, {@code STRUCTURAL} o
+ * {@code FULL}</li>
+ * <li>{@code sii.fake.require-token} - exige tokens emitidos por el
+ * sustituto</li>
+ * </ul>
+ */
+@RestController
+@RequestMapping("/fake-sii")
+@ConditionalOnProperty(name = "sii.fake.enabled", havingValue = "true")
+public class FakeSiiController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeSiiController.class);
+    private static final MediaType TEXT_XML = MediaType.parseMediaType(SiiSimulator.CONTENT_TYPE);
+
+    private final SiiSimulator simulator;
+
+    @Autowired
+    public FakeSiiController(@Value("${sii.fake.latency-ms:100}") long latencyMillis,
+            @Value("${sii.fake.jitter-ms:50}") long jitterMillis,
+            @Value("${sii.fake.error-rate:0.0}") double errorRate,
+            @Value("${sii.fake.rcv-documents:500}") int rcvDocuments,
+            @Value("${sii.fake.processing-ms:2000}") long processingMillis,
+            @Value("${sii.fake.rejection-rate:0.0}") double rejectionRate,
+            @Value("${sii.fake.token-ttl-seconds:3600}") long tokenTtlSeconds,
+            @Value("${sii.fake.signature-check:STRUCTURAL}") SignatureCheck signatureCheck,
+            @Value("${sii.fake.require-token:true}") boolean requireToken) {
+        this(new SiiSimulator(new SiiSimulator.Settings(latencyMillis, jitterMillis, errorRate, rcvDocuments,
+                processingMillis, rejectionRate, Duration.ofSeconds(tokenTtlSeconds), signatureCheck,
+                requireToken)));
+        logger.warn("Fake SII endpoints enabled at /fake-sii (latency {} ms, signature check {})",
+                latencyMillis, signatureCheck);
+    }
+
+    public FakeSiiController(SiiSimulator simulator) {
+        this.simulator = simulator;
+    }
+
+    @PostMapping(value = "/DTEWS/CrSeed.jws", consumes = MediaType.ALL_VALUE)
+    public CompletableFuture<ResponseEntity<byte[]>> seed(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return delayed(acceptEncoding, simulator::seed);
+    }
+
+    @PostMapping(value = "/DTEWS/GetTokenFromSeed.jws", consumes = MediaType.ALL_VALUE)
+    public CompletableFuture<ResponseEntity<byte[]>> token(@RequestBody byte[] body,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return delayed(acceptEncoding, () -> simulator.token(SiiSimulator.decode(body, contentEncoding)));
+    }
+
+    @PostMapping(value = "/DTEWS/QueryEstUp.jws", consumes = MediaType.ALL_VALUE)
+    public CompletableFuture<ResponseEntity<byte[]>> uploadStatus(@RequestBody byte[] body,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return delayed(acceptEncoding, () -> simulator.uploadStatus(SiiSimulator.decode(body, contentEncoding)));
+    }
+
+    @PostMapping(value = "/cgi_dte/UPL/DTEUpload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public CompletableFuture<ResponseEntity<byte[]>> upload(@RequestParam String rutSender,
+            @RequestParam String rutCompany, @RequestParam("archivo") MultipartFile archivo,
+            @CookieValue(value = "TOKEN", required = false) String token,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
+            throws IOException {
+        byte[] content = archivo.getBytes();
+        return delayed(acceptEncoding, () -> simulator.upload(token, rutSender, rutCompany, content));
+    }
+
+    @PostMapping(value = "/rcv", consumes = MediaType.ALL_VALUE)
+    public CompletableFuture<ResponseEntity<byte[]>> rcv(@RequestBody byte[] body,
+            @CookieValue(value = "TOKEN", required = false) String token,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return delayed(acceptEncoding, () -> simulator.rcv(token, SiiSimulator.decode(body, contentEncoding)));
+    }
+
+    /**
+     * Contadores del simulador, para cruzarlos con las métricas de la
+     * aplicación en una prueba de carga.
+     */
+    @GetMapping("/stats")
+    public Map<String, Long> stats() {
+        return simulator.stats();
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> delayed(String acceptEncoding, Supplier<Reply> handler) {
+        // Failures are decided up front so a retried upload is never registered twice
+        Reply reply = simulator.injectFailure() ? simulator.unavailable() : handler.get();
+        Encoded encoded = simulator.encode(reply, acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(encoded.status()).contentType(TEXT_XML);
+        if (encoded.gzipped()) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        ResponseEntity<byte[]> entity = response.body(encoded.body());
+        return CompletableFuture.supplyAsync(() -> entity,
+                CompletableFuture.delayedExecutor(simulator.delayMillis(), TimeUnit.MILLISECONDS));
+    }
+}
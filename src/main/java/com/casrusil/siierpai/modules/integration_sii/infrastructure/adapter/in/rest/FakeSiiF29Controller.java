@@ -0,0 +1,163 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.in.rest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Sustituto local del servicio de recepción de F29 del SII.
+ *
+ * <p>
+ * Atiende el mismo protocolo que consume
+ * {@link com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.rest.SiiF29Client}
+ * para probar el pipeline de envíos sin red: en tests de integración y en
+ * pruebas de carga locales (throughput y latencia de los workers). La latencia
+ * se simula sin ocupar el hilo de la petición, de modo que el sustituto no es
+ * el cuello de botella de la medición.
+ *
+ * <p>
+ * Un envío sin firma o sin periodo se rechaza en la recepción. Los demás
+ * reciben un track ID y quedan {@code EN_PROCESO} durante
+ * {@code processing-ms}; luego se aceptan o, con probabilidad
+ * {@code rejection-rate}, se rechazan. Con probabilidad {@code error-rate} la
+ * recepción responde {@code 503} para ejercitar los reintentos.
+ *
+ * <h2>Configuración:</h2>
+ * <ul>
+ * <li>{@code sii.f29.fake.enabled} - publica el sustituto en
+ * {@code /fake-sii/f29}</li>
+ * <li>{@code sii.f29.fake.latency-ms} / {@code jitter-ms} - latencia de cada
+ * respuesta</li>
+ * <li>{@code sii.f29.fake.processing-ms} - tiempo hasta el veredicto</li>
+ * <li>{@code sii.f29.fake.rejection-rate} - fracción de envíos rechazados</li>
+ * <li>{@code sii.f29.fake.error-rate} - fracción de recepciones con
+ * {@code 503}</li>
+ * </ul>
+ */
+@RestController
+@RequestMapping("/fake-sii/f29")
+@ConditionalOnProperty(name = "sii.f29.fake.enabled", havingValue = "true")
+public class FakeSiiF29Controller {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeSiiF29Controller.class);
+    private static final MediaType TEXT_XML = MediaType.parseMediaType("text/xml;charset=ISO-8859-1");
+
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final Duration processing;
+    private final double rejectionRate;
+    private final double errorRate;
+
+    private final AtomicLong trackIds = new AtomicLong(System.currentTimeMillis() / 1000);
+    private final Map<String, Verdict> verdicts = new ConcurrentHashMap<>();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong refused = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    public FakeSiiF29Controller(@Value("${sii.f29.fake.latency-ms:200}") long latencyMillis,
+            @Value("${sii.f29.fake.jitter-ms:100}") long jitterMillis,
+            @Value("${sii.f29.fake.processing-ms:1000}") long processingMillis,
+            @Value("${sii.f29.fake.rejection-rate:0.0}") double rejectionRate,
+            @Value("${sii.f29.fake.error-rate:0.0}") double errorRate) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.processing = Duration.ofMillis(processingMillis);
+        this.rejectionRate = rejectionRate;
+        this.errorRate = errorRate;
+        logger.warn("Fake SII F29 endpoint enabled at /fake-sii/f29 (latency {} ms, rejection rate {})",
+                latencyMillis, rejectionRate);
+    }
+
+    @PostMapping(value = "/upload", consumes = MediaType.ALL_VALUE)
+    public CompletableFuture<ResponseEntity<String>> upload(@RequestBody String xml) {
+        return delayed(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < errorRate) {
+                errors.incrementAndGet();
+                return ResponseEntity.status(503).contentType(TEXT_XML).body("<ERROR>Servicio no disponible</ERROR>");
+            }
+            if (!xml.contains("Signature") || !xml.contains("<Periodo>")) {
+                refused.incrementAndGet();
+                return xml(recepcion(5, null, "Documento sin firma o sin periodo"));
+            }
+
+            String trackId = Long.toString(trackIds.incrementAndGet());
+            boolean rejected = random.nextDouble() < rejectionRate;
+            verdicts.put(trackId, new Verdict(Instant.now().plus(processing),
+                    rejected ? "RECHAZADO" : "ACEPTADO",
+                    rejected ? "Declaración rechazada (simulado)" : "Declaración aceptada"));
+            received.incrementAndGet();
+            return xml(recepcion(0, trackId, "Envío recibido"));
+        });
+    }
+
+    @GetMapping("/status")
+    public CompletableFuture<ResponseEntity<String>> status(@RequestParam String trackId) {
+        return delayed(() -> {
+            Verdict verdict = verdicts.get(trackId);
+            if (verdict == null) {
+                return xml(estado("RECHAZADO", "Track ID desconocido"));
+            }
+            if (Instant.now().isBefore(verdict.readyAt())) {
+                return xml(estado("EN_PROCESO", "En revisión"));
+            }
+            return xml(estado(verdict.estado(), verdict.glosa()));
+        });
+    }
+
+    /**
+     * Contadores del sustituto, para cruzarlos con las métricas de los workers
+     * en una prueba de carga.
+     */
+    @GetMapping("/stats")
+    public Map<String, Long> stats() {
+        return Map.of(
+                "received", received.get(),
+                "refused", refused.get(),
+                "errors", errors.get(),
+                "accepted", verdicts.values().stream().filter(v -> v.estado().equals("ACEPTADO")).count(),
+                "rejected", verdicts.values().stream().filter(v -> v.estado().equals("RECHAZADO")).count());
+    }
+
+    private <T> CompletableFuture<T> delayed(Supplier<T> response) {
+        long delay = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        return CompletableFuture.supplyAsync(response,
+                CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS));
+    }
+
+    private static ResponseEntity<String> xml(String body) {
+        return ResponseEntity.ok().contentType(TEXT_XML).body(body);
+    }
+
+    private static String recepcion(int status, String trackId, String glosa) {
+        return "<RECEPCIONF29><STATUS>" + status + "</STATUS>"
+                + (trackId != null ? "<TRACKID>" + trackId + "</TRACKID>" : "")
+                + "<GLOSA>" + glosa + "</GLOSA></RECEPCIONF29>";
+    }
+
+    private static String estado(String estado, String glosa) {
+        return "<ESTADOF29><ESTADO>" + estado + "</ESTADO><GLOSA>" + glosa + "</GLOSA></ESTADOF29>";
+    }
+
+    private record Verdict(Instant readyAt, String estado, String glosa) {
+    }
+}
@@ -1,18 +1,30 @@
 package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.in.rest;
 
+import com.casrusil.siierpai.modules.integration_sii.application.service.DteTrackingService;
+import com.casrusil.siierpai.modules.integration_sii.application.service.RcvBackfillService;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrackDocument;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvBackfillJob;
 import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvData;
 import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiCertificate;
 import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiToken;
 import com.casrusil.siierpai.modules.integration_sii.domain.port.in.AuthenticateSiiUseCase;
 import com.casrusil.siierpai.modules.integration_sii.domain.port.in.DownloadRcvUseCase;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.in.rest.dto.DteTrackDto;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.in.rest.dto.RcvBackfillJobDto;
 import com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto.Pkcs12Handler;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.domain.valueobject.UserId;
 import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Controlador REST para operaciones directas con el SII.
@@ -25,6 +37,14 @@ import java.util.List;
  * <h2>Endpoints:</h2>
  * <ul>
  * <li>{@code POST /api/v1/sii/ops/fetch-rcv}: Descargar RCV desde el SII.</li>
+ * <li>{@code POST /api/v1/sii/ops/rcv-backfill}: Encolar la carga histórica
+ * del RCV de un rango de periodos.</li>
+ * <li>{@code GET /api/v1/sii/ops/rcv-backfill[/{jobId}]}: Avance de las
+ * cargas históricas.</li>
+ * <li>{@code GET /api/v1/sii/ops/dte-tracks/{trackId}}: Estado de un envío de
+ * DTE y de cada documento.</li>
+ * <li>{@code GET /api/v1/sii/ops/dte-status?invoiceIds=...}: Resultado en el
+ * SII de un conjunto de facturas.</li>
  * </ul>
  * 
  * @see DownloadRcvUseCase
@@ -38,6 +58,8 @@ public class SiiIntegrationController {
     private final DownloadRcvUseCase downloadRcvUseCase;
     private final Pkcs12Handler pkcs12Handler;
     private final com.casrusil.siierpai.shared.domain.event.EventPublisher eventPublisher;
+    private final RcvBackfillService rcvBackfillService;
+    private final DteTrackingService dteTrackingService;
 
     @Value("${sii.test.cert.path:}")
     private String certPath;
@@ -48,11 +70,15 @@ public class SiiIntegrationController {
     public SiiIntegrationController(AuthenticateSiiUseCase authenticateSiiUseCase,
             DownloadRcvUseCase downloadRcvUseCase,
             Pkcs12Handler pkcs12Handler,
-            com.casrusil.siierpai.shared.domain.event.EventPublisher eventPublisher) {
+            com.casrusil.siierpai.shared.domain.event.EventPublisher eventPublisher,
+            RcvBackfillService rcvBackfillService,
+            DteTrackingService dteTrackingService) {
         this.authenticateSiiUseCase = authenticateSiiUseCase;
         this.downloadRcvUseCase = downloadRcvUseCase;
         this.pkcs12Handler = pkcs12Handler;
         this.eventPublisher = eventPublisher;
+        this.rcvBackfillService = rcvBackfillService;
+        this.dteTrackingService = dteTrackingService;
     }
 
     @PostMapping("/fetch-rcv")
@@ -93,4 +119,64 @@ public class SiiIntegrationController {
 
         return ResponseEntity.ok(rcvData);
     }
+
+    /**
+     * Encola la descarga e importación del RCV de compras y ventas de
+     * {@code from} a {@code to} (ej: 2021-01 a 2025-12). El avance se notifica
+     * al usuario que la solicita.
+     */
+    @PostMapping("/rcv-backfill")
+    public ResponseEntity<RcvBackfillJobDto> startRcvBackfill(@RequestParam String from, @RequestParam String to) {
+        CompanyId companyId = CompanyContext.requireCompanyId();
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String notifyUserId = auth != null && auth.getPrincipal() instanceof UserId userId
+                ? userId.value().toString()
+                : null;
+
+        RcvBackfillJob job = rcvBackfillService.start(companyId, YearMonth.parse(from), YearMonth.parse(to),
+                notifyUserId);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/sii/ops/rcv-backfill/" + job.id()))
+                .body(RcvBackfillJobDto.from(job));
+    }
+
+    @GetMapping("/rcv-backfill/{jobId}")
+    public ResponseEntity<RcvBackfillJobDto> getRcvBackfill(@PathVariable UUID jobId) {
+        CompanyId companyId = CompanyContext.requireCompanyId();
+        return rcvBackfillService.find(companyId, jobId)
+                .map(RcvBackfillJobDto::from)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/rcv-backfill")
+    public List<RcvBackfillJobDto> listRcvBackfills(@RequestParam(defaultValue = "10") int limit) {
+        CompanyId companyId = CompanyContext.requireCompanyId();
+        return rcvBackfillService.findRecent(companyId, Math.min(Math.max(limit, 1), 100)).stream()
+                .map(RcvBackfillJobDto::from)
+                .toList();
+    }
+
+    @GetMapping("/dte-tracks/{trackId}")
+    public ResponseEntity<DteTrackDto> getDteTrack(@PathVariable String trackId) {
+        CompanyId companyId = CompanyContext.requireCompanyId();
+        return dteTrackingService.find(companyId, trackId)
+                .map(DteTrackDto::from)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Último resultado en el SII de cada factura indicada; las que nunca se
+     * enviaron no aparecen.
+     */
+    @GetMapping("/dte-status")
+    public List<DteTrackDocument> getDteStatus(@RequestParam List<UUID> invoiceIds) {
+        CompanyId companyId = CompanyContext.requireCompanyId();
+        if (invoiceIds.size() > 500) {
+            throw new IllegalArgumentException("At most 500 invoices per query");
+        }
+        return dteTrackingService.findDocuments(companyId, invoiceIds);
+    }
 }
@@ -0,0 +1,33 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.in.rest.dto;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrack;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrackDocument;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * REST view of a tracked DTE envelope.
+ */
+public record DteTrackDto(
+        String trackId,
+        String status, // PENDING, POLLING, PROCESSED, REJECTED, EXPIRED
+        String siiState, // e.g. "EPR", last state reported by the SII
+        int polls,
+        String detail, // last SII gloss or query error
+        List<DteTrackDocument> documents,
+        Instant createdAt,
+        Instant updatedAt) {
+
+    public static DteTrackDto from(DteTrack track) {
+        return new DteTrackDto(
+                track.trackId(),
+                track.status().name(),
+                track.siiState(),
+                track.polls(),
+                track.detail(),
+                track.documents(),
+                track.createdAt(),
+                track.updatedAt());
+    }
+}
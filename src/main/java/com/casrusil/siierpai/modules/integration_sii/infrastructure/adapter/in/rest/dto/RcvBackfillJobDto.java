@@ -0,0 +1,40 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.in.rest.dto;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvBackfillJob;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * REST view of an RCV backfill job.
+ */
+public record RcvBackfillJobDto(
+        UUID jobId,
+        String fromPeriod, // e.g. "2021-01"
+        String toPeriod,
+        String checkpoint, // last period fully imported, null before the first one
+        String status, // QUEUED, RUNNING, COMPLETED, FAILED
+        int completedPeriods,
+        int totalPeriods,
+        long documentsImported,
+        int attempts,
+        String detail, // last error
+        Instant createdAt,
+        Instant updatedAt) {
+
+    public static RcvBackfillJobDto from(RcvBackfillJob job) {
+        return new RcvBackfillJobDto(
+                job.id(),
+                job.fromPeriod().toString(),
+                job.toPeriod().toString(),
+                job.checkpoint() != null ? job.checkpoint().toString() : null,
+                job.status().name(),
+                job.completedPeriods(),
+                job.totalPeriods(),
+                job.documentsImported(),
+                job.attempts(),
+                job.detail(),
+                job.createdAt(),
+                job.updatedAt());
+    }
+}
@@ -0,0 +1,22 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http;
+
+/**
+ * Lanzada por {@link SiiHttpTransport} cuando el SII responde con un código
+ * distinto de {@code 200}. Los clientes que distinguen un rechazo de un error
+ * transitorio lo hacen con {@link #statusCode()}.
+ *
+ * @since 1.0
+ */
+public class SiiHttpStatusException extends IllegalStateException {
+
+    private final int statusCode;
+
+    public SiiHttpStatusException(SiiHttpTransport.Endpoint endpoint, int statusCode) {
+        super("SII " + endpoint + " answered " + statusCode);
+        this.statusCode = statusCode;
+    }
+
+    public int statusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,235 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Transporte HTTP compartido por los clientes del SII (autenticación, RCV,
+ * recepción de DTE y de F29).
+ *
+ * <p>
+ * Un único {@link HttpClient} reutiliza las conexiones entre clientes y
+ * negocia HTTP/2 (ALPN) cuando el servidor lo soporta; si no, sigue en
+ * HTTP/1.1 con keep-alive. El pool de conexiones del JDK es global a la JVM y
+ * su vida ociosa se configura al arrancar la JVM, no desde Spring:
+ * {@code -Djdk.httpclient.keepalive.timeout=30} (HTTP/1.1) y
+ * {@code -Djdk.httpclient.keepalive.timeout.h2=30} (HTTP/2), en segundos.
+ * Conviene cerrar las conexiones ociosas antes que el SII, para no reutilizar
+ * una que el servidor ya descartó.
+ *
+ * <p>
+ * Cada {@link Endpoint} tiene su propio bulkhead de resilience4j y su propio
+ * timeout, de modo que una descarga lenta del RCV no deja sin capacidad a la
+ * autenticación ni a los envíos. Con el bulkhead lleno se lanza
+ * {@link BulkheadFullException} sin llamar al SII. Una respuesta distinta de
+ * {@code 200} se lanza como {@link SiiHttpStatusException}.
+ *
+ * <p>
+ * La respuesta se entrega como {@link InputStream} a un {@link BodyReader},
+ * que la procesa sin copiarla a un {@code String}. Se pide
+ * {@code Accept-Encoding: gzip} y se descomprime de forma transparente. El
+ * stream se cierra (y la conexión vuelve al pool) al terminar el lector.
+ *
+ * <h2>Configuración:</h2>
+ * <ul>
+ * <li>{@code sii.http.version} - {@code HTTP_2} (negociado) o
+ * {@code HTTP_1_1}</li>
+ * <li>{@code sii.http.connect-timeout-ms} - timeout de conexión</li>
+ * <li>{@code sii.http.timeout.auth-ms} / {@code rcv-ms} / {@code upload-ms} /
+ * {@code status-ms} / {@code f29-ms} - timeout hasta recibir la respuesta, por
+ * endpoint</li>
+ * <li>{@code sii.http.gzip-requests} - endpoints cuyos cuerpos se envían
+ * comprimidos (el SII no lo documenta; vacío por defecto)</li>
+ * <li>{@code sii.http.gzip-min-bytes} - tamaño mínimo para comprimir</li>
+ * <li>{@code resilience4j.bulkhead.instances.siiAuth|siiRcv|siiUpload|siiStatus|siiF29.*}
+ * - llamadas concurrentes y espera máxima por endpoint</li>
+ * </ul>
+ */
+@Component
+public class SiiHttpTransport {
+
+    /**
+     * Servicios del SII, cada uno con su bulkhead.
+     */
+    public enum Endpoint {
+        AUTH("siiAuth"),
+        RCV("siiRcv"),
+        UPLOAD("siiUpload"),
+        STATUS("siiStatus"),
+        F29("siiF29");
+
+        private final String bulkheadName;
+
+        Endpoint(String bulkheadName) {
+            this.bulkheadName = bulkheadName;
+        }
+
+        public String bulkheadName() {
+            return bulkheadName;
+        }
+    }
+
+    /**
+     * Procesa el cuerpo de una respuesta {@code 200}; el stream ya viene
+     * descomprimido y lo cierra el transporte.
+     */
+    @FunctionalInterface
+    public interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(SiiHttpTransport.class);
+    static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+
+    private final HttpClient httpClient;
+    private final Map<Endpoint, Bulkhead> bulkheads = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Duration> timeouts;
+    private final Set<Endpoint> gzipRequests;
+    private final int gzipMinBytes;
+
+    @Autowired
+    public SiiHttpTransport(BulkheadRegistry bulkheadRegistry,
+            @Value("${sii.http.version:HTTP_2}") HttpClient.Version version,
+            @Value("${sii.http.connect-timeout-ms:10000}") long connectTimeoutMillis,
+            @Value("${sii.http.timeout.auth-ms:10000}") long authTimeoutMillis,
+            @Value("${sii.http.timeout.rcv-ms:90000}") long rcvTimeoutMillis,
+            @Value("${sii.http.timeout.upload-ms:60000}") long uploadTimeoutMillis,
+            @Value("${sii.http.timeout.status-ms:10000}") long statusTimeoutMillis,
+            @Value("${sii.http.timeout.f29-ms:30000}") long f29TimeoutMillis,
+            @Value("${sii.http.gzip-requests:}") Set<Endpoint> gzipRequests,
+            @Value("${sii.http.gzip-min-bytes:8192}") int gzipMinBytes) {
+        this(buildClient(version, connectTimeoutMillis), bulkheadRegistry,
+                Map.of(Endpoint.AUTH, Duration.ofMillis(authTimeoutMillis),
+                        Endpoint.RCV, Duration.ofMillis(rcvTimeoutMillis),
+                        Endpoint.UPLOAD, Duration.ofMillis(uploadTimeoutMillis),
+                        Endpoint.STATUS, Duration.ofMillis(statusTimeoutMillis),
+                        Endpoint.F29, Duration.ofMillis(f29TimeoutMillis)),
+                gzipRequests, gzipMinBytes);
+        logger.info("SII transport: {} (negotiated), {}={}, gzip requests for {}", version, KEEP_ALIVE_PROPERTY,
+                System.getProperty(KEEP_ALIVE_PROPERTY, "JDK default"), this.gzipRequests);
+    }
+
+    public SiiHttpTransport(HttpClient httpClient, BulkheadRegistry bulkheadRegistry,
+            Map<Endpoint, Duration> timeouts, Set<Endpoint> gzipRequests, int gzipMinBytes) {
+        this.httpClient = httpClient;
+        for (Endpoint endpoint : Endpoint.values()) {
+            bulkheads.put(endpoint, bulkheadRegistry.bulkhead(endpoint.bulkheadName()));
+        }
+        this.timeouts = Map.copyOf(timeouts);
+        this.gzipRequests = gzipRequests == null || gzipRequests.isEmpty() ? EnumSet.noneOf(Endpoint.class)
+                : EnumSet.copyOf(gzipRequests);
+        this.gzipMinBytes = gzipMinBytes;
+    }
+
+    /**
+     * Transporte sobre un cliente dado, con bulkheads y timeouts por defecto.
+     */
+    public static SiiHttpTransport of(HttpClient httpClient) {
+        return new SiiHttpTransport(httpClient, BulkheadRegistry.ofDefaults(),
+                Map.of(Endpoint.AUTH, Duration.ofSeconds(10),
+                        Endpoint.RCV, Duration.ofSeconds(90),
+                        Endpoint.UPLOAD, Duration.ofSeconds(60),
+                        Endpoint.STATUS, Duration.ofSeconds(10),
+                        Endpoint.F29, Duration.ofSeconds(30)),
+                Set.of(), 8192);
+    }
+
+    /**
+     * Envía un POST y procesa la respuesta como stream.
+     *
+     * @param request URI y cabeceras propias del servicio; el transporte añade
+     *                el timeout, la compresión y el cuerpo
+     * @throws BulkheadFullException si el endpoint ya está al máximo de
+     *                               llamadas concurrentes
+     * @throws SiiHttpStatusException si el SII no responde {@code 200}
+     * @throws IllegalStateException  si el SII no es alcanzable
+     */
+    public <T> T post(Endpoint endpoint, HttpRequest.Builder request, byte[] body, BodyReader<T> reader) {
+        if (gzipRequests.contains(endpoint) && body.length >= gzipMinBytes) {
+            body = gzip(body);
+            request.header("Content-Encoding", "gzip");
+        }
+        return send(endpoint, request.POST(HttpRequest.BodyPublishers.ofByteArray(body)), reader);
+    }
+
+    /**
+     * Envía un GET y procesa la respuesta como stream; ver
+     * {@link #post(Endpoint, HttpRequest.Builder, byte[], BodyReader)}.
+     */
+    public <T> T get(Endpoint endpoint, HttpRequest.Builder request, BodyReader<T> reader) {
+        return send(endpoint, request.GET(), reader);
+    }
+
+    private <T> T send(Endpoint endpoint, HttpRequest.Builder request, BodyReader<T> reader) {
+        HttpRequest httpRequest = request.timeout(timeouts.get(endpoint))
+                .header("Accept-Encoding", "gzip")
+                .build();
+
+        Bulkhead bulkhead = bulkheads.get(endpoint);
+        bulkhead.acquirePermission();
+        try {
+            HttpResponse<InputStream> response = httpClient.send(httpRequest,
+                    HttpResponse.BodyHandlers.ofInputStream());
+            // Closing the body, even unread, releases the connection
+            try (InputStream in = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new SiiHttpStatusException(endpoint, response.statusCode());
+                }
+                return reader.read(decoded(response.headers(), in));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("SII " + endpoint + " request failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling SII " + endpoint, e);
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    private static InputStream decoded(HttpHeaders headers, InputStream body) throws IOException {
+        boolean gzipped = headers.firstValue("Content-Encoding")
+                .map(encoding -> encoding.trim().equalsIgnoreCase("gzip"))
+                .orElse(false);
+        return gzipped ? new GZIPInputStream(body) : body;
+    }
+
+    static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static HttpClient buildClient(HttpClient.Version version, long connectTimeoutMillis) {
+        return HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+    }
+}
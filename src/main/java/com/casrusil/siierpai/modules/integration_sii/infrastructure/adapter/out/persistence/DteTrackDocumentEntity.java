@@ -0,0 +1,107 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.persistence;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteDocumentStatus;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * JPA entity of one DTE of a tracked envelope. {@code company_id} is copied
+ * from the track so the verdicts of a set of invoices are read without a
+ * join.
+ */
+@Entity
+@Table(name = "dte_track_documents", schema = "integration_sii", indexes = {
+        @Index(name = "idx_dte_track_documents_track", columnList = "track_ref"),
+        @Index(name = "idx_dte_track_documents_company_invoice", columnList = "company_id, invoice_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_dte_track_documents_track_invoice", columnNames = { "track_ref",
+                "invoice_id" })
+})
+public class DteTrackDocumentEntity {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "track_ref", nullable = false)
+    private UUID trackRef;
+
+    @Column(name = "company_id", nullable = false)
+    private UUID companyId;
+
+    @Column(name = "invoice_id", nullable = false)
+    private UUID invoiceId;
+
+    @Column(name = "dte_type", nullable = false)
+    private int dteType;
+
+    @Column(nullable = false)
+    private long folio;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 24)
+    private DteDocumentStatus status;
+
+    @Column(length = 1000)
+    private String detail;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public DteTrackDocumentEntity() {
+    }
+
+    public DteTrackDocumentEntity(UUID id, UUID trackRef, UUID companyId, UUID invoiceId, int dteType, long folio,
+            DteDocumentStatus status, String detail, Instant updatedAt) {
+        this.id = id;
+        this.trackRef = trackRef;
+        this.companyId = companyId;
+        this.invoiceId = invoiceId;
+        this.dteType = dteType;
+        this.folio = folio;
+        this.status = status;
+        this.detail = truncate(detail);
+        this.updatedAt = updatedAt;
+    }
+
+    static String truncate(String detail) {
+        return detail != null && detail.length() > 1000 ? detail.substring(0, 1000) : detail;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getTrackRef() {
+        return trackRef;
+    }
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public UUID getInvoiceId() {
+        return invoiceId;
+    }
+
+    public int getDteType() {
+        return dteType;
+    }
+
+    public long getFolio() {
+        return folio;
+    }
+
+    public DteDocumentStatus getStatus() {
+        return status;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,35 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.persistence;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteDocumentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DteTrackDocumentJpaRepository extends JpaRepository<DteTrackDocumentEntity, UUID> {
+
+    List<DteTrackDocumentEntity> findByTrackRefIn(Collection<UUID> trackRefs);
+
+    List<DteTrackDocumentEntity> findByCompanyIdAndInvoiceIdInOrderByUpdatedAtDesc(UUID companyId,
+            Collection<UUID> invoiceIds);
+
+    /**
+     * Sets the same verdict on several documents of one envelope in a single
+     * statement.
+     */
+    @Modifying
+    @Query("""
+            UPDATE DteTrackDocumentEntity d
+            SET d.status = :status, d.detail = :detail, d.updatedAt = :now
+            WHERE d.trackRef = :trackRef AND d.invoiceId IN :invoiceIds
+            """)
+    int updateVerdict(@Param("trackRef") UUID trackRef, @Param("invoiceIds") Collection<UUID> invoiceIds,
+            @Param("status") DteDocumentStatus status, @Param("detail") String detail, @Param("now") Instant now);
+}
@@ -0,0 +1,123 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.persistence;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrackStatus;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * JPA entity of a tracked DTE envelope. {@code (status, available_at)} is the
+ * index the poller claims tracks by; {@code (company_id, track_id)} keeps one
+ * row per envelope.
+ */
+@Entity
+@Table(name = "dte_tracks", schema = "integration_sii", indexes = {
+        @Index(name = "idx_dte_tracks_status_available", columnList = "status, available_at")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_dte_tracks_company_track", columnNames = { "company_id", "track_id" })
+})
+public class DteTrackEntity {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "company_id", nullable = false)
+    private UUID companyId;
+
+    @Column(name = "track_id", nullable = false, length = 32)
+    private String trackId;
+
+    @Column(name = "company_rut", nullable = false, length = 12)
+    private String companyRut;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private DteTrackStatus status;
+
+    @Column(name = "sii_state", length = 8)
+    private String siiState;
+
+    @Column(nullable = false)
+    private int polls;
+
+    @Column(length = 1000)
+    private String detail;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "available_at", nullable = false)
+    private Instant availableAt;
+
+    public DteTrackEntity() {
+    }
+
+    public DteTrackEntity(UUID id, UUID companyId, String trackId, String companyRut, DteTrackStatus status,
+            String siiState, int polls, String detail, Instant createdAt, Instant updatedAt, Instant availableAt) {
+        this.id = id;
+        this.companyId = companyId;
+        this.trackId = trackId;
+        this.companyRut = companyRut;
+        this.status = status;
+        this.siiState = siiState;
+        this.polls = polls;
+        this.detail = detail != null && detail.length() > 1000 ? detail.substring(0, 1000) : detail;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.availableAt = availableAt;
+    }
+
+    public void lease(Instant now, Instant leaseUntil) {
+        this.status = DteTrackStatus.POLLING;
+        this.updatedAt = now;
+        this.availableAt = leaseUntil;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public String getTrackId() {
+        return trackId;
+    }
+
+    public String getCompanyRut() {
+        return companyRut;
+    }
+
+    public DteTrackStatus getStatus() {
+        return status;
+    }
+
+    public String getSiiState() {
+        return siiState;
+    }
+
+    public int getPolls() {
+        return polls;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Instant getAvailableAt() {
+        return availableAt;
+    }
+}
@@ -0,0 +1,154 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.persistence;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteDocumentStatus;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrack;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrackDocument;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.DteTrackRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * JPA implementation of {@link DteTrackRepository}. Claiming uses
+ * {@code FOR UPDATE SKIP LOCKED} and writes the lease in the same
+ * transaction; the documents of all claimed tracks are read in one query.
+ */
+@Repository
+public class DteTrackJpaAdapter implements DteTrackRepository {
+
+    private final DteTrackJpaRepository trackJpaRepository;
+    private final DteTrackDocumentJpaRepository documentJpaRepository;
+
+    public DteTrackJpaAdapter(DteTrackJpaRepository trackJpaRepository,
+            DteTrackDocumentJpaRepository documentJpaRepository) {
+        this.trackJpaRepository = trackJpaRepository;
+        this.documentJpaRepository = documentJpaRepository;
+    }
+
+    @Override
+    @Transactional
+    public DteTrack save(DteTrack track) {
+        trackJpaRepository.save(toEntity(track));
+
+        Map<UUID, DteTrackDocumentEntity> stored = new HashMap<>();
+        documentJpaRepository.findByTrackRefIn(List.of(track.id()))
+                .forEach(row -> stored.put(row.getInvoiceId(), row));
+        List<DteTrackDocumentEntity> added = new ArrayList<>();
+        Map<Verdict, List<UUID>> changed = new LinkedHashMap<>();
+        for (DteTrackDocument document : track.documents()) {
+            DteTrackDocumentEntity row = stored.get(document.invoiceId());
+            String detail = DteTrackDocumentEntity.truncate(document.detail());
+            if (row == null) {
+                added.add(toEntity(track, document));
+            } else if (row.getStatus() != document.status() || !Objects.equals(row.getDetail(), detail)) {
+                changed.computeIfAbsent(new Verdict(document.status(), detail), verdict -> new ArrayList<>())
+                        .add(document.invoiceId());
+            }
+        }
+        documentJpaRepository.saveAll(added);
+        changed.forEach((verdict, invoiceIds) -> documentJpaRepository.updateVerdict(track.id(), invoiceIds,
+                verdict.status(), verdict.detail(), track.updatedAt()));
+        return track;
+    }
+
+    @Override
+    public Optional<DteTrack> findByTrackId(CompanyId companyId, String trackId) {
+        return trackJpaRepository.findByCompanyIdAndTrackId(companyId.value(), trackId)
+                .map(row -> toDomain(row, documentJpaRepository.findByTrackRefIn(List.of(row.getId()))));
+    }
+
+    @Override
+    public List<DteTrackDocument> findDocuments(CompanyId companyId, Collection<UUID> invoiceIds) {
+        if (invoiceIds.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, DteTrackDocument> latest = new LinkedHashMap<>();
+        documentJpaRepository.findByCompanyIdAndInvoiceIdInOrderByUpdatedAtDesc(companyId.value(), invoiceIds)
+                .forEach(row -> latest.putIfAbsent(row.getInvoiceId(), toDomain(row)));
+        return List.copyOf(latest.values());
+    }
+
+    @Override
+    @Transactional
+    public List<DteTrack> claim(Instant now, Instant leaseUntil, int limit) {
+        List<DteTrackEntity> rows = trackJpaRepository.lockNextAvailable(now, limit);
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        rows.forEach(row -> row.lease(now, leaseUntil));
+        Map<UUID, List<DteTrackDocumentEntity>> documents = documentJpaRepository
+                .findByTrackRefIn(rows.stream().map(DteTrackEntity::getId).toList()).stream()
+                .collect(Collectors.groupingBy(DteTrackDocumentEntity::getTrackRef));
+        return trackJpaRepository.saveAll(rows).stream()
+                .map(row -> toDomain(row, documents.getOrDefault(row.getId(), List.of())))
+                .toList();
+    }
+
+    private record Verdict(DteDocumentStatus status, String detail) {
+    }
+
+    private DteTrackEntity toEntity(DteTrack track) {
+        return new DteTrackEntity(
+                track.id(),
+                track.companyId().value(),
+                track.trackId(),
+                track.companyRut(),
+                track.status(),
+                track.siiState(),
+                track.polls(),
+                track.detail(),
+                track.createdAt(),
+                track.updatedAt(),
+                track.availableAt());
+    }
+
+    private DteTrackDocumentEntity toEntity(DteTrack track, DteTrackDocument document) {
+        return new DteTrackDocumentEntity(
+                UUID.randomUUID(),
+                track.id(),
+                track.companyId().value(),
+                document.invoiceId(),
+                document.type(),
+                document.folio(),
+                document.status(),
+                document.detail(),
+                track.updatedAt());
+    }
+
+    private DteTrack toDomain(DteTrackEntity entity, List<DteTrackDocumentEntity> documents) {
+        return new DteTrack(
+                entity.getId(),
+                new CompanyId(entity.getCompanyId()),
+                entity.getTrackId(),
+                entity.getCompanyRut(),
+                entity.getStatus(),
+                entity.getSiiState(),
+                documents.stream().map(this::toDomain).toList(),
+                entity.getPolls(),
+                entity.getDetail(),
+                entity.getCreatedAt(),
+                entity.getUpdatedAt(),
+                entity.getAvailableAt());
+    }
+
+    private DteTrackDocument toDomain(DteTrackDocumentEntity entity) {
+        return new DteTrackDocument(
+                entity.getInvoiceId(),
+                entity.getDteType(),
+                entity.getFolio(),
+                entity.getStatus(),
+                entity.getDetail());
+    }
+}
@@ -0,0 +1,31 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface DteTrackJpaRepository extends JpaRepository<DteTrackEntity, UUID> {
+
+    Optional<DteTrackEntity> findByCompanyIdAndTrackId(UUID companyId, String trackId);
+
+    /**
+     * Locks the next due unfinished tracks; POLLING ones are only due once
+     * their lease expired. Tracks locked by another poller are skipped
+     * ({@code SKIP LOCKED}). Must run inside a transaction.
+     */
+    @Query(value = """
+            SELECT * FROM integration_sii.dte_tracks
+            WHERE status IN ('PENDING', 'POLLING') AND available_at <= :now
+            ORDER BY available_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<DteTrackEntity> lockNextAvailable(@Param("now") Instant now, @Param("limit") int limit);
+}
@@ -0,0 +1,138 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.persistence;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvBackfillStatus;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * JPA entity of an RCV backfill job. {@code (status, available_at)} is the
+ * index the workers claim jobs by.
+ */
+@Entity
+@Table(name = "rcv_backfill_jobs", schema = "integration_sii", indexes = {
+        @Index(name = "idx_rcv_backfill_jobs_status_available", columnList = "status, available_at"),
+        @Index(name = "idx_rcv_backfill_jobs_company_created", columnList = "company_id, created_at")
+})
+public class RcvBackfillJobEntity {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "company_id", nullable = false)
+    private UUID companyId;
+
+    @Column(name = "from_period", nullable = false, length = 7) // Format: YYYY-MM
+    private String fromPeriod;
+
+    @Column(name = "to_period", nullable = false, length = 7)
+    private String toPeriod;
+
+    @Column(length = 7)
+    private String checkpoint;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RcvBackfillStatus status;
+
+    @Column(name = "documents_imported", nullable = false)
+    private long documentsImported;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 1000)
+    private String detail;
+
+    @Column(name = "notify_user_id", length = 64)
+    private String notifyUserId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "available_at", nullable = false)
+    private Instant availableAt;
+
+    public RcvBackfillJobEntity() {
+    }
+
+    public RcvBackfillJobEntity(UUID id, UUID companyId, String fromPeriod, String toPeriod, String checkpoint,
+            RcvBackfillStatus status, long documentsImported, int attempts, String detail, String notifyUserId,
+            Instant createdAt, Instant updatedAt, Instant availableAt) {
+        this.id = id;
+        this.companyId = companyId;
+        this.fromPeriod = fromPeriod;
+        this.toPeriod = toPeriod;
+        this.checkpoint = checkpoint;
+        this.status = status;
+        this.documentsImported = documentsImported;
+        this.attempts = attempts;
+        this.detail = detail != null && detail.length() > 1000 ? detail.substring(0, 1000) : detail;
+        this.notifyUserId = notifyUserId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.availableAt = availableAt;
+    }
+
+    public void lease(Instant now, Instant leaseUntil) {
+        this.status = RcvBackfillStatus.RUNNING;
+        this.updatedAt = now;
+        this.availableAt = leaseUntil;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public String getFromPeriod() {
+        return fromPeriod;
+    }
+
+    public String getToPeriod() {
+        return toPeriod;
+    }
+
+    public String getCheckpoint() {
+        return checkpoint;
+    }
+
+    public RcvBackfillStatus getStatus() {
+        return status;
+    }
+
+    public long getDocumentsImported() {
+        return documentsImported;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public String getNotifyUserId() {
+        return notifyUserId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Instant getAvailableAt() {
+        return availableAt;
+    }
+}
@@ -0,0 +1,101 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.persistence;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvBackfillJob;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvBackfillStatus;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.RcvBackfillJobRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JPA implementation of {@link RcvBackfillJobRepository}. Claiming uses
+ * {@code FOR UPDATE SKIP LOCKED} and writes the lease in the same
+ * transaction.
+ */
+@Repository
+public class RcvBackfillJobJpaAdapter implements RcvBackfillJobRepository {
+
+    private static final EnumSet<RcvBackfillStatus> ACTIVE = EnumSet.of(RcvBackfillStatus.QUEUED,
+            RcvBackfillStatus.RUNNING);
+
+    private final RcvBackfillJobJpaRepository jpaRepository;
+
+    public RcvBackfillJobJpaAdapter(RcvBackfillJobJpaRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+
+    @Override
+    public RcvBackfillJob save(RcvBackfillJob job) {
+        return toDomain(jpaRepository.save(toEntity(job)));
+    }
+
+    @Override
+    public Optional<RcvBackfillJob> findById(CompanyId companyId, UUID id) {
+        return jpaRepository.findByIdAndCompanyId(id, companyId.value()).map(this::toDomain);
+    }
+
+    @Override
+    public Optional<RcvBackfillJob> findActive(CompanyId companyId) {
+        return jpaRepository.findFirstByCompanyIdAndStatusInOrderByCreatedAtDesc(companyId.value(), ACTIVE)
+                .map(this::toDomain);
+    }
+
+    @Override
+    public List<RcvBackfillJob> findRecent(CompanyId companyId, int limit) {
+        return jpaRepository.findByCompanyIdOrderByCreatedAtDesc(companyId.value(), Limit.of(limit)).stream()
+                .map(this::toDomain)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public List<RcvBackfillJob> claim(Instant now, Instant leaseUntil, int limit) {
+        List<RcvBackfillJobEntity> rows = jpaRepository.lockNextAvailable(now, limit);
+        rows.forEach(row -> row.lease(now, leaseUntil));
+        return jpaRepository.saveAll(rows).stream()
+                .map(this::toDomain)
+                .toList();
+    }
+
+    private RcvBackfillJobEntity toEntity(RcvBackfillJob job) {
+        return new RcvBackfillJobEntity(
+                job.id(),
+                job.companyId().value(),
+                job.fromPeriod().toString(),
+                job.toPeriod().toString(),
+                job.checkpoint() != null ? job.checkpoint().toString() : null,
+                job.status(),
+                job.documentsImported(),
+                job.attempts(),
+                job.detail(),
+                job.notifyUserId(),
+                job.createdAt(),
+                job.updatedAt(),
+                job.availableAt());
+    }
+
+    private RcvBackfillJob toDomain(RcvBackfillJobEntity entity) {
+        return new RcvBackfillJob(
+                entity.getId(),
+                new CompanyId(entity.getCompanyId()),
+                YearMonth.parse(entity.getFromPeriod()),
+                YearMonth.parse(entity.getToPeriod()),
+                entity.getCheckpoint() != null ? YearMonth.parse(entity.getCheckpoint()) : null,
+                entity.getStatus(),
+                entity.getDocumentsImported(),
+                entity.getAttempts(),
+                entity.getDetail(),
+                entity.getNotifyUserId(),
+                entity.getCreatedAt(),
+                entity.getUpdatedAt(),
+                entity.getAvailableAt());
+    }
+}
@@ -0,0 +1,39 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.persistence;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvBackfillStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RcvBackfillJobJpaRepository extends JpaRepository<RcvBackfillJobEntity, UUID> {
+
+    Optional<RcvBackfillJobEntity> findByIdAndCompanyId(UUID id, UUID companyId);
+
+    Optional<RcvBackfillJobEntity> findFirstByCompanyIdAndStatusInOrderByCreatedAtDesc(UUID companyId,
+            Collection<RcvBackfillStatus> statuses);
+
+    List<RcvBackfillJobEntity> findByCompanyIdOrderByCreatedAtDesc(UUID companyId, Limit limit);
+
+    /**
+     * Locks the next available unfinished jobs; RUNNING ones are only
+     * available once their lease expired. Jobs locked by another worker are
+     * skipped ({@code SKIP LOCKED}). Must run inside a transaction.
+     */
+    @Query(value = """
+            SELECT * FROM integration_sii.rcv_backfill_jobs
+            WHERE status IN ('QUEUED', 'RUNNING') AND available_at <= :now
+            ORDER BY available_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<RcvBackfillJobEntity> lockNextAvailable(@Param("now") Instant now, @Param("limit") int limit);
+}
@@ -0,0 +1,107 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.persistence;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvRegister;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * JPA entity of an RCV snapshot. The register entries are stored as a JSON
+ * document; they are only ever read back as a whole.
+ */
+@Entity
+@Table(name = "rcv_snapshots", schema = "integration_sii", uniqueConstraints = @UniqueConstraint(
+        name = "uk_rcv_snapshots_company_period_register", columnNames = { "company_id", "period", "register_type" }))
+public class RcvSnapshotEntity {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "company_id", nullable = false)
+    private UUID companyId;
+
+    @Column(nullable = false, length = 7) // Format: YYYY-MM
+    private String period;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "register_type", nullable = false, length = 16)
+    private RcvRegister register;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "entry_count", nullable = false)
+    private int entryCount;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String entries;
+
+    @Column(name = "fetched_at", nullable = false)
+    private Instant fetchedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    protected RcvSnapshotEntity() {
+    }
+
+    public RcvSnapshotEntity(UUID companyId, String period, RcvRegister register) {
+        this.id = UUID.randomUUID();
+        this.companyId = companyId;
+        this.period = period;
+        this.register = register;
+    }
+
+    /**
+     * Records a fresh download. The JSON document is only rewritten when the
+     * content hash changed.
+     */
+    public void refresh(String contentHash, int entryCount, Supplier<String> entries,
+            Instant fetchedAt, Instant expiresAt) {
+        if (!contentHash.equals(this.contentHash)) {
+            this.contentHash = contentHash;
+            this.entryCount = entryCount;
+            this.entries = entries.get();
+        }
+        this.fetchedAt = fetchedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public RcvRegister getRegister() {
+        return register;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public String getEntries() {
+        return entries;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,78 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.persistence;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvData;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvRegister;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvSnapshot;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.RcvSnapshotRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JPA implementation of {@link RcvSnapshotRepository}.
+ */
+@Repository
+public class RcvSnapshotJpaAdapter implements RcvSnapshotRepository {
+
+    private static final TypeReference<List<RcvData>> ENTRIES = new TypeReference<>() {
+    };
+
+    private final RcvSnapshotJpaRepository jpaRepository;
+    private final ObjectMapper objectMapper;
+
+    public RcvSnapshotJpaAdapter(RcvSnapshotJpaRepository jpaRepository, ObjectMapper objectMapper) {
+        this.jpaRepository = jpaRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<RcvSnapshot> find(CompanyId companyId, YearMonth period, RcvRegister register) {
+        return jpaRepository.findByCompanyIdAndPeriodAndRegister(companyId.value(), period.toString(), register)
+                .map(this::toDomain);
+    }
+
+    @Override
+    @Transactional
+    public RcvSnapshot save(RcvSnapshot snapshot) {
+        RcvSnapshotEntity entity = jpaRepository
+                .findByCompanyIdAndPeriodAndRegister(snapshot.companyId().value(), snapshot.period().toString(),
+                        snapshot.register())
+                .orElseGet(() -> new RcvSnapshotEntity(snapshot.companyId().value(), snapshot.period().toString(),
+                        snapshot.register()));
+        entity.refresh(snapshot.contentHash(), snapshot.entries().size(), () -> toJson(snapshot.entries()),
+                snapshot.fetchedAt(), snapshot.expiresAt());
+        jpaRepository.save(entity);
+        return snapshot;
+    }
+
+    private RcvSnapshot toDomain(RcvSnapshotEntity entity) {
+        try {
+            return new RcvSnapshot(
+                    new CompanyId(entity.getCompanyId()),
+                    YearMonth.parse(entity.getPeriod()),
+                    entity.getRegister(),
+                    entity.getContentHash(),
+                    objectMapper.readValue(entity.getEntries(), ENTRIES),
+                    entity.getFetchedAt(),
+                    entity.getExpiresAt());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt RCV snapshot " + entity.getId(), e);
+        }
+    }
+
+    private String toJson(List<RcvData> entries) {
+        try {
+            return objectMapper.writeValueAsString(entries);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize RCV snapshot", e);
+        }
+    }
+}
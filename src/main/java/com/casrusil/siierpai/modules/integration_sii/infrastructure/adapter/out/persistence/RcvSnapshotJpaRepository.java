@@ -0,0 +1,15 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.persistence;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvRegister;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RcvSnapshotJpaRepository extends JpaRepository<RcvSnapshotEntity, UUID> {
+
+    Optional<RcvSnapshotEntity> findByCompanyIdAndPeriodAndRegister(UUID companyId, String period,
+            RcvRegister register);
+}
@@ -0,0 +1,168 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.rest;
+
+import com.casrusil.siierpai.modules.accounting.domain.model.F29Report;
+import com.casrusil.siierpai.modules.accounting.domain.port.out.F29Gateway;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiCertificate;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiToken;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.SiiTokenRepository;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http.SiiHttpStatusException;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http.SiiHttpTransport;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http.SiiHttpTransport.Endpoint;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto.CompanyCertificateLoader;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto.XmlDsigSigner;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.xml.F29XmlBuilder;
+import com.casrusil.siierpai.modules.sso.domain.model.Company;
+import com.casrusil.siierpai.modules.sso.domain.port.out.CompanyRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * Cliente HTTP del servicio de recepción de F29.
+ *
+ * <p>
+ * Por cada envío genera el XML con {@link F29XmlBuilder}, lo firma con el
+ * certificado de la empresa y lo publica en {@code {sii.f29.url}/upload}; el
+ * veredicto se consulta en {@code {sii.f29.url}/status}. El protocolo sigue el
+ * de la recepción de DTE: la respuesta trae {@code STATUS}, {@code TRACKID} y
+ * {@code GLOSA}.
+ *
+ * <p>
+ * Las llamadas van por el {@link SiiHttpTransport} compartido (endpoint
+ * {@link Endpoint#F29}), que reutiliza las conexiones, aplica el timeout
+ * {@code sii.http.timeout.f29-ms} y el bulkhead {@code siiF29}. Timeouts,
+ * errores de red, {@code 429} y {@code 5xx} se lanzan como excepción (el envío
+ * se reintenta); cualquier otro código de error es un rechazo.
+ *
+ * <p>
+ * {@code sii.f29.url} no tiene valor por defecto, para que una declaración
+ * nunca termine en un endpoint inventado o en el sustituto local. Sin él la
+ * aplicación arranca igual, pero cada envío se rechaza
+ * ({@link Outcome#REJECTED}) con el detalle {@value #NOT_CONFIGURED}. El
+ * perfil {@code sii-sim} lo apunta al {@code FakeSiiF29Controller}.
+ */
+@Component
+public class SiiF29Client implements F29Gateway {
+
+    static final String NOT_CONFIGURED = "F29 endpoint not configured (sii.f29.url)";
+
+    private static final Logger logger = LoggerFactory.getLogger(SiiF29Client.class);
+
+    private final F29XmlBuilder f29XmlBuilder;
+    private final XmlDsigSigner xmlDsigSigner;
+    private final CompanyCertificateLoader certificateLoader;
+    private final SiiTokenRepository tokenRepository;
+    private final CompanyRepository companyRepository;
+    private final SiiHttpTransport transport;
+    private final String baseUrl;
+
+    public SiiF29Client(F29XmlBuilder f29XmlBuilder,
+            XmlDsigSigner xmlDsigSigner,
+            CompanyCertificateLoader certificateLoader,
+            SiiTokenRepository tokenRepository,
+            CompanyRepository companyRepository,
+            SiiHttpTransport transport,
+            @Value("${sii.f29.url:}") String baseUrl) {
+        this.f29XmlBuilder = f29XmlBuilder;
+        this.xmlDsigSigner = xmlDsigSigner;
+        this.certificateLoader = certificateLoader;
+        this.tokenRepository = tokenRepository;
+        this.companyRepository = companyRepository;
+        this.transport = transport;
+        if (baseUrl.isBlank()) {
+            logger.warn("{}: F29 submissions will be rejected", NOT_CONFIGURED);
+            this.baseUrl = null;
+        } else {
+            this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        }
+    }
+
+    @Override
+    @CircuitBreaker(name = "sii")
+    public Response upload(CompanyId companyId, F29Report report) {
+        if (baseUrl == null) {
+            return new Response(Outcome.REJECTED, null, NOT_CONFIGURED);
+        }
+        String rut = companyRepository.findById(companyId)
+                .map(Company::getRut)
+                .orElseThrow(() -> new IllegalStateException("Company not found: " + companyId));
+        SiiCertificate certificate = certificateLoader.load(companyId);
+
+        String xml = f29XmlBuilder.build(rut, report);
+        String signedXml = xmlDsigSigner.signXml(xml, "", certificate);
+
+        HttpRequest.Builder request = authenticated(companyId, HttpRequest.newBuilder(URI.create(baseUrl + "/upload")))
+                .header("Content-Type", "text/xml; charset=ISO-8859-1");
+        String body = send(() -> transport.post(Endpoint.F29, request,
+                signedXml.getBytes(StandardCharsets.ISO_8859_1), SiiF29Client::text));
+
+        String trackId = tag(body, "TRACKID");
+        if ("0".equals(tag(body, "STATUS")) && trackId != null) {
+            return new Response(Outcome.RECEIVED, trackId, tag(body, "GLOSA"));
+        }
+        return new Response(Outcome.REJECTED, trackId, tag(body, "GLOSA"));
+    }
+
+    @Override
+    @CircuitBreaker(name = "sii")
+    public Response checkStatus(CompanyId companyId, String trackId) {
+        if (baseUrl == null) {
+            return new Response(Outcome.REJECTED, trackId, NOT_CONFIGURED);
+        }
+        URI uri = URI.create(baseUrl + "/status?trackId=" + URLEncoder.encode(trackId, StandardCharsets.UTF_8));
+        String body = send(() -> transport.get(Endpoint.F29, authenticated(companyId, HttpRequest.newBuilder(uri)),
+                SiiF29Client::text));
+
+        String estado = tag(body, "ESTADO");
+        Outcome outcome = switch (estado != null ? estado : "") {
+            case "ACEPTADO" -> Outcome.ACCEPTED;
+            case "RECHAZADO" -> Outcome.REJECTED;
+            default -> Outcome.PENDING;
+        };
+        return new Response(outcome, trackId, tag(body, "GLOSA"));
+    }
+
+    private HttpRequest.Builder authenticated(CompanyId companyId, HttpRequest.Builder builder) {
+        tokenRepository.findByCompanyId(companyId)
+                .filter(SiiToken::isValid)
+                .ifPresent(token -> builder.header("Cookie", "TOKEN=" + token.token()));
+        return builder;
+    }
+
+    private static String send(Supplier<String> call) {
+        try {
+            return call.get();
+        } catch (SiiHttpStatusException e) {
+            int status = e.statusCode();
+            if (status == 429 || status >= 500) {
+                throw new IllegalStateException("SII F29 service answered " + status, e);
+            }
+            // Rejected request: surface it as a protocol response so the submission is not retried
+            return "<STATUS>" + status + "</STATUS><ESTADO>RECHAZADO</ESTADO><GLOSA>HTTP " + status + "</GLOSA>";
+        }
+    }
+
+    private static String text(InputStream body) throws IOException {
+        return new String(body.readAllBytes(), StandardCharsets.ISO_8859_1);
+    }
+
+    static String tag(String body, String name) {
+        int start = body.indexOf("<" + name + ">");
+        int end = body.indexOf("</" + name + ">");
+        if (start == -1 || end == -1 || end < start) {
+            return null;
+        }
+        return body.substring(start + name.length() + 2, end).trim();
+    }
+}
@@ -1,58 +1,75 @@
 package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.rest;
 
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http.SiiHttpTransport;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http.SiiHttpTransport.Endpoint;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.net.http.HttpClient.Version;
 import java.nio.charset.StandardCharsets;
 
 @Component
 public class SiiUploadClient {
 
-    private final HttpClient httpClient;
+    private final SiiHttpTransport transport;
+    private final String uploadUrl;
 
-    @Value("${sii.url.upload:https://palena.sii.cl/cgi_dte/UPL/DTEUpload}")
-    private String uploadUrl;
+    public SiiUploadClient(@Value("${sii.url.upload:https://palena.sii.cl/cgi_dte/UPL/DTEUpload}") String uploadUrl,
+            SiiHttpTransport transport) {
+        this.uploadUrl = uploadUrl;
+        this.transport = transport;
+    }
 
-    public SiiUploadClient() {
-        this.httpClient = HttpClient.newBuilder().version(Version.HTTP_1_1).build();
+    /**
+     * Writes the signed EnvioDTE straight into the request body.
+     */
+    @FunctionalInterface
+    public interface EnvelopeWriter {
+        void writeTo(OutputStream out) throws IOException;
     }
 
     public String uploadEnvioDte(String token, String envioDteXml, String rutEmisor, String rutEmpresa) {
+        // El XML declara ISO-8859-1, así que se envía con esos mismos bytes
+        return uploadEnvioDte(token, out -> out.write(envioDteXml.getBytes(StandardCharsets.ISO_8859_1)),
+                rutEmisor, rutEmpresa);
+    }
+
+    /**
+     * Sube un EnvioDTE escrito por {@code envelope} directamente en el cuerpo
+     * multipart, sin pasar por un String intermedio.
+     */
+    public String uploadEnvioDte(String token, EnvelopeWriter envelope, String rutEmisor, String rutEmpresa) {
         // El SII requiere un formato Multipart específico con headers precisos
         String boundary = "---boundary" + System.currentTimeMillis();
 
-        // Construir el cuerpo Multipart a mano
-        String body = buildMultipartBody(boundary, envioDteXml, rutEmisor, rutEmpresa);
-
-        HttpRequest request = HttpRequest.newBuilder()
+        HttpRequest.Builder request = HttpRequest.newBuilder()
                 .uri(URI.create(uploadUrl))
                 .header("Content-Type", "multipart/form-data; boundary=" + boundary)
                 .header("User-Agent", "Mozilla/4.0 (compatible; PROG 1.0; Windows NT 5.0; YComp 5.0.2.4)")
-                .header("Cookie", "TOKEN=" + token) // Autenticación vía Cookie
-                .POST(HttpRequest.BodyPublishers.ofString(body))
-                .build();
+                .header("Cookie", "TOKEN=" + token); // Autenticación vía Cookie
 
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() != 200) {
-                throw new RuntimeException("SII Upload failed with status: " + response.statusCode());
-            }
+            // Construir el cuerpo Multipart a mano
+            byte[] body = buildMultipartBody(boundary, envelope, rutEmisor, rutEmpresa);
 
             // Parsear respuesta para obtener el Track ID
-            return extractTrackId(response.body());
+            return transport.post(Endpoint.UPLOAD, request, body,
+                    response -> extractTrackId(new String(response.readAllBytes(), StandardCharsets.UTF_8)));
 
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Error subiendo DTE al SII", e);
         }
     }
 
-    private String buildMultipartBody(String boundary, String xmlContent, String rutEmisor, String rutEmpresa) {
+    private byte[] buildMultipartBody(String boundary, EnvelopeWriter envelope, String rutEmisor,
+            String rutEmpresa) throws IOException {
         String filename = "envio_" + System.currentTimeMillis() + ".xml";
         StringBuilder sb = new StringBuilder();
 
@@ -80,12 +97,16 @@ public class SiiUploadClient {
         sb.append("--").append(boundary).append("\r\n");
         sb.append("Content-Disposition: form-data; name=\"archivo\"; filename=\"").append(filename).append("\"\r\n");
         sb.append("Content-Type: text/xml\r\n\r\n");
-        sb.append(xmlContent).append("\r\n");
+
+        // The transport needs the whole body (it may gzip it), so the envelope is serialized into it once
+        ByteArrayOutputStream body = new ByteArrayOutputStream(64 * 1024);
+        body.write(sb.toString().getBytes(StandardCharsets.ISO_8859_1));
+        envelope.writeTo(body);
 
         // End boundary
-        sb.append("--").append(boundary).append("--\r\n");
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
 
-        return sb.toString();
+        return body.toByteArray();
     }
 
     private String extractTrackId(String responseBody) {
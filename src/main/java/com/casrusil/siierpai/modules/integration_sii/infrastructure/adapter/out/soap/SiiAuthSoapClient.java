@@ -1,36 +1,34 @@
 package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.soap;
 
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http.SiiHttpTransport;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http.SiiHttpTransport.Endpoint;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
+import java.nio.charset.StandardCharsets;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Component
 public class SiiAuthSoapClient {
 
-    private final HttpClient httpClient;
+    private final SiiHttpTransport transport;
     private final String siiUrlAuth;
 
-    public SiiAuthSoapClient(@Value("${sii.url.auth}") String siiUrlAuth) {
-        this(siiUrlAuth, HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build());
+    @Autowired
+    public SiiAuthSoapClient(@Value("${sii.url.auth:https://palena.sii.cl/DTEWS}") String siiUrlAuth,
+            SiiHttpTransport transport) {
+        this.siiUrlAuth = siiUrlAuth;
+        this.transport = transport;
     }
 
     protected SiiAuthSoapClient() {
         this.siiUrlAuth = null;
-        this.httpClient = null;
-    }
-
-    public SiiAuthSoapClient(String siiUrlAuth, HttpClient httpClient) {
-        this.siiUrlAuth = siiUrlAuth;
-        this.httpClient = httpClient;
+        this.transport = null;
     }
 
     public String getSeed() {
@@ -44,21 +42,9 @@ public class SiiAuthSoapClient {
                 """;
 
         try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(siiUrlAuth + "/CrSeed.jws"))
-                    .header("Content-Type", "text/xml;charset=UTF-8")
-                    .header("SOAPAction", "")
-                    .POST(HttpRequest.BodyPublishers.ofString(soapBody))
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() != 200) {
-                throw new RuntimeException("Failed to get seed. Status: " + response.statusCode());
-            }
-
-            return extractTagValue(response.body(), "SEMILLA");
-
+            return post("/CrSeed.jws", soapBody, "SEMILLA");
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Error getting seed from SII", e);
         }
@@ -79,26 +65,24 @@ public class SiiAuthSoapClient {
                 escapeXml(signedSeed));
 
         try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(siiUrlAuth + "/GetTokenFromSeed.jws"))
-                    .header("Content-Type", "text/xml;charset=UTF-8")
-                    .header("SOAPAction", "")
-                    .POST(HttpRequest.BodyPublishers.ofString(soapBody))
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() != 200) {
-                throw new RuntimeException("Failed to get token. Status: " + response.statusCode());
-            }
-
-            return extractTagValue(response.body(), "TOKEN");
-
+            return post("/GetTokenFromSeed.jws", soapBody, "TOKEN");
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Error getting token from SII", e);
         }
     }
 
+    private String post(String path, String soapBody, String tagName) {
+        HttpRequest.Builder request = HttpRequest.newBuilder()
+                .uri(URI.create(siiUrlAuth + path))
+                .header("Content-Type", "text/xml;charset=UTF-8")
+                .header("SOAPAction", "");
+        // Seed and token responses are a few hundred bytes
+        return transport.post(Endpoint.AUTH, request, soapBody.getBytes(StandardCharsets.UTF_8),
+                body -> extractTagValue(new String(body.readAllBytes(), StandardCharsets.UTF_8), tagName));
+    }
+
     private String extractTagValue(String xml, String tagName) {
         Pattern pattern = Pattern.compile("<" + tagName + ">(.*?)</" + tagName + ">");
         Matcher matcher = pattern.matcher(xml);
@@ -1,39 +1,46 @@
 package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.soap;
 
+import com.casrusil.siierpai.modules.integration_sii.domain.exception.SiiParsingException;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http.SiiHttpTransport;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http.SiiHttpTransport.BodyReader;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http.SiiHttpTransport.Endpoint;
+import com.casrusil.siierpai.shared.infrastructure.observability.Monitored;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
+import java.nio.charset.StandardCharsets;
 
 @Component
 public class SiiRcvSoapClient {
 
-    private final HttpClient httpClient;
+    private final SiiHttpTransport transport;
     private final String siiUrlRcv;
 
+    @Autowired
     public SiiRcvSoapClient(
-            @Value("${sii.url.rcv:https://www4.sii.cl/consulfaliinternetws/reporte/}") String siiUrlRcv) {
-        this(siiUrlRcv, HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(30))
-                .build());
+            @Value("${sii.url.rcv:https://www4.sii.cl/consulfaliinternetws/reporte/}") String siiUrlRcv,
+            SiiHttpTransport transport) {
+        this.siiUrlRcv = siiUrlRcv;
+        this.transport = transport;
     }
 
     protected SiiRcvSoapClient() {
         this.siiUrlRcv = null;
-        this.httpClient = null;
-    }
-
-    public SiiRcvSoapClient(String siiUrlRcv, HttpClient httpClient) {
-        this.siiUrlRcv = siiUrlRcv;
-        this.httpClient = httpClient;
+        this.transport = null;
     }
 
+    /**
+     * Downloads one register and hands the response stream to {@code reader},
+     * so a large RCV is parsed without being buffered as a String first.
+     */
+    @Monitored(module = "integration_sii", operation = "rcv.download")
     @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "sii")
-    public String downloadRcv(String token, String rutEmpresa, String period, boolean isPurchase) {
+    public <T> T downloadRcv(String token, String rutEmpresa, String period, boolean isPurchase,
+            BodyReader<T> reader) {
         // Note: The actual endpoint and payload for RCV download varies.
         // This is a simplified implementation assuming a standard SOAP/REST hybrid
         // often used by SII.
@@ -57,22 +64,16 @@ public class SiiRcvSoapClient {
                 token, rutEmpresa, period, operation);
 
         try {
-            HttpRequest request = HttpRequest.newBuilder()
+            HttpRequest.Builder request = HttpRequest.newBuilder()
                     .uri(URI.create(siiUrlRcv)) // URL might need adjustment based on real SII WSDL
                     .header("Content-Type", "text/xml;charset=UTF-8")
                     .header("SOAPAction", "")
-                    .header("Cookie", "TOKEN=" + token) // Sometimes required in headers
-                    .POST(HttpRequest.BodyPublishers.ofString(soapBody))
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() != 200) {
-                throw new RuntimeException("Failed to download RCV. Status: " + response.statusCode());
-            }
+                    .header("Cookie", "TOKEN=" + token); // Sometimes required in headers
 
-            return response.body();
+            return transport.post(Endpoint.RCV, request, soapBody.getBytes(StandardCharsets.UTF_8), reader);
 
+        } catch (BulkheadFullException | SiiParsingException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Error downloading RCV from SII", e);
         }
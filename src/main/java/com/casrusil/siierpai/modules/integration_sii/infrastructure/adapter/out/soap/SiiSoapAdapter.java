@@ -1,8 +1,10 @@
 package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.soap;
 
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteUploadStatus;
 import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvData;
 import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiToken;
 import com.casrusil.siierpai.modules.integration_sii.domain.port.out.SiiSoapPort;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.parser.DteUploadStatusParser;
 import com.casrusil.siierpai.modules.integration_sii.infrastructure.parser.RcvXmlParser;
 import org.springframework.stereotype.Component;
 
@@ -14,11 +16,16 @@ public class SiiSoapAdapter implements SiiSoapPort {
     private final SiiAuthSoapClient authClient;
     private final SiiRcvSoapClient rcvClient;
     private final RcvXmlParser rcvParser;
+    private final SiiUploadStatusSoapClient uploadStatusClient;
+    private final DteUploadStatusParser uploadStatusParser;
 
-    public SiiSoapAdapter(SiiAuthSoapClient authClient, SiiRcvSoapClient rcvClient, RcvXmlParser rcvParser) {
+    public SiiSoapAdapter(SiiAuthSoapClient authClient, SiiRcvSoapClient rcvClient, RcvXmlParser rcvParser,
+            SiiUploadStatusSoapClient uploadStatusClient, DteUploadStatusParser uploadStatusParser) {
         this.authClient = authClient;
         this.rcvClient = rcvClient;
         this.rcvParser = rcvParser;
+        this.uploadStatusClient = uploadStatusClient;
+        this.uploadStatusParser = uploadStatusParser;
     }
 
     @Override
@@ -33,7 +40,11 @@ public class SiiSoapAdapter implements SiiSoapPort {
 
     @Override
     public List<RcvData> getRcv(SiiToken token, String rutEmpresa, String period, boolean isPurchase) {
-        String xml = rcvClient.downloadRcv(token.token(), rutEmpresa, period, isPurchase);
-        return rcvParser.parse(xml);
+        return rcvClient.downloadRcv(token.token(), rutEmpresa, period, isPurchase, rcvParser::parse);
+    }
+
+    @Override
+    public DteUploadStatus getUploadStatus(SiiToken token, String rutEmpresa, String trackId) {
+        return uploadStatusClient.getUploadStatus(token.token(), rutEmpresa, trackId, uploadStatusParser::parse);
     }
 }
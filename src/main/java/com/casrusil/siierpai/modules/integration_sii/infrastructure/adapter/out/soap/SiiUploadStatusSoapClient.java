@@ -0,0 +1,76 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.soap;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.exception.SiiParsingException;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http.SiiHttpTransport;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http.SiiHttpTransport.BodyReader;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http.SiiHttpTransport.Endpoint;
+import com.casrusil.siierpai.shared.infrastructure.observability.Monitored;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+
+@Component
+public class SiiUploadStatusSoapClient {
+
+    private final SiiHttpTransport transport;
+    private final String siiUrlUploadStatus;
+
+    @Autowired
+    public SiiUploadStatusSoapClient(
+            @Value("${sii.url.upload-status:https://palena.sii.cl/DTEWS/QueryEstUp.jws}") String siiUrlUploadStatus,
+            SiiHttpTransport transport) {
+        this.siiUrlUploadStatus = siiUrlUploadStatus;
+        this.transport = transport;
+    }
+
+    protected SiiUploadStatusSoapClient() {
+        this.siiUrlUploadStatus = null;
+        this.transport = null;
+    }
+
+    /**
+     * Queries the state of one uploaded envelope; the answer covers every DTE
+     * it carries.
+     *
+     * @param rutEmpresa company RUT with check digit (e.g. 76123456-7)
+     */
+    @Monitored(module = "integration_sii", operation = "dte.status")
+    @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "sii")
+    public <T> T getUploadStatus(String token, String rutEmpresa, String trackId, BodyReader<T> reader) {
+        String[] rut = rutEmpresa.split("-");
+        String soapBody = String.format(
+                """
+                        <soapenv:Envelope xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance" xmlns:xsd="http://www.w3.org/2001/XMLSchema" xmlns:soapenv="http://schemas.xmlsoap.org/soap/envelope/" xmlns:def="http://DefaultNamespace">
+                           <soapenv:Header/>
+                           <soapenv:Body>
+                              <def:getEstUp soapenv:encodingStyle="http://schemas.xmlsoap.org/soap/encoding/">
+                                 <RutCompania xsi:type="xsd:string">%s</RutCompania>
+                                 <DvCompania xsi:type="xsd:string">%s</DvCompania>
+                                 <TrackId xsi:type="xsd:string">%s</TrackId>
+                                 <Token xsi:type="xsd:string">%s</Token>
+                              </def:getEstUp>
+                           </soapenv:Body>
+                        </soapenv:Envelope>
+                        """,
+                rut[0], rut.length > 1 ? rut[1] : "", trackId, token);
+
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder()
+                    .uri(URI.create(siiUrlUploadStatus))
+                    .header("Content-Type", "text/xml;charset=UTF-8")
+                    .header("SOAPAction", "");
+
+            return transport.post(Endpoint.STATUS, request, soapBody.getBytes(StandardCharsets.UTF_8), reader);
+
+        } catch (BulkheadFullException | SiiParsingException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Error querying upload status " + trackId + " from SII", e);
+        }
+    }
+}
@@ -2,10 +2,10 @@ package com.casrusil.siierpai.modules.integration_sii.infrastructure.barcode;
 
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.EncodeHintType;
-import com.google.zxing.MultiFormatWriter;
 import com.google.zxing.WriterException;
 import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
+import com.google.zxing.pdf417.PDF417Writer;
 import com.google.zxing.pdf417.encoder.Compaction;
 import com.google.zxing.pdf417.encoder.Dimensions;
 import org.springframework.stereotype.Component;
@@ -13,8 +13,9 @@ import org.springframework.stereotype.Component;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Generador de Códigos de Barras PDF417.
@@ -26,33 +27,52 @@ import java.util.Map;
  * <p>
  * Utiliza el contenido del Timbre Electrónico (TED) como fuente de datos.
  * 
+ * <p>
+ * Siempre se renderiza a la misma resolución ({@value #WIDTH}x{@value #HEIGHT}),
+ * con parámetros fijos y un escritor sin estado compartidos entre llamadas. El
+ * PNG se escribe en un buffer reutilizable del pool, ya dimensionado para un
+ * timbre, y solo se copia el resultado.
+ * 
  * @since 1.0
  */
 @Component
 public class Pdf417Generator {
 
+    static final int WIDTH = 600; // Width (pixels)
+    static final int HEIGHT = 200; // Height (pixels) - approximate, PDF417 scales
+
+    // SII requires PDF417 with specific dimensions and error correction
+    private static final Map<EncodeHintType, Object> HINTS = Map.of(
+            EncodeHintType.PDF417_COMPACTION, Compaction.BYTE,
+            EncodeHintType.PDF417_DIMENSIONS, new Dimensions(5, 5, 2, 60), // Standard SII aspect ratio
+            EncodeHintType.MARGIN, 0,
+            EncodeHintType.CHARACTER_SET, StandardCharsets.ISO_8859_1.name());
+
+    // A stamp PNG is a few KB; larger buffers are not kept
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_POOLED_BUFFER = 256 * 1024;
+
+    private final PDF417Writer writer = new PDF417Writer();
+    private final Queue<ByteArrayOutputStream> buffers = new ConcurrentLinkedQueue<>();
+
     public byte[] generatePdf417(String tedXml) {
+        ByteArrayOutputStream baos = buffers.poll();
+        if (baos == null) {
+            baos = new ByteArrayOutputStream(BUFFER_SIZE);
+        }
         try {
-            // SII requires PDF417 with specific dimensions and error correction
-            Map<EncodeHintType, Object> hints = new HashMap<>();
-            hints.put(EncodeHintType.PDF417_COMPACTION, Compaction.BYTE);
-            hints.put(EncodeHintType.PDF417_DIMENSIONS, new Dimensions(5, 5, 2, 60)); // Standard SII aspect ratio
-            hints.put(EncodeHintType.MARGIN, 0);
-            hints.put(EncodeHintType.CHARACTER_SET, StandardCharsets.ISO_8859_1.name());
-
-            BitMatrix bitMatrix = new MultiFormatWriter().encode(
-                    tedXml,
-                    BarcodeFormat.PDF_417,
-                    600, // Width (pixels)
-                    200, // Height (pixels) - approximate, PDF417 scales
-                    hints);
-
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            BitMatrix bitMatrix = writer.encode(tedXml, BarcodeFormat.PDF_417, WIDTH, HEIGHT, HINTS);
+
             MatrixToImageWriter.writeToStream(bitMatrix, "PNG", baos);
             return baos.toByteArray();
 
         } catch (WriterException | IOException e) {
             throw new RuntimeException("Failed to generate PDF417 barcode", e);
+        } finally {
+            if (baos.size() <= MAX_POOLED_BUFFER) {
+                baos.reset();
+                buffers.offer(baos);
+            }
         }
     }
 }
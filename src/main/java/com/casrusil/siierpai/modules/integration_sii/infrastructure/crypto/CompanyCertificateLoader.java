@@ -0,0 +1,83 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiCertificate;
+import com.casrusil.siierpai.modules.sso.domain.exception.CertificateNotFoundException;
+import com.casrusil.siierpai.modules.sso.domain.model.CompanyCertificate;
+import com.casrusil.siierpai.modules.sso.domain.port.out.CompanyCertificateRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Carga el certificado digital de una empresa para firmar envíos al SII.
+ *
+ * <p>
+ * Prioriza el certificado guardado en base de datos y, si no existe, usa el
+ * configurado en {@code sii.certificate.path}. Abrir un PKCS#12 es costoso, así
+ * que el certificado se cachea por empresa durante
+ * {@code sii.certificate.cache-ttl-minutes}: los workers que firman en paralelo
+ * no lo vuelven a leer en cada envío.
+ *
+ * @see Pkcs12Handler
+ */
+@Component
+public class CompanyCertificateLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompanyCertificateLoader.class);
+
+    private final CompanyCertificateRepository certificateRepository;
+    private final Pkcs12Handler pkcs12Handler;
+    private final String defaultCertPath;
+    private final String defaultCertPassword;
+    private final Cache<CompanyId, SiiCertificate> cache;
+
+    public CompanyCertificateLoader(CompanyCertificateRepository certificateRepository,
+            Pkcs12Handler pkcs12Handler,
+            @Value("${sii.certificate.path:}") String defaultCertPath,
+            @Value("${sii.certificate.password:}") String defaultCertPassword,
+            @Value("${sii.certificate.cache-ttl-minutes:10}") long cacheTtlMinutes) {
+        this.certificateRepository = certificateRepository;
+        this.pkcs12Handler = pkcs12Handler;
+        this.defaultCertPath = defaultCertPath;
+        this.defaultCertPassword = defaultCertPassword;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .build();
+    }
+
+    /**
+     * @throws CertificateNotFoundException si la empresa no tiene certificado
+     *                                      y no hay uno por defecto
+     */
+    public SiiCertificate load(CompanyId companyId) {
+        return cache.get(companyId, this::loadUncached);
+    }
+
+    private SiiCertificate loadUncached(CompanyId companyId) {
+        Optional<CompanyCertificate> stored = certificateRepository.findByCompanyId(companyId.value());
+        if (stored.isPresent()) {
+            CompanyCertificate cert = stored.get();
+            try (ByteArrayInputStream bis = new ByteArrayInputStream(cert.getCertificateData())) {
+                return pkcs12Handler.loadCertificate(bis, cert.getPassword());
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to load certificate from DB for company " + companyId, e);
+            }
+        }
+
+        if (defaultCertPath != null && !defaultCertPath.isEmpty()) {
+            logger.warn("Using default fallback certificate for company {} (Not configured in DB)", companyId);
+            return pkcs12Handler.loadCertificate(defaultCertPath, defaultCertPassword);
+        }
+
+        throw new CertificateNotFoundException("No SII certificate found for company " + companyId);
+    }
+}
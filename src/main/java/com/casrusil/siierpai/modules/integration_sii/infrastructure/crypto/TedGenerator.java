@@ -2,12 +2,19 @@ package com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto;
 
 import com.casrusil.siierpai.modules.integration_sii.domain.model.Caf;
 import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
 import java.security.Signature;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Generador de Timbre Electrónico DTE (TED).
@@ -20,43 +27,61 @@ import java.util.Base64;
  * El TED es obligatorio para la validez tributaria del DTE y su representación
  * gráfica (código de barras PDF417).
  * 
+ * <p>
+ * Pensado para timbrar en lote: por cada CAF se guarda, la primera vez que se
+ * usa, el bloque {@code <CAF>} ya extraído y un pool de {@link Signature}
+ * inicializadas con su llave. Timbrar un documento solo arma el DD y firma.
+ * El caché usa la identidad del {@link Caf}, así que un CAF nuevo o
+ * reemplazado se prepara de nuevo y el anterior se libera con él.
+ * 
  * @see CafParser
  * @since 1.0
  */
 @Component
 public class TedGenerator {
 
+    private static final String ALGORITHM = "SHA1withRSA";
+
+    // Weak keys compare by identity: each CAF loaded from the repository is prepared once
+    private final Cache<Caf, CafStamp> stamps = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(1000)
+            .build();
+
     public String generateTedXml(Invoice invoice, Caf caf) {
         try {
+            CafStamp stamp = stamps.get(caf, CafStamp::new);
+
             // 1. Construir la cadena de datos "Datos del Timbre" (DD)
-            String datosTimbre = buildDD(invoice, caf);
+            String datosTimbre = buildDD(invoice, stamp.cafBlock());
 
             // 2. Firmar los datos usando la llave privada del CAF (SHA1withRSA)
-            byte[] firma = sign(datosTimbre, caf.privateKey());
+            byte[] firma = stamp.sign(datosTimbre);
 
             // 3. Construir el XML final <TED>...
             // Note: The indentation and newlines here are important for some parsers,
             // but SII validates the signature against the content of DD.
-            return String.format("""
-                    <TED version="1.0">
-                    <DD>
-                    %s
-                    </DD>
-                    <FRMT algoritmo="SHA1withRSA">%s</FRMT>
-                    </TED>""", datosTimbre, Base64.getEncoder().encodeToString(firma));
+            String frmt = Base64.getEncoder().encodeToString(firma);
+            return new StringBuilder(datosTimbre.length() + frmt.length() + 96)
+                    .append("<TED version=\"1.0\">\n<DD>\n")
+                    .append(datosTimbre)
+                    .append("\n</DD>\n<FRMT algoritmo=\"").append(ALGORITHM).append("\">")
+                    .append(frmt)
+                    .append("</FRMT>\n</TED>")
+                    .toString();
 
         } catch (Exception e) {
             throw new RuntimeException("Error generating TED", e);
         }
     }
 
-    private String buildDD(Invoice invoice, Caf caf) {
+    private String buildDD(Invoice invoice, String cafBlock) {
         // Format:
         // <RE>...</RE><TD>...</TD><F>...</F><FE>...</FE><RR>...</RR><RSR>...</RSR><MNT>...</MNT><IT1>...</IT1><CAF
         // ...>...</CAF><TSTED>...</TSTED>
         // Critical: The order of tags MUST be exact.
 
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(cafBlock.length() + 320);
         sb.append("<RE>").append(invoice.getIssuerRut()).append("</RE>");
         sb.append("<TD>").append(invoice.getType().getCode()).append("</TD>");
         sb.append("<F>").append(invoice.getFolio()).append("</F>");
@@ -68,31 +93,56 @@ public class TedGenerator {
         // Item 1 Detail (Optional but recommended to include at least one)
         sb.append("<IT1>").append("Detalle Factura").append("</IT1>");
 
-        // CAF content (The <CAF> tag from the authorized XML)
-        // We need to extract the <CAF>...</CAF> block from the full XML
-        String cafBlock = extractCafBlock(caf.xmlContent());
+        // CAF content (The <CAF> tag from the authorized XML), extracted once per CAF
         sb.append(cafBlock);
 
         // Timestamp
-        sb.append("<TSTED>").append(java.time.LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME))
+        sb.append("<TSTED>").append(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME))
                 .append("</TSTED>");
 
         return sb.toString();
     }
 
-    private byte[] sign(String data, java.security.PrivateKey privateKey) throws Exception {
-        Signature signature = Signature.getInstance("SHA1withRSA");
-        signature.initSign(privateKey);
-        signature.update(data.getBytes(StandardCharsets.ISO_8859_1)); // SII uses ISO-8859-1
-        return signature.sign();
-    }
-
-    private String extractCafBlock(String fullXml) {
+    private static String extractCafBlock(String fullXml) {
         int start = fullXml.indexOf("<CAF");
-        int end = fullXml.indexOf("</CAF>") + 6;
+        int end = fullXml.indexOf("</CAF>");
         if (start == -1 || end == -1) {
             throw new RuntimeException("Invalid CAF XML: Missing <CAF> tag");
         }
-        return fullXml.substring(start, end);
+        return fullXml.substring(start, end + 6);
+    }
+
+    /**
+     * What stamping needs from one CAF: its {@code <CAF>} block and signers
+     * already initialized with its key. A signer returns to the pool after
+     * {@code sign()}, which leaves it ready for the next document. A pool
+     * rather than a {@code ThreadLocal}, since batch runs use virtual threads.
+     */
+    private static final class CafStamp {
+
+        private final String cafBlock;
+        private final PrivateKey privateKey;
+        private final Queue<Signature> signers = new ConcurrentLinkedQueue<>();
+
+        CafStamp(Caf caf) {
+            this.cafBlock = extractCafBlock(caf.xmlContent());
+            this.privateKey = caf.privateKey();
+        }
+
+        String cafBlock() {
+            return cafBlock;
+        }
+
+        byte[] sign(String data) throws GeneralSecurityException {
+            Signature signature = signers.poll();
+            if (signature == null) {
+                signature = Signature.getInstance(ALGORITHM);
+                signature.initSign(privateKey);
+            }
+            signature.update(data.getBytes(StandardCharsets.ISO_8859_1)); // SII uses ISO-8859-1
+            byte[] signed = signature.sign();
+            signers.offer(signature);
+            return signed;
+        }
     }
 }
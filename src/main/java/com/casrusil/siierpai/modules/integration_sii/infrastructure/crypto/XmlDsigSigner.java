@@ -1,31 +1,48 @@
 package com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto;
 
 import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiCertificate;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.apache.xml.security.Init;
+import org.apache.xml.security.keys.KeyInfo;
+import org.apache.xml.security.keys.content.X509Data;
 import org.apache.xml.security.signature.XMLSignature;
 import org.apache.xml.security.transforms.Transforms;
+import org.apache.xml.security.utils.XMLUtils;
 import org.springframework.stereotype.Component;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 import org.xml.sax.InputSource;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Componente de Firma Digital XML (XML-DSig).
- * 
+ *
  * <p>
  * Implementa el estándar XML Digital Signature para firmar documentos
  * electrónicos según la normativa del SII.
- * 
+ *
  * <p>
  * Características:
  * <ul>
@@ -33,7 +50,15 @@ import java.nio.charset.StandardCharsets;
  * <li>Uso de algoritmos RSA-SHA1 (estándar SII).</li>
  * <li>Canonicalización y transformación de referencias.</li>
  * </ul>
- * 
+ *
+ * <p>
+ * Para un envío de DTE conviene trabajar sobre DOM: {@link #parse} una vez,
+ * {@link #sign} el DTE, insertar el mismo nodo en el sobre, firmar el sobre y
+ * {@link #write} directo al cuerpo de la petición. Así ni el DTE firmado ni el
+ * sobre se vuelven a parsear. Los {@code DocumentBuilder} y
+ * {@code Transformer} se reutilizan desde un pool, y el {@code KeyInfo} de
+ * cada certificado se arma una sola vez y se copia en cada firma.
+ *
  * @see Pkcs12Handler
  * @since 1.0
  */
@@ -41,8 +66,27 @@ import java.nio.charset.StandardCharsets;
 public class XmlDsigSigner {
 
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(XmlDsigSigner.class);
+    // CRITICAL: SII requires ISO-8859-1
+    private static final String ENCODING = "ISO-8859-1";
+
+    private final DocumentBuilderFactory documentBuilderFactory;
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+    private final Queue<DocumentBuilder> documentBuilders = new ConcurrentLinkedQueue<>();
+    private final Queue<Transformer> transformers = new ConcurrentLinkedQueue<>();
+    // X509Certificate equality is by encoded form, so a certificate reloaded from the DB hits the same entry
+    private final Cache<X509Certificate, Element> keyInfoTemplates = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
 
     public XmlDsigSigner() {
+        documentBuilderFactory = DocumentBuilderFactory.newInstance();
+        documentBuilderFactory.setNamespaceAware(true);
+        try {
+            documentBuilderFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        } catch (ParserConfigurationException e) {
+            log.warn("XML parser does not support disallowing DOCTYPE: {}", e.getMessage());
+        }
         log.debug("XmlDsigSigner instantiated");
     }
 
@@ -55,12 +99,34 @@ public class XmlDsigSigner {
     }
 
     public String signXml(String xmlContent, String referenceId, SiiCertificate certificate) {
+        return toXml(sign(parse(xmlContent), referenceId, certificate));
+    }
+
+    /**
+     * Parsea un XML con un {@code DocumentBuilder} del pool.
+     */
+    public Document parse(String xmlContent) {
+        DocumentBuilder builder = borrowDocumentBuilder();
         try {
-            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-            dbf.setNamespaceAware(true);
-            DocumentBuilder db = dbf.newDocumentBuilder();
-            Document doc = db.parse(new InputSource(new StringReader(xmlContent)));
+            return builder.parse(new InputSource(new StringReader(xmlContent)));
+        } catch (Exception e) {
+            throw new RuntimeException("Error parsing XML to sign", e);
+        } finally {
+            builder.reset();
+            documentBuilders.offer(builder);
+        }
+    }
 
+    /**
+     * Firma {@code doc} en el mismo árbol: la firma se agrega como último hijo
+     * del elemento raíz.
+     *
+     * @param referenceId valor del atributo {@code ID} del elemento firmado, o
+     *                    vacío para firmar el documento completo
+     * @return el mismo {@code doc}, ya firmado
+     */
+    public Document sign(Document doc, String referenceId, SiiCertificate certificate) {
+        try {
             XMLSignature signature = new XMLSignature(doc, null, XMLSignature.ALGO_ID_SIGNATURE_RSA_SHA1);
 
             // Append signature to document root
@@ -69,30 +135,118 @@ public class XmlDsigSigner {
             Transforms transforms = new Transforms(doc);
             transforms.addTransform(Transforms.TRANSFORM_ENVELOPED_SIGNATURE);
 
-            String uri = (referenceId == null || referenceId.isEmpty()) ? "" : "#" + referenceId;
+            String uri = "";
+            if (referenceId != null && !referenceId.isEmpty()) {
+                registerId(doc.getDocumentElement(), referenceId);
+                uri = "#" + referenceId;
+            }
             signature.addDocument(uri, transforms,
                     org.apache.xml.security.utils.Constants.ALGO_ID_DIGEST_SHA1);
 
-            signature.addKeyInfo(certificate.certificate());
-            signature.addKeyInfo(certificate.certificate().getPublicKey());
+            Element keyInfoTemplate = keyInfoTemplate(certificate.certificate());
+            Element keyInfo;
+            synchronized (keyInfoTemplate) {
+                keyInfo = (Element) doc.importNode(keyInfoTemplate, true);
+            }
+            signature.getElement().appendChild(keyInfo);
+            XMLUtils.addReturnToElement(signature.getElement());
 
             signature.sign(certificate.privateKey());
-
-            return documentToString(doc);
+            return doc;
 
         } catch (Exception e) {
             throw new RuntimeException("Error signing XML", e);
         }
     }
 
-    private String documentToString(Document doc) throws Exception {
-        TransformerFactory tf = TransformerFactory.newInstance();
-        Transformer transformer = tf.newTransformer();
-        // CRITICAL: SII requires ISO-8859-1
-        transformer.setOutputProperty(javax.xml.transform.OutputKeys.ENCODING, "ISO-8859-1");
+    /**
+     * Serializa {@code node} en ISO-8859-1 directamente sobre {@code out}.
+     */
+    public void write(Node node, OutputStream out) {
+        Transformer transformer = borrowTransformer();
+        try {
+            transformer.transform(new DOMSource(node), new StreamResult(out));
+        } catch (TransformerException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw new UncheckedIOException(io);
+            }
+            throw new RuntimeException("Error serializing signed XML", e);
+        } finally {
+            transformers.offer(transformer);
+        }
+    }
 
+    public String toXml(Node node) {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        transformer.transform(new DOMSource(doc), new StreamResult(baos));
-        return baos.toString("ISO-8859-1");
+        write(node, baos);
+        return baos.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * {@code KeyInfo} (X509Data y KeyValue) del certificado, armado en un
+     * documento propio la primera vez y luego solo copiado.
+     */
+    private Element keyInfoTemplate(X509Certificate certificate) {
+        return keyInfoTemplates.get(certificate, cert -> {
+            DocumentBuilder builder = borrowDocumentBuilder();
+            try {
+                Document template = builder.newDocument();
+                KeyInfo keyInfo = new KeyInfo(template);
+                X509Data x509Data = new X509Data(template);
+                x509Data.addCertificate(cert);
+                keyInfo.add(x509Data);
+                keyInfo.addKeyValue(cert.getPublicKey());
+                template.appendChild(keyInfo.getElement());
+                return keyInfo.getElement();
+            } catch (Exception e) {
+                throw new RuntimeException("Error building KeyInfo for certificate", e);
+            } finally {
+                builder.reset();
+                documentBuilders.offer(builder);
+            }
+        });
+    }
+
+    /**
+     * Marca como ID el atributo {@code ID} con valor {@code referenceId}, para
+     * que la referencia {@code #referenceId} se resuelva sin DTD.
+     */
+    private static boolean registerId(Element element, String referenceId) {
+        if (referenceId.equals(element.getAttribute("ID"))) {
+            element.setIdAttribute("ID", true);
+            return true;
+        }
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element childElement && registerId(childElement, referenceId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private DocumentBuilder borrowDocumentBuilder() {
+        DocumentBuilder builder = documentBuilders.poll();
+        if (builder != null) {
+            return builder;
+        }
+        try {
+            return documentBuilderFactory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("Cannot create XML parser", e);
+        }
+    }
+
+    private Transformer borrowTransformer() {
+        Transformer transformer = transformers.poll();
+        if (transformer != null) {
+            return transformer;
+        }
+        try {
+            transformer = transformerFactory.newTransformer();
+            transformer.setOutputProperty(OutputKeys.ENCODING, ENCODING);
+            return transformer;
+        } catch (TransformerConfigurationException e) {
+            throw new IllegalStateException("Cannot create XML serializer", e);
+        }
     }
 }
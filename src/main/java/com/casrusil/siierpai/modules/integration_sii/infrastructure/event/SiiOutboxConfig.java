@@ -0,0 +1,34 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.event;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.event.DteTrackResolvedEvent;
+import com.casrusil.siierpai.modules.integration_sii.domain.event.DtesDownloadedEvent;
+import com.casrusil.siierpai.shared.infrastructure.outbox.JacksonOutboxEventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra los eventos del SII que se despachan vía outbox.
+ *
+ * <p>
+ * {@link DtesDownloadedEvent} solo contiene valores ({@code RcvData}), por lo
+ * que se guarda completo como JSON. Lo mismo vale para
+ * {@link DteTrackResolvedEvent}, que se registra junto con el estado del envío
+ * para no perder el resultado de sus documentos.
+ *
+ * @since 1.0
+ */
+@Configuration
+public class SiiOutboxConfig {
+
+    @Bean
+    public JacksonOutboxEventCodec<DtesDownloadedEvent> dtesDownloadedEventCodec(ObjectMapper objectMapper) {
+        return new JacksonOutboxEventCodec<>(DtesDownloadedEvent.class, objectMapper, DtesDownloadedEvent::companyId);
+    }
+
+    @Bean
+    public JacksonOutboxEventCodec<DteTrackResolvedEvent> dteTrackResolvedEventCodec(ObjectMapper objectMapper) {
+        return new JacksonOutboxEventCodec<>(DteTrackResolvedEvent.class, objectMapper,
+                DteTrackResolvedEvent::companyId);
+    }
+}
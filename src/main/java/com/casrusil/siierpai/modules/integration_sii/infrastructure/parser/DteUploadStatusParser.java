@@ -0,0 +1,158 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.parser;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.exception.SiiParsingException;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteDocumentStatus;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteUploadStatus;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parser de la respuesta de {@code QueryEstUp} (estado de un envío de DTE).
+ *
+ * <p>
+ * El SII entrega la {@code RESPUESTA} escapada como texto dentro del sobre
+ * SOAP ({@code getEstUpReturn}); se desescapa y se parsea solo ese fragmento.
+ * {@code RESP_BODY} repite la secuencia {@code TIPO_DOCTO}, {@code INFORMADOS},
+ * {@code ACEPTADOS}, {@code RECHAZADOS}, {@code REPAROS} por cada tipo de
+ * documento, y puede traer un {@code DETALLE_DOC} por documento.
+ */
+@Component
+public class DteUploadStatusParser {
+
+    public DteUploadStatus parse(InputStream response) {
+        try {
+            return parse(new String(response.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new SiiParsingException("Error reading upload status response", e);
+        }
+    }
+
+    public DteUploadStatus parse(String response) {
+        String xml = response.contains("&lt;") ? unescape(response) : response;
+        int start = xml.indexOf("RESPUESTA");
+        int end = xml.lastIndexOf("RESPUESTA>");
+        if (start == -1 || end <= start) {
+            throw new SiiParsingException("Upload status response without RESPUESTA: " + abbreviate(response));
+        }
+        start = xml.lastIndexOf('<', start);
+        try {
+            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+            dbf.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            Document doc = dbf.newDocumentBuilder()
+                    .parse(new InputSource(new StringReader(xml.substring(start, end + "RESPUESTA>".length()))));
+            Element header = child(doc.getDocumentElement(), "RESP_HDR");
+            if (header == null) {
+                throw new SiiParsingException("Upload status response without RESP_HDR");
+            }
+            Element body = child(doc.getDocumentElement(), "RESP_BODY");
+            List<DteUploadStatus.TypeTotals> totals = new ArrayList<>();
+            List<DteUploadStatus.DocumentResult> documents = new ArrayList<>();
+            if (body != null) {
+                readBody(body, totals, documents);
+            }
+            return new DteUploadStatus(text(header, "ESTADO"), text(header, "GLOSA"), totals, documents);
+        } catch (SiiParsingException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SiiParsingException("Error parsing upload status XML", e);
+        }
+    }
+
+    private void readBody(Element body, List<DteUploadStatus.TypeTotals> totals,
+            List<DteUploadStatus.DocumentResult> documents) {
+        // Los totales vienen como hermanos planos: cada TIPO_DOCTO abre un grupo
+        int type = -1;
+        int[] counts = new int[4];
+        for (Node node = body.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (!(node instanceof Element element)) {
+                continue;
+            }
+            String value = element.getTextContent().trim();
+            switch (localName(element)) {
+                case "TIPO_DOCTO" -> {
+                    if (type != -1) {
+                        totals.add(totals(type, counts));
+                    }
+                    type = Integer.parseInt(value);
+                    counts = new int[4];
+                }
+                case "INFORMADOS" -> counts[0] = Integer.parseInt(value);
+                case "ACEPTADOS" -> counts[1] = Integer.parseInt(value);
+                case "RECHAZADOS" -> counts[2] = Integer.parseInt(value);
+                case "REPAROS" -> counts[3] = Integer.parseInt(value);
+                case "DETALLE_DOC" -> documents.add(new DteUploadStatus.DocumentResult(
+                        Integer.parseInt(text(element, "TIPO")),
+                        Long.parseLong(text(element, "FOLIO")),
+                        documentStatus(text(element, "ESTADO")),
+                        text(element, "GLOSA")));
+                default -> {
+                }
+            }
+        }
+        if (type != -1) {
+            totals.add(totals(type, counts));
+        }
+    }
+
+    private static DteUploadStatus.TypeTotals totals(int type, int[] counts) {
+        return new DteUploadStatus.TypeTotals(type, counts[0], counts[1], counts[2], counts[3]);
+    }
+
+    /**
+     * Estado de un documento: {@code DOK} aceptado, {@code RPR}/{@code RLV}
+     * aceptado con reparos, {@code RCH}/{@code RCT}/{@code RFR} rechazado.
+     */
+    static DteDocumentStatus documentStatus(String state) {
+        if (state == null) {
+            return DteDocumentStatus.UNKNOWN;
+        }
+        return switch (state.trim()) {
+            case "DOK", "ACD", "ACT" -> DteDocumentStatus.ACCEPTED;
+            case "RPR", "RLV" -> DteDocumentStatus.ACCEPTED_WITH_REPAIRS;
+            case "RCH", "RCT", "RFR" -> DteDocumentStatus.REJECTED;
+            default -> DteDocumentStatus.UNKNOWN;
+        };
+    }
+
+    private static Element child(Element parent, String name) {
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element element && localName(element).equals(name)) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private static String text(Element parent, String name) {
+        Element element = child(parent, name);
+        return element != null ? element.getTextContent().trim() : null;
+    }
+
+    private static String localName(Element element) {
+        String name = element.getNodeName();
+        return name.substring(name.indexOf(':') + 1);
+    }
+
+    private static String unescape(String value) {
+        return value.replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&apos;", "'")
+                .replace("&amp;", "&");
+    }
+
+    private static String abbreviate(String value) {
+        return value.length() > 200 ? value.substring(0, 200) + "..." : value;
+    }
+}
@@ -10,6 +10,7 @@ import org.xml.sax.InputSource;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
 import java.io.StringReader;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -35,11 +36,23 @@ import java.util.List;
 public class RcvXmlParser {
 
     public List<RcvData> parse(String xml) {
+        return parse(new InputSource(new StringReader(xml)));
+    }
+
+    /**
+     * Parsea la respuesta directamente desde el stream HTTP. El encoding se
+     * toma de la declaración XML (el SII responde en ISO-8859-1).
+     */
+    public List<RcvData> parse(InputStream xml) {
+        return parse(new InputSource(xml));
+    }
+
+    private List<RcvData> parse(InputSource source) {
         List<RcvData> rcvDataList = new ArrayList<>();
         try {
             DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
             DocumentBuilder db = dbf.newDocumentBuilder();
-            Document doc = db.parse(new InputSource(new StringReader(xml)));
+            Document doc = db.parse(source);
 
             // Assuming a standard SII response structure, e.g., <Detalle> items
             NodeList detalles = doc.getElementsByTagName("Detalle");
@@ -0,0 +1,235 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.scheduler;
+
+import com.casrusil.siierpai.modules.integration_sii.application.service.DteTrackingService;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrack;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteUploadStatus;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiToken;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.in.AuthenticateSiiUseCase;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.DteTrackRepository;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.SiiSoapPort;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.SiiTokenRepository;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto.CompanyCertificateLoader;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Polls the SII for the state of uploaded DTE envelopes.
+ *
+ * <p>
+ * Each cycle claims the tracks that are due, under a lease, and groups them
+ * by company. Companies are polled in parallel on virtual threads, each with
+ * one token. Every envelope costs one {@code QueryEstUp} call, and its answer
+ * settles all the DTEs it carries, so the SII sees one call per envelope and
+ * poll, not one per invoice.
+ *
+ * <p>
+ * An envelope is first queried {@code initial-delay-ms} after upload and
+ * then at that same pace for {@code fast-polls} queries, since most are
+ * processed within seconds. After that the interval grows by
+ * {@code backoff-multiplier} up to {@code max-delay-ms}. Failed queries back
+ * off the same way. When the SII circuit is open, or the status bulkhead is
+ * full, the track waits without counting a poll. A track with no final answer
+ * after {@code max-age-hours} is marked {@code EXPIRED}.
+ *
+ * <h2>Configuration:</h2>
+ * <ul>
+ * <li>{@code sii.dte.tracking.poll-interval-ms} - pause between cycles</li>
+ * <li>{@code sii.dte.tracking.batch-size} - tracks claimed per cycle</li>
+ * <li>{@code sii.dte.tracking.lease-seconds} - lease of a claimed track</li>
+ * <li>{@code sii.dte.tracking.initial-delay-ms} / {@code fast-polls} /
+ * {@code backoff-multiplier} / {@code max-delay-ms} - poll schedule</li>
+ * <li>{@code sii.dte.tracking.max-age-hours} - tracking window</li>
+ * <li>{@code sii.dte.tracking.circuit-open-delay-ms} - pause while the SII
+ * circuit is open</li>
+ * <li>{@code resilience4j.bulkhead.instances.siiStatus.*} - concurrent status
+ * queries</li>
+ * </ul>
+ */
+@Component
+public class DteTrackPoller {
+
+    private static final Logger logger = LoggerFactory.getLogger(DteTrackPoller.class);
+
+    private final DteTrackRepository trackRepository;
+    private final DteTrackingService trackingService;
+    private final SiiSoapPort siiSoapPort;
+    private final SiiTokenRepository tokenRepository;
+    private final AuthenticateSiiUseCase authenticateSiiUseCase;
+    private final CompanyCertificateLoader certificateLoader;
+    private final int batchSize;
+    private final Duration lease;
+    private final long initialDelayMillis;
+    private final int fastPolls;
+    private final double backoffMultiplier;
+    private final long maxDelayMillis;
+    private final Duration maxAge;
+    private final Duration circuitOpenDelay;
+
+    public DteTrackPoller(DteTrackRepository trackRepository,
+            DteTrackingService trackingService,
+            SiiSoapPort siiSoapPort,
+            SiiTokenRepository tokenRepository,
+            AuthenticateSiiUseCase authenticateSiiUseCase,
+            CompanyCertificateLoader certificateLoader,
+            @Value("${sii.dte.tracking.batch-size:100}") int batchSize,
+            @Value("${sii.dte.tracking.lease-seconds:120}") long leaseSeconds,
+            @Value("${sii.dte.tracking.initial-delay-ms:5000}") long initialDelayMillis,
+            @Value("${sii.dte.tracking.fast-polls:3}") int fastPolls,
+            @Value("${sii.dte.tracking.backoff-multiplier:2.0}") double backoffMultiplier,
+            @Value("${sii.dte.tracking.max-delay-ms:1800000}") long maxDelayMillis,
+            @Value("${sii.dte.tracking.max-age-hours:72}") long maxAgeHours,
+            @Value("${sii.dte.tracking.circuit-open-delay-ms:30000}") long circuitOpenDelayMillis) {
+        this.trackRepository = trackRepository;
+        this.trackingService = trackingService;
+        this.siiSoapPort = siiSoapPort;
+        this.tokenRepository = tokenRepository;
+        this.authenticateSiiUseCase = authenticateSiiUseCase;
+        this.certificateLoader = certificateLoader;
+        this.batchSize = batchSize;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.initialDelayMillis = initialDelayMillis;
+        this.fastPolls = fastPolls;
+        this.backoffMultiplier = backoffMultiplier;
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxAge = Duration.ofHours(maxAgeHours);
+        this.circuitOpenDelay = Duration.ofMillis(circuitOpenDelayMillis);
+    }
+
+    @Scheduled(fixedDelayString = "${sii.dte.tracking.poll-interval-ms:2000}")
+    public void poll() {
+        try {
+            Instant now = Instant.now();
+            List<DteTrack> due = trackRepository.claim(now, now.plus(lease), batchSize);
+            if (due.isEmpty()) {
+                return;
+            }
+            Map<CompanyId, List<DteTrack>> byCompany = due.stream()
+                    .collect(Collectors.groupingBy(DteTrack::companyId, LinkedHashMap::new, Collectors.toList()));
+            logger.debug("Polling {} DTE envelopes of {} companies", due.size(), byCompany.size());
+            // Closing the executor waits for every company, so cycles never overlap
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                byCompany.values().forEach(tracks -> executor.execute(() -> pollCompany(tracks)));
+            }
+        } catch (Exception e) {
+            logger.error("DTE tracking cycle failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Queries every claimed envelope of one company with a single token.
+     */
+    void pollCompany(List<DteTrack> tracks) {
+        CompanyId companyId = tracks.get(0).companyId();
+        SiiToken token;
+        try {
+            token = token(companyId);
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            tracks.forEach(track -> postpone(track, e));
+            return;
+        } catch (Exception e) {
+            logger.warn("No SII token to poll {} envelopes of company {}: {}", tracks.size(), companyId,
+                    e.getMessage());
+            tracks.forEach(track -> retryOrExpire(track, e.toString(), Instant.now()));
+            return;
+        }
+        for (DteTrack track : tracks) {
+            pollTrack(track, token);
+        }
+    }
+
+    void pollTrack(DteTrack track, SiiToken token) {
+        try {
+            DteUploadStatus answer = siiSoapPort.getUploadStatus(token, track.companyRut(), track.trackId());
+            Instant now = Instant.now();
+            if (answer.queryFailed()) {
+                retryOrExpire(track, answer.state() + " " + answer.gloss(), now);
+            } else if (answer.inProcess()) {
+                DteTrack pending = track.inProcess(answer.state(), now, now.plusMillis(nextDelay(track.polls() + 1)));
+                if (isTooOld(track, now)) {
+                    expire(pending, now);
+                } else {
+                    trackRepository.save(pending);
+                }
+            } else {
+                DteTrack resolved = trackingService.resolve(track.resolve(answer, now));
+                logger.info("DTE envelope {} of company {}: {} ({} DTEs)", resolved.trackId(),
+                        resolved.companyId(), resolved.siiState(), resolved.documents().size());
+            }
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            postpone(track, e);
+        } catch (Exception e) {
+            logger.warn("Status query of DTE envelope {} of company {} failed: {}", track.trackId(),
+                    track.companyId(), e.getMessage());
+            retryOrExpire(track, e.toString(), Instant.now());
+        }
+    }
+
+    private void retryOrExpire(DteTrack track, String error, Instant now) {
+        DteTrack retried = track.retry(error, now, now.plusMillis(nextDelay(track.polls() + 1)));
+        if (isTooOld(track, now)) {
+            expire(retried, now);
+        } else {
+            trackRepository.save(retried);
+        }
+    }
+
+    private void postpone(DteTrack track, Exception cause) {
+        // The SII is unavailable or the status bulkhead is full, not a problem of this envelope
+        Instant now = Instant.now();
+        Duration delay = cause instanceof CallNotPermittedException ? circuitOpenDelay : Duration.ZERO;
+        logger.debug("DTE envelope {} postponed: {}", track.trackId(), cause.getMessage());
+        trackRepository.save(track.postpone(now, now.plus(delay)));
+    }
+
+    private void expire(DteTrack track, Instant now) {
+        logger.warn("DTE envelope {} of company {} has no final SII answer after {} polls; giving up",
+                track.trackId(), track.companyId(), track.polls());
+        trackingService.resolve(track.expired(now));
+    }
+
+    private boolean isTooOld(DteTrack track, Instant now) {
+        return track.createdAt().plus(maxAge).isBefore(now);
+    }
+
+    private long nextDelay(int polls) {
+        return nextDelay(polls, initialDelayMillis, fastPolls, backoffMultiplier, maxDelayMillis);
+    }
+
+    /**
+     * Wait before the next query of an envelope already queried
+     * {@code polls} times: {@code initial} for the first {@code fastPolls},
+     * then growing by {@code multiplier} per poll up to {@code max}.
+     */
+    static long nextDelay(int polls, long initial, int fastPolls, double multiplier, long max) {
+        if (polls <= fastPolls) {
+            return Math.min(initial, max);
+        }
+        double delay = initial * Math.pow(multiplier, polls - fastPolls);
+        return delay >= max ? max : (long) delay;
+    }
+
+    private SiiToken token(CompanyId companyId) {
+        return tokenRepository.findByCompanyId(companyId)
+                .filter(SiiToken::isValid)
+                .orElseGet(() -> {
+                    SiiToken token = authenticateSiiUseCase.authenticate(certificateLoader.load(companyId));
+                    tokenRepository.save(companyId, token);
+                    return token;
+                });
+    }
+}
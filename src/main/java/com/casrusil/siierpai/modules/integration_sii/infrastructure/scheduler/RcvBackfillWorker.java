@@ -0,0 +1,308 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.scheduler;
+
+import com.casrusil.siierpai.modules.integration_sii.application.service.SiiRcvService;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvBackfillJob;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvRegisters;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiToken;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.in.AuthenticateSiiUseCase;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.RcvBackfillJobRepository;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.SiiTokenRepository;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto.CompanyCertificateLoader;
+import com.casrusil.siierpai.modules.invoicing.application.service.RcvInvoiceImporter;
+import com.casrusil.siierpai.modules.invoicing.domain.model.TransactionType;
+import com.casrusil.siierpai.modules.sso.domain.port.out.CompanyRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.infrastructure.notification.NotificationService;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Workers that run the queued RCV backfill jobs.
+ *
+ * <p>
+ * Each cycle claims as many jobs as there are idle workers, under a lease.
+ * A worker walks the remaining periods of its job oldest first. For each
+ * period it:
+ * <ol>
+ * <li>downloads the purchase and sales registers in parallel through
+ * {@link SiiRcvService};</li>
+ * <li>imports each register in bulk with {@link RcvInvoiceImporter};</li>
+ * <li>saves a checkpoint, which also renews the lease;</li>
+ * <li>notifies progress and ETA through {@link NotificationService}.</li>
+ * </ol>
+ * A job interrupted by a restart is claimed again once its lease expires and
+ * resumes after its last checkpoint. Documents that were already imported are
+ * skipped.
+ *
+ * <p>
+ * Every download takes permits from two rate limiters: the global
+ * {@code siiRcv} instance and one limiter per company, built from the
+ * {@code siiRcvCompany} config. Calls still go through the {@code sii}
+ * circuit breaker of the SOAP client. While that circuit is open, or when a
+ * permit (or a slot of the RCV bulkhead) is not granted in time, the job goes
+ * back to the queue without spending an attempt. Other failures are retried with exponential backoff.
+ * After {@code max-attempts} consecutive failures the job is marked
+ * {@code FAILED}.
+ *
+ * <h2>Configuration:</h2>
+ * <ul>
+ * <li>{@code sii.rcv.backfill.poll-interval-ms} - pause between cycles</li>
+ * <li>{@code sii.rcv.backfill.concurrency} - jobs run in parallel</li>
+ * <li>{@code sii.rcv.backfill.max-attempts} - consecutive failures before
+ * FAILED</li>
+ * <li>{@code sii.rcv.backfill.retry-backoff-ms} - base backoff</li>
+ * <li>{@code sii.rcv.backfill.circuit-open-delay-ms} - pause while the SII
+ * circuit is open</li>
+ * <li>{@code sii.rcv.backfill.lease-seconds} - lease of a running job,
+ * renewed at every checkpoint</li>
+ * <li>{@code resilience4j.ratelimiter.instances.siiRcv.*} - global rate</li>
+ * <li>{@code resilience4j.ratelimiter.configs.siiRcvCompany.*} - rate per
+ * company</li>
+ * </ul>
+ */
+@Component
+public class RcvBackfillWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(RcvBackfillWorker.class);
+    private static final ZoneId CHILE_ZONE = ZoneId.of("America/Santiago");
+    private static final long MAX_BACKOFF_MILLIS = Duration.ofHours(1).toMillis();
+    static final String GLOBAL_RATE_LIMITER = "siiRcv";
+    static final String COMPANY_RATE_LIMITER_CONFIG = "siiRcvCompany";
+    // One period downloads both registers
+    private static final int PERMITS_PER_PERIOD = 2;
+
+    private final RcvBackfillJobRepository jobRepository;
+    private final SiiRcvService siiRcvService;
+    private final RcvInvoiceImporter rcvInvoiceImporter;
+    private final SiiTokenRepository tokenRepository;
+    private final AuthenticateSiiUseCase authenticateSiiUseCase;
+    private final CompanyCertificateLoader certificateLoader;
+    private final CompanyRepository companyRepository;
+    private final NotificationService notificationService;
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final RateLimiter globalRateLimiter;
+    private final RateLimiterConfig companyRateLimiterConfig;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final Duration circuitOpenDelay;
+    private final Duration lease;
+    private final ExecutorService workers;
+    private final AtomicInteger running = new AtomicInteger();
+
+    public RcvBackfillWorker(RcvBackfillJobRepository jobRepository,
+            SiiRcvService siiRcvService,
+            RcvInvoiceImporter rcvInvoiceImporter,
+            SiiTokenRepository tokenRepository,
+            AuthenticateSiiUseCase authenticateSiiUseCase,
+            CompanyCertificateLoader certificateLoader,
+            CompanyRepository companyRepository,
+            NotificationService notificationService,
+            RateLimiterRegistry rateLimiterRegistry,
+            @Value("${sii.rcv.backfill.concurrency:2}") int concurrency,
+            @Value("${sii.rcv.backfill.max-attempts:5}") int maxAttempts,
+            @Value("${sii.rcv.backfill.retry-backoff-ms:5000}") long retryBackoffMillis,
+            @Value("${sii.rcv.backfill.circuit-open-delay-ms:30000}") long circuitOpenDelayMillis,
+            @Value("${sii.rcv.backfill.lease-seconds:600}") long leaseSeconds) {
+        this.jobRepository = jobRepository;
+        this.siiRcvService = siiRcvService;
+        this.rcvInvoiceImporter = rcvInvoiceImporter;
+        this.tokenRepository = tokenRepository;
+        this.authenticateSiiUseCase = authenticateSiiUseCase;
+        this.certificateLoader = certificateLoader;
+        this.companyRepository = companyRepository;
+        this.notificationService = notificationService;
+        this.rateLimiterRegistry = rateLimiterRegistry;
+        this.globalRateLimiter = rateLimiterRegistry.rateLimiter(GLOBAL_RATE_LIMITER);
+        this.companyRateLimiterConfig = rateLimiterRegistry.getConfiguration(COMPANY_RATE_LIMITER_CONFIG)
+                .orElse(rateLimiterRegistry.getDefaultConfig());
+        this.concurrency = concurrency;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.circuitOpenDelay = Duration.ofMillis(circuitOpenDelayMillis);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "rcv-backfill-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Running jobs keep their checkpoint; another instance resumes them when the lease expires
+        workers.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${sii.rcv.backfill.poll-interval-ms:5000}")
+    public void poll() {
+        try {
+            int idle = concurrency - running.get();
+            if (idle <= 0) {
+                return;
+            }
+            Instant now = Instant.now();
+            for (RcvBackfillJob job : jobRepository.claim(now, now.plus(lease), idle)) {
+                running.incrementAndGet();
+                workers.execute(() -> {
+                    try {
+                        run(job);
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                });
+            }
+        } catch (Exception e) {
+            logger.error("RCV backfill cycle failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Imports the remaining periods of a claimed job, checkpointing after
+     * each one.
+     */
+    void run(RcvBackfillJob job) {
+        CompanyId companyId = job.companyId();
+        List<YearMonth> remaining = job.remainingPeriods();
+        Instant runStart = Instant.now();
+        int periodsThisRun = 0;
+        try {
+            String companyRut = companyRepository.findById(companyId)
+                    .orElseThrow(() -> new IllegalStateException("Company not found: " + companyId))
+                    .getRut();
+            RateLimiter companyRateLimiter = rateLimiterRegistry.rateLimiter(companyRateLimiterName(companyId),
+                    companyRateLimiterConfig);
+
+            for (YearMonth period : remaining) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                RateLimiter.waitForPermission(globalRateLimiter, PERMITS_PER_PERIOD);
+                RateLimiter.waitForPermission(companyRateLimiter, PERMITS_PER_PERIOD);
+                RcvRegisters registers = siiRcvService.downloadRegisters(token(companyId), companyId, companyRut,
+                        period, isSettled(period));
+
+                // The company is the receiver of its purchases and the issuer of its sales
+                int imported = rcvInvoiceImporter.importRegister(companyId, registers.purchases(),
+                        TransactionType.PURCHASE, companyRut)
+                        + rcvInvoiceImporter.importRegister(companyId, registers.sales(), TransactionType.SALE,
+                                companyRut);
+
+                Instant now = Instant.now();
+                job = jobRepository.save(job.checkpoint(period, imported, now, now.plus(lease)));
+                periodsThisRun++;
+                notifyProgress(job, period, eta(Duration.between(runStart, now), periodsThisRun,
+                        remaining.size() - periodsThisRun));
+            }
+
+            job = jobRepository.save(job.completed(Instant.now()));
+            rateLimiterRegistry.remove(companyRateLimiterName(companyId));
+            logger.info("RCV backfill {} of company {} completed: {} periods, {} documents", job.id(), companyId,
+                    job.totalPeriods(), job.documentsImported());
+            notify(job, String.format("Carga histórica del RCV completada: %d periodos, %d documentos importados",
+                    job.totalPeriods(), job.documentsImported()));
+        } catch (CallNotPermittedException | RequestNotPermitted | BulkheadFullException e) {
+            // The SII is unavailable or the rate or concurrency is exhausted, not a failure of this job
+            Instant now = Instant.now();
+            Duration delay = e instanceof CallNotPermittedException ? circuitOpenDelay : Duration.ZERO;
+            logger.info("RCV backfill {} of company {} paused at {}: {}", job.id(), companyId,
+                    job.checkpoint(), e.getMessage());
+            jobRepository.save(job.postpone(now, now.plus(delay)));
+        } catch (Exception e) {
+            retryOrFail(job, e);
+        }
+    }
+
+    private void retryOrFail(RcvBackfillJob job, Exception error) {
+        Instant now = Instant.now();
+        if (job.attempts() + 1 >= maxAttempts) {
+            logger.error("Giving up RCV backfill {} of company {} after {} attempts: {}", job.id(), job.companyId(),
+                    job.attempts() + 1, error.getMessage());
+            RcvBackfillJob failed = jobRepository.save(job.failed(error.toString(), now));
+            rateLimiterRegistry.remove(companyRateLimiterName(job.companyId()));
+            notify(failed, String.format("La carga histórica del RCV falló tras %d/%d periodos: %s",
+                    failed.completedPeriods(), failed.totalPeriods(), error.getMessage()));
+        } else {
+            logger.warn("RCV backfill {} of company {} failed after {} (attempt {}): {}", job.id(), job.companyId(),
+                    job.checkpoint(), job.attempts() + 1, error.getMessage());
+            long backoff = Math.min(MAX_BACKOFF_MILLIS, retryBackoffMillis << Math.min(job.attempts(), 20));
+            jobRepository.save(job.retry(error.toString(), now, now.plusMillis(backoff)));
+        }
+    }
+
+    private SiiToken token(CompanyId companyId) {
+        return tokenRepository.findByCompanyId(companyId)
+                .filter(SiiToken::isValid)
+                .orElseGet(() -> {
+                    SiiToken token = authenticateSiiUseCase.authenticate(certificateLoader.load(companyId));
+                    tokenRepository.save(companyId, token);
+                    return token;
+                });
+    }
+
+    /**
+     * A period older than the previous month no longer changes in the RCV, so
+     * its snapshot is cached with the closed-period TTL.
+     */
+    private static boolean isSettled(YearMonth period) {
+        return period.isBefore(YearMonth.now(CHILE_ZONE).minusMonths(1));
+    }
+
+    /**
+     * Remaining time at the pace of the current run.
+     */
+    static Duration eta(Duration elapsed, int periodsDone, int periodsLeft) {
+        if (periodsDone <= 0) {
+            return null;
+        }
+        return elapsed.dividedBy(periodsDone).multipliedBy(periodsLeft);
+    }
+
+    private void notifyProgress(RcvBackfillJob job, YearMonth period, Duration eta) {
+        logger.debug("RCV backfill {} of company {}: {} done ({}/{}), ETA {}", job.id(), job.companyId(), period,
+                job.completedPeriods(), job.totalPeriods(), eta);
+        notify(job, String.format("Carga histórica del RCV: %s importado (%d/%d periodos, %d documentos)."
+                + " Tiempo restante estimado: %s", period, job.completedPeriods(), job.totalPeriods(),
+                job.documentsImported(), formatEta(eta)));
+    }
+
+    private void notify(RcvBackfillJob job, String message) {
+        if (job.notifyUserId() != null) {
+            notificationService.sendNotification(job.notifyUserId(), message);
+        }
+    }
+
+    private static String formatEta(Duration eta) {
+        if (eta == null) {
+            return "desconocido";
+        }
+        long minutes = eta.toMinutes();
+        return minutes < 1 ? "menos de 1 min" : minutes < 60 ? minutes + " min"
+                : minutes / 60 + " h " + minutes % 60 + " min";
+    }
+
+    private static String companyRateLimiterName(CompanyId companyId) {
+        return GLOBAL_RATE_LIMITER + "-" + companyId.value();
+    }
+}
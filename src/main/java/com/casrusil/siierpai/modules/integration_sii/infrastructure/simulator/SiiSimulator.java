@@ -0,0 +1,615 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.simulator;
+
+import org.apache.xml.security.Init;
+import org.apache.xml.security.signature.XMLSignature;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Simulador en memoria de los servicios del SII que recorre el ciclo de vida
+ * completo de un DTE: semilla y token, recepción del EnvioDTE con trackId,
+ * estado del envío y descarga del RCV.
+ *
+ * <p>
+ * No depende de Spring ni de HTTP: lo publican {@code FakeSiiController}
+ * (perfil {@code sii-sim} de la aplicación) y {@link SiiSimulatorServer}
+ * (proceso independiente), de modo que las pruebas de carga y de larga
+ * duración de {@code DteSenderService}, {@code SiiAuthService},
+ * {@code TokenRefreshScheduler} y {@code RcvDownloadService} corren sin
+ * contactar al SII real.
+ *
+ * <p>
+ * El estado es el mínimo para que el ciclo sea coherente: cada semilla se
+ * acepta una sola vez, los tokens vencen, y cada envío pasa por
+ * {@code SOK → PDR} hasta quedar {@code EPR} (o {@code RFR} si la firma no
+ * es válida) tras {@code processing-ms}. Las semillas, tokens y envíos viejos
+ * se purgan solos, para que una prueba de horas no acumule memoria.
+ *
+ * <p>
+ * La validación de firma es barata por defecto ({@link SignatureCheck#STRUCTURAL}):
+ * cada firma debe traer digest, valor y un certificado X.509 legible cuyo
+ * módulo RSA calce con el largo de la firma. El certificado se decodifica una
+ * vez y queda en caché. {@link SignatureCheck#FULL} verifica criptográficamente
+ * con xmlsec, a costa de CPU en el simulador.
+ *
+ * <p>
+ * Los códigos de estado replican los del SII en lo que los clientes leen
+ * ({@code STATUS} de la recepción, {@code ESTADO} del envío); el detalle por
+ * documento del estado es una extensión del simulador.
+ */
+public class SiiSimulator {
+
+    /**
+     * Nivel de validación de las firmas XML-DSig recibidas.
+     */
+    public enum SignatureCheck {
+        NONE,
+        STRUCTURAL,
+        FULL
+    }
+
+    /**
+     * Parámetros del simulador.
+     *
+     * @param latencyMillis    latencia base de cada respuesta
+     * @param jitterMillis     variación aleatoria sobre la latencia
+     * @param errorRate        fracción de respuestas {@code 503}
+     * @param rcvDocuments     documentos por registro del RCV
+     * @param processingMillis tiempo hasta que un envío queda procesado
+     * @param rejectionRate    fracción de documentos rechazados
+     * @param tokenTtl         vigencia de los tokens emitidos
+     * @param signatureCheck   validación de las firmas recibidas
+     * @param requireToken     exige un token emitido por el simulador
+     */
+    public record Settings(long latencyMillis, long jitterMillis, double errorRate, int rcvDocuments,
+            long processingMillis, double rejectionRate, Duration tokenTtl, SignatureCheck signatureCheck,
+            boolean requireToken) {
+
+        public static Settings defaults() {
+            return new Settings(100, 50, 0.0, 500, 2000, 0.0, Duration.ofHours(1), SignatureCheck.STRUCTURAL, true);
+        }
+
+        /**
+         * Lee {@code sii.fake.*} de las propiedades de sistema, con los mismos
+         * nombres que en {@code application.properties}.
+         */
+        public static Settings fromSystemProperties() {
+            Settings defaults = defaults();
+            return new Settings(
+                    Long.getLong("sii.fake.latency-ms", defaults.latencyMillis()),
+                    Long.getLong("sii.fake.jitter-ms", defaults.jitterMillis()),
+                    Double.parseDouble(System.getProperty("sii.fake.error-rate", "0.0")),
+                    Integer.getInteger("sii.fake.rcv-documents", defaults.rcvDocuments()),
+                    Long.getLong("sii.fake.processing-ms", defaults.processingMillis()),
+                    Double.parseDouble(System.getProperty("sii.fake.rejection-rate", "0.0")),
+                    Duration.ofSeconds(Long.getLong("sii.fake.token-ttl-seconds", defaults.tokenTtl().toSeconds())),
+                    SignatureCheck.valueOf(System.getProperty("sii.fake.signature-check",
+                            defaults.signatureCheck().name())),
+                    Boolean.parseBoolean(System.getProperty("sii.fake.require-token", "true")));
+        }
+    }
+
+    /**
+     * Respuesta del simulador, antes de comprimirla.
+     */
+    public record Reply(int status, String body) {
+
+        static Reply ok(String body) {
+            return new Reply(200, body);
+        }
+
+        public byte[] bytes() {
+            return body.getBytes(StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    /**
+     * Cuerpo listo para enviar, comprimido si el cliente acepta gzip.
+     */
+    public record Encoded(int status, byte[] body, boolean gzipped) {
+    }
+
+    public static final String CONTENT_TYPE = "text/xml;charset=ISO-8859-1";
+
+    private static final DateTimeFormatter SII_PERIOD = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final BigDecimal IVA = new BigDecimal("0.19");
+    // Small bodies grow when compressed
+    private static final int GZIP_MIN_BYTES = 1024;
+    private static final Duration SEED_TTL = Duration.ofMinutes(5);
+    private static final Duration ENVELOPE_RETENTION = Duration.ofHours(1);
+    private static final int PURGE_EVERY = 1024;
+    private static final int CERTIFICATE_CACHE_SIZE = 1024;
+
+    private static final Pattern SIGNATURE = Pattern.compile(
+            "<((?:\\w+:)?)Signature[\\s>].*?</\\1Signature>", Pattern.DOTALL);
+    private static final Pattern TED_DATA = Pattern.compile(
+            "<DD>.*?<TD>(\\d+)</TD>.*?<F>(\\d+)</F>", Pattern.DOTALL);
+
+    private static final Map<String, Pattern> TAGS = new ConcurrentHashMap<>();
+
+    private final Settings settings;
+    private final AtomicLong seedSequence = new AtomicLong(System.currentTimeMillis() / 1000);
+    private final AtomicLong trackSequence = new AtomicLong(System.currentTimeMillis() / 1000);
+    private final AtomicLong attentionSequence = new AtomicLong();
+    private final Map<String, Instant> seeds = new ConcurrentHashMap<>();
+    private final Map<String, Instant> tokens = new ConcurrentHashMap<>();
+    private final Map<Long, Envelope> envelopes = new ConcurrentHashMap<>();
+    // Base64 certificate -> RSA signature length in bytes, or -1 if unreadable
+    private final Map<String, Integer> certificates = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public SiiSimulator(Settings settings) {
+        this.settings = settings;
+        if (settings.signatureCheck() == SignatureCheck.FULL) {
+            Init.init();
+        }
+    }
+
+    public Settings settings() {
+        return settings;
+    }
+
+    /**
+     * Latencia de la próxima respuesta, con jitter.
+     */
+    public long delayMillis() {
+        long jitter = settings.jitterMillis() > 0
+                ? ThreadLocalRandom.current().nextLong(settings.jitterMillis() + 1)
+                : 0;
+        return settings.latencyMillis() + jitter;
+    }
+
+    /**
+     * Decide si la llamada falla con {@code 503} antes de procesarse, de modo
+     * que un reintento del cliente no duplique semillas ni envíos.
+     */
+    public boolean injectFailure() {
+        if (settings.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < settings.errorRate()) {
+            count("errors");
+            return true;
+        }
+        return false;
+    }
+
+    public Reply unavailable() {
+        return new Reply(503, "<ERROR>Servicio no disponible</ERROR>");
+    }
+
+    /**
+     * {@code CrSeed.jws}: emite una semilla de un solo uso.
+     */
+    public Reply seed() {
+        count("seed");
+        Instant now = Instant.now();
+        String seed = String.format("%012d", seedSequence.incrementAndGet());
+        seeds.put(seed, now);
+        if (seeds.size() > PURGE_EVERY) {
+            seeds.values().removeIf(issued -> issued.isBefore(now.minus(SEED_TTL)));
+        }
+        return Reply.ok(soap("<SEMILLA>" + seed + "</SEMILLA><ESTADO>00</ESTADO>"));
+    }
+
+    /**
+     * {@code GetTokenFromSeed.jws}: canjea una semilla firmada por un token.
+     * La semilla debe haber sido emitida por este simulador y no usada.
+     */
+    public Reply token(String request) {
+        count("token");
+        String signedSeed = unescape(tag(request, "pszXml"));
+        String seed = tag(signedSeed, "Semilla");
+        Instant issued = seeds.remove(seed);
+        if (issued == null || issued.isBefore(Instant.now().minus(SEED_TTL))) {
+            count("authRejected");
+            return Reply.ok(soap("<ESTADO>-07</ESTADO><GLOSA>Semilla invalida o usada</GLOSA>"));
+        }
+        if (!signatureValid(signedSeed, 1)) {
+            count("authRejected");
+            return Reply.ok(soap("<ESTADO>-07</ESTADO><GLOSA>Firma no valida</GLOSA>"));
+        }
+        Instant now = Instant.now();
+        String token = UUID.randomUUID().toString().replace("-", "").toUpperCase();
+        tokens.put(token, now.plus(settings.tokenTtl()));
+        if (tokens.size() > PURGE_EVERY) {
+            tokens.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        }
+        return Reply.ok(soap("<TOKEN>" + token + "</TOKEN><ESTADO>00</ESTADO>"));
+    }
+
+    /**
+     * {@code DTEUpload}: recibe un EnvioDTE y entrega su trackId. El envío se
+     * procesa en segundo plano; su resultado se consulta con
+     * {@link #uploadStatus(String)}.
+     */
+    public Reply upload(String token, String rutSender, String rutCompany, byte[] archivo) {
+        count("upload");
+        if (!tokenValid(token)) {
+            count("uploadRejected");
+            return Reply.ok(receipt(rutSender, rutCompany, 5, null));
+        }
+        String xml = new String(archivo, StandardCharsets.ISO_8859_1);
+        List<Dte> documents = documents(xml);
+        if (!xml.contains("<SetDTE") || documents.isEmpty()) {
+            count("uploadRejected");
+            return Reply.ok(receipt(rutSender, rutCompany, 7, null));
+        }
+
+        // One signature per DTE plus the one over SetDTE
+        boolean signed = signatureValid(xml, documents.size() + 1);
+        Instant now = Instant.now();
+        long trackId = trackSequence.incrementAndGet();
+        envelopes.put(trackId, new Envelope(rutCompany, now, now.plusMillis(settings.processingMillis()), signed,
+                verdicts(documents, signed)));
+        counter("documents").add(documents.size());
+        if (trackId % PURGE_EVERY == 0) {
+            envelopes.values().removeIf(envelope -> envelope.readyAt().isBefore(now.minus(ENVELOPE_RETENTION)));
+        }
+        return Reply.ok(receipt(rutSender, rutCompany, 0, trackId));
+    }
+
+    /**
+     * {@code QueryEstUp.jws}: estado de un envío, con los totales por tipo de
+     * documento y el resultado de cada documento.
+     */
+    public Reply uploadStatus(String request) {
+        count("status");
+        if (!tokenValid(tag(request, "Token"))) {
+            return status(null, "001", "TOKEN NO EXISTE", null);
+        }
+        String trackId = tag(request, "TrackId");
+        Envelope envelope;
+        try {
+            envelope = envelopes.get(Long.parseLong(trackId));
+        } catch (NumberFormatException e) {
+            envelope = null;
+        }
+        if (envelope == null || !envelope.rutCompany().equals(tag(request, "RutCompania"))) {
+            return status(trackId, "-11", "TRACKID NO EXISTE", null);
+        }
+
+        Instant now = Instant.now();
+        if (now.isBefore(envelope.readyAt())) {
+            boolean schemaChecked = now.isAfter(envelope.receivedAt()
+                    .plus(Duration.between(envelope.receivedAt(), envelope.readyAt()).dividedBy(2)));
+            return schemaChecked
+                    ? status(trackId, "PDR", "Envio en proceso", null)
+                    : status(trackId, "SOK", "Schema validado", null);
+        }
+        if (!envelope.signed()) {
+            return status(trackId, "RFR", "Rechazado por error en firma", envelope);
+        }
+        return status(trackId, "EPR", "Envio procesado", envelope);
+    }
+
+    /**
+     * Descarga del RCV, generada de forma determinista a partir de empresa,
+     * periodo y operación.
+     */
+    public Reply rcv(String token, String request) {
+        count("rcv");
+        if (!tokenValid(token)) {
+            return new Reply(401, "<ERROR>Token no valido</ERROR>");
+        }
+        YearMonth period;
+        try {
+            period = YearMonth.parse(tag(request, "Periodo"), SII_PERIOD);
+        } catch (DateTimeParseException e) {
+            return new Reply(400, "<ERROR>Periodo invalido</ERROR>");
+        }
+        return Reply.ok(register(tag(request, "RutEmpresa"), period, "COMPRA".equals(tag(request, "Operacion"))));
+    }
+
+    /**
+     * Comprime la respuesta si el cliente acepta gzip y vale la pena.
+     */
+    public Encoded encode(Reply reply, String acceptEncoding) {
+        byte[] bytes = reply.bytes();
+        boolean gzipped = acceptEncoding != null && acceptEncoding.contains("gzip") && bytes.length >= GZIP_MIN_BYTES;
+        if (gzipped) {
+            bytes = gzip(bytes);
+        }
+        counter("bytesSent").add(bytes.length);
+        return new Encoded(reply.status(), bytes, gzipped);
+    }
+
+    /**
+     * Cuerpo de una solicitud SOAP, descomprimido si viene con
+     * {@code Content-Encoding: gzip}.
+     */
+    public static String decode(byte[] body, String contentEncoding) {
+        if (contentEncoding == null || !contentEncoding.contains("gzip")) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Contadores por operación, para cruzarlos con las métricas de la
+     * aplicación en una prueba de carga.
+     */
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new TreeMap<>();
+        counters.forEach((name, counter) -> stats.put(name, counter.sum()));
+        stats.put("activeTokens", (long) tokens.size());
+        stats.put("trackedEnvelopes", (long) envelopes.size());
+        return stats;
+    }
+
+    private boolean tokenValid(String token) {
+        if (!settings.requireToken()) {
+            return true;
+        }
+        Instant expiresAt = token == null ? null : tokens.get(token);
+        return expiresAt != null && expiresAt.isAfter(Instant.now());
+    }
+
+    private boolean signatureValid(String xml, int expectedSignatures) {
+        return switch (settings.signatureCheck()) {
+            case NONE -> true;
+            case STRUCTURAL -> structurallySigned(xml, expectedSignatures);
+            case FULL -> cryptographicallySigned(xml, expectedSignatures);
+        };
+    }
+
+    private boolean structurallySigned(String xml, int expectedSignatures) {
+        Matcher signatures = SIGNATURE.matcher(xml);
+        int found = 0;
+        while (signatures.find()) {
+            String signature = signatures.group();
+            byte[] digest = base64(tag(signature, "DigestValue"));
+            byte[] value = base64(tag(signature, "SignatureValue"));
+            String certificate = tag(signature, "X509Certificate");
+            if (digest.length == 0 || value.length == 0 || certificate.isEmpty()
+                    || value.length != signatureLength(certificate)) {
+                return false;
+            }
+            found++;
+        }
+        return found >= expectedSignatures;
+    }
+
+    private int signatureLength(String base64Certificate) {
+        Integer cached = certificates.get(base64Certificate);
+        if (cached != null) {
+            return cached;
+        }
+        int length;
+        try {
+            X509Certificate certificate = (X509Certificate) CertificateFactory.getInstance("X.509")
+                    .generateCertificate(new ByteArrayInputStream(base64(base64Certificate)));
+            PublicKey key = certificate.getPublicKey();
+            length = key instanceof RSAPublicKey rsa ? (rsa.getModulus().bitLength() + 7) / 8 : -1;
+        } catch (CertificateException | IllegalArgumentException e) {
+            length = -1;
+        }
+        if (certificates.size() >= CERTIFICATE_CACHE_SIZE) {
+            certificates.clear();
+        }
+        certificates.put(base64Certificate, length);
+        return length;
+    }
+
+    private boolean cryptographicallySigned(String xml, int expectedSignatures) {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            Document document = factory.newDocumentBuilder()
+                    .parse(new InputSource(new StringReader(xml)));
+            NodeList all = document.getElementsByTagName("*");
+            for (int i = 0; i < all.getLength(); i++) {
+                Element element = (Element) all.item(i);
+                if (element.hasAttribute("ID")) {
+                    element.setIdAttribute("ID", true);
+                }
+            }
+            NodeList signatures = document.getElementsByTagNameNS(XMLSignature.XMLNS, "Signature");
+            if (signatures.getLength() < expectedSignatures) {
+                return false;
+            }
+            for (int i = 0; i < signatures.getLength(); i++) {
+                XMLSignature signature = new XMLSignature((Element) signatures.item(i), "");
+                X509Certificate certificate = signature.getKeyInfo().getX509Certificate();
+                if (certificate == null || !signature.checkSignatureValue(certificate)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private List<Dte> documents(String xml) {
+        List<Dte> documents = new ArrayList<>();
+        Matcher ted = TED_DATA.matcher(xml);
+        while (ted.find()) {
+            documents.add(new Dte(Integer.parseInt(ted.group(1)), Long.parseLong(ted.group(2)), true, null));
+        }
+        return documents;
+    }
+
+    private List<Dte> verdicts(List<Dte> documents, boolean signed) {
+        List<Dte> verdicts = new ArrayList<>(documents.size());
+        for (Dte document : documents) {
+            if (!signed) {
+                verdicts.add(new Dte(document.type(), document.folio(), false, "Firma no valida"));
+            } else if (settings.rejectionRate() > 0
+                    && ThreadLocalRandom.current().nextDouble() < settings.rejectionRate()) {
+                verdicts.add(new Dte(document.type(), document.folio(), false, "Rechazo simulado"));
+            } else {
+                verdicts.add(document);
+            }
+        }
+        return verdicts;
+    }
+
+    private String receipt(String rutSender, String rutCompany, int status, Long trackId) {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><RECEPCIONDTE>")
+                .append("<RUTSENDER>").append(rutSender).append("</RUTSENDER>")
+                .append("<RUTCOMPANY>").append(rutCompany).append("</RUTCOMPANY>")
+                .append("<TIMESTAMP>").append(LocalDateTime.now().format(TIMESTAMP)).append("</TIMESTAMP>")
+                .append("<STATUS>").append(status).append("</STATUS>");
+        if (trackId != null) {
+            xml.append("<TRACKID>").append(trackId).append("</TRACKID>");
+        }
+        return xml.append("</RECEPCIONDTE>").toString();
+    }
+
+    private Reply status(String trackId, String state, String gloss, Envelope processed) {
+        return Reply.ok(soap("<SII:RESPUESTA xmlns:SII=\"http://www.sii.cl/XMLSchema\"><SII:RESP_HDR>"
+                + (trackId == null ? "" : "<TRACKID>" + trackId + "</TRACKID>")
+                + "<ESTADO>" + state + "</ESTADO><GLOSA>" + gloss + "</GLOSA>"
+                + "<NUM_ATENCION>" + attentionSequence.incrementAndGet() + "</NUM_ATENCION></SII:RESP_HDR>"
+                + (processed == null ? "" : statusBody(processed))
+                + "</SII:RESPUESTA>"));
+    }
+
+    private String statusBody(Envelope envelope) {
+        Map<Integer, int[]> totals = new LinkedHashMap<>();
+        StringBuilder details = new StringBuilder();
+        for (Dte document : envelope.documents()) {
+            int[] total = totals.computeIfAbsent(document.type(), type -> new int[2]);
+            total[document.accepted() ? 0 : 1]++;
+            details.append("<DETALLE_DOC><TIPO>").append(document.type()).append("</TIPO>")
+                    .append("<FOLIO>").append(document.folio()).append("</FOLIO>")
+                    .append("<ESTADO>").append(document.accepted() ? "DOK" : "RCH").append("</ESTADO>");
+            if (document.reason() != null) {
+                details.append("<GLOSA>").append(document.reason()).append("</GLOSA>");
+            }
+            details.append("</DETALLE_DOC>");
+        }
+        StringBuilder body = new StringBuilder("<SII:RESP_BODY>");
+        totals.forEach((type, total) -> body.append("<TIPO_DOCTO>").append(type).append("</TIPO_DOCTO>")
+                .append("<INFORMADOS>").append(total[0] + total[1]).append("</INFORMADOS>")
+                .append("<ACEPTADOS>").append(total[0]).append("</ACEPTADOS>")
+                .append("<RECHAZADOS>").append(total[1]).append("</RECHAZADOS>")
+                .append("<REPAROS>0</REPAROS>"));
+        return body.append(details).append("</SII:RESP_BODY>").toString();
+    }
+
+    private String register(String rut, YearMonth period, boolean purchases) {
+        // Same company, period and register always yield the same documents
+        Random random = new Random((rut + period + purchases).hashCode());
+        int size = settings.rcvDocuments();
+        StringBuilder xml = new StringBuilder(size * 320 + 64)
+                .append("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><RCV>");
+        for (int i = 1; i <= size; i++) {
+            BigDecimal neto = BigDecimal.valueOf(1_000 + random.nextInt(5_000_000));
+            BigDecimal iva = neto.multiply(IVA).setScale(0, RoundingMode.HALF_UP);
+            String emisor = purchases ? (10_000_000 + random.nextInt(80_000_000)) + "-" + random.nextInt(10) : rut;
+            xml.append("<Detalle><TipoDte>33</TipoDte><Folio>").append(i).append("</Folio>")
+                    .append("<RutEmisor>").append(emisor).append("</RutEmisor>")
+                    .append("<RazonSocial>").append(purchases ? "Proveedor " + emisor : "Cliente " + i)
+                    .append("</RazonSocial>")
+                    .append("<FechaEmision>").append(period.atDay(1 + random.nextInt(period.lengthOfMonth())))
+                    .append("</FechaEmision>")
+                    .append("<MontoNeto>").append(neto).append("</MontoNeto>")
+                    .append("<MontoIva>").append(iva).append("</MontoIva>")
+                    .append("<MontoTotal>").append(neto.add(iva)).append("</MontoTotal>")
+                    .append("<Estado>REGISTRADO</Estado></Detalle>");
+        }
+        return xml.append("</RCV>").toString();
+    }
+
+    private void count(String name) {
+        counter(name).increment();
+    }
+
+    private LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] base64(String value) {
+        // xmlsec may break long values with escaped carriage returns
+        String cleaned = value.replace("&#13;", "").replace("&#xD;", "");
+        try {
+            return Base64.getMimeDecoder().decode(cleaned);
+        } catch (IllegalArgumentException e) {
+            return new byte[0];
+        }
+    }
+
+    private static String soap(String content) {
+        return "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\"><soapenv:Body>"
+                + content + "</soapenv:Body></soapenv:Envelope>";
+    }
+
+    private static String unescape(String value) {
+        return value.replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&apos;", "'")
+                .replace("&amp;", "&");
+    }
+
+    /**
+     * Contenido del primer elemento con ese nombre local, con o sin prefijo.
+     */
+    static String tag(String body, String name) {
+        Matcher matcher = TAGS.computeIfAbsent(name, key -> Pattern.compile(
+                "<(?:\\w+:)?" + key + "(?:\\s[^>]*)?>(.*?)</(?:\\w+:)?" + key + ">", Pattern.DOTALL)).matcher(body);
+        return matcher.find() ? matcher.group(1).trim() : "";
+    }
+
+    private record Dte(int type, long folio, boolean accepted, String reason) {
+    }
+
+    private record Envelope(String rutCompany, Instant receivedAt, Instant readyAt, boolean signed,
+            List<Dte> documents) {
+    }
+}
@@ -0,0 +1,186 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.simulator;
+
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.simulator.SiiSimulator.Encoded;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.simulator.SiiSimulator.Reply;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Publica un {@link SiiSimulator} en un proceso propio, sin Spring ni base de
+ * datos, para apuntar a él una o varias instancias de la aplicación durante
+ * una prueba de carga.
+ *
+ * <p>
+ * Expone las mismas rutas que {@code FakeSiiController} bajo
+ * {@code /fake-sii}, de modo que el perfil {@code sii-sim} sirve para ambos
+ * cambiando solo {@code SII_SIM_URL}. Cada petición corre en un hilo virtual,
+ * así que la latencia simulada no limita la concurrencia.
+ *
+ * <p>
+ * Se inicia con {@code ./gradlew siiSimulator} y se configura con las
+ * propiedades {@code sii.fake.*} (ver {@link SiiSimulator.Settings}) más
+ * {@code sii.sim.port} (8089 por defecto).
+ */
+public final class SiiSimulatorServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SiiSimulatorServer.class);
+    private static final String BASE_PATH = "/fake-sii";
+    private static final Pattern BOUNDARY = Pattern.compile("boundary=\"?([^\";]+)\"?");
+    private static final Pattern PART_NAME = Pattern.compile("name=\"([^\"]+)\"");
+    private static final Pattern TOKEN_COOKIE = Pattern.compile("(?:^|;\\s*)TOKEN=([^;]+)");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final SiiSimulator simulator;
+
+    private SiiSimulatorServer(HttpServer server, ExecutorService executor, SiiSimulator simulator) {
+        this.server = server;
+        this.executor = executor;
+        this.simulator = simulator;
+    }
+
+    public static void main(String[] args) throws IOException {
+        SiiSimulator.Settings settings = SiiSimulator.Settings.fromSystemProperties();
+        SiiSimulatorServer server = start(new InetSocketAddress(Integer.getInteger("sii.sim.port", 8089)),
+                new SiiSimulator(settings));
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        logger.info("SII simulator listening on {}{} with {}", server.baseUrl(), BASE_PATH, settings);
+    }
+
+    public static SiiSimulatorServer start(InetSocketAddress address, SiiSimulator simulator) throws IOException {
+        HttpServer server = HttpServer.create(address, 0);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        SiiSimulatorServer simulatorServer = new SiiSimulatorServer(server, executor, simulator);
+        simulatorServer.route("/DTEWS/CrSeed.jws", exchange -> simulator.seed());
+        simulatorServer.route("/DTEWS/GetTokenFromSeed.jws", exchange -> simulator.token(soapBody(exchange)));
+        simulatorServer.route("/DTEWS/QueryEstUp.jws", exchange -> simulator.uploadStatus(soapBody(exchange)));
+        simulatorServer.route("/cgi_dte/UPL/DTEUpload", simulatorServer::upload);
+        simulatorServer.route("/rcv", exchange -> simulator.rcv(token(exchange), soapBody(exchange)));
+        server.createContext(BASE_PATH + "/stats", exchange -> send(exchange, 200,
+                simulator.stats().toString().getBytes(StandardCharsets.UTF_8), false));
+        server.start();
+        return simulatorServer;
+    }
+
+    /**
+     * URL base del servidor, sin {@code /fake-sii}.
+     */
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public SiiSimulator simulator() {
+        return simulator;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void route(String path, Function<HttpExchange, Reply> handler) {
+        server.createContext(BASE_PATH + path, exchange -> {
+            try {
+                Reply reply = simulator.injectFailure() ? simulator.unavailable() : handler.apply(exchange);
+                Thread.sleep(simulator.delayMillis());
+                Encoded encoded = simulator.encode(reply,
+                        exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+                send(exchange, encoded.status(), encoded.body(), encoded.gzipped());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.close();
+            } catch (RuntimeException e) {
+                logger.warn("SII simulator failed on {}: {}", path, e.getMessage());
+                send(exchange, 500, new byte[0], false);
+            }
+        });
+    }
+
+    private Reply upload(HttpExchange exchange) {
+        Map<String, byte[]> parts = multipart(readBody(exchange),
+                exchange.getRequestHeaders().getFirst("Content-Type"));
+        byte[] archivo = parts.get("archivo");
+        if (archivo == null) {
+            return new Reply(400, "<ERROR>Falta archivo</ERROR>");
+        }
+        return simulator.upload(token(exchange), text(parts.get("rutSender")), text(parts.get("rutCompany")),
+                archivo);
+    }
+
+    /**
+     * Partes de un {@code multipart/form-data}. Se recorre en ISO-8859-1, que
+     * convierte byte a carácter sin pérdida, para no alterar el archivo.
+     */
+    static Map<String, byte[]> multipart(byte[] body, String contentType) {
+        Map<String, byte[]> parts = new HashMap<>();
+        Matcher boundary = BOUNDARY.matcher(contentType == null ? "" : contentType);
+        if (!boundary.find()) {
+            return parts;
+        }
+        String content = new String(body, StandardCharsets.ISO_8859_1);
+        for (String part : content.split("--" + Pattern.quote(boundary.group(1)))) {
+            int headersEnd = part.indexOf("\r\n\r\n");
+            if (headersEnd == -1) {
+                continue;
+            }
+            Matcher name = PART_NAME.matcher(part.substring(0, headersEnd));
+            if (name.find()) {
+                String value = part.substring(headersEnd + 4);
+                if (value.endsWith("\r\n")) {
+                    value = value.substring(0, value.length() - 2);
+                }
+                parts.put(name.group(1), value.getBytes(StandardCharsets.ISO_8859_1));
+            }
+        }
+        return parts;
+    }
+
+    private static String soapBody(HttpExchange exchange) {
+        return SiiSimulator.decode(readBody(exchange), exchange.getRequestHeaders().getFirst("Content-Encoding"));
+    }
+
+    private static String token(HttpExchange exchange) {
+        String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+        Matcher token = TOKEN_COOKIE.matcher(cookie == null ? "" : cookie);
+        return token.find() ? token.group(1) : null;
+    }
+
+    private static String text(byte[] value) {
+        return value == null ? "" : new String(value, StandardCharsets.ISO_8859_1).trim();
+    }
+
+    private static byte[] readBody(HttpExchange exchange) {
+        try {
+            return exchange.getRequestBody().readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read request body", e);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body, boolean gzipped) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", SiiSimulator.CONTENT_TYPE);
+        if (gzipped) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
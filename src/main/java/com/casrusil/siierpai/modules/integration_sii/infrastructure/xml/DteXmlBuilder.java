@@ -36,7 +36,12 @@ public class DteXmlBuilder {
         // for signing.
 
         StringBuilder sb = new StringBuilder();
-        sb.append("<DTE version=\"1.0\">");
+        // Same in-scope namespaces as EnvioDTE: the signature uses inclusive C14N, which
+        // digests inherited declarations, so it only verifies inside the envelope if they match
+        sb.append("<DTE xmlns=\"http://www.sii.cl/SiiDte\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"")
+                .append(" version=\"1.0\">");
+        sb.append("<Documento ID=\"DTE_").append(invoice.getFolio()).append("\">"); // Signed by DteSenderService
+        sb.append("<Encabezado>");
 
         sb.append("<Receptor>");
         sb.append("<RUTRecep>").append(invoice.getReceiverRut()).append("</RUTRecep>");
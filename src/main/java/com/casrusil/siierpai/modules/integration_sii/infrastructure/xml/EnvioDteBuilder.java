@@ -2,7 +2,11 @@ package com.casrusil.siierpai.modules.integration_sii.infrastructure.xml;
 
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import org.springframework.stereotype.Component;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 
+import javax.xml.XMLConstants;
 import java.time.format.DateTimeFormatter;
 
 /**
@@ -26,38 +30,61 @@ import java.time.format.DateTimeFormatter;
 @Component
 public class EnvioDteBuilder {
 
-    public String wrap(String signedDteXml, CompanyId companyId, String rutEmisor, String rutEmpresa) {
-        StringBuilder sb = new StringBuilder();
+    private static final String SII_NS = "http://www.sii.cl/SiiDte";
+    private static final String XSI_NS = "http://www.w3.org/2001/XMLSchema-instance";
 
-        sb.append("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>");
-        sb.append(
-                "<EnvioDTE xmlns=\"http://www.sii.cl/SiiDte\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" version=\"1.0\" xsi:schemaLocation=\"http://www.sii.cl/SiiDte EnvioDTE_v10.xsd\">");
+    /**
+     * Arma el sobre alrededor del DTE ya firmado. El nodo del DTE se mueve al
+     * sobre sin serializarlo ni volver a parsearlo, así que su firma se
+     * conserva tal cual; {@code signedDte} queda vacío.
+     *
+     * <p>
+     * La firma del DTE usa C14N inclusiva, que incluye los namespaces heredados:
+     * el DTE debe declarar los mismos que la raíz del sobre ({@code xmlns} y
+     * {@code xmlns:xsi}), como hace {@link DteXmlBuilder}, o su firma deja de
+     * verificar dentro del sobre.
+     *
+     * @return el sobre, listo para firmar con la referencia {@code SetDoc}
+     */
+    public Document wrap(Document signedDte, CompanyId companyId, String rutEmisor, String rutEmpresa) {
+        Document envio = signedDte.getImplementation().createDocument(SII_NS, "EnvioDTE", null);
+        Element root = envio.getDocumentElement();
+        root.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "xmlns", SII_NS);
+        root.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "xmlns:xsi", XSI_NS);
+        root.setAttribute("version", "1.0");
+        root.setAttributeNS(XSI_NS, "xsi:schemaLocation", SII_NS + " EnvioDTE_v10.xsd");
 
-        sb.append("<SetDTE ID=\"SetDoc\">");
+        Element setDte = append(envio, root, "SetDTE");
+        setDte.setAttribute("ID", "SetDoc");
 
-        sb.append("<Caratula version=\"1.0\">");
-        sb.append("<RutEmisor>").append(rutEmisor).append("</RutEmisor>");
-        sb.append("<RutEnvia>").append(rutEmpresa).append("</RutEnvia>"); // Usually the same or representative
-        sb.append("<RutReceptor>").append("60803000-K").append("</RutReceptor>"); // SII RUT
-        sb.append("<FchResol>").append("2014-08-22").append("</FchResol>"); // Resolution Date (Example)
-        sb.append("<NroResol>").append("80").append("</NroResol>"); // Resolution Number (Example)
-        sb.append("<TmstFirmaEnv>").append(java.time.LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME))
-                .append("</TmstFirmaEnv>");
+        Element caratula = append(envio, setDte, "Caratula");
+        caratula.setAttribute("version", "1.0");
+        append(envio, caratula, "RutEmisor").setTextContent(rutEmisor);
+        append(envio, caratula, "RutEnvia").setTextContent(rutEmpresa); // Usually the same or representative
+        append(envio, caratula, "RutReceptor").setTextContent("60803000-K"); // SII RUT
+        append(envio, caratula, "FchResol").setTextContent("2014-08-22"); // Resolution Date (Example)
+        append(envio, caratula, "NroResol").setTextContent("80"); // Resolution Number (Example)
+        append(envio, caratula, "TmstFirmaEnv")
+                .setTextContent(java.time.LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
 
         // Subtotals
-        sb.append("<SubTotDTE>");
-        sb.append("<TpoDTE>").append("33").append("</TpoDTE>"); // Example: Factura Electronica
-        sb.append("<NroDTE>").append("1").append("</NroDTE>");
-        sb.append("</SubTotDTE>");
+        Element subTotal = append(envio, caratula, "SubTotDTE");
+        append(envio, subTotal, "TpoDTE").setTextContent("33"); // Example: Factura Electronica
+        append(envio, subTotal, "NroDTE").setTextContent("1");
 
-        sb.append("</Caratula>");
+        // Move the signed DTE; importNode only when the DOM cannot adopt it
+        Node dte = envio.adoptNode(signedDte.getDocumentElement());
+        if (dte == null) {
+            dte = envio.importNode(signedDte.getDocumentElement(), true);
+        }
+        setDte.appendChild(dte);
 
-        // Append Signed DTE
-        sb.append(signedDteXml);
-
-        sb.append("</SetDTE>");
-        sb.append("</EnvioDTE>");
+        return envio;
+    }
 
-        return sb.toString();
+    private static Element append(Document document, Element parent, String name) {
+        Element child = document.createElementNS(SII_NS, name);
+        parent.appendChild(child);
+        return child;
     }
 }
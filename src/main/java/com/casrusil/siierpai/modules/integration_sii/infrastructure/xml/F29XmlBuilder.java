@@ -0,0 +1,84 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.xml;
+
+import com.casrusil.siierpai.modules.accounting.domain.model.F29Report;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Constructor de XML para la declaración mensual de IVA (Formulario 29).
+ *
+ * <p>
+ * Escribe el documento con StAX: los valores se escapan al escribirse y no se
+ * arma un árbol DOM intermedio. Los montos se declaran en pesos enteros. El
+ * resultado se firma después con {@code XmlDsigSigner} (firma enveloped sobre
+ * el documento completo).
+ *
+ * @see com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto.XmlDsigSigner
+ * @since 1.0
+ */
+@Component
+public class F29XmlBuilder {
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    public String build(String rutContribuyente, F29Report report) {
+        StringWriter out = new StringWriter(2048);
+        try {
+            XMLStreamWriter xml = OUTPUT_FACTORY.createXMLStreamWriter(out);
+            xml.writeStartDocument("ISO-8859-1", "1.0");
+            xml.writeStartElement("F29");
+            xml.writeAttribute("version", "1.0");
+
+            element(xml, "RutContribuyente", rutContribuyente);
+            element(xml, "Periodo", report.period().toString());
+            element(xml, "VentasAfectas", amount(report.totalSalesTaxable()));
+            element(xml, "VentasExentas", amount(report.totalSalesExempt()));
+            element(xml, "ComprasAfectas", amount(report.totalPurchasesTaxable()));
+            element(xml, "ComprasExentas", amount(report.totalPurchasesExempt()));
+            element(xml, "DebitoFiscal", amount(report.vatDebit()));
+            element(xml, "CreditoFiscal", amount(report.vatCredit()));
+            element(xml, "ImpuestoPagar", amount(report.vatPayable()));
+            element(xml, "Remanente", amount(report.vatRecoverable()));
+            element(xml, "RetencionHonorarios", amount(report.feeWithholding()));
+            element(xml, "TotalPagar", amount(report.totalPayable()));
+
+            if (report.details() != null && !report.details().isEmpty()) {
+                xml.writeStartElement("Codigos");
+                for (F29Report.F29Line line : report.details()) {
+                    xml.writeStartElement("Linea");
+                    xml.writeAttribute("codigo", line.code());
+                    xml.writeCharacters(amount(line.amount()));
+                    xml.writeEndElement();
+                }
+                xml.writeEndElement();
+            }
+
+            element(xml, "TmstFirma", LocalDateTime.now().format(TIMESTAMP_FORMATTER));
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Error building F29 XML for period " + report.period(), e);
+        }
+        return out.toString();
+    }
+
+    private static void element(XMLStreamWriter xml, String name, String value) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(value != null ? value : "");
+        xml.writeEndElement();
+    }
+
+    private static String amount(BigDecimal value) {
+        return value != null ? value.setScale(0, RoundingMode.HALF_UP).toPlainString() : "0";
+    }
+}
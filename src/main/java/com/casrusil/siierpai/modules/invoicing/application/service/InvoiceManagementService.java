@@ -4,6 +4,11 @@ import com.casrusil.siierpai.modules.invoicing.domain.exception.InvalidInvoiceEx
 import com.casrusil.siierpai.modules.invoicing.domain.exception.InvoiceAlreadyExistsException;
 import com.casrusil.siierpai.modules.invoicing.domain.exception.InvoiceNotFoundException;
 import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceCursor;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoicePage;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceQuery;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceSummary;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceTotals;
 import com.casrusil.siierpai.modules.invoicing.domain.port.in.CreateInvoiceUseCase;
 import com.casrusil.siierpai.modules.invoicing.domain.port.in.ManageInvoiceUseCase;
 import com.casrusil.siierpai.modules.invoicing.domain.port.in.SearchInvoicesUseCase;
@@ -14,8 +19,14 @@ import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Servicio de aplicación centralizado para la gestión de facturas.
@@ -38,15 +49,15 @@ import java.util.UUID;
  * @since 1.0
  */
 import com.casrusil.siierpai.modules.invoicing.domain.event.InvoiceCreatedEvent;
-import org.springframework.context.ApplicationEventPublisher;
+import com.casrusil.siierpai.shared.domain.event.EventPublisher;
 
 @Service
 public class InvoiceManagementService implements ManageInvoiceUseCase, CreateInvoiceUseCase, SearchInvoicesUseCase {
 
     private final InvoiceRepository invoiceRepository;
-    private final ApplicationEventPublisher eventPublisher;
+    private final EventPublisher eventPublisher;
 
-    public InvoiceManagementService(InvoiceRepository invoiceRepository, ApplicationEventPublisher eventPublisher) {
+    public InvoiceManagementService(InvoiceRepository invoiceRepository, EventPublisher eventPublisher) {
         this.invoiceRepository = invoiceRepository;
         this.eventPublisher = eventPublisher;
     }
@@ -66,10 +77,40 @@ public class InvoiceManagementService implements ManageInvoiceUseCase, CreateInv
         }
 
         Invoice savedInvoice = invoiceRepository.save(invoice);
-        eventPublisher.publishEvent(new InvoiceCreatedEvent(savedInvoice));
+        // Written to the outbox in this transaction; listeners run after commit
+        eventPublisher.publish(new InvoiceCreatedEvent(savedInvoice));
         return savedInvoice;
     }
 
+    @Override
+    @Transactional
+    public List<Invoice> createInvoices(List<Invoice> invoices) {
+        CompanyId companyId = CompanyContext.requireCompanyId();
+
+        for (Invoice invoice : invoices) {
+            if (!invoice.getCompanyId().equals(companyId)) {
+                throw new InvalidInvoiceException("Invoice company ID does not match current context");
+            }
+        }
+
+        Set<String> existing = new HashSet<>(invoiceRepository.findDocumentKeys(companyId,
+                invoices.stream().map(Invoice::getFolio).toList()));
+        List<Invoice> toInsert = new ArrayList<>(invoices.size());
+        for (Invoice invoice : invoices) {
+            // add() also drops duplicates inside the batch itself
+            if (existing.add(invoice.documentKey())) {
+                toInsert.add(invoice);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return List.of();
+        }
+
+        List<Invoice> saved = invoiceRepository.insertAll(toInsert);
+        saved.forEach(invoice -> eventPublisher.publish(new InvoiceCreatedEvent(invoice)));
+        return saved;
+    }
+
     @Override
     public Invoice getInvoice(UUID id) {
         CompanyId companyId = CompanyContext.requireCompanyId();
@@ -88,4 +129,44 @@ public class InvoiceManagementService implements ManageInvoiceUseCase, CreateInv
     public List<Invoice> getInvoicesByCompany(CompanyId companyId) {
         return invoiceRepository.findByCompanyId(companyId);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachInvoiceInPeriod(CompanyId companyId, LocalDate start, LocalDate end,
+            Consumer<Invoice> action) {
+        // The cursor lives as long as this transaction
+        try (Stream<Invoice> invoices = invoiceRepository.streamHeadersInPeriod(companyId, start, end)) {
+            invoices.forEachOrdered(action);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Invoice> searchInvoices(InvoiceQuery query) {
+        return invoiceRepository.find(query);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InvoiceSummary> searchSummaries(InvoiceQuery query) {
+        return invoiceRepository.findSummaries(query);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InvoicePage<Invoice> searchInvoicePage(InvoiceQuery query, InvoiceCursor after, int limit) {
+        return invoiceRepository.findPage(query, after, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InvoicePage<InvoiceSummary> searchSummaryPage(InvoiceQuery query, InvoiceCursor after, int limit) {
+        return invoiceRepository.findSummaryPage(query, after, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InvoiceTotals> summarizePeriod(CompanyId companyId, LocalDate start, LocalDate end) {
+        return invoiceRepository.sumByTransactionType(companyId, start, end);
+    }
 }
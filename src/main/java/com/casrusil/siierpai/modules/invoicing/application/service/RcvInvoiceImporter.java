@@ -0,0 +1,112 @@
+package com.casrusil.siierpai.modules.invoicing.application.service;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvData;
+import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceType;
+import com.casrusil.siierpai.modules.invoicing.domain.model.TransactionType;
+import com.casrusil.siierpai.modules.invoicing.domain.port.in.CreateInvoiceUseCase;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Importa como facturas los documentos descargados del RCV del SII.
+ *
+ * <p>
+ * Cada registro se crea con {@link CreateInvoiceUseCase#createInvoices(List)}:
+ * una consulta de duplicados y una inserción por lote en vez de una
+ * transacción por documento. Si el lote falla (por ejemplo, un documento con
+ * un tipo desconocido), se reintenta documento a documento para no perder los
+ * válidos.
+ *
+ * @since 1.0
+ */
+@Service
+public class RcvInvoiceImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RcvInvoiceImporter.class);
+
+    private final CreateInvoiceUseCase createInvoiceUseCase;
+
+    public RcvInvoiceImporter(CreateInvoiceUseCase createInvoiceUseCase) {
+        this.createInvoiceUseCase = createInvoiceUseCase;
+    }
+
+    /**
+     * @param transactionType COMPRA para el registro de compras, VENTA para el
+     *                        de ventas; define quién es emisor y quién
+     *                        receptor
+     * @param companyRut      RUT de la empresa que importa, si se conoce: es
+     *                        el receptor de sus compras y el emisor de sus
+     *                        ventas
+     * @return cantidad de facturas creadas; los documentos ya registrados no
+     *         cuentan
+     */
+    public int importRegister(CompanyId companyId, List<RcvData> register, TransactionType transactionType,
+            String companyRut) {
+        if (register.isEmpty()) {
+            return 0;
+        }
+        return CompanyContext.supplyInCompanyContext(companyId, () -> {
+            try {
+                List<Invoice> invoices = register.stream()
+                        .map(data -> toInvoice(companyId, data, transactionType, companyRut))
+                        .toList();
+                return createInvoiceUseCase.createInvoices(invoices).size();
+            } catch (RuntimeException e) {
+                logger.warn("Batch import of {} RCV documents failed ({}), importing one by one", register.size(),
+                        e.getMessage());
+                return importOneByOne(companyId, register, transactionType, companyRut);
+            }
+        });
+    }
+
+    private int importOneByOne(CompanyId companyId, List<RcvData> register, TransactionType transactionType,
+            String companyRut) {
+        int created = 0;
+        for (RcvData data : register) {
+            try {
+                created += createInvoiceUseCase
+                        .createInvoices(List.of(toInvoice(companyId, data, transactionType, companyRut))).size();
+            } catch (Exception e) {
+                // Log error but continue processing other invoices
+                logger.error("Error processing RCV data for folio {}: {}", data.folio(), e.getMessage(), e);
+            }
+        }
+        return created;
+    }
+
+    static Invoice toInvoice(CompanyId companyId, RcvData data, TransactionType transactionType,
+            String companyRut) {
+        // Each RCV row carries one RUT: the supplier in purchases, the customer in sales
+        String issuerRut = data.rutEmisor();
+        String receiverRut = companyRut;
+        if (transactionType == TransactionType.SALE) {
+            issuerRut = companyRut != null ? companyRut : data.rutEmisor();
+            // A sales row that lists the company itself says nothing about the customer
+            receiverRut = data.rutEmisor() != null && !data.rutEmisor().equals(issuerRut) ? data.rutEmisor() : null;
+        }
+        return Invoice.create(
+                companyId,
+                InvoiceType.fromCode(data.tipoDte()),
+                data.folio(),
+                issuerRut,
+                receiverRut,
+                data.razonSocialEmisor(), // BusinessName
+                data.fechaEmision(),
+                data.montoNeto(),
+                data.montoIva(),
+                data.montoTotal(),
+                BigDecimal.ZERO, // Fixed Asset
+                BigDecimal.ZERO, // Common Use VAT
+                Invoice.ORIGIN_SII,
+                transactionType,
+                Collections.emptyList());
+    }
+}
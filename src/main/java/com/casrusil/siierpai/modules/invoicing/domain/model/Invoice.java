@@ -169,6 +169,18 @@ public class Invoice {
                 PaymentStatus.PENDING, items, "CLP");
     }
 
+    /**
+     * Clave del documento en el SII: tipo, folio y RUT emisor. El folio es
+     * único por emisor y tipo, así que la clave identifica un DTE.
+     */
+    public String documentKey() {
+        return documentKey(type.getCode(), folio, issuerRut);
+    }
+
+    public static String documentKey(Integer typeCode, Long folio, String issuerRut) {
+        return typeCode + "-" + folio + "-" + issuerRut;
+    }
+
     public UUID getId() {
         return id;
     }
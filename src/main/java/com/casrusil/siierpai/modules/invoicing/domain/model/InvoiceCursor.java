@@ -0,0 +1,53 @@
+package com.casrusil.siierpai.modules.invoicing.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posición de la última factura de una página (paginación por cursor).
+ * 
+ * <p>
+ * La siguiente página empieza estrictamente después de {@code (date, id)} en
+ * el orden de la consulta, sin {@code OFFSET}: el costo de cada página no
+ * crece con la profundidad. Para {@link InvoiceQuery.Order#ID_ASC} solo se
+ * usa el ID.
+ * 
+ * @param date Fecha de la última factura entregada
+ * @param id   ID de la última factura entregada
+ * @since 1.0
+ */
+public record InvoiceCursor(LocalDate date, UUID id) {
+
+    public static InvoiceCursor of(Invoice invoice) {
+        return new InvoiceCursor(invoice.getDate(), invoice.getId());
+    }
+
+    public static InvoiceCursor of(InvoiceSummary summary) {
+        return new InvoiceCursor(summary.date(), summary.id());
+    }
+
+    /**
+     * Cursor opaco para exponer en una API.
+     */
+    public String encode() {
+        String raw = date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static InvoiceCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new InvoiceCursor(LocalDate.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid invoice cursor", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.casrusil.siierpai.modules.invoicing.domain.model;
+
+import java.util.List;
+
+/**
+ * Página de resultados con paginación por cursor.
+ * 
+ * @param items Elementos de la página, en el orden de la consulta
+ * @param next  Cursor para pedir la página siguiente, o {@code null} si es la
+ *              última
+ * @param <T>   {@link Invoice} o {@link InvoiceSummary}
+ * @since 1.0
+ */
+public record InvoicePage<T>(List<T> items, InvoiceCursor next) {
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
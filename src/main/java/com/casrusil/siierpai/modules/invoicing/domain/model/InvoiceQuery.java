@@ -0,0 +1,139 @@
+package com.casrusil.siierpai.modules.invoicing.domain.model;
+
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Criterios de búsqueda de facturas de una empresa.
+ * 
+ * <p>
+ * Value Object inmutable: cada método {@code with...}/filtro devuelve una
+ * copia con el criterio agregado. Los criterios nulos o vacíos no filtran. Se
+ * traduce a SQL en la capa de persistencia, de modo que los servicios ya no
+ * cargan todas las facturas para filtrarlas en memoria.
+ * 
+ * <pre>{@code
+ * InvoiceQuery.forCompany(companyId)
+ *         .inPeriod(YearMonth.of(2025, 1))
+ *         .ofTransactionType(TransactionType.SALE)
+ *         .open();
+ * }</pre>
+ * 
+ * @param companyId       Empresa (obligatorio, aislamiento multi-tenant)
+ * @param from            Fecha inicial (inclusive)
+ * @param to              Fecha final (inclusive)
+ * @param types           Tipos de documento
+ * @param transactionType Venta o compra
+ * @param statuses        Estados de pago
+ * @param paid            {@code true} solo pagadas, {@code false} solo
+ *                        abiertas (no pagadas)
+ * @param partnerRut      RUT de la contraparte, como emisor o receptor
+ * @param minTotal        Monto total mínimo (inclusive)
+ * @param maxTotal        Monto total máximo (inclusive)
+ * @param order           Orden de los resultados; también define el cursor de
+ *                        paginación
+ * @see InvoiceCursor
+ * @since 1.0
+ */
+public record InvoiceQuery(
+        CompanyId companyId,
+        LocalDate from,
+        LocalDate to,
+        Set<InvoiceType> types,
+        TransactionType transactionType,
+        Set<PaymentStatus> statuses,
+        Boolean paid,
+        String partnerRut,
+        BigDecimal minTotal,
+        BigDecimal maxTotal,
+        Order order) {
+
+    /**
+     * Orden de los resultados. Todos terminan en el ID para que el orden sea
+     * total y la paginación por cursor no repita ni salte filas.
+     */
+    public enum Order {
+        /** Fecha ascendente, luego ID. */
+        DATE_ASC,
+        /** Fecha descendente, luego ID descendente (más recientes primero). */
+        DATE_DESC,
+        /** Solo ID, estable para recorridos completos reanudables. */
+        ID_ASC
+    }
+
+    public InvoiceQuery {
+        Objects.requireNonNull(companyId, "companyId is required");
+        types = types == null ? Set.of() : Set.copyOf(types);
+        statuses = statuses == null ? Set.of() : Set.copyOf(statuses);
+        order = order == null ? Order.DATE_ASC : order;
+    }
+
+    public static InvoiceQuery forCompany(CompanyId companyId) {
+        return new InvoiceQuery(companyId, null, null, null, null, null, null, null, null, null, null);
+    }
+
+    public InvoiceQuery between(LocalDate from, LocalDate to) {
+        return new InvoiceQuery(companyId, from, to, types, transactionType, statuses, paid, partnerRut, minTotal,
+                maxTotal, order);
+    }
+
+    public InvoiceQuery inPeriod(YearMonth period) {
+        return between(period.atDay(1), period.atEndOfMonth());
+    }
+
+    public InvoiceQuery ofTypes(InvoiceType... types) {
+        return new InvoiceQuery(companyId, from, to, Set.of(types), transactionType, statuses, paid, partnerRut,
+                minTotal, maxTotal, order);
+    }
+
+    public InvoiceQuery ofTransactionType(TransactionType transactionType) {
+        return new InvoiceQuery(companyId, from, to, types, transactionType, statuses, paid, partnerRut, minTotal,
+                maxTotal, order);
+    }
+
+    /**
+     * Filtra por estado de pago. Las facturas sin estado registrado se tratan
+     * como {@link PaymentStatus#PENDING}, igual que al leerlas.
+     */
+    public InvoiceQuery withStatuses(PaymentStatus first, PaymentStatus... rest) {
+        return new InvoiceQuery(companyId, from, to, types, transactionType, EnumSet.of(first, rest), paid,
+                partnerRut, minTotal, maxTotal, order);
+    }
+
+    /**
+     * Solo facturas no pagadas (cualquier estado distinto de PAID).
+     */
+    public InvoiceQuery open() {
+        return new InvoiceQuery(companyId, from, to, types, transactionType, statuses, false, partnerRut, minTotal,
+                maxTotal, order);
+    }
+
+    /**
+     * Solo facturas pagadas.
+     */
+    public InvoiceQuery paid() {
+        return new InvoiceQuery(companyId, from, to, types, transactionType, statuses, true, partnerRut, minTotal,
+                maxTotal, order);
+    }
+
+    public InvoiceQuery withPartner(String partnerRut) {
+        return new InvoiceQuery(companyId, from, to, types, transactionType, statuses, paid, partnerRut, minTotal,
+                maxTotal, order);
+    }
+
+    public InvoiceQuery totalBetween(BigDecimal minTotal, BigDecimal maxTotal) {
+        return new InvoiceQuery(companyId, from, to, types, transactionType, statuses, paid, partnerRut, minTotal,
+                maxTotal, order);
+    }
+
+    public InvoiceQuery orderBy(Order order) {
+        return new InvoiceQuery(companyId, from, to, types, transactionType, statuses, paid, partnerRut, minTotal,
+                maxTotal, order);
+    }
+}
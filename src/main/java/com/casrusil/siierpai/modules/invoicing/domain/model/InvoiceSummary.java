@@ -0,0 +1,32 @@
+package com.casrusil.siierpai.modules.invoicing.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Proyección de solo lectura con la cabecera de una factura.
+ * 
+ * <p>
+ * Se obtiene con una única consulta de columnas, sin cargar las líneas de
+ * detalle ni la entidad completa. Es la forma recomendada para listados,
+ * reportes y agregaciones.
+ * 
+ * @see com.casrusil.siierpai.modules.invoicing.domain.port.out.InvoiceRepository#findSummaries(InvoiceQuery)
+ * @since 1.0
+ */
+public record InvoiceSummary(
+        UUID id,
+        InvoiceType type,
+        Long folio,
+        String issuerRut,
+        String receiverRut,
+        String businessName,
+        LocalDate date,
+        LocalDate dueDate,
+        BigDecimal netAmount,
+        BigDecimal taxAmount,
+        BigDecimal totalAmount,
+        TransactionType transactionType,
+        PaymentStatus status) {
+}
@@ -0,0 +1,41 @@
+package com.casrusil.siierpai.modules.invoicing.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Cantidad y montos acumulados de las facturas de un tipo de transacción en un
+ * periodo.
+ * 
+ * <p>
+ * Se calcula con una única consulta agregada ({@code GROUP BY}) servida por el
+ * índice de cobertura por empresa y fecha, sin materializar facturas.
+ * 
+ * @param transactionType Venta o compra ({@code null} para facturas antiguas
+ *                        sin clasificar)
+ * @param count           Número de facturas
+ * @param netAmount       Suma de montos netos
+ * @param taxAmount       Suma de IVA
+ * @param totalAmount     Suma de montos totales
+ * @see com.casrusil.siierpai.modules.invoicing.domain.port.out.InvoiceRepository#sumByTransactionType
+ * @since 1.0
+ */
+public record InvoiceTotals(
+        TransactionType transactionType,
+        long count,
+        BigDecimal netAmount,
+        BigDecimal taxAmount,
+        BigDecimal totalAmount) {
+
+    public InvoiceTotals {
+        netAmount = netAmount != null ? netAmount : BigDecimal.ZERO;
+        taxAmount = taxAmount != null ? taxAmount : BigDecimal.ZERO;
+        totalAmount = totalAmount != null ? totalAmount : BigDecimal.ZERO;
+    }
+
+    /**
+     * Totales en cero, para periodos sin facturas de ese tipo.
+     */
+    public static InvoiceTotals empty(TransactionType transactionType) {
+        return new InvoiceTotals(transactionType, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+}
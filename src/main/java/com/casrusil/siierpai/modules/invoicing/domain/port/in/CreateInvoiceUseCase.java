@@ -2,6 +2,8 @@ package com.casrusil.siierpai.modules.invoicing.domain.port.in;
 
 import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
 
+import java.util.List;
+
 /**
  * Caso de uso para crear facturas electrónicas (DTEs).
  * 
@@ -55,4 +57,20 @@ public interface CreateInvoiceUseCase {
      * @see com.casrusil.siierpai.modules.accounting.application.listener.InvoiceAccountingListener
      */
     Invoice createInvoice(Invoice invoice);
+
+    /**
+     * Crea un lote de facturas de la empresa del contexto en una sola
+     * transacción.
+     * 
+     * <p>
+     * Pensado para importaciones masivas (RCV): los duplicados se detectan con
+     * una única consulta para todo el lote y se omiten en lugar de fallar, y
+     * las facturas nuevas se insertan en lotes JDBC. Cada factura creada
+     * publica su {@link com.casrusil.siierpai.modules.invoicing.domain.event.InvoiceCreatedEvent}.
+     * 
+     * @param invoices Facturas a crear
+     * @return Las facturas efectivamente creadas (sin las que ya existían)
+     * @throws IllegalArgumentException si alguna factura es de otra empresa
+     */
+    List<Invoice> createInvoices(List<Invoice> invoices);
 }
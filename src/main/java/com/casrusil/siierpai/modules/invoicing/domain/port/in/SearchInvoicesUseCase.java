@@ -1,9 +1,16 @@
 package com.casrusil.siierpai.modules.invoicing.domain.port.in;
 
 import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceCursor;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoicePage;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceQuery;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceSummary;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceTotals;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Caso de uso para buscar facturas.
@@ -16,4 +23,63 @@ public interface SearchInvoicesUseCase {
      * @return Lista de facturas.
      */
     List<Invoice> getInvoicesByCompany(CompanyId companyId);
+
+    /**
+     * Recorre las facturas de un periodo una a una, sin cargarlas todas en
+     * memoria. Las facturas no incluyen líneas de detalle.
+     *
+     * @param companyId El ID de la empresa.
+     * @param start     Fecha inicial (inclusive).
+     * @param end       Fecha final (inclusive).
+     * @param action    Acción a ejecutar por cada factura, en orden de fecha y
+     *                  folio.
+     */
+    void forEachInvoiceInPeriod(CompanyId companyId, LocalDate start, LocalDate end, Consumer<Invoice> action);
+
+    /**
+     * Busca facturas completas según los criterios.
+     *
+     * @param query Criterios de búsqueda y orden.
+     * @return Facturas en el orden pedido.
+     */
+    List<Invoice> searchInvoices(InvoiceQuery query);
+
+    /**
+     * Busca resúmenes (solo cabecera) de facturas según los criterios.
+     *
+     * @param query Criterios de búsqueda y orden.
+     * @return Resúmenes en el orden pedido.
+     */
+    List<InvoiceSummary> searchSummaries(InvoiceQuery query);
+
+    /**
+     * Página de facturas completas posteriores al cursor.
+     *
+     * @param query Criterios de búsqueda y orden.
+     * @param after Cursor de la página anterior, o {@code null}.
+     * @param limit Tamaño máximo de la página.
+     * @return Página con el cursor de la siguiente.
+     */
+    InvoicePage<Invoice> searchInvoicePage(InvoiceQuery query, InvoiceCursor after, int limit);
+
+    /**
+     * Página de resúmenes de facturas posteriores al cursor.
+     *
+     * @param query Criterios de búsqueda y orden.
+     * @param after Cursor de la página anterior, o {@code null}.
+     * @param limit Tamaño máximo de la página.
+     * @return Página con el cursor de la siguiente.
+     */
+    InvoicePage<InvoiceSummary> searchSummaryPage(InvoiceQuery query, InvoiceCursor after, int limit);
+
+    /**
+     * Totales de las facturas de un periodo por tipo de transacción, calculados
+     * en la base de datos.
+     *
+     * @param companyId El ID de la empresa.
+     * @param start     Fecha inicial (inclusive).
+     * @param end       Fecha final (inclusive).
+     * @return Totales por tipo de transacción (solo tipos con facturas).
+     */
+    List<InvoiceTotals> summarizePeriod(CompanyId companyId, LocalDate start, LocalDate end);
 }
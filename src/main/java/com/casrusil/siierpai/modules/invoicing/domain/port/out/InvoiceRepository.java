@@ -1,6 +1,12 @@
 package com.casrusil.siierpai.modules.invoicing.domain.port.out;
 
 import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceCursor;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoicePage;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceQuery;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceSummary;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceTotals;
+import com.casrusil.siierpai.modules.invoicing.domain.model.PaymentStatus;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 
 import java.util.List;
@@ -19,6 +25,8 @@ import java.util.UUID;
  * <ul>
  * <li>Persistir y recuperar facturas</li>
  * <li>Filtrar facturas por empresa (multi-tenancy)</li>
+ * <li>Buscar con filtros, orden y paginación por cursor
+ * ({@link InvoiceQuery})</li>
  * <li>Detectar duplicados (folio + RUT emisor)</li>
  * </ul>
  * 
@@ -41,6 +49,15 @@ public interface InvoiceRepository {
          */
         Invoice save(Invoice invoice);
 
+        /**
+         * Inserta un lote de facturas nuevas, en lotes JDBC y sin consultar
+         * antes si existen (a diferencia de {@link #save(Invoice)}).
+         * 
+         * @param invoices Facturas que aún no están persistidas
+         * @return Las facturas persistidas
+         */
+        List<Invoice> insertAll(List<Invoice> invoices);
+
         /**
          * Busca una factura por su ID.
          * 
@@ -49,6 +66,15 @@ public interface InvoiceRepository {
          */
         Optional<Invoice> findById(UUID id);
 
+        /**
+         * Busca varias facturas por ID en una sola consulta.
+         * 
+         * @param ids IDs de las facturas
+         * @return Las facturas encontradas, sin orden garantizado; los IDs
+         *         inexistentes se omiten
+         */
+        List<Invoice> findAllById(java.util.Collection<UUID> ids);
+
         /**
          * Lista todas las facturas de una empresa.
          * 
@@ -78,18 +104,86 @@ public interface InvoiceRepository {
         boolean existsByCompanyIdAndTypeCodeAndFolioAndIssuerRut(CompanyId companyId, Integer typeCode, Long folio,
                         String issuerRut);
 
+        /**
+         * Claves ({@link Invoice#documentKey()}) de las facturas ya registradas
+         * con alguno de los folios dados. Una sola consulta para todo un lote.
+         * 
+         * @param companyId ID de la empresa
+         * @param folios    Folios a buscar
+         * @return Claves de documento existentes
+         */
+        java.util.Set<String> findDocumentKeys(CompanyId companyId, java.util.Collection<Long> folios);
+
         /**
          * Encuentra facturas pendientes de pago (abiertas).
          */
         default List<Invoice> findOpenInvoices(CompanyId companyId) {
-                // Default implementation filtering in memory if JPA method not directly mapped
-                // Ideally this would be a proper query method
-                return findByCompanyId(companyId).stream()
-                                .filter(invoice -> invoice
-                                                .getStatus() == com.casrusil.siierpai.modules.invoicing.domain.model.PaymentStatus.PENDING)
-                                .toList();
+                return find(InvoiceQuery.forCompany(companyId).withStatuses(PaymentStatus.PENDING));
         }
 
+        /**
+         * Busca las facturas que cumplen los criterios, filtrando en la base de
+         * datos.
+         * 
+         * @param query Criterios de búsqueda y orden
+         * @return Facturas completas (con líneas de detalle) en el orden pedido
+         */
+        List<Invoice> find(InvoiceQuery query);
+
+        /**
+         * Como {@link #find(InvoiceQuery)}, pero solo la cabecera: una única
+         * consulta de columnas. Preferible para listados y agregaciones.
+         * 
+         * @param query Criterios de búsqueda y orden
+         * @return Resúmenes de las facturas en el orden pedido
+         */
+        List<InvoiceSummary> findSummaries(InvoiceQuery query);
+
+        /**
+         * Página de facturas completas posteriores a {@code after} en el orden de
+         * la consulta (paginación por cursor, sin OFFSET).
+         * 
+         * @param query Criterios de búsqueda y orden
+         * @param after Cursor de la página anterior, o {@code null} para la primera
+         * @param limit Tamaño máximo de la página
+         * @return Página con el cursor de la siguiente, si la hay
+         */
+        InvoicePage<Invoice> findPage(InvoiceQuery query, InvoiceCursor after, int limit);
+
+        /**
+         * Página de resúmenes de facturas; ver
+         * {@link #findPage(InvoiceQuery, InvoiceCursor, int)}.
+         */
+        InvoicePage<InvoiceSummary> findSummaryPage(InvoiceQuery query, InvoiceCursor after, int limit);
+
+        /**
+         * Cantidad y montos de las facturas de un periodo, agrupados por tipo de
+         * transacción. Solo se devuelven los tipos con al menos una factura.
+         * 
+         * @param companyId ID de la empresa
+         * @param start     Fecha inicial (inclusive)
+         * @param end       Fecha final (inclusive)
+         * @return Totales por tipo de transacción
+         */
+        List<InvoiceTotals> sumByTransactionType(CompanyId companyId, java.time.LocalDate start,
+                        java.time.LocalDate end);
+
+        /**
+         * Recorre las facturas de un periodo sin cargarlas todas en memoria.
+         * 
+         * <p>
+         * Las facturas se entregan sin líneas de detalle (solo cabecera), en
+         * orden de fecha y folio. El stream debe consumirse dentro de una
+         * transacción y cerrarse.
+         * 
+         * @param companyId ID de la empresa
+         * @param start     Fecha inicial (inclusive)
+         * @param end       Fecha final (inclusive)
+         * @return Stream de facturas del periodo
+         */
+        java.util.stream.Stream<Invoice> streamHeadersInPeriod(CompanyId companyId, java.time.LocalDate start,
+                        java.time.LocalDate end);
+
         /**
          * Delete invoices within a date range.
          * Used for data cleanup.
@@ -9,19 +9,59 @@ import com.casrusil.siierpai.modules.invoicing.domain.port.out.InvoiceRepository
 import com.casrusil.siierpai.modules.invoicing.infrastructure.mail.InvoiceEmailSender;
 import com.casrusil.siierpai.modules.invoicing.infrastructure.pdf.InvoicePdfGenerator;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.infrastructure.config.VirtualThreadConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
+/**
+ * Renders the printed PDF of invoices (TED, PDF417 stamp and document) and
+ * delivers it by email, one at a time or in batches.
+ *
+ * <p>
+ * Batches render on virtual threads with at most
+ * {@code invoicing.pdf.batch.concurrency} PDFs in flight, which also bounds
+ * how many rendered documents are held in memory. Invoices are loaded on the
+ * calling thread as the batch advances, never all up front.
+ */
 @Service
 public class InvoiceDispatchService {
 
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceDispatchService.class);
+
     private final InvoiceRepository invoiceRepository;
     private final CafRepository cafRepository;
     private final TedGenerator tedGenerator;
     private final Pdf417Generator pdf417Generator;
     private final InvoicePdfGenerator invoicePdfGenerator;
     private final InvoiceEmailSender invoiceEmailSender;
+    private final int batchConcurrency;
+    private final int maxBatchInvoices;
 
     public InvoiceDispatchService(
             InvoiceRepository invoiceRepository,
@@ -29,13 +69,17 @@ public class InvoiceDispatchService {
             TedGenerator tedGenerator,
             Pdf417Generator pdf417Generator,
             InvoicePdfGenerator invoicePdfGenerator,
-            InvoiceEmailSender invoiceEmailSender) {
+            InvoiceEmailSender invoiceEmailSender,
+            @Value("${invoicing.pdf.batch.concurrency:4}") int batchConcurrency,
+            @Value("${invoicing.pdf.batch.max-invoices:10000}") int maxBatchInvoices) {
         this.invoiceRepository = invoiceRepository;
         this.cafRepository = cafRepository;
         this.tedGenerator = tedGenerator;
         this.pdf417Generator = pdf417Generator;
         this.invoicePdfGenerator = invoicePdfGenerator;
         this.invoiceEmailSender = invoiceEmailSender;
+        this.batchConcurrency = Math.max(1, batchConcurrency);
+        this.maxBatchInvoices = maxBatchInvoices;
     }
 
     public void dispatchInvoice(UUID invoiceId, String recipientEmail) {
@@ -43,6 +87,14 @@ public class InvoiceDispatchService {
         Invoice invoice = invoiceRepository.findById(invoiceId)
                 .orElseThrow(() -> new IllegalArgumentException("Invoice not found: " + invoiceId));
 
+        // 2-5. Render and 6. Send Email
+        send(invoice, recipientEmail, renderPdf(invoice));
+    }
+
+    /**
+     * Printed representation of the invoice, with its electronic stamp.
+     */
+    public byte[] renderPdf(Invoice invoice) {
         // 2. Get CAF
         String tipoDteStr = String.valueOf(invoice.getType().getCode());
         Caf caf = cafRepository.findActiveForFolio(invoice.getCompanyId(), tipoDteStr, invoice.getFolio())
@@ -55,14 +107,156 @@ public class InvoiceDispatchService {
         byte[] tedImage = pdf417Generator.generatePdf417(tedXml);
 
         // 5. Generate PDF
-        byte[] pdfContent = invoicePdfGenerator.generatePdf(invoice, tedImage);
+        return invoicePdfGenerator.generatePdf(invoice, tedImage);
+    }
+
+    /**
+     * Writes the PDFs of the given invoices into a ZIP on {@code out}, in the
+     * given order. Invoices that are missing, belong to another company or
+     * fail to render are left out and listed in an {@code errores.txt} entry.
+     * Does not close {@code out}.
+     *
+     * @return number of PDFs written
+     */
+    public int writePdfZip(CompanyId companyId, List<UUID> invoiceIds, OutputStream out) throws IOException {
+        checkBatchSize(invoiceIds.size());
+        List<String> errors = new ArrayList<>();
+        int written = 0;
+        ZipOutputStream zip = new ZipOutputStream(out);
+        zip.setLevel(Deflater.NO_COMPRESSION); // PDFs are already compressed
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Renders run ahead of the writer by at most batchConcurrency documents
+            Deque<Future<byte[]>> window = new ArrayDeque<>(batchConcurrency);
+            Deque<Invoice> pending = new ArrayDeque<>(batchConcurrency);
+            // A repeated id would be a duplicate ZIP entry
+            Iterator<UUID> ids = new LinkedHashSet<>(invoiceIds).iterator();
+            while (ids.hasNext() || !window.isEmpty()) {
+                while (ids.hasNext() && window.size() < batchConcurrency) {
+                    UUID id = ids.next();
+                    Optional<Invoice> invoice = findOwned(companyId, id);
+                    if (invoice.isEmpty()) {
+                        errors.add(id + ": not found");
+                        continue;
+                    }
+                    pending.add(invoice.get());
+                    window.add(executor.submit(() -> renderPdf(invoice.get())));
+                }
+                if (window.isEmpty()) {
+                    break;
+                }
+                Invoice invoice = pending.poll();
+                try {
+                    byte[] pdf = window.poll().get();
+                    zip.putNextEntry(new ZipEntry(zipEntryName(invoice)));
+                    zip.write(pdf);
+                    zip.closeEntry();
+                    written++;
+                } catch (ExecutionException e) {
+                    logger.warn("Invoice #{} ({}) left out of the PDF batch: {}", invoice.getFolio(),
+                            invoice.getId(), e.getCause().getMessage());
+                    errors.add(invoice.getId() + " (folio " + invoice.getFolio() + "): " + e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("PDF batch interrupted");
+        }
+        if (!errors.isEmpty()) {
+            zip.putNextEntry(new ZipEntry("errores.txt"));
+            zip.write(String.join("\n", errors).getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        zip.finish();
+        logger.info("PDF batch of company {}: {} written, {} left out", companyId, written, errors.size());
+        return written;
+    }
+
+    /**
+     * Runs {@link #dispatchInvoices} in the background on the mail bulkhead,
+     * so a large batch does not hold the request thread. The outcome is
+     * logged; call {@link #checkBatchSize} first to reject an oversized batch
+     * while the client is still waiting.
+     */
+    @Async(VirtualThreadConfig.MAIL_TASK_EXECUTOR)
+    public void dispatchInvoicesAsync(CompanyId companyId, Map<UUID, String> recipients) {
+        dispatchInvoices(companyId, recipients);
+    }
+
+    /**
+     * Emails each invoice its PDF, rendering and sending several at a time. A
+     * failed invoice is logged and counted; the others go on.
+     *
+     * @param recipients recipient email of each invoice
+     */
+    public BatchResult dispatchInvoices(CompanyId companyId, Map<UUID, String> recipients) {
+        checkBatchSize(recipients.size());
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Semaphore permits = new Semaphore(batchConcurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Map.Entry<UUID, String> recipient : recipients.entrySet()) {
+                Optional<Invoice> invoice = findOwned(companyId, recipient.getKey());
+                if (invoice.isEmpty()) {
+                    logger.warn("Invoice {} not found for company {}; not sent", recipient.getKey(), companyId);
+                    failed.incrementAndGet();
+                    continue;
+                }
+                // Waits here, so invoices are loaded only as fast as they are rendered and sent
+                permits.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        send(invoice.get(), recipient.getValue(), renderPdf(invoice.get()));
+                        sent.incrementAndGet();
+                    } catch (Exception e) {
+                        logger.warn("Invoice #{} could not be sent to {}: {}", invoice.get().getFolio(),
+                                recipient.getValue(), e.getMessage());
+                        failed.incrementAndGet();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        logger.info("Invoice email batch of company {}: {} sent, {} failed", companyId, sent.get(), failed.get());
+        return new BatchResult(sent.get(), failed.get());
+    }
 
+    private void send(Invoice invoice, String recipientEmail, byte[] pdfContent) {
         // 6. Send Email
         String subject = "Documento Tributario Electrónico N° " + invoice.getFolio();
         String body = "Estimado cliente,\n\nAdjunto encontrará su Factura Electrónica N° " + invoice.getFolio()
                 + ".\n\nAtentamente,\n" + invoice.getIssuerRut();
-        String filename = "DTE_" + invoice.getFolio() + ".pdf";
 
-        invoiceEmailSender.sendInvoiceEmail(recipientEmail, subject, body, pdfContent, filename);
+        invoiceEmailSender.sendInvoiceEmail(recipientEmail, subject, body, pdfContent, filename(invoice));
+    }
+
+    private Optional<Invoice> findOwned(CompanyId companyId, UUID invoiceId) {
+        return invoiceRepository.findById(invoiceId).filter(invoice -> invoice.getCompanyId().equals(companyId));
+    }
+
+    /**
+     * @throws IllegalArgumentException if a batch of {@code size} invoices
+     *                                  exceeds {@code invoicing.pdf.batch.max-invoices}
+     */
+    public void checkBatchSize(int size) {
+        if (size > maxBatchInvoices) {
+            throw new IllegalArgumentException(
+                    "A batch can have at most " + maxBatchInvoices + " invoices, got " + size);
+        }
+    }
+
+    private static String filename(Invoice invoice) {
+        return "DTE_" + invoice.getFolio() + ".pdf";
+    }
+
+    private static String zipEntryName(Invoice invoice) {
+        // Folios repeat across document types
+        return "DTE_" + invoice.getType().getCode() + "_" + invoice.getFolio() + ".pdf";
+    }
+
+    /**
+     * Outcome of an email batch.
+     */
+    public record BatchResult(int sent, int failed) {
     }
 }
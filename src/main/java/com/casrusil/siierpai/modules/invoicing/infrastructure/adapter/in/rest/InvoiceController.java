@@ -8,12 +8,16 @@ import com.casrusil.siierpai.modules.invoicing.domain.port.in.SearchInvoicesUseC
 import com.casrusil.siierpai.modules.invoicing.domain.service.InvoiceDispatchService;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -29,6 +33,8 @@ import java.util.stream.Collectors;
  * <li>{@code POST /api/v1/invoices}: Crear nueva factura.</li>
  * <li>{@code GET /api/v1/invoices}: Listar facturas de la empresa.</li>
  * <li>{@code POST /api/v1/invoices/{id}/send}: Enviar factura por email.</li>
+ * <li>{@code POST /api/v1/invoices/send}: Enviar un lote de facturas por email (en segundo plano).</li>
+ * <li>{@code POST /api/v1/invoices/pdf/zip}: Descargar los PDF de un lote en un ZIP.</li>
  * </ul>
  * 
  * @see CreateInvoiceUseCase
@@ -88,6 +94,31 @@ public class InvoiceController {
                 return ResponseEntity.ok().build();
         }
 
+        /**
+         * Valida el tamaño del lote y responde {@code 202}; el render y el envío
+         * de los correos ocurren en segundo plano.
+         */
+        @PostMapping("/send")
+        public ResponseEntity<Void> sendInvoices(@RequestBody Map<UUID, String> recipients) {
+                CompanyId companyId = CompanyContext.requireCompanyId();
+                invoiceDispatchService.checkBatchSize(recipients.size());
+                invoiceDispatchService.dispatchInvoicesAsync(companyId, recipients);
+                return ResponseEntity.accepted().build();
+        }
+
+        @PostMapping("/pdf/zip")
+        public ResponseEntity<StreamingResponseBody> downloadPdfZip(@RequestBody List<UUID> invoiceIds) {
+                // Rendered while the response is written, after the handler returns,
+                // so the company is captured here
+                CompanyId companyId = CompanyContext.requireCompanyId();
+                StreamingResponseBody body = out -> invoiceDispatchService.writePdfZip(companyId, invoiceIds, out);
+
+                return ResponseEntity.ok()
+                                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=facturas.zip")
+                                .contentType(MediaType.parseMediaType("application/zip"))
+                                .body(body);
+        }
+
         private InvoiceLine mapLine(InvoiceLineRequest line) {
                 return new InvoiceLine(1, line.description(), null, line.quantity(), line.unitPrice(),
                                 line.totalAmount(), "UN");
@@ -0,0 +1,92 @@
+package com.casrusil.siierpai.modules.invoicing.infrastructure.event;
+
+import com.casrusil.siierpai.modules.invoicing.domain.event.InvoiceCreatedEvent;
+import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.port.out.InvoiceRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.infrastructure.outbox.OutboxEventCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Codec de outbox para {@link InvoiceCreatedEvent}.
+ *
+ * <p>
+ * Guarda solo la referencia a la factura; al despachar se recarga desde el
+ * repositorio, que ya contiene la fila confirmada en la misma transacción.
+ *
+ * @since 1.0
+ */
+@Component
+public class InvoiceCreatedEventCodec implements OutboxEventCodec<InvoiceCreatedEvent> {
+
+    private final InvoiceRepository invoiceRepository;
+    private final ObjectMapper objectMapper;
+
+    public InvoiceCreatedEventCodec(InvoiceRepository invoiceRepository, ObjectMapper objectMapper) {
+        this.invoiceRepository = invoiceRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Class<InvoiceCreatedEvent> eventType() {
+        return InvoiceCreatedEvent.class;
+    }
+
+    @Override
+    public CompanyId companyId(InvoiceCreatedEvent event) {
+        return event.invoice().getCompanyId();
+    }
+
+    @Override
+    public String encode(InvoiceCreatedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(new Payload(event.invoice().getId(), event.occurredOn()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize InvoiceCreatedEvent", e);
+        }
+    }
+
+    @Override
+    public Optional<InvoiceCreatedEvent> decode(String payload) {
+        Payload reference = payload(payload);
+        return invoiceRepository.findById(reference.invoiceId())
+                .map(invoice -> new InvoiceCreatedEvent(invoice, reference.occurredOn()));
+    }
+
+    /**
+     * Recarga las facturas de todo el lote con una sola consulta.
+     */
+    @Override
+    public List<InvoiceCreatedEvent> decodeAll(List<String> payloads) {
+        List<Payload> references = payloads.stream().map(this::payload).toList();
+        Map<UUID, Invoice> invoices = invoiceRepository
+                .findAllById(references.stream().map(Payload::invoiceId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Invoice::getId, Function.identity()));
+        return references.stream()
+                .filter(reference -> invoices.containsKey(reference.invoiceId()))
+                .map(reference -> new InvoiceCreatedEvent(invoices.get(reference.invoiceId()), reference.occurredOn()))
+                .toList();
+    }
+
+    private Payload payload(String payload) {
+        try {
+            return objectMapper.readValue(payload, Payload.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot deserialize InvoiceCreatedEvent", e);
+        }
+    }
+
+    record Payload(UUID invoiceId, Instant occurredOn) {
+    }
+}
@@ -2,6 +2,11 @@ package com.casrusil.siierpai.modules.invoicing.infrastructure.pdf;
 
 import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
 import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceLine;
+import com.casrusil.siierpai.modules.sso.domain.model.Company;
+import com.casrusil.siierpai.modules.sso.domain.port.out.CompanyRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.lowagie.text.Document;
 import com.lowagie.text.DocumentException;
 import com.lowagie.text.Element;
@@ -10,45 +15,91 @@ import com.lowagie.text.Image;
 import com.lowagie.text.Paragraph;
 import com.lowagie.text.Phrase;
 import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.BaseFont;
 import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.text.NumberFormat;
+import java.time.Duration;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
-
+import java.util.Optional;
+
+/**
+ * Genera la representación impresa (PDF) de una factura con OpenPDF.
+ *
+ * <p>
+ * Lo que no depende del documento se prepara una sola vez por proceso: la
+ * fuente base y sus variantes, y la plantilla de la tabla de detalle. El
+ * encabezado de cada empresa (razón social, dirección y contacto) se arma
+ * desde su perfil y queda en caché {@code invoicing.pdf.header-cache-ttl-minutes},
+ * así un lote de miles de facturas consulta la empresa una sola vez. Un
+ * cambio en el perfil se ve en el PDF al vencer el caché.
+ *
+ * <p>
+ * Es seguro para uso concurrente: fuentes, plantillas y celdas en caché nunca
+ * se modifican, y las tablas copian las celdas al agregarlas.
+ */
 @Component
 public class InvoicePdfGenerator {
 
-    private static final Font FONT_BOLD = new Font(Font.HELVETICA, 10, Font.BOLD);
-    private static final Font FONT_NORMAL = new Font(Font.HELVETICA, 10, Font.NORMAL);
-    private static final Font FONT_TITLE = new Font(Font.HELVETICA, 14, Font.BOLD, Color.RED);
-    private static final NumberFormat CURRENCY_FORMAT = NumberFormat.getCurrencyInstance(new Locale("es", "CL"));
+    private static final Locale CHILE = Locale.of("es", "CL");
+
+    private static final BaseFont BASE_FONT = loadBaseFont();
+    private static final Font FONT_BOLD = new Font(BASE_FONT, 10, Font.BOLD);
+    private static final Font FONT_NORMAL = new Font(BASE_FONT, 10, Font.NORMAL);
+    private static final Font FONT_SMALL = new Font(BASE_FONT, 8, Font.NORMAL);
+    private static final Font FONT_TITLE = new Font(BASE_FONT, 14, Font.BOLD, Color.RED);
+
+    private static final PdfPTable DETAILS_TEMPLATE = detailsTemplate();
+
+    private final CompanyRepository companyRepository;
+    private final Cache<CompanyId, PdfPCell> companyHeaders;
+
+    public InvoicePdfGenerator(CompanyRepository companyRepository,
+            @Value("${invoicing.pdf.header-cache-size:1000}") long headerCacheSize,
+            @Value("${invoicing.pdf.header-cache-ttl-minutes:10}") long headerCacheTtlMinutes) {
+        this.companyRepository = companyRepository;
+        this.companyHeaders = Caffeine.newBuilder()
+                .maximumSize(headerCacheSize)
+                .expireAfterWrite(Duration.ofMinutes(headerCacheTtlMinutes))
+                .build();
+    }
 
     public byte[] generatePdf(Invoice invoice, byte[] tedImage) {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            Document document = new Document();
-            PdfWriter.getInstance(document, baos);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(32 * 1024);
+        render(invoice, tedImage, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Escribe el PDF de la factura en {@code out}. No cierra el stream.
+     */
+    public void render(Invoice invoice, byte[] tedImage, OutputStream out) {
+        // NumberFormat no es thread-safe: uno por documento
+        NumberFormat currency = NumberFormat.getCurrencyInstance(CHILE);
+        Document document = new Document();
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setFullCompression();
+            writer.setCloseStream(false);
             document.open();
 
-            // 1. Header (Logo + Company Info | Red Box)
+            // 1. Header (Company Info | Red Box)
             PdfPTable headerTable = new PdfPTable(2);
             headerTable.setWidthPercentage(100);
             headerTable.setWidths(new float[] { 2, 1 });
 
-            // Left: Company Info (Placeholder)
-            PdfPCell companyCell = new PdfPCell();
-            companyCell.setBorder(Rectangle.NO_BORDER);
-            companyCell.addElement(new Paragraph("EMPRESA DEMO S.A.", FONT_BOLD));
-            companyCell.addElement(new Paragraph("Giro: Desarrollo de Software", FONT_NORMAL));
-            companyCell.addElement(new Paragraph("Dirección: Av. Siempre Viva 123", FONT_NORMAL));
-            companyCell.addElement(new Paragraph("Santiago, Chile", FONT_NORMAL));
-            headerTable.addCell(companyCell);
+            // Left: Company Info, from the company profile
+            headerTable.addCell(companyHeader(invoice));
 
             // Right: Red Box (RUT + Folio)
             PdfPCell boxCell = new PdfPCell();
@@ -80,17 +131,8 @@ public class InvoicePdfGenerator {
 
             document.add(new Paragraph("\n"));
 
-            // 3. Details Table
-            PdfPTable detailsTable = new PdfPTable(5); // Item, Qty, Price, Total
-            detailsTable.setWidthPercentage(100);
-            detailsTable.setWidths(new float[] { 4, 1, 1, 1, 1 });
-
-            // Headers
-            addHeaderCell(detailsTable, "Descripción");
-            addHeaderCell(detailsTable, "Cant.");
-            addHeaderCell(detailsTable, "Unid.");
-            addHeaderCell(detailsTable, "Precio");
-            addHeaderCell(detailsTable, "Total");
+            // 3. Details Table (headers come from the template)
+            PdfPTable detailsTable = new PdfPTable(DETAILS_TEMPLATE);
 
             // Rows
             if (invoice.getItems() != null) {
@@ -98,8 +140,8 @@ public class InvoicePdfGenerator {
                     detailsTable.addCell(new Phrase(item.itemName(), FONT_NORMAL));
                     detailsTable.addCell(new Phrase(item.quantity().toString(), FONT_NORMAL));
                     detailsTable.addCell(new Phrase(item.unit(), FONT_NORMAL));
-                    detailsTable.addCell(new Phrase(CURRENCY_FORMAT.format(item.price()), FONT_NORMAL));
-                    detailsTable.addCell(new Phrase(CURRENCY_FORMAT.format(item.amount()), FONT_NORMAL));
+                    detailsTable.addCell(new Phrase(currency.format(item.price()), FONT_NORMAL));
+                    detailsTable.addCell(new Phrase(currency.format(item.amount()), FONT_NORMAL));
                 }
             }
             document.add(detailsTable);
@@ -118,42 +160,79 @@ public class InvoicePdfGenerator {
                 Image img = Image.getInstance(tedImage);
                 img.scalePercent(50); // Scale down
                 tedCell.addElement(img);
-                tedCell.addElement(new Paragraph("Timbre Electrónico SII", new Font(Font.HELVETICA, 8)));
-                tedCell.addElement(new Paragraph("Res. 80 de 2014 - Verifique documento: www.sii.cl",
-                        new Font(Font.HELVETICA, 8)));
+                tedCell.addElement(new Paragraph("Timbre Electrónico SII", FONT_SMALL));
+                tedCell.addElement(new Paragraph("Res. 80 de 2014 - Verifique documento: www.sii.cl", FONT_SMALL));
             }
             footerTable.addCell(tedCell);
 
             // Right: Totals
             PdfPCell totalsCell = new PdfPCell();
             totalsCell.setBorder(Rectangle.BOX);
-            totalsCell.addElement(new Paragraph("Neto: " + CURRENCY_FORMAT.format(invoice.getNetAmount()), FONT_BOLD));
+            totalsCell.addElement(new Paragraph("Neto: " + currency.format(invoice.getNetAmount()), FONT_BOLD));
             totalsCell.addElement(
-                    new Paragraph("IVA (19%): " + CURRENCY_FORMAT.format(invoice.getTaxAmount()), FONT_BOLD));
+                    new Paragraph("IVA (19%): " + currency.format(invoice.getTaxAmount()), FONT_BOLD));
             totalsCell
-                    .addElement(new Paragraph("Total: " + CURRENCY_FORMAT.format(invoice.getTotalAmount()), FONT_BOLD));
+                    .addElement(new Paragraph("Total: " + currency.format(invoice.getTotalAmount()), FONT_BOLD));
             footerTable.addCell(totalsCell);
 
             document.add(footerTable);
 
             document.close();
-            return baos.toByteArray();
 
         } catch (DocumentException | IOException e) {
             throw new RuntimeException("Failed to generate PDF", e);
         }
     }
 
-    private Paragraph createCenteredParagraph(String text, Font font) {
+    private PdfPCell companyHeader(Invoice invoice) {
+        return companyHeaders.get(invoice.getCompanyId(),
+                companyId -> buildCompanyHeader(companyRepository.findById(companyId), invoice));
+    }
+
+    private static PdfPCell buildCompanyHeader(Optional<Company> company, Invoice invoice) {
+        PdfPCell cell = new PdfPCell();
+        cell.setBorder(Rectangle.NO_BORDER);
+        String name = company.map(Company::getRazonSocial)
+                .orElse(invoice.getBusinessName() != null ? invoice.getBusinessName() : invoice.getIssuerRut());
+        cell.addElement(new Paragraph(name, FONT_BOLD));
+        company.map(Company::getCommercialAddress).filter(value -> !value.isBlank())
+                .ifPresent(address -> cell.addElement(new Paragraph("Dirección: " + address, FONT_NORMAL)));
+        company.map(Company::getPhoneNumber).filter(value -> !value.isBlank())
+                .ifPresent(phone -> cell.addElement(new Paragraph("Teléfono: " + phone, FONT_NORMAL)));
+        company.map(Company::getEmail).filter(value -> !value.isBlank())
+                .ifPresent(email -> cell.addElement(new Paragraph(email, FONT_NORMAL)));
+        company.map(Company::getWebsite).filter(value -> !value.isBlank())
+                .ifPresent(website -> cell.addElement(new Paragraph(website, FONT_NORMAL)));
+        return cell;
+    }
+
+    private static Paragraph createCenteredParagraph(String text, Font font) {
         Paragraph p = new Paragraph(text, font);
         p.setAlignment(Element.ALIGN_CENTER);
         return p;
     }
 
-    private void addHeaderCell(PdfPTable table, String text) {
-        PdfPCell cell = new PdfPCell(new Phrase(text, FONT_BOLD));
-        cell.setBackgroundColor(Color.LIGHT_GRAY);
-        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-        table.addCell(cell);
+    private static PdfPTable detailsTemplate() {
+        PdfPTable table = new PdfPTable(new float[] { 4, 1, 1, 1, 1 }); // Item, Qty, Unit, Price, Total
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+        for (String header : new String[] { "Descripción", "Cant.", "Unid.", "Precio", "Total" }) {
+            PdfPCell cell = new PdfPCell(new Phrase(header, FONT_BOLD));
+            cell.setBackgroundColor(Color.LIGHT_GRAY);
+            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            table.addCell(cell);
+        }
+        return table;
+    }
+
+    private static BaseFont loadBaseFont() {
+        try {
+            // Fuente estándar PDF: no se embebe, el documento queda liviano
+            return BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Failed to load PDF base font", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -1,20 +1,41 @@
 package com.casrusil.siierpai.modules.invoicing.infrastructure.persistence.adapter;
 
 import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceCursor;
 import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceLine;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoicePage;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceQuery;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceSummary;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceTotals;
 import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceType;
+import com.casrusil.siierpai.modules.invoicing.domain.model.PaymentStatus;
+import com.casrusil.siierpai.modules.invoicing.domain.model.TransactionType;
 import com.casrusil.siierpai.modules.invoicing.domain.port.out.InvoiceRepository;
 import com.casrusil.siierpai.modules.invoicing.infrastructure.persistence.entity.InvoiceEntity;
 import com.casrusil.siierpai.modules.invoicing.infrastructure.persistence.repository.InvoiceJpaRepository;
+import com.casrusil.siierpai.modules.invoicing.infrastructure.persistence.repository.InvoiceSpecifications;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import com.casrusil.siierpai.modules.invoicing.infrastructure.persistence.entity.InvoiceItemEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Adaptador de persistencia para facturas.
@@ -30,10 +51,15 @@ import java.util.stream.Collectors;
 @org.springframework.context.annotation.Primary
 public class InvoiceJpaAdapter implements InvoiceRepository {
 
+    private static final int INSERT_FLUSH_SIZE = 50;
+    private static final int IN_LIST_CHUNK = 1000;
+
     private final InvoiceJpaRepository invoiceJpaRepository;
+    private final EntityManager entityManager;
 
-    public InvoiceJpaAdapter(InvoiceJpaRepository invoiceJpaRepository) {
+    public InvoiceJpaAdapter(InvoiceJpaRepository invoiceJpaRepository, EntityManager entityManager) {
         this.invoiceJpaRepository = invoiceJpaRepository;
+        this.entityManager = entityManager;
     }
 
     @Override
@@ -43,11 +69,34 @@ public class InvoiceJpaAdapter implements InvoiceRepository {
         return toDomain(savedEntity);
     }
 
+    @Override
+    public List<Invoice> insertAll(List<Invoice> invoices) {
+        List<Invoice> inserted = new ArrayList<>(invoices.size());
+        for (int i = 0; i < invoices.size(); i++) {
+            InvoiceEntity entity = toEntity(invoices.get(i));
+            // persist, not merge: the IDs are assigned, so merge would SELECT each row first
+            entityManager.persist(entity);
+            inserted.add(toDomain(entity));
+            if ((i + 1) % INSERT_FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return inserted;
+    }
+
     @Override
     public Optional<Invoice> findById(UUID id) {
         return invoiceJpaRepository.findById(id).map(this::toDomain);
     }
 
+    @Override
+    public List<Invoice> findAllById(java.util.Collection<UUID> ids) {
+        return invoiceJpaRepository.findAllById(ids).stream().map(this::toDomain).toList();
+    }
+
     @Override
     public List<Invoice> findByCompanyId(CompanyId companyId) {
         return invoiceJpaRepository.findAllByCompanyId(companyId.value())
@@ -63,11 +112,132 @@ public class InvoiceJpaAdapter implements InvoiceRepository {
                 issuerRut);
     }
 
+    @Override
+    public Set<String> findDocumentKeys(CompanyId companyId, Collection<Long> folios) {
+        Set<String> keys = new HashSet<>();
+        if (folios.isEmpty()) {
+            return keys;
+        }
+        // Chunked so the IN list stays below the driver's bind parameter limit
+        List<Long> distinct = List.copyOf(new HashSet<>(folios));
+        for (int from = 0; from < distinct.size(); from += IN_LIST_CHUNK) {
+            List<Long> chunk = distinct.subList(from, Math.min(distinct.size(), from + IN_LIST_CHUNK));
+            for (Object[] row : invoiceJpaRepository.findDocumentKeys(companyId.value(), chunk)) {
+                keys.add(Invoice.documentKey((Integer) row[0], (Long) row[1], (String) row[2]));
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public List<InvoiceTotals> sumByTransactionType(CompanyId companyId, LocalDate start, LocalDate end) {
+        return invoiceJpaRepository.sumByTransactionType(companyId.value(), start, end);
+    }
+
+    @Override
+    public Stream<Invoice> streamHeadersInPeriod(CompanyId companyId, java.time.LocalDate start,
+            java.time.LocalDate end) {
+        return invoiceJpaRepository.streamByCompanyIdAndPeriod(companyId.value(), start, end)
+                .map(entity -> {
+                    // Detached once mapped, so the persistence context stays small
+                    Invoice invoice = toDomain(entity, Collections.emptyList());
+                    entityManager.detach(entity);
+                    return invoice;
+                });
+    }
+
+    @Override
+    public List<Invoice> find(InvoiceQuery query) {
+        return invoiceJpaRepository
+                .findAll(InvoiceSpecifications.matching(query, null), InvoiceSpecifications.sort(query.order()))
+                .stream()
+                .map(this::toDomain)
+                .toList();
+    }
+
+    @Override
+    public InvoicePage<Invoice> findPage(InvoiceQuery query, InvoiceCursor after, int limit) {
+        // Se pide una fila extra para saber si hay página siguiente sin un COUNT
+        List<Invoice> rows = invoiceJpaRepository
+                .findBy(InvoiceSpecifications.matching(query, after),
+                        q -> q.sortBy(InvoiceSpecifications.sort(query.order())).limit(limit + 1).all())
+                .stream()
+                .map(this::toDomain)
+                .toList();
+        return page(rows, limit, InvoiceCursor::of);
+    }
+
+    @Override
+    public List<InvoiceSummary> findSummaries(InvoiceQuery query) {
+        return selectSummaries(query, null, null);
+    }
+
+    @Override
+    public InvoicePage<InvoiceSummary> findSummaryPage(InvoiceQuery query, InvoiceCursor after, int limit) {
+        return page(selectSummaries(query, after, limit + 1), limit, InvoiceCursor::of);
+    }
+
     @Override
     public void deleteInPeriod(CompanyId companyId, java.time.LocalDate start, java.time.LocalDate end) {
         invoiceJpaRepository.deleteByCompanyIdAndDateBetween(companyId.value(), start, end);
     }
 
+    /**
+     * Consulta solo las columnas de {@link InvoiceSummary}: sin líneas de
+     * detalle ni entidades administradas por el contexto de persistencia.
+     */
+    private List<InvoiceSummary> selectSummaries(InvoiceQuery query, InvoiceCursor after, Integer maxResults) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteria = cb.createTupleQuery();
+        Root<InvoiceEntity> root = criteria.from(InvoiceEntity.class);
+        Specification<InvoiceEntity> spec = InvoiceSpecifications.matching(query, after);
+
+        criteria.multiselect(root.get("id"), root.get("typeCode"), root.get("folio"), root.get("issuerRut"),
+                root.get("receiverRut"), root.get("businessName"), root.get("date"), root.get("dueDate"),
+                root.get("netAmount"), root.get("taxAmount"), root.get("totalAmount"), root.get("transactionType"),
+                root.get("status"));
+        criteria.where(spec.toPredicate(root, criteria, cb));
+        criteria.orderBy(InvoiceSpecifications.sort(query.order()).stream()
+                .map(order -> order.isAscending() ? cb.asc(root.get(order.getProperty()))
+                        : cb.desc(root.get(order.getProperty())))
+                .toList());
+
+        var typedQuery = entityManager.createQuery(criteria);
+        if (maxResults != null) {
+            typedQuery.setMaxResults(maxResults);
+        }
+        return typedQuery.getResultStream().map(this::toSummary).toList();
+    }
+
+    private InvoiceSummary toSummary(Tuple row) {
+        LocalDate date = row.get(6, LocalDate.class);
+        LocalDate dueDate = row.get(7, LocalDate.class);
+        PaymentStatus status = row.get(12, PaymentStatus.class);
+        return new InvoiceSummary(
+                row.get(0, UUID.class),
+                InvoiceType.fromCode(row.get(1, Integer.class)),
+                row.get(2, Long.class),
+                row.get(3, String.class),
+                row.get(4, String.class),
+                row.get(5, String.class),
+                date,
+                dueDate != null ? dueDate : date,
+                row.get(8, BigDecimal.class),
+                row.get(9, BigDecimal.class),
+                row.get(10, BigDecimal.class),
+                row.get(11, TransactionType.class),
+                status != null ? status : PaymentStatus.PENDING);
+    }
+
+    private static <T> InvoicePage<T> page(List<T> rows, int limit,
+            java.util.function.Function<T, InvoiceCursor> cursor) {
+        if (rows.size() <= limit) {
+            return new InvoicePage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new InvoicePage<>(items, cursor.apply(items.get(limit - 1)));
+    }
+
     private InvoiceEntity toEntity(Invoice invoice) {
         InvoiceEntity entity = new InvoiceEntity(
                 invoice.getId(),
@@ -118,7 +288,10 @@ public class InvoiceJpaAdapter implements InvoiceRepository {
                             item.getUnit()))
                     .collect(Collectors.toList());
         }
+        return toDomain(entity, items);
+    }
 
+    private Invoice toDomain(InvoiceEntity entity, List<InvoiceLine> items) {
         return new Invoice(
                 entity.getId(),
                 new CompanyId(entity.getCompanyId()),
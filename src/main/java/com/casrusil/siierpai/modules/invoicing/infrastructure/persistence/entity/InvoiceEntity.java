@@ -25,7 +25,10 @@ import java.util.UUID;
  * @since 1.0
  */
 @Entity
-@Table(name = "invoices", schema = "invoicing")
+@Table(name = "invoices", schema = "invoicing", indexes = {
+        @Index(name = "idx_invoices_company_document", columnList = "company_id, type_code, folio, issuer_rut"),
+        @Index(name = "idx_invoices_company_id", columnList = "company_id, id")
+})
 public class InvoiceEntity {
 
     @Id
@@ -81,7 +84,9 @@ public class InvoiceEntity {
     @Column(name = "common_use_vat_amount")
     private BigDecimal commonUseVatAmount;
 
+    // Al mapear una página de facturas, las líneas se cargan por lotes y no una consulta por factura
     @OneToMany(mappedBy = "invoice", cascade = CascadeType.ALL, orphanRemoval = true)
+    @org.hibernate.annotations.BatchSize(size = 100)
     private List<InvoiceItemEntity> items = new ArrayList<>();
 
     public InvoiceEntity() {
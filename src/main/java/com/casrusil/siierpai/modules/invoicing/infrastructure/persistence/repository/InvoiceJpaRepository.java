@@ -1,11 +1,19 @@
 package com.casrusil.siierpai.modules.invoicing.infrastructure.persistence.repository;
 
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceTotals;
 import com.casrusil.siierpai.modules.invoicing.infrastructure.persistence.entity.InvoiceEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repositorio JPA para facturas.
@@ -13,11 +21,13 @@ import java.util.UUID;
  * <p>
  * Maneja el almacenamiento y recuperación de documentos tributarios.
  * Incluye consultas para búsqueda por folio, RUT emisor/receptor y fecha.
+ * Las búsquedas con filtros combinables usan {@link InvoiceSpecifications}.
  * 
  * @since 1.0
  */
 @Repository
-public interface InvoiceJpaRepository extends JpaRepository<InvoiceEntity, UUID> {
+public interface InvoiceJpaRepository extends JpaRepository<InvoiceEntity, UUID>,
+                JpaSpecificationExecutor<InvoiceEntity> {
         List<InvoiceEntity> findAllByCompanyId(UUID companyId);
 
         boolean existsByCompanyIdAndTypeCodeAndFolioAndIssuerRut(UUID companyId, Integer typeCode, Long folio,
@@ -27,5 +37,47 @@ public interface InvoiceJpaRepository extends JpaRepository<InvoiceEntity, UUID>
                         Integer typeCode,
                         Long folio, String issuerRut);
 
+        /**
+         * Tipo, folio y RUT emisor de las facturas con alguno de los folios
+         * dados; se resuelve con {@code idx_invoices_company_document}.
+         */
+        @Query("""
+                        SELECT i.typeCode, i.folio, i.issuerRut FROM InvoiceEntity i
+                        WHERE i.companyId = :companyId AND i.folio IN :folios
+                        """)
+        List<Object[]> findDocumentKeys(@Param("companyId") UUID companyId,
+                        @Param("folios") java.util.Collection<Long> folios);
+
+        /**
+         * Facturas de un periodo como cursor del servidor, en orden de fecha y
+         * folio. Solo lectura: Hibernate no guarda snapshots para dirty checking.
+         * Debe consumirse dentro de una transacción y cerrarse.
+         */
+        @QueryHints({
+                        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+        })
+        @Query("""
+                        SELECT i FROM InvoiceEntity i
+                        WHERE i.companyId = :companyId AND i.date BETWEEN :start AND :end
+                        ORDER BY i.date, i.folio
+                        """)
+        Stream<InvoiceEntity> streamByCompanyIdAndPeriod(@Param("companyId") UUID companyId,
+                        @Param("start") java.time.LocalDate start, @Param("end") java.time.LocalDate end);
+
+        /**
+         * Totales del periodo por tipo de transacción. Solo lee columnas incluidas
+         * en {@code idx_invoices_company_date_cover} (index-only scan).
+         */
+        @Query("""
+                        SELECT new com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceTotals(
+                                i.transactionType, COUNT(i), SUM(i.netAmount), SUM(i.taxAmount), SUM(i.totalAmount))
+                        FROM InvoiceEntity i
+                        WHERE i.companyId = :companyId AND i.date BETWEEN :start AND :end
+                        GROUP BY i.transactionType
+                        """)
+        List<InvoiceTotals> sumByTransactionType(@Param("companyId") UUID companyId,
+                        @Param("start") java.time.LocalDate start, @Param("end") java.time.LocalDate end);
+
         void deleteByCompanyIdAndDateBetween(UUID companyId, java.time.LocalDate start, java.time.LocalDate end);
 }
@@ -0,0 +1,109 @@
+package com.casrusil.siierpai.modules.invoicing.infrastructure.persistence.repository;
+
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceCursor;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceQuery;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceType;
+import com.casrusil.siierpai.modules.invoicing.domain.model.PaymentStatus;
+import com.casrusil.siierpai.modules.invoicing.infrastructure.persistence.entity.InvoiceEntity;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Traduce un {@link InvoiceQuery} a predicados JPA Criteria.
+ * 
+ * <p>
+ * Los filtros se aplican en la base de datos; todos parten del
+ * {@code company_id}, de modo que usan los índices por empresa.
+ * 
+ * @since 1.0
+ */
+public final class InvoiceSpecifications {
+
+    private InvoiceSpecifications() {
+    }
+
+    /**
+     * Filtros de la consulta y, si hay cursor, la condición "después de" en el
+     * orden de la consulta.
+     */
+    public static Specification<InvoiceEntity> matching(InvoiceQuery query, InvoiceCursor after) {
+        return (root, criteriaQuery, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("companyId"), query.companyId().value()));
+
+            if (query.from() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<LocalDate>get("date"), query.from()));
+            }
+            if (query.to() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.<LocalDate>get("date"), query.to()));
+            }
+            if (!query.types().isEmpty()) {
+                predicates.add(root.get("typeCode").in(query.types().stream().map(InvoiceType::getCode).toList()));
+            }
+            if (query.transactionType() != null) {
+                predicates.add(cb.equal(root.get("transactionType"), query.transactionType()));
+            }
+            if (!query.statuses().isEmpty()) {
+                Predicate inStatuses = root.get("status").in(query.statuses());
+                // Sin estado registrado se lee como PENDING
+                predicates.add(query.statuses().contains(PaymentStatus.PENDING)
+                        ? cb.or(inStatuses, cb.isNull(root.get("status")))
+                        : inStatuses);
+            }
+            if (query.paid() != null) {
+                predicates.add(query.paid()
+                        ? cb.equal(root.get("status"), PaymentStatus.PAID)
+                        : cb.or(cb.isNull(root.get("status")), cb.notEqual(root.get("status"), PaymentStatus.PAID)));
+            }
+            if (query.partnerRut() != null) {
+                predicates.add(cb.or(cb.equal(root.get("issuerRut"), query.partnerRut()),
+                        cb.equal(root.get("receiverRut"), query.partnerRut())));
+            }
+            if (query.minTotal() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<BigDecimal>get("totalAmount"), query.minTotal()));
+            }
+            if (query.maxTotal() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.<BigDecimal>get("totalAmount"), query.maxTotal()));
+            }
+            if (after != null) {
+                predicates.add(after(root, cb, query.order(), after));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Orden total de la consulta; siempre desempata por ID.
+     */
+    public static Sort sort(InvoiceQuery.Order order) {
+        return switch (order) {
+            case DATE_ASC -> Sort.by(Sort.Order.asc("date"), Sort.Order.asc("id"));
+            case DATE_DESC -> Sort.by(Sort.Order.desc("date"), Sort.Order.desc("id"));
+            case ID_ASC -> Sort.by(Sort.Order.asc("id"));
+        };
+    }
+
+    private static Predicate after(Root<InvoiceEntity> root, CriteriaBuilder cb, InvoiceQuery.Order order,
+            InvoiceCursor cursor) {
+        return switch (order) {
+            case ID_ASC -> cb.greaterThan(root.<UUID>get("id"), cursor.id());
+            case DATE_ASC -> cb.or(
+                    cb.greaterThan(root.<LocalDate>get("date"), cursor.date()),
+                    cb.and(cb.equal(root.get("date"), cursor.date()),
+                            cb.greaterThan(root.<UUID>get("id"), cursor.id())));
+            case DATE_DESC -> cb.or(
+                    cb.lessThan(root.<LocalDate>get("date"), cursor.date()),
+                    cb.and(cb.equal(root.get("date"), cursor.date()),
+                            cb.lessThan(root.<UUID>get("id"), cursor.id())));
+        };
+    }
+}
@@ -3,6 +3,7 @@ package com.casrusil.siierpai.modules.sso.domain.port.out;
 import com.casrusil.siierpai.modules.sso.domain.model.Company;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -44,6 +45,15 @@ public interface CompanyRepository {
      */
     Optional<Company> findById(CompanyId id);
 
+    /**
+     * Busca varias empresas por ID en una sola consulta.
+     * 
+     * @param ids IDs de las empresas
+     * @return Las empresas encontradas, sin orden garantizado; los IDs
+     *         inexistentes se omiten
+     */
+    List<Company> findAllById(Collection<CompanyId> ids);
+
     /**
      * Busca una empresa por su RUT.
      * 
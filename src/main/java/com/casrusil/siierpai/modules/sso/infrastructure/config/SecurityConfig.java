@@ -1,14 +1,25 @@
 package com.casrusil.siierpai.modules.sso.infrastructure.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -27,11 +38,46 @@ public class SecurityConfig {
 
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(SecurityConfig.class);
 
-    public SecurityConfig(com.casrusil.siierpai.modules.sso.infrastructure.security.SecurityFilter securityFilter) {
+    // Los sustitutos locales del SII (/fake-sii) solo se publican en los perfiles sii-sim y de test
+    private final boolean fakeSiiEnabled;
+
+    private static final String PROMETHEUS_ROLE = "PROMETHEUS";
+
+    // Credenciales del scrape de Prometheus; sin contraseña /actuator/prometheus rechaza todo
+    private final String prometheusUsername;
+    private final String prometheusPassword;
+
+    public SecurityConfig(com.casrusil.siierpai.modules.sso.infrastructure.security.SecurityFilter securityFilter,
+            @Value("${sii.fake.enabled:false}") boolean fakeSiiEnabled,
+            @Value("${sii.f29.fake.enabled:false}") boolean fakeSiiF29Enabled,
+            @Value("${observability.prometheus.username:prometheus}") String prometheusUsername,
+            @Value("${observability.prometheus.password:}") String prometheusPassword) {
         this.securityFilter = securityFilter;
+        this.fakeSiiEnabled = fakeSiiEnabled || fakeSiiF29Enabled;
+        this.prometheusUsername = prometheusUsername;
+        this.prometheusPassword = prometheusPassword;
         log.info("🔥 CARGANDO CONFIGURACIÓN DE SEGURIDAD PERSONALIZADA 🔥");
     }
 
+    /**
+     * Cadena propia para {@code /actuator/prometheus}, evaluada antes que la
+     * principal: HTTP Basic con el usuario de scrape, sin JWT. Solo
+     * {@code /actuator/health} queda público.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain prometheusFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/actuator/prometheus")
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth.anyRequest().hasRole(PROMETHEUS_ROLE))
+                .authenticationManager(prometheusAuthenticationManager())
+                .httpBasic(Customizer.withDefaults());
+
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -49,6 +95,11 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // Permitir acceso público a endpoints de autenticación y Swagger si lo usas
                         .requestMatchers("/api/v1/auth/**", "/error").permitAll()
+                        // Health público; /actuator/prometheus lo atiende prometheusFilterChain
+                        .requestMatchers("/actuator/health").permitAll()
+                        // Sustitutos locales del SII: fuera de sii-sim/test la ruta no queda abierta
+                        .requestMatchers("/fake-sii/**").access((authentication, context) ->
+                                new AuthorizationDecision(fakeSiiEnabled))
                         // Permitir OPTIONS (pre-flight requests de CORS)
                         .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll()
                         // Todo lo demás requiere autenticación
@@ -85,13 +136,35 @@ public class SecurityConfig {
         return source;
     }
 
+    /**
+     * Autentica solo al usuario de scrape. No es un bean, para no reemplazar
+     * el {@link AuthenticationManager} de la aplicación.
+     */
+    private AuthenticationManager prometheusAuthenticationManager() {
+        if (prometheusPassword.isBlank()) {
+            log.warn("observability.prometheus.password no configurada: /actuator/prometheus rechaza todo scrape");
+            return authentication -> {
+                throw new BadCredentialsException("Prometheus scrape is not configured");
+            };
+        }
+        PasswordEncoder encoder = passwordEncoder();
+        UserDetails scraper = User.withUsername(prometheusUsername)
+                .password(encoder.encode(prometheusPassword))
+                .roles(PROMETHEUS_ROLE)
+                .build();
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsService(new InMemoryUserDetailsManager(scraper));
+        return new ProviderManager(provider);
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
         return authConfig.getAuthenticationManager();
     }
 
     @Bean
-    public org.springframework.security.crypto.password.PasswordEncoder passwordEncoder() {
+    public PasswordEncoder passwordEncoder() {
         return new org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder();
     }
 }
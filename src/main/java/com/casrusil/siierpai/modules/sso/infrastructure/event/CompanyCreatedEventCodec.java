@@ -0,0 +1,93 @@
+package com.casrusil.siierpai.modules.sso.infrastructure.event;
+
+import com.casrusil.siierpai.modules.sso.domain.event.CompanyCreatedEvent;
+import com.casrusil.siierpai.modules.sso.domain.model.Company;
+import com.casrusil.siierpai.modules.sso.domain.port.out.CompanyRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.infrastructure.outbox.OutboxEventCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Codec de outbox para {@link CompanyCreatedEvent}.
+ *
+ * <p>
+ * Guarda solo la referencia a la empresa; al despachar se recarga desde el
+ * repositorio, que ya contiene la empresa confirmada en la misma transacción.
+ *
+ * @since 1.0
+ */
+@Component
+public class CompanyCreatedEventCodec implements OutboxEventCodec<CompanyCreatedEvent> {
+
+    private final CompanyRepository companyRepository;
+    private final ObjectMapper objectMapper;
+
+    public CompanyCreatedEventCodec(CompanyRepository companyRepository, ObjectMapper objectMapper) {
+        this.companyRepository = companyRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Class<CompanyCreatedEvent> eventType() {
+        return CompanyCreatedEvent.class;
+    }
+
+    @Override
+    public CompanyId companyId(CompanyCreatedEvent event) {
+        return event.company().getId();
+    }
+
+    @Override
+    public String encode(CompanyCreatedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(new Payload(event.company().getId().value(), event.occurredOn()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize CompanyCreatedEvent", e);
+        }
+    }
+
+    @Override
+    public Optional<CompanyCreatedEvent> decode(String payload) {
+        Payload reference = payload(payload);
+        return companyRepository.findById(new CompanyId(reference.companyId()))
+                .map(company -> new CompanyCreatedEvent(company, reference.occurredOn()));
+    }
+
+    /**
+     * Recarga las empresas de todo el lote con una sola consulta.
+     */
+    @Override
+    public List<CompanyCreatedEvent> decodeAll(List<String> payloads) {
+        List<Payload> references = payloads.stream().map(this::payload).toList();
+        Map<UUID, Company> companies = companyRepository
+                .findAllById(references.stream().map(reference -> new CompanyId(reference.companyId())).distinct()
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(company -> company.getId().value(), Function.identity()));
+        return references.stream()
+                .filter(reference -> companies.containsKey(reference.companyId()))
+                .map(reference -> new CompanyCreatedEvent(companies.get(reference.companyId()), reference.occurredOn()))
+                .toList();
+    }
+
+    private Payload payload(String payload) {
+        try {
+            return objectMapper.readValue(payload, Payload.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot deserialize CompanyCreatedEvent", e);
+        }
+    }
+
+    record Payload(UUID companyId, Instant occurredOn) {
+    }
+}
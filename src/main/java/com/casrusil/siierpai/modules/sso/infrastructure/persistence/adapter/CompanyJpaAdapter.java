@@ -7,6 +7,7 @@ import com.casrusil.siierpai.CompanyJpaRepository;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -41,6 +42,13 @@ public class CompanyJpaAdapter implements CompanyRepository {
         return jpaRepository.findById(id.getValue()).map(this::toDomain);
     }
 
+    @Override
+    public List<Company> findAllById(Collection<CompanyId> ids) {
+        return jpaRepository.findAllById(ids.stream().map(CompanyId::getValue).toList()).stream()
+                .map(this::toDomain)
+                .toList();
+    }
+
     @Override
     public Optional<Company> findByRut(String rut) {
         return jpaRepository.findByRut(rut).map(this::toDomain);
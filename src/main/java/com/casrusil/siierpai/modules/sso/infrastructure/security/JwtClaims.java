@@ -0,0 +1,27 @@
+package com.casrusil.siierpai.modules.sso.infrastructure.security;
+
+import com.casrusil.siierpai.modules.sso.domain.model.UserRole;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.domain.valueobject.UserId;
+
+import java.time.Instant;
+
+/**
+ * Claims de un JWT ya verificado.
+ *
+ * <p>
+ * Inmutable: se obtiene una sola vez por token en
+ * {@link JwtTokenProvider#parseAndVerify(String)} y puede compartirse entre
+ * requests mientras no expire.
+ *
+ * @param userId    usuario (subject)
+ * @param companyId empresa activa del token
+ * @param role      rol del usuario, {@code null} en tokens sin el claim
+ * @param expiresAt instante de expiración ({@code exp})
+ */
+public record JwtClaims(UserId userId, CompanyId companyId, UserRole role, Instant expiresAt) {
+
+    public boolean isExpiredAt(Instant instant) {
+        return !expiresAt.isAfter(instant);
+    }
+}
@@ -3,34 +3,86 @@ package com.casrusil.siierpai.modules.sso.infrastructure.security;
 import com.casrusil.siierpai.modules.sso.domain.model.UserRole;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import com.casrusil.siierpai.shared.domain.valueobject.UserId;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Emisión y verificación de tokens JWT (HS256).
+ *
+ * <p>
+ * {@link #parseAndVerify(String)} verifica la firma y lee los claims una sola
+ * vez por token. Los tokens ya verificados se guardan en un caché acotado,
+ * indexado por el SHA-256 del token (el token no queda en memoria), y cada
+ * entrada expira junto con el {@code exp} del JWT. Así, las requests
+ * repetidas de una misma sesión no vuelven a pagar la verificación HMAC ni el
+ * parseo JSON. Los tokens inválidos no se cachean.
+ *
+ * <h2>Configuración:</h2>
+ * <ul>
+ * <li>{@code jwt.cache.max-size} - tokens verificados en caché (default:
+ * 10000)</li>
+ * </ul>
+ */
 @Component
 public class JwtTokenProvider {
 
     private final Key key;
     private final long expirationMillis;
+    private final JwtParser parser;
+    private final Cache<String, JwtClaims> verifiedTokens;
 
     public JwtTokenProvider(
             @Value("${jwt.secret:defaultSecretKeyMustBeLongEnoughToBeSecureAndAtLeast256Bits}") String secret,
-            @Value("${jwt.expiration:3600000}") long expirationMillis) {
+            @Value("${jwt.expiration:3600000}") long expirationMillis,
+            @Value("${jwt.cache.max-size:10000}") long cacheMaxSize) {
         if ("defaultSecretKeyMustBeLongEnoughToBeSecureAndAtLeast256Bits".equals(secret)) {
             this.key = Keys.secretKeyFor(SignatureAlgorithm.HS256); // Generate safe key if default
         } else {
             this.key = Keys.hmacShaKeyFor(secret.getBytes());
         }
         this.expirationMillis = expirationMillis;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, JwtClaims>() {
+                    @Override
+                    public long expireAfterCreate(String tokenHash, JwtClaims claims, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), claims.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String tokenHash, JwtClaims claims, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String tokenHash, JwtClaims claims, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(UserId userId, CompanyId companyId, UserRole role) {
@@ -47,26 +99,63 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifica la firma y la expiración del token y devuelve sus claims.
+     *
+     * @return los claims, o vacío si el token es inválido o expiró
+     */
+    public Optional<JwtClaims> parseAndVerify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        String tokenHash = hash(token);
+        JwtClaims cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null && !cached.isExpiredAt(Instant.now())) {
+            return Optional.of(cached);
+        }
+
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            JwtClaims claims = toJwtClaims(parser.parseClaimsJws(token).getBody());
+            verifiedTokens.put(tokenHash, claims);
+            return Optional.of(claims);
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
         }
     }
 
+    public boolean validateToken(String token) {
+        return parseAndVerify(token).isPresent();
+    }
+
     public Claims getClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public UserId getUserIdFromToken(String token) {
-        Claims claims = getClaims(token);
-        return new UserId(UUID.fromString(claims.getSubject()));
+        return parseAndVerify(token).map(JwtClaims::userId)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid JWT token"));
     }
 
     public CompanyId getCompanyIdFromToken(String token) {
-        Claims claims = getClaims(token);
-        return new CompanyId(UUID.fromString(claims.get("companyId", String.class)));
+        return parseAndVerify(token).map(JwtClaims::companyId)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid JWT token"));
+    }
+
+    private static JwtClaims toJwtClaims(Claims claims) {
+        String role = claims.get("role", String.class);
+        return new JwtClaims(
+                new UserId(UUID.fromString(claims.getSubject())),
+                new CompanyId(UUID.fromString(claims.get("companyId", String.class))),
+                role != null ? UserRole.valueOf(role) : null,
+                claims.getExpiration().toInstant());
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -1,7 +1,7 @@
 package com.casrusil.siierpai.modules.sso.infrastructure.security;
 
-import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
+import com.casrusil.siierpai.shared.infrastructure.context.UserContext;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,6 +15,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 
 /**
  * Filtro de Seguridad para autenticación JWT.
@@ -26,11 +27,12 @@ import java.util.Collections;
  * <p>
  * Si el token es válido:
  * <ul>
- * <li>Extrae la identidad del usuario y la empresa.</li>
+ * <li>Verifica el token una sola vez ({@link JwtTokenProvider#parseAndVerify})
+ * y extrae la identidad del usuario y la empresa.</li>
  * <li>Configura el contexto de seguridad de Spring
  * (SecurityContextHolder).</li>
  * <li>Inicializa el contexto de empresa (CompanyContext) para
- * multi-tenancy.</li>
+ * multi-tenancy y el de usuario (UserContext).</li>
  * </ul>
  * 
  * @see JwtService
@@ -61,19 +63,22 @@ public class SecurityFilter extends OncePerRequestFilter {
         }
 
         String token = getTokenFromRequest(request);
+        // Single signature check and parse per request (or none, if recently verified)
+        Optional<JwtClaims> verified = token != null ? jwtTokenProvider.parseAndVerify(token) : Optional.empty();
 
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            CompanyId companyId = jwtTokenProvider.getCompanyIdFromToken(token);
+        if (verified.isPresent()) {
+            JwtClaims claims = verified.get();
 
             // Set Spring Security Context (for @PreAuthorize if needed later)
             // We use a simple token here, but in a real app we might load UserDetails
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    jwtTokenProvider.getUserIdFromToken(token), null, Collections.emptyList());
+                    claims.userId(), null, Collections.emptyList());
             authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
-            // Set CompanyContext using ScopedValue
-            ScopedValue.where(CompanyContext.COMPANY_ID, companyId)
+            // Set CompanyContext and UserContext using ScopedValue
+            ScopedValue.where(CompanyContext.COMPANY_ID, claims.companyId())
+                    .where(UserContext.USER_ID, claims.userId())
                     .run(() -> {
                         // User Context population could go here if we had the name relative easily
                         // For now we rely on CompanyContext.
@@ -0,0 +1,40 @@
+package com.casrusil.siierpai.shared.domain.event;
+
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+import java.util.List;
+
+/**
+ * Listener que recibe eventos de dominio en lotes.
+ *
+ * <p>
+ * Los eventos que pasan por el outbox transaccional se agrupan por tipo y
+ * empresa, y se entregan en lotes a los listeners registrados para ese tipo.
+ * Esto permite procesar una importación masiva con concurrencia acotada, en
+ * lugar de un hilo por evento.
+ *
+ * <p>
+ * La entrega es <b>al menos una vez</b>: si el listener lanza una excepción,
+ * el lote completo se reintenta, por lo que el procesamiento debe ser
+ * idempotente o tolerar duplicados.
+ *
+ * @param <E> tipo de evento
+ * @see EventPublisher
+ * @since 1.0
+ */
+public interface BatchEventListener<E extends DomainEvent> {
+
+    /**
+     * @return El tipo de evento que procesa este listener.
+     */
+    Class<E> eventType();
+
+    /**
+     * Procesa un lote de eventos de una misma empresa.
+     *
+     * @param companyId Empresa de los eventos, o {@code null} si el evento no
+     *                  pertenece a un tenant.
+     * @param events    Eventos en orden de publicación.
+     */
+    void onEvents(CompanyId companyId, List<E> events);
+}
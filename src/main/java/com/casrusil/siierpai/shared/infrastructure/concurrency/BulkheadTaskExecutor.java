@@ -0,0 +1,332 @@
+package com.casrusil.siierpai.shared.infrastructure.concurrency;
+
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecutor asíncrono con bulkhead por categoría y por empresa.
+ *
+ * <p>
+ * Cada tarea corre en su propio Virtual Thread, pero antes de ejecutarse debe
+ * obtener dos permisos: uno de su empresa ({@code perTenantLimit}) y uno de la
+ * categoría ({@code maxConcurrent}). Ambos semáforos son justos (FIFO), de modo
+ * que una empresa con una importación masiva no puede ocupar más de su cuota
+ * y las demás siguen avanzando en orden de llegada. Así se protegen recursos
+ * compartidos como el pool de conexiones de Hikari o el servidor SMTP.
+ *
+ * <p>
+ * La empresa se toma del {@link CompanyContext} del hilo que envía la tarea, y
+ * la tarea se ejecuta dentro de ese mismo contexto. Las tareas sin empresa
+ * comparten un único bulkhead "sin tenant".
+ *
+ * <h2>Saturación:</h2>
+ * <ul>
+ * <li>Si ya hay {@code maxQueued} tareas esperando, se aplica la
+ * {@link RejectionPolicy}.</li>
+ * <li>Una tarea que espera más de {@code maxWait} se descarta y se cuenta como
+ * rechazada por timeout.</li>
+ * <li>El {@code Future} de una tarea descartada (por timeout o por
+ * {@code DISCARD}) termina con {@link TaskRejectedException}, también el
+ * {@code CompletableFuture} de los métodos {@code @Async}; un {@code Future}
+ * ajeno se cancela. Nadie queda esperando un resultado que no llegará.</li>
+ * </ul>
+ *
+ * <h2>Métricas (tag {@code category}):</h2>
+ * <ul>
+ * <li>{@code async.bulkhead.active} - tareas en ejecución</li>
+ * <li>{@code async.bulkhead.queued} - tareas esperando permiso</li>
+ * <li>{@code async.bulkhead.wait} - tiempo de espera por permiso</li>
+ * <li>{@code async.bulkhead.rejected} - tareas rechazadas, tag
+ * {@code reason}</li>
+ * </ul>
+ *
+ * @since 1.0
+ */
+public class BulkheadTaskExecutor implements AsyncTaskExecutor {
+
+    /**
+     * Qué hacer con una tarea cuando la cola del bulkhead está llena.
+     */
+    public enum RejectionPolicy {
+        /** Lanza {@link TaskRejectedException} al llamador. */
+        ABORT,
+        /** Ejecuta la tarea en el hilo del llamador (back-pressure). */
+        CALLER_RUNS,
+        /** Descarta la tarea, registrándola en log y métricas. */
+        DISCARD
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadTaskExecutor.class);
+    private static final CompanyId NO_TENANT = new CompanyId(new UUID(0L, 0L));
+
+    private final String category;
+    private final int perTenantLimit;
+    private final int maxQueued;
+    private final Duration maxWait;
+    private final RejectionPolicy rejectionPolicy;
+    private final Semaphore categoryPermits;
+    private final Map<CompanyId, TenantPermits> tenantPermits = new ConcurrentHashMap<>();
+    private final ThreadFactory threadFactory;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+    private volatile TaskDecorator taskDecorator;
+
+    public BulkheadTaskExecutor(String category, int maxConcurrent, int perTenantLimit, int maxQueued,
+            Duration maxWait, RejectionPolicy rejectionPolicy, MeterRegistry meterRegistry) {
+        this.category = category;
+        this.perTenantLimit = Math.min(perTenantLimit, maxConcurrent);
+        this.maxQueued = maxQueued;
+        this.maxWait = maxWait;
+        this.rejectionPolicy = rejectionPolicy;
+        this.categoryPermits = new Semaphore(maxConcurrent, true);
+        this.threadFactory = Thread.ofVirtual().name("async-" + category + "-", 0).factory();
+
+        Gauge.builder("async.bulkhead.active", active, AtomicInteger::get)
+                .description("Async tasks running")
+                .tag("category", category)
+                .register(meterRegistry);
+        Gauge.builder("async.bulkhead.queued", queued, AtomicInteger::get)
+                .description("Async tasks waiting for a permit")
+                .tag("category", category)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("async.bulkhead.wait")
+                .description("Time async tasks wait for a permit")
+                .tag("category", category)
+                .register(meterRegistry);
+        this.rejectedQueueFull = rejectedCounter(meterRegistry, category, "queue_full");
+        this.rejectedTimeout = rejectedCounter(meterRegistry, category, "timeout");
+    }
+
+    /**
+     * Decorador aplicado a cada tarea antes de encolarla (mismo contrato que en
+     * {@code ThreadPoolTaskExecutor}).
+     */
+    public void setTaskDecorator(TaskDecorator taskDecorator) {
+        this.taskDecorator = taskDecorator;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        CompanyId companyId = CompanyContext.getCompanyId();
+        Runnable task = taskDecorator != null ? taskDecorator.decorate(command) : command;
+
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            reject(command, task, companyId);
+            return;
+        }
+        threadFactory.newThread(() -> runGuarded(command, task, companyId)).start();
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        BulkheadFuture<Object> future = new BulkheadFuture<>(Executors.callable(task, null));
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        BulkheadFuture<T> future = new BulkheadFuture<>(task);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Void> submitCompletable(Runnable task) {
+        return submitCompletable(Executors.callable(task, null));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submitCompletable(Callable<T> task) {
+        // Spring's default goes through CompletableFuture.supplyAsync, whose future cannot be reached from here
+        CompletableTask<T> completable = new CompletableTask<>(task);
+        execute(completable);
+        return completable.future;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    private void runGuarded(Runnable command, Runnable task, CompanyId companyId) {
+        CompanyId tenant = companyId != null ? companyId : NO_TENANT;
+        TenantPermits permits = retain(tenant);
+        boolean tenantAcquired = false;
+        boolean categoryAcquired = false;
+        long start = System.nanoTime();
+        try {
+            long deadline = start + maxWait.toNanos();
+            tenantAcquired = permits.semaphore.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            categoryAcquired = tenantAcquired
+                    && categoryPermits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            queued.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        try {
+            if (!categoryAcquired) {
+                rejectedTimeout.increment();
+                logger.warn("Async task in category '{}' for company {} dropped after waiting {}",
+                        category, companyId, maxWait);
+                abandon(command, new TaskRejectedException(
+                        "Bulkhead '" + category + "' gave no permit within " + maxWait));
+                return;
+            }
+            active.incrementAndGet();
+            try {
+                runInContext(task, companyId);
+            } finally {
+                active.decrementAndGet();
+            }
+        } finally {
+            if (categoryAcquired) {
+                categoryPermits.release();
+            }
+            if (tenantAcquired) {
+                permits.semaphore.release();
+            }
+            release(tenant);
+        }
+    }
+
+    private void reject(Runnable command, Runnable task, CompanyId companyId) {
+        rejectedQueueFull.increment();
+        TaskRejectedException saturated = new TaskRejectedException(
+                "Bulkhead '" + category + "' saturated (" + maxQueued + " tasks queued)");
+        switch (rejectionPolicy) {
+            case CALLER_RUNS -> runInContext(task, companyId);
+            case DISCARD -> {
+                logger.warn("Async task in category '{}' for company {} discarded: queue full",
+                        category, companyId);
+                abandon(command, saturated);
+            }
+            case ABORT -> throw saturated;
+        }
+    }
+
+    /**
+     * Completa el {@code Future} de una tarea que nunca va a correr. Se mira el
+     * comando original: el decorador lo envuelve en otro {@code Runnable}.
+     */
+    private static void abandon(Runnable command, TaskRejectedException cause) {
+        if (command instanceof Abandonable abandonable) {
+            abandonable.abandon(cause);
+        } else if (command instanceof Future<?> future) {
+            future.cancel(false);
+        }
+    }
+
+    private static void runInContext(Runnable task, CompanyId companyId) {
+        if (companyId != null) {
+            CompanyContext.runInCompanyContext(companyId, task);
+        } else {
+            task.run();
+        }
+    }
+
+    private TenantPermits retain(CompanyId tenant) {
+        return tenantPermits.compute(tenant, (key, permits) -> {
+            TenantPermits current = permits != null ? permits : new TenantPermits(perTenantLimit);
+            current.references++;
+            return current;
+        });
+    }
+
+    private void release(CompanyId tenant) {
+        // Drop the tenant's semaphore once no task holds or waits for it
+        tenantPermits.computeIfPresent(tenant, (key, permits) -> --permits.references == 0 ? null : permits);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String category, String reason) {
+        return Counter.builder("async.bulkhead.rejected")
+                .description("Async tasks rejected by the bulkhead")
+                .tag("category", category)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tarea cuyo resultado puede terminarse sin ejecutarla.
+     */
+    private interface Abandonable {
+        void abandon(TaskRejectedException cause);
+    }
+
+    private static final class BulkheadFuture<T> extends FutureTask<T> implements Abandonable {
+        private BulkheadFuture(Callable<T> callable) {
+            super(callable);
+        }
+
+        @Override
+        public void abandon(TaskRejectedException cause) {
+            setException(cause);
+        }
+    }
+
+    private static final class CompletableTask<T> implements Runnable, Abandonable {
+        private final Callable<T> callable;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private CompletableTask(Callable<T> callable) {
+            this.callable = callable;
+        }
+
+        @Override
+        public void run() {
+            try {
+                future.complete(callable.call());
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            }
+        }
+
+        @Override
+        public void abandon(TaskRejectedException cause) {
+            future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Permisos de una empresa; {@code references} solo se modifica dentro de
+     * {@code compute}, que es atómico por clave.
+     */
+    private static final class TenantPermits {
+        private final Semaphore semaphore;
+        private int references;
+
+        private TenantPermits(int permits) {
+            this.semaphore = new Semaphore(permits, true);
+        }
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 /**
  * Configuration for Spring Scheduling.
  * Enables @Scheduled annotations for background tasks.
+ * The scheduler pool is sized by {@code spring.task.scheduling.pool.size};
+ * jobs should still hand long work to an executor and return.
  */
 @Configuration
 @EnableScheduling
@@ -1,8 +1,11 @@
 package com.casrusil.siierpai.shared.infrastructure.config;
 
+import org.flywaydb.core.Flyway;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import javax.sql.DataSource;
@@ -19,4 +22,24 @@ public class SchemaInitializer {
             jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS sso");
         };
     }
+
+    /**
+     * Aplica las migraciones de {@code db/migration} después de que Hibernate
+     * ({@code ddl-auto}) haya creado las tablas: las migraciones solo agregan
+     * columnas e índices sobre tablas existentes. Una base sin historial de
+     * Flyway se toma como versión 0, por lo que todas las migraciones se
+     * aplican (son idempotentes).
+     */
+    @Bean
+    @DependsOn("entityManagerFactory")
+    @ConditionalOnProperty(name = "schema.migrations.enabled", havingValue = "true", matchIfMissing = true)
+    public InitializingBean runMigrations(DataSource dataSource) {
+        return () -> Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
 }
@@ -1,12 +1,18 @@
 package com.casrusil.siierpai.shared.infrastructure.config;
 
+import com.casrusil.siierpai.shared.infrastructure.concurrency.BulkheadTaskExecutor;
+import com.casrusil.siierpai.shared.infrastructure.concurrency.BulkheadTaskExecutor.RejectionPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.AsyncTaskExecutor;
-import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
 
-import java.util.concurrent.Executors;
+import java.time.Duration;
 
 /**
  * Configuración de concurrencia usando Virtual Threads (Java 21+).
@@ -18,20 +24,102 @@ import java.util.concurrent.Executors;
  * con un consumo de memoria muy bajo y sin bloquear hilos del sistema
  * operativo.
  * 
- * <h2>Beneficios:</h2>
+ * <p>
+ * Los Virtual Threads son baratos, pero los recursos que usan no: cada
+ * ejecutor es un {@link BulkheadTaskExecutor} que limita la concurrencia por
+ * categoría y por empresa, para que una empresa no agote el pool de
+ * conexiones de las demás.
+ * 
+ * <h2>Ejecutores:</h2>
+ * <ul>
+ * <li>{@code applicationTaskExecutor} - {@code @Async} sin calificador
+ * (categoría {@code default}).</li>
+ * <li>{@code mailTaskExecutor} - envío de correos (SMTP).</li>
+ * <li>{@code indexingTaskExecutor} - reindexación de embeddings.</li>
+ * <li>{@code reportingTaskExecutor} - generación masiva de reportes por
+ * empresa (fan-out de schedulers).</li>
+ * </ul>
+ * 
+ * <h2>Propiedades (por categoría):</h2>
  * <ul>
- * <li>Alta escalabilidad para operaciones I/O bound.</li>
- * <li>Mejor utilización de recursos.</li>
- * <li>Elimina la necesidad de pools de hilos complejos.</li>
+ * <li>{@code async.<categoría>.max-concurrent}</li>
+ * <li>{@code async.<categoría>.per-tenant}</li>
+ * <li>{@code async.<categoría>.max-queued}</li>
+ * <li>{@code async.<categoría>.max-wait-seconds}</li>
+ * <li>{@code async.<categoría>.rejection-policy} (ABORT, CALLER_RUNS,
+ * DISCARD)</li>
  * </ul>
  * 
+ * <p>
+ * Si existe un {@link TaskDecorator} (ej. {@code QueryBudget} en desarrollo y
+ * tests), se aplica a todos los ejecutores.
+ * 
  * @since 1.0
  */
 @Configuration
 public class VirtualThreadConfig {
 
-    @Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
-    public AsyncTaskExecutor applicationTaskExecutor() {
-        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    public static final String MAIL_TASK_EXECUTOR = "mailTaskExecutor";
+    public static final String INDEXING_TASK_EXECUTOR = "indexingTaskExecutor";
+    public static final String REPORTING_TASK_EXECUTOR = "reportingTaskExecutor";
+
+    private final ObjectProvider<TaskDecorator> taskDecorator;
+
+    public VirtualThreadConfig(ObjectProvider<TaskDecorator> taskDecorator) {
+        this.taskDecorator = taskDecorator;
+    }
+
+    // Also named "taskExecutor": with several executors, @Async resolves its default by that name
+    @Bean(name = { TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME })
+    public AsyncTaskExecutor applicationTaskExecutor(MeterRegistry meterRegistry,
+            @Value("${async.default.max-concurrent:64}") int maxConcurrent,
+            @Value("${async.default.per-tenant:16}") int perTenant,
+            @Value("${async.default.max-queued:10000}") int maxQueued,
+            @Value("${async.default.max-wait-seconds:300}") long maxWaitSeconds,
+            @Value("${async.default.rejection-policy:CALLER_RUNS}") RejectionPolicy rejectionPolicy) {
+        return bulkhead("default", maxConcurrent, perTenant, maxQueued, maxWaitSeconds, rejectionPolicy,
+                meterRegistry);
+    }
+
+    @Bean(MAIL_TASK_EXECUTOR)
+    public AsyncTaskExecutor mailTaskExecutor(MeterRegistry meterRegistry,
+            @Value("${async.mail.max-concurrent:8}") int maxConcurrent,
+            @Value("${async.mail.per-tenant:2}") int perTenant,
+            @Value("${async.mail.max-queued:5000}") int maxQueued,
+            @Value("${async.mail.max-wait-seconds:600}") long maxWaitSeconds,
+            @Value("${async.mail.rejection-policy:DISCARD}") RejectionPolicy rejectionPolicy) {
+        return bulkhead("mail", maxConcurrent, perTenant, maxQueued, maxWaitSeconds, rejectionPolicy,
+                meterRegistry);
+    }
+
+    @Bean(INDEXING_TASK_EXECUTOR)
+    public AsyncTaskExecutor indexingTaskExecutor(MeterRegistry meterRegistry,
+            @Value("${async.indexing.max-concurrent:2}") int maxConcurrent,
+            @Value("${async.indexing.per-tenant:1}") int perTenant,
+            @Value("${async.indexing.max-queued:100}") int maxQueued,
+            @Value("${async.indexing.max-wait-seconds:3600}") long maxWaitSeconds,
+            @Value("${async.indexing.rejection-policy:ABORT}") RejectionPolicy rejectionPolicy) {
+        return bulkhead("indexing", maxConcurrent, perTenant, maxQueued, maxWaitSeconds, rejectionPolicy,
+                meterRegistry);
+    }
+
+    @Bean(REPORTING_TASK_EXECUTOR)
+    public AsyncTaskExecutor reportingTaskExecutor(MeterRegistry meterRegistry,
+            @Value("${async.reporting.max-concurrent:16}") int maxConcurrent,
+            @Value("${async.reporting.per-tenant:1}") int perTenant,
+            @Value("${async.reporting.max-queued:2000}") int maxQueued,
+            @Value("${async.reporting.max-wait-seconds:3600}") long maxWaitSeconds,
+            @Value("${async.reporting.rejection-policy:CALLER_RUNS}") RejectionPolicy rejectionPolicy) {
+        return bulkhead("reporting", maxConcurrent, perTenant, maxQueued, maxWaitSeconds, rejectionPolicy,
+                meterRegistry);
+    }
+
+    private BulkheadTaskExecutor bulkhead(String category, int maxConcurrent, int perTenant, int maxQueued,
+            long maxWaitSeconds, RejectionPolicy rejectionPolicy, MeterRegistry meterRegistry) {
+        BulkheadTaskExecutor executor = new BulkheadTaskExecutor(category, maxConcurrent, perTenant, maxQueued,
+                Duration.ofSeconds(maxWaitSeconds), rejectionPolicy, meterRegistry);
+        taskDecorator.ifUnique(executor::setTaskDecorator);
+        return executor;
     }
 }
@@ -75,4 +75,8 @@ public class CompanyContext {
     public static void runInCompanyContext(CompanyId companyId, Runnable action) {
         ScopedValue.where(COMPANY_ID, companyId).run(action);
     }
+
+    public static <T> T supplyInCompanyContext(CompanyId companyId, java.util.function.Supplier<T> action) {
+        return ScopedValue.where(COMPANY_ID, companyId).get(action);
+    }
 }
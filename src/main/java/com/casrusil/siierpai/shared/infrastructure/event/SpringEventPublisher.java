@@ -1,10 +1,17 @@
 package com.casrusil.siierpai.shared.infrastructure.event;
 
 import com.casrusil.siierpai.shared.domain.event.DomainEvent;
+import com.casrusil.siierpai.shared.domain.event.EventPublisher;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.infrastructure.outbox.OutboxDispatcher;
+import com.casrusil.siierpai.shared.infrastructure.outbox.OutboxEventCodec;
+import com.casrusil.siierpai.shared.infrastructure.outbox.OutboxEventCodecRegistry;
+import com.casrusil.siierpai.shared.infrastructure.outbox.OutboxEventEntity;
+import com.casrusil.siierpai.shared.infrastructure.outbox.OutboxEventJpaRepository;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
-import com.casrusil.siierpai.shared.domain.event.EventPublisher;
+import java.time.Instant;
 
 /**
  * Adaptador de infraestructura que implementa {@link EventPublisher} usando
@@ -20,15 +27,18 @@ import com.casrusil.siierpai.shared.domain.event.EventPublisher;
  * <li>Adaptar {@link EventPublisher} del dominio a Spring
  * {@link ApplicationEventPublisher}</li>
  * <li>Publicar eventos de dominio de forma asíncrona</li>
+ * <li>Persistir en el outbox los eventos que deben sobrevivir a una caída</li>
  * <li>Mantener el dominio libre de dependencias de Spring</li>
  * </ul>
  * 
  * <h2>Flujo de eventos:</h2>
  * <ol>
  * <li>Dominio publica evento vía {@link EventPublisher}</li>
- * <li>Este adapter delega a Spring {@link ApplicationEventPublisher}</li>
+ * <li>Si el evento tiene un {@link OutboxEventCodec}, se escribe en el outbox
+ * dentro de la transacción en curso; {@link OutboxDispatcher} lo entrega tras
+ * el commit</li>
+ * <li>Si no, este adapter delega a Spring {@link ApplicationEventPublisher}</li>
  * <li>Spring distribuye el evento a todos los {@code @EventListener}</li>
- * <li>Listeners procesan el evento de forma asíncrona</li>
  * </ol>
  * 
  * @see EventPublisher
@@ -39,13 +49,30 @@ import com.casrusil.siierpai.shared.domain.event.EventPublisher;
 public class SpringEventPublisher implements EventPublisher {
 
     private final ApplicationEventPublisher publisher;
+    private final OutboxEventCodecRegistry codecRegistry;
+    private final OutboxEventJpaRepository outboxRepository;
 
-    public SpringEventPublisher(ApplicationEventPublisher publisher) {
+    public SpringEventPublisher(ApplicationEventPublisher publisher, OutboxEventCodecRegistry codecRegistry,
+            OutboxEventJpaRepository outboxRepository) {
         this.publisher = publisher;
+        this.codecRegistry = codecRegistry;
+        this.outboxRepository = outboxRepository;
     }
 
     @Override
     public void publish(DomainEvent event) {
-        publisher.publishEvent(event);
+        codecRegistry.forEvent(event).ifPresentOrElse(
+                codec -> append(codec, event),
+                () -> publisher.publishEvent(event));
+    }
+
+    private <E extends DomainEvent> void append(OutboxEventCodec<E> codec, E event) {
+        // Joins the caller's transaction, so the event commits (or rolls back) with it
+        CompanyId companyId = codec.companyId(event);
+        outboxRepository.save(new OutboxEventEntity(
+                OutboxEventCodecRegistry.typeName(codec.eventType()),
+                companyId != null ? companyId.value() : null,
+                codec.encode(event),
+                Instant.now()));
     }
 }
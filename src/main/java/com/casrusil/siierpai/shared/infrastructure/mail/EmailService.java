@@ -2,6 +2,7 @@ package com.casrusil.siierpai.shared.infrastructure.mail;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import com.casrusil.siierpai.shared.infrastructure.config.VirtualThreadConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.ByteArrayResource;
@@ -23,7 +24,7 @@ public class EmailService {
         this.templateProvider = templateProvider;
     }
 
-    @Async
+    @Async(VirtualThreadConfig.MAIL_TASK_EXECUTOR)
     public void sendInvitationEmail(String to, String inviteLink,
             com.casrusil.siierpai.modules.sso.domain.model.Company company, String inviterName) {
         try {
@@ -36,7 +37,7 @@ public class EmailService {
         }
     }
 
-    @Async
+    @Async(VirtualThreadConfig.MAIL_TASK_EXECUTOR)
     public void sendWelcomeEmail(String to, String userName, String companyName) {
         try {
             String subject = "Bienvenido a SII ERP AI";
@@ -47,7 +48,7 @@ public class EmailService {
         }
     }
 
-    @Async
+    @Async(VirtualThreadConfig.MAIL_TASK_EXECUTOR)
     public void sendWeeklyReportEmail(String to, byte[] pdfAttachment, String period) {
         try {
             MimeMessage message = mailSender.createMimeMessage();
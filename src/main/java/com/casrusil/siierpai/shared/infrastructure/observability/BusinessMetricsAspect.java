@@ -0,0 +1,99 @@
+package com.casrusil.siierpai.shared.infrastructure.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Instrumenta los métodos anotados con {@link Monitored}.
+ *
+ * <p>
+ * Cada llamada abre una {@link Observation} llamada
+ * {@value #OPERATION_METRIC}, de modo que el mismo punto produce el timer de
+ * Micrometer y el span de tracing (Tempo). Los buckets SLO del timer se
+ * configuran en {@code management.metrics.distribution.slo.business.operation}.
+ *
+ * <h2>Tags (baja cardinalidad):</h2>
+ * <ul>
+ * <li>{@code module}, {@code operation} - tomados de la anotación</li>
+ * <li>{@code outcome} - {@code success}, {@code failure} (el método devolvió
+ * {@code false}) o {@code error} (lanzó una excepción)</li>
+ * </ul>
+ *
+ * <h2>Métricas:</h2>
+ * <ul>
+ * <li>{@code business.operation} - latencia por operación</li>
+ * <li>{@code business.operation.active} - llamadas en curso</li>
+ * <li>{@code business.result.size} - filas o bytes devueltos</li>
+ * </ul>
+ *
+ * @since 1.0
+ */
+@Aspect
+@Component
+public class BusinessMetricsAspect {
+
+    public static final String OPERATION_METRIC = "business.operation";
+    public static final String RESULT_SIZE_METRIC = "business.result.size";
+
+    private final ObservationRegistry observationRegistry;
+    private final MeterRegistry meterRegistry;
+
+    public BusinessMetricsAspect(ObservationRegistry observationRegistry, MeterRegistry meterRegistry) {
+        this.observationRegistry = observationRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(monitored)")
+    public Object observe(ProceedingJoinPoint joinPoint, Monitored monitored) throws Throwable {
+        Observation observation = Observation.createNotStarted(OPERATION_METRIC, observationRegistry)
+                .contextualName(monitored.module() + " " + monitored.operation())
+                .lowCardinalityKeyValue("module", monitored.module())
+                .lowCardinalityKeyValue("operation", monitored.operation())
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            Object result = joinPoint.proceed();
+            observation.lowCardinalityKeyValue("outcome", Boolean.FALSE.equals(result) ? "failure" : "success");
+            if (monitored.recordResultSize()) {
+                recordResultSize(monitored, result);
+            }
+            return result;
+        } catch (Throwable e) {
+            observation.lowCardinalityKeyValue("outcome", "error");
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private void recordResultSize(Monitored monitored, Object result) {
+        long size;
+        if (result instanceof Collection<?> collection) {
+            size = collection.size();
+        } else if (result instanceof Map<?, ?> map) {
+            size = map.size();
+        } else if (result instanceof byte[] bytes) {
+            size = bytes.length;
+        } else if (result instanceof CharSequence text) {
+            size = text.length();
+        } else {
+            return;
+        }
+        DistributionSummary.builder(RESULT_SIZE_METRIC)
+                .description("Filas, elementos o bytes devueltos por una operación de negocio")
+                .tag("module", monitored.module())
+                .tag("operation", monitored.operation())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(size);
+    }
+}
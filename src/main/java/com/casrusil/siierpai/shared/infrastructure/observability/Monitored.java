@@ -0,0 +1,35 @@
+package com.casrusil.siierpai.shared.infrastructure.observability;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un método de negocio para que {@link BusinessMetricsAspect} lo mida.
+ *
+ * <p>
+ * {@code module} y {@code operation} se publican como tags de baja
+ * cardinalidad: deben ser literales fijos, nunca IDs de empresa, folios ni
+ * períodos.
+ *
+ * @since 1.0
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Monitored {
+
+    /** Módulo dueño de la operación (ej. {@code accounting}). */
+    String module();
+
+    /** Nombre estable de la operación (ej. {@code f29.calculate}). */
+    String operation();
+
+    /**
+     * Si el resultado es una colección, mapa, arreglo de bytes o texto, registra
+     * su tamaño en {@code business.result.size}.
+     */
+    boolean recordResultSize() default true;
+}
@@ -0,0 +1,125 @@
+package com.casrusil.siierpai.shared.infrastructure.observability;
+
+import com.casrusil.siierpai.shared.infrastructure.observability.QueryCounter.QueryCount;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Presupuesto de consultas SQL por petición HTTP y por tarea {@code @Async}.
+ *
+ * <p>
+ * Pensado para desarrollo y tests: detecta patrones N+1 (la misma sentencia
+ * repetida muchas veces) antes de que lleguen a producción. Las peticiones se
+ * cuentan en {@link QueryBudgetFilter}; las tareas asíncronas, porque este
+ * componente es el {@link TaskDecorator} de los ejecutores de
+ * {@code VirtualThreadConfig}.
+ *
+ * <h2>Propiedades:</h2>
+ * <ul>
+ * <li>{@code query-budget.enabled} (default: false)</li>
+ * <li>{@code query-budget.max-per-request} (default: 50)</li>
+ * <li>{@code query-budget.max-per-task} (default: 200)</li>
+ * <li>{@code query-budget.max-repeated} (default: 10): veces que puede
+ * repetirse una misma sentencia</li>
+ * <li>{@code query-budget.fail-on-exceed} (default: false): la petición
+ * falla con {@link QueryBudgetExceededException} en lugar de solo registrar
+ * un warning; para eso el filtro retiene el cuerpo de la respuesta en memoria
+ * hasta verificar el conteo. Las tareas asíncronas siempre se limitan al
+ * warning.</li>
+ * </ul>
+ *
+ * <h2>Métricas:</h2>
+ * <ul>
+ * <li>{@code db.queries.per.unit} - sentencias por petición o tarea, tag
+ * {@code unit} ({@code request}, {@code task})</li>
+ * </ul>
+ *
+ * @since 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "query-budget.enabled", havingValue = "true")
+public class QueryBudget implements TaskDecorator {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudget.class);
+
+    private final int maxPerRequest;
+    private final int maxPerTask;
+    private final int maxRepeated;
+    private final boolean failOnExceed;
+    private final DistributionSummary requestQueries;
+    private final DistributionSummary taskQueries;
+
+    public QueryBudget(MeterRegistry meterRegistry,
+            @Value("${query-budget.max-per-request:50}") int maxPerRequest,
+            @Value("${query-budget.max-per-task:200}") int maxPerTask,
+            @Value("${query-budget.max-repeated:10}") int maxRepeated,
+            @Value("${query-budget.fail-on-exceed:false}") boolean failOnExceed) {
+        this.maxPerRequest = maxPerRequest;
+        this.maxPerTask = maxPerTask;
+        this.maxRepeated = maxRepeated;
+        this.failOnExceed = failOnExceed;
+        this.requestQueries = queriesSummary(meterRegistry, "request");
+        this.taskQueries = queriesSummary(meterRegistry, "task");
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        return () -> {
+            QueryCount count = QueryCounter.start("task " + Thread.currentThread().getName());
+            try {
+                task.run();
+            } finally {
+                QueryCounter.stop(count);
+                taskQueries.record(count.total());
+                check(count, maxPerTask, false);
+            }
+        };
+    }
+
+    /**
+     * Si una petición que excede el presupuesto debe fallar (y no solo
+     * registrar un warning).
+     */
+    public boolean failsOnExceed() {
+        return failOnExceed;
+    }
+
+    /**
+     * Verifica el conteo de una petición HTTP ya terminada.
+     */
+    public void checkRequest(QueryCount count) {
+        requestQueries.record(count.total());
+        check(count, maxPerRequest, failOnExceed);
+    }
+
+    private void check(QueryCount count, int maxTotal, boolean fail) {
+        String violation = null;
+        if (count.total() > maxTotal) {
+            violation = String.format("%s executed %d SQL statements (budget %d)",
+                    count.label(), count.total(), maxTotal);
+        } else if (count.maxRepeated() > maxRepeated) {
+            violation = String.format("%s executed the same statement %d times (budget %d), likely N+1: %s",
+                    count.label(), count.maxRepeated(), maxRepeated, count.mostRepeatedStatement());
+        }
+        if (violation == null) {
+            return;
+        }
+        if (fail) {
+            throw new QueryBudgetExceededException(violation);
+        }
+        logger.warn("Query budget exceeded: {}", violation);
+    }
+
+    private static DistributionSummary queriesSummary(MeterRegistry meterRegistry, String unit) {
+        return DistributionSummary.builder("db.queries.per.unit")
+                .description("SQL statements per HTTP request or async task")
+                .tag("unit", unit)
+                .register(meterRegistry);
+    }
+}
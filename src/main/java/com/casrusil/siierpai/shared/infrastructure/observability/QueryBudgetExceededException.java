@@ -0,0 +1,14 @@
+package com.casrusil.siierpai.shared.infrastructure.observability;
+
+/**
+ * Lanzada cuando una petición o tarea supera su presupuesto de consultas SQL
+ * y {@code query-budget.fail-on-exceed} está activo.
+ *
+ * @since 1.0
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,76 @@
+package com.casrusil.siierpai.shared.infrastructure.observability;
+
+import com.casrusil.siierpai.shared.infrastructure.observability.QueryCounter.QueryCount;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+
+/**
+ * Cuenta las sentencias SQL de cada petición HTTP y las valida contra
+ * {@link QueryBudget}. Solo existe cuando {@code query-budget.enabled=true}.
+ *
+ * <p>
+ * Con {@code query-budget.fail-on-exceed} el cuerpo de la respuesta se
+ * retiene en un {@link ContentCachingResponseWrapper} y solo se envía después
+ * de verificar el conteo: si el presupuesto se excede, la respuesta aún no
+ * está confirmada y la petición termina en error. En las peticiones
+ * asíncronas el cuerpo se envía al terminar el último despacho.
+ *
+ * @since 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "query-budget.enabled", havingValue = "true")
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private final QueryBudget queryBudget;
+
+    public QueryBudgetFilter(QueryBudget queryBudget) {
+        this.queryBudget = queryBudget;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return !queryBudget.failsOnExceed();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            // El conteo se verificó en el despacho inicial; solo queda enviar el cuerpo retenido
+            filterChain.doFilter(request, response);
+            copyBodyWhenComplete(request, response);
+            return;
+        }
+
+        HttpServletResponse target = queryBudget.failsOnExceed() ? new ContentCachingResponseWrapper(response)
+                : response;
+        QueryCount count = QueryCounter.start(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            QueryCounter.stop(count);
+        }
+        queryBudget.checkRequest(count);
+        copyBodyWhenComplete(request, target);
+    }
+
+    private void copyBodyWhenComplete(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (isAsyncStarted(request)) {
+            return;
+        }
+        ContentCachingResponseWrapper buffered = WebUtils.getNativeResponse(response,
+                ContentCachingResponseWrapper.class);
+        if (buffered != null) {
+            buffered.copyBodyToResponse();
+        }
+    }
+}
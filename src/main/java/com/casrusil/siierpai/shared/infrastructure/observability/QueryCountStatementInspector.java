@@ -0,0 +1,23 @@
+package com.casrusil.siierpai.shared.infrastructure.observability;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * {@link StatementInspector} de Hibernate que alimenta {@link QueryCounter}.
+ *
+ * <p>
+ * Se registra por nombre de clase en
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector},
+ * de modo que también queda activo en los tests de slice. No modifica el SQL
+ * y, sin un ámbito abierto, su costo es una consulta a un {@code ThreadLocal}.
+ *
+ * @since 1.0
+ */
+public class QueryCountStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.record(sql);
+        return sql;
+    }
+}
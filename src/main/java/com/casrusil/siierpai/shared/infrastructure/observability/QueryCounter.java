@@ -0,0 +1,126 @@
+package com.casrusil.siierpai.shared.infrastructure.observability;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cuenta las sentencias SQL ejecutadas por el hilo actual.
+ *
+ * <p>
+ * {@link QueryCountStatementInspector} llama a {@link #record(String)} por
+ * cada sentencia que prepara Hibernate. Solo se cuenta mientras haya un
+ * ámbito abierto con {@link #start(String)}; los ámbitos se pueden anidar
+ * (un test que envuelve una petición HTTP, por ejemplo) y cada sentencia se
+ * suma a todos los ámbitos abiertos del hilo.
+ *
+ * <p>
+ * Además del total, se agrupan las sentencias por texto: Hibernate usa
+ * parámetros {@code ?}, así que la misma consulta ejecutada muchas veces en
+ * un ámbito es la firma de un N+1.
+ *
+ * @since 1.0
+ */
+public final class QueryCounter {
+
+    // Sin valor inicial: en un hilo sin ámbito abierto, record() solo lee null
+    private static final ThreadLocal<Deque<QueryCount>> SCOPES = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    /**
+     * Abre un ámbito de conteo en el hilo actual. Debe cerrarse con
+     * {@link #stop(QueryCount)} en un bloque {@code finally}.
+     */
+    public static QueryCount start(String label) {
+        QueryCount count = new QueryCount(label);
+        Deque<QueryCount> scopes = SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            SCOPES.set(scopes);
+        }
+        scopes.push(count);
+        return count;
+    }
+
+    /**
+     * Cierra el ámbito (y los anidados que hayan quedado abiertos).
+     */
+    public static QueryCount stop(QueryCount count) {
+        Deque<QueryCount> scopes = SCOPES.get();
+        if (scopes == null) {
+            return count;
+        }
+        if (scopes.contains(count)) {
+            while (scopes.pop() != count) {
+                // descarta ámbitos internos no cerrados
+            }
+        }
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+        }
+        return count;
+    }
+
+    static void record(String sql) {
+        Deque<QueryCount> scopes = SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+        for (QueryCount count : scopes) {
+            count.add(sql);
+        }
+    }
+
+    /**
+     * Resultado de un ámbito de conteo. Solo lo usa el hilo que lo abrió.
+     */
+    public static final class QueryCount {
+
+        private final String label;
+        private final Map<String, Integer> statements = new HashMap<>();
+        private int total;
+
+        private QueryCount(String label) {
+            this.label = label;
+        }
+
+        private void add(String sql) {
+            total++;
+            statements.merge(sql, 1, Integer::sum);
+        }
+
+        public String label() {
+            return label;
+        }
+
+        public int total() {
+            return total;
+        }
+
+        /**
+         * Veces que se ejecutó la sentencia más repetida.
+         */
+        public int maxRepeated() {
+            return statements.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        }
+
+        /**
+         * Texto de la sentencia más repetida, o {@code null} si no hubo
+         * sentencias.
+         */
+        public String mostRepeatedStatement() {
+            return statements.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(Map.Entry::getKey)
+                    .orElse(null);
+        }
+
+        @Override
+        public String toString() {
+            return label + ": " + total + " queries (max repeated " + maxRepeated() + ")";
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.casrusil.siierpai.shared.infrastructure.outbox;
+
+import com.casrusil.siierpai.shared.domain.event.DomainEvent;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Codec que guarda el evento completo como JSON.
+ * Adecuado para eventos {@code record} compuestos solo de valores.
+ *
+ * @param <E> tipo de evento
+ * @since 1.0
+ */
+public class JacksonOutboxEventCodec<E extends DomainEvent> implements OutboxEventCodec<E> {
+
+    private final Class<E> eventType;
+    private final ObjectMapper objectMapper;
+    private final Function<E, CompanyId> companyIdExtractor;
+
+    public JacksonOutboxEventCodec(Class<E> eventType, ObjectMapper objectMapper,
+            Function<E, CompanyId> companyIdExtractor) {
+        this.eventType = eventType;
+        this.objectMapper = objectMapper;
+        this.companyIdExtractor = companyIdExtractor;
+    }
+
+    @Override
+    public Class<E> eventType() {
+        return eventType;
+    }
+
+    @Override
+    public CompanyId companyId(E event) {
+        return companyIdExtractor.apply(event);
+    }
+
+    @Override
+    public String encode(E event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + eventType.getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public Optional<E> decode(String payload) {
+        try {
+            return Optional.of(objectMapper.readValue(payload, eventType));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot deserialize " + eventType.getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.casrusil.siierpai.shared.infrastructure.outbox;
+
+import com.casrusil.siierpai.shared.domain.event.BatchEventListener;
+import com.casrusil.siierpai.shared.domain.event.DomainEvent;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Despacha los eventos del outbox transaccional.
+ *
+ * <p>
+ * En cada ciclo toma hasta {@code batch-size × concurrency} filas con
+ * {@code SELECT ... FOR UPDATE SKIP LOCKED} y las marca {@code PROCESSING} con
+ * un lease, de modo que varias instancias pueden despachar en paralelo sin
+ * tomar la misma fila. Las filas se agrupan por tipo de evento y empresa en
+ * lotes de hasta {@code batch-size}, que se procesan en un pool fijo de
+ * {@code concurrency} hilos (la concurrencia hacia la base de datos queda
+ * acotada, aunque una importación publique miles de eventos).
+ *
+ * <p>
+ * Cada lote se entrega primero a los {@link BatchEventListener} de su tipo y,
+ * si todos terminan bien, a los {@code @EventListener} en memoria. Un lote
+ * fallido vuelve a {@code PENDING} con backoff exponencial; tras
+ * {@code max-attempts} intentos queda en {@code FAILED} para revisión manual.
+ *
+ * <h2>Configuración:</h2>
+ * <ul>
+ * <li>{@code outbox.dispatcher.poll-interval-ms} - pausa entre ciclos</li>
+ * <li>{@code outbox.dispatcher.batch-size} - eventos por lote</li>
+ * <li>{@code outbox.dispatcher.concurrency} - lotes en paralelo</li>
+ * <li>{@code outbox.dispatcher.max-attempts} - intentos antes de FAILED</li>
+ * <li>{@code outbox.dispatcher.retry-backoff-ms} - backoff base</li>
+ * <li>{@code outbox.dispatcher.lease-seconds} - lease de una fila tomada</li>
+ * <li>{@code outbox.retention-days} - días que se guardan las filas
+ * despachadas</li>
+ * </ul>
+ *
+ * @since 1.0
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+    private static final long MAX_BACKOFF_MILLIS = Duration.ofHours(1).toMillis();
+
+    private final OutboxEventJpaRepository outboxRepository;
+    private final OutboxEventCodecRegistry codecRegistry;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Class<?>, List<BatchEventListener<?>>> listenersByType = new HashMap<>();
+    private final int batchSize;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final Duration lease;
+    private final Duration retention;
+    private final ExecutorService workers;
+
+    private final Counter dispatchedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    public OutboxDispatcher(OutboxEventJpaRepository outboxRepository,
+            OutboxEventCodecRegistry codecRegistry,
+            List<BatchEventListener<?>> batchListeners,
+            ApplicationEventPublisher applicationEventPublisher,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.dispatcher.batch-size:100}") int batchSize,
+            @Value("${outbox.dispatcher.concurrency:4}") int concurrency,
+            @Value("${outbox.dispatcher.max-attempts:8}") int maxAttempts,
+            @Value("${outbox.dispatcher.retry-backoff-ms:1000}") long retryBackoffMillis,
+            @Value("${outbox.dispatcher.lease-seconds:300}") long leaseSeconds,
+            @Value("${outbox.retention-days:7}") long retentionDays) {
+        this.outboxRepository = outboxRepository;
+        this.codecRegistry = codecRegistry;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        for (BatchEventListener<?> listener : batchListeners) {
+            listenersByType.computeIfAbsent(listener.eventType(), type -> new ArrayList<>()).add(listener);
+        }
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.retention = Duration.ofDays(retentionDays);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "outbox-dispatcher-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.dispatchedCounter = outcomeCounter(meterRegistry, "dispatched");
+        this.retriedCounter = outcomeCounter(meterRegistry, "retried");
+        this.failedCounter = outcomeCounter(meterRegistry, "failed");
+        this.batchTimer = Timer.builder("outbox.batch")
+                .description("Time to deliver one batch of outbox events")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.dispatcher.poll-interval-ms:500}")
+    public void poll() {
+        try {
+            // Keep draining while full claims come back, so a backlog does not wait a poll interval per claim
+            while (dispatchOnce() == batchSize * concurrency) {
+                logger.debug("Outbox backlog, dispatching next claim");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Outbox dispatch cycle failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${outbox.cleanup-cron:0 30 3 * * *}")
+    public void purgeDispatched() {
+        int deleted = transactionTemplate.execute(status -> outboxRepository
+                .deleteByStatusAndDispatchedAtBefore(OutboxEventEntity.Status.DISPATCHED,
+                        Instant.now().minus(retention)));
+        logger.info("Purged {} dispatched outbox events", deleted);
+    }
+
+    /**
+     * Claims and delivers one round of events.
+     *
+     * @return number of rows claimed
+     */
+    public int dispatchOnce() throws InterruptedException {
+        List<OutboxEventEntity> claimed = transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<OutboxEventEntity> rows = outboxRepository.lockNextAvailable(now, batchSize * concurrency);
+            rows.forEach(row -> row.claim(now.plus(lease)));
+            return outboxRepository.saveAll(rows);
+        });
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (List<OutboxEventEntity> batch : groupIntoBatches(claimed)) {
+            futures.add(workers.submit(() -> deliver(batch)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                logger.error("Outbox batch failed unexpectedly: {}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+        return claimed.size();
+    }
+
+    private List<List<OutboxEventEntity>> groupIntoBatches(List<OutboxEventEntity> rows) {
+        Map<BatchKey, List<OutboxEventEntity>> groups = new LinkedHashMap<>();
+        for (OutboxEventEntity row : rows) {
+            groups.computeIfAbsent(new BatchKey(row.getEventType(), row.getCompanyId()), key -> new ArrayList<>())
+                    .add(row);
+        }
+        List<List<OutboxEventEntity>> batches = new ArrayList<>();
+        for (List<OutboxEventEntity> group : groups.values()) {
+            for (int from = 0; from < group.size(); from += batchSize) {
+                batches.add(group.subList(from, Math.min(from + batchSize, group.size())));
+            }
+        }
+        return batches;
+    }
+
+    private void deliver(List<OutboxEventEntity> batch) {
+        OutboxEventEntity first = batch.get(0);
+        OutboxEventCodec<?> codec = codecRegistry.forTypeName(first.getEventType()).orElse(null);
+        if (codec == null) {
+            fail(batch, "No outbox codec registered for " + first.getEventType());
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            // One decode per batch so reference codecs reload all their aggregates in a single query
+            List<DomainEvent> events = List.copyOf(
+                    codec.decodeAll(batch.stream().map(OutboxEventEntity::getPayload).toList()));
+
+            CompanyId companyId = first.getCompanyId() != null ? new CompanyId(first.getCompanyId()) : null;
+            if (!events.isEmpty()) {
+                if (companyId != null) {
+                    CompanyContext.runInCompanyContext(companyId, () -> notifyListeners(codec, companyId, events));
+                } else {
+                    notifyListeners(codec, null, events);
+                }
+            }
+
+            Instant now = Instant.now();
+            batch.forEach(row -> row.markDispatched(now));
+            outboxRepository.saveAll(batch);
+            dispatchedCounter.increment(batch.size());
+        } catch (Exception e) {
+            logger.warn("Failed to deliver {} {} events (attempt {}): {}",
+                    batch.size(), first.getEventType(), first.getAttempts() + 1, e.getMessage());
+            retryOrFail(batch, e.toString());
+        } finally {
+            batchTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void notifyListeners(OutboxEventCodec<?> codec, CompanyId companyId, List<DomainEvent> events) {
+        for (BatchEventListener listener : listenersByType.getOrDefault(codec.eventType(), List.of())) {
+            listener.onEvents(companyId, events);
+        }
+        // Plain in-process @EventListeners still receive each event, now after commit
+        events.forEach(applicationEventPublisher::publishEvent);
+    }
+
+    private void retryOrFail(List<OutboxEventEntity> batch, String error) {
+        Instant now = Instant.now();
+        for (OutboxEventEntity row : batch) {
+            if (row.getAttempts() + 1 >= maxAttempts) {
+                row.markFailed(error);
+                failedCounter.increment();
+                logger.error("Giving up outbox event {} ({}) after {} attempts",
+                        row.getId(), row.getEventType(), row.getAttempts());
+            } else {
+                long backoff = Math.min(MAX_BACKOFF_MILLIS, retryBackoffMillis << Math.min(row.getAttempts(), 20));
+                row.markRetry(now.plusMillis(backoff), error);
+                retriedCounter.increment();
+            }
+        }
+        outboxRepository.saveAll(batch);
+    }
+
+    private void fail(List<OutboxEventEntity> batch, String error) {
+        logger.error("{}; marking {} events as failed", error, batch.size());
+        batch.forEach(row -> row.markFailed(error));
+        failedCounter.increment(batch.size());
+        outboxRepository.saveAll(batch);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("outbox.events")
+                .description("Outbox events processed by the dispatcher")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record BatchKey(String eventType, UUID companyId) {
+    }
+}
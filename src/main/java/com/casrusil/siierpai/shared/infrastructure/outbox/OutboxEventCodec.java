@@ -0,0 +1,50 @@
+package com.casrusil.siierpai.shared.infrastructure.outbox;
+
+import com.casrusil.siierpai.shared.domain.event.DomainEvent;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serializa un tipo de evento de dominio hacia y desde el outbox.
+ *
+ * <p>
+ * Solo los eventos con un codec registrado como bean pasan por el outbox; el
+ * resto se sigue publicando en memoria. El payload puede ser el evento
+ * completo o una referencia al agregado, que se recarga al despachar (la fila
+ * del outbox se confirma en la misma transacción que el agregado).
+ *
+ * @param <E> tipo de evento
+ * @since 1.0
+ */
+public interface OutboxEventCodec<E extends DomainEvent> {
+
+    Class<E> eventType();
+
+    /**
+     * Empresa a la que pertenece el evento, usada para agrupar los lotes.
+     */
+    CompanyId companyId(E event);
+
+    String encode(E event);
+
+    /**
+     * @return El evento, o vacío si el agregado referenciado ya no existe.
+     */
+    Optional<E> decode(String payload);
+
+    /**
+     * Decodifica un lote de payloads del mismo tipo, en el mismo orden.
+     *
+     * <p>
+     * Por defecto llama a {@link #decode(String)} por cada fila; los codecs
+     * que guardan una referencia deben sobrescribirlo para recargar todos los
+     * agregados del lote con una sola consulta.
+     *
+     * @return Los eventos cuyos agregados aún existen
+     */
+    default List<E> decodeAll(List<String> payloads) {
+        return payloads.stream().map(this::decode).flatMap(Optional::stream).toList();
+    }
+}
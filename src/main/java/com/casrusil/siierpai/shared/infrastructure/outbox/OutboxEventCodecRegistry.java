@@ -0,0 +1,44 @@
+package com.casrusil.siierpai.shared.infrastructure.outbox;
+
+import com.casrusil.siierpai.shared.domain.event.DomainEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Índice de los {@link OutboxEventCodec} registrados, por clase de evento y por
+ * nombre de tipo persistido.
+ *
+ * @since 1.0
+ */
+@Component
+public class OutboxEventCodecRegistry {
+
+    private final Map<Class<?>, OutboxEventCodec<?>> byClass = new HashMap<>();
+    private final Map<String, OutboxEventCodec<?>> byTypeName = new HashMap<>();
+
+    public OutboxEventCodecRegistry(List<OutboxEventCodec<?>> codecs) {
+        for (OutboxEventCodec<?> codec : codecs) {
+            if (byClass.put(codec.eventType(), codec) != null) {
+                throw new IllegalStateException("Duplicate outbox codec for " + codec.eventType().getName());
+            }
+            byTypeName.put(typeName(codec.eventType()), codec);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <E extends DomainEvent> Optional<OutboxEventCodec<E>> forEvent(E event) {
+        return Optional.ofNullable((OutboxEventCodec<E>) byClass.get(event.getClass()));
+    }
+
+    public Optional<OutboxEventCodec<?>> forTypeName(String typeName) {
+        return Optional.ofNullable(byTypeName.get(typeName));
+    }
+
+    public static String typeName(Class<?> eventType) {
+        return eventType.getName();
+    }
+}
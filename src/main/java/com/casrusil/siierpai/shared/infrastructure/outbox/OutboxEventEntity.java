@@ -0,0 +1,141 @@
+package com.casrusil.siierpai.shared.infrastructure.outbox;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Entidad JPA de un evento pendiente de despacho (transactional outbox).
+ *
+ * <p>
+ * {@code available_at} indica cuándo la fila puede tomarse: para filas
+ * {@code PENDING} es el próximo intento (backoff); para filas
+ * {@code PROCESSING} es el fin del lease, tras el cual otro dispatcher puede
+ * retomarla si el primero cayó.
+ *
+ * @since 1.0
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_status_available", columnList = "status, available_at")
+})
+public class OutboxEventEntity {
+
+    public enum Status {
+        PENDING, PROCESSING, DISPATCHED, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(name = "company_id")
+    private UUID companyId;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "available_at", nullable = false)
+    private Instant availableAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "dispatched_at")
+    private Instant dispatchedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public OutboxEventEntity() {
+    }
+
+    public OutboxEventEntity(String eventType, UUID companyId, String payload, Instant createdAt) {
+        this.eventType = eventType;
+        this.companyId = companyId;
+        this.payload = payload;
+        this.status = Status.PENDING;
+        this.attempts = 0;
+        this.availableAt = createdAt;
+        this.createdAt = createdAt;
+    }
+
+    public void claim(Instant leaseUntil) {
+        this.status = Status.PROCESSING;
+        this.availableAt = leaseUntil;
+    }
+
+    public void markDispatched(Instant now) {
+        this.status = Status.DISPATCHED;
+        this.dispatchedAt = now;
+        this.lastError = null;
+    }
+
+    public void markRetry(Instant nextAttempt, String error) {
+        this.attempts++;
+        this.status = Status.PENDING;
+        this.availableAt = nextAttempt;
+        this.lastError = truncate(error);
+    }
+
+    public void markFailed(String error) {
+        this.attempts++;
+        this.status = Status.FAILED;
+        this.lastError = truncate(error);
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public Instant getAvailableAt() {
+        return availableAt;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getDispatchedAt() {
+        return dispatchedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
@@ -0,0 +1,33 @@
+package com.casrusil.siierpai.shared.infrastructure.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OutboxEventJpaRepository extends JpaRepository<OutboxEventEntity, Long> {
+
+    /**
+     * Bloquea las próximas filas disponibles. Las filas ya bloqueadas por otro
+     * dispatcher se saltan ({@code SKIP LOCKED}) en lugar de esperar.
+     * Debe ejecutarse dentro de una transacción.
+     */
+    @Query(value = """
+            SELECT * FROM outbox_events
+            WHERE status IN ('PENDING', 'PROCESSING') AND available_at <= :now
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxEventEntity> lockNextAvailable(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEventEntity e WHERE e.status = :status AND e.dispatchedAt < :before")
+    int deleteByStatusAndDispatchedAtBefore(@Param("status") OutboxEventEntity.Status status,
+            @Param("before") Instant before);
+}
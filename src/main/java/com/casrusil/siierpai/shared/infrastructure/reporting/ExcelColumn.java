@@ -0,0 +1,23 @@
+package com.casrusil.siierpai.shared.infrastructure.reporting;
+
+import java.util.function.Function;
+
+/**
+ * Columna de una exportación a Excel.
+ *
+ * @param header    título de la columna
+ * @param extractor valor de la celda para una fila
+ * @param width     ancho fijo en caracteres; {@code 0} para calcularlo a
+ *                  partir de las primeras filas exportadas
+ * @param <T>       tipo de las filas exportadas
+ */
+public record ExcelColumn<T>(String header, Function<T, Object> extractor, int width) {
+
+    public static <T> ExcelColumn<T> of(String header, Function<T, Object> extractor) {
+        return new ExcelColumn<>(header, extractor, 0);
+    }
+
+    public static <T> ExcelColumn<T> of(String header, Function<T, Object> extractor, int width) {
+        return new ExcelColumn<>(header, extractor, width);
+    }
+}
@@ -1,76 +1,85 @@
 package com.casrusil.siierpai.shared.infrastructure.reporting;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * Motor de exportación a Excel en streaming.
+ *
+ * <p>
+ * Las exportaciones se escriben con un {@link ExcelSheetWriter} directamente
+ * en el stream de salida (por ejemplo, la respuesta HTTP), de modo que la
+ * memoria no crece con el número de filas. Sirve para cualquier listado
+ * (ventas, libro mayor, socios, cartola bancaria) describiendo sus columnas
+ * con {@link ExcelColumn}.
+ *
+ * <h2>Configuración:</h2>
+ * <ul>
+ * <li>{@code reporting.excel.window-size} - filas que se mantienen en
+ * memoria</li>
+ * <li>{@code reporting.excel.sample-rows} - filas usadas para estimar el ancho
+ * de las columnas</li>
+ * <li>{@code reporting.excel.max-column-width} - ancho máximo estimado, en
+ * caracteres</li>
+ * </ul>
+ */
 @Service
 public class ExcelExportService {
 
-    public byte[] generateExcel(String sheetName, List<String> headers, List<List<Object>> data) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Sheet sheet = workbook.createSheet(sheetName);
-
-            // Create Header Row
-            Row headerRow = sheet.createRow(0);
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font font = workbook.createFont();
-            font.setBold(true);
-            headerStyle.setFont(font);
-
-            for (int i = 0; i < headers.size(); i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers.get(i));
-                cell.setCellStyle(headerStyle);
-            }
+    private final int windowSize;
+    private final int sampleRows;
+    private final int maxColumnWidth;
 
-            // Create Data Rows
-            int rowNum = 1;
-            for (List<Object> rowData : data) {
-                Row row = sheet.createRow(rowNum++);
-                int colNum = 0;
-                for (Object field : rowData) {
-                    Cell cell = row.createCell(colNum++);
-                    setCellValue(cell, field);
-                }
-            }
+    public ExcelExportService(
+            @Value("${reporting.excel.window-size:100}") int windowSize,
+            @Value("${reporting.excel.sample-rows:200}") int sampleRows,
+            @Value("${reporting.excel.max-column-width:60}") int maxColumnWidth) {
+        this.windowSize = windowSize;
+        this.sampleRows = sampleRows;
+        this.maxColumnWidth = maxColumnWidth;
+    }
 
-            // Autosize columns
-            for (int i = 0; i < headers.size(); i++) {
-                sheet.autoSizeColumn(i);
-            }
+    /**
+     * Abre una hoja para escribir fila a fila; al cerrarla el libro se escribe
+     * en {@code out}.
+     */
+    public <T> ExcelSheetWriter<T> openSheet(String sheetName, List<ExcelColumn<T>> columns, OutputStream out) {
+        return new ExcelSheetWriter<>(sheetName, columns, out, windowSize, sampleRows, maxColumnWidth);
+    }
 
-            workbook.write(out);
-            return out.toByteArray();
+    /**
+     * Exporta todas las filas del stream; el llamador sigue siendo dueño del
+     * stream y debe cerrarlo.
+     *
+     * @return filas exportadas
+     */
+    public <T> int export(String sheetName, List<ExcelColumn<T>> columns, Stream<T> rows, OutputStream out)
+            throws IOException {
+        try (ExcelSheetWriter<T> writer = openSheet(sheetName, columns, out)) {
+            rows.forEachOrdered(writer::write);
+            return writer.getRowCount();
         }
     }
 
-    private void setCellValue(Cell cell, Object value) {
-        if (value instanceof String) {
-            cell.setCellValue((String) value);
-        } else if (value instanceof Integer) {
-            cell.setCellValue((Integer) value);
-        } else if (value instanceof Long) {
-            cell.setCellValue((Long) value);
-        } else if (value instanceof Double) {
-            cell.setCellValue((Double) value);
-        } else if (value instanceof BigDecimal) {
-            cell.setCellValue(((BigDecimal) value).doubleValue());
-        } else if (value instanceof Boolean) {
-            cell.setCellValue((Boolean) value);
-        } else if (value instanceof LocalDate) {
-            cell.setCellValue(value.toString());
-        } else if (value instanceof LocalDateTime) {
-            cell.setCellValue(value.toString());
-        } else if (value != null) {
-            cell.setCellValue(value.toString());
+    /**
+     * Genera el libro completo en memoria. Solo para listados pequeños; los
+     * reportes grandes deben usar {@link #export} hacia el stream de salida.
+     */
+    public byte[] generateExcel(String sheetName, List<String> headers, List<List<Object>> data) throws IOException {
+        List<ExcelColumn<List<Object>>> columns = new ArrayList<>(headers.size());
+        for (int i = 0; i < headers.size(); i++) {
+            int index = i;
+            columns.add(ExcelColumn.of(headers.get(i), row -> index < row.size() ? row.get(index) : null));
         }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export(sheetName, columns, data.stream(), out);
+        return out.toByteArray();
     }
 }
@@ -0,0 +1,146 @@
+package com.casrusil.siierpai.shared.infrastructure.reporting;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Escribe una hoja de Excel fila a fila con memoria acotada.
+ *
+ * <p>
+ * Usa un {@link SXSSFWorkbook}: solo las últimas {@code windowSize} filas
+ * quedan en memoria y el resto se vuelca a un archivo temporal comprimido. El
+ * ancho de cada columna se estima con el largo del texto de las primeras
+ * {@code sampleRows} filas, en vez de {@code autoSizeColumn} (que mide cada
+ * celda con las métricas de fuentes de AWT y necesita todas las filas en
+ * memoria).
+ *
+ * <p>
+ * {@link #close()} escribe el libro en el stream de salida y borra los
+ * temporales; el stream de salida no se cierra.
+ *
+ * @param <T> tipo de las filas exportadas
+ */
+public class ExcelSheetWriter<T> implements Closeable {
+
+    /** Límite de Excel para el ancho de columna, en caracteres. */
+    private static final int MAX_WIDTH_CHARS = 255;
+    private static final int PADDING_CHARS = 2;
+
+    private final SXSSFWorkbook workbook;
+    private final SXSSFSheet sheet;
+    private final List<ExcelColumn<T>> columns;
+    private final OutputStream out;
+    private final int sampleRows;
+    private final int maxWidthChars;
+    private final int[] sampledWidths;
+    private int rowNum;
+
+    ExcelSheetWriter(String sheetName, List<ExcelColumn<T>> columns, OutputStream out, int windowSize,
+            int sampleRows, int maxWidthChars) {
+        this.workbook = new SXSSFWorkbook(windowSize);
+        this.workbook.setCompressTempFiles(true);
+        this.sheet = workbook.createSheet(sheetName);
+        this.columns = columns;
+        this.out = out;
+        this.sampleRows = sampleRows;
+        this.maxWidthChars = Math.min(maxWidthChars, MAX_WIDTH_CHARS);
+        this.sampledWidths = new int[columns.size()];
+        writeHeader();
+    }
+
+    private void writeHeader() {
+        CellStyle headerStyle = workbook.createCellStyle();
+        Font font = workbook.createFont();
+        font.setBold(true);
+        headerStyle.setFont(font);
+
+        Row headerRow = sheet.createRow(rowNum++);
+        for (int i = 0; i < columns.size(); i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(columns.get(i).header());
+            cell.setCellStyle(headerStyle);
+            sampledWidths[i] = columns.get(i).header().length();
+        }
+    }
+
+    /**
+     * Agrega una fila al final de la hoja.
+     */
+    public void write(T item) {
+        boolean sampling = rowNum <= sampleRows;
+        Row row = sheet.createRow(rowNum++);
+        for (int i = 0; i < columns.size(); i++) {
+            Object value = columns.get(i).extractor().apply(item);
+            setCellValue(row.createCell(i), value);
+            if (sampling && value != null) {
+                sampledWidths[i] = Math.max(sampledWidths[i], displayLength(value));
+            }
+        }
+    }
+
+    /**
+     * Filas de datos escritas (sin contar el encabezado).
+     */
+    public int getRowCount() {
+        return rowNum - 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            for (int i = 0; i < columns.size(); i++) {
+                int width = columns.get(i).width() > 0
+                        ? columns.get(i).width()
+                        : Math.min(sampledWidths[i] + PADDING_CHARS, maxWidthChars);
+                sheet.setColumnWidth(i, Math.min(width, MAX_WIDTH_CHARS) * 256);
+            }
+            workbook.write(out);
+            out.flush();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static int displayLength(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            // Excel shows the number with its grouping separators
+            return decimal.toBigInteger().toString().length() * 4 / 3 + 1;
+        }
+        return value.toString().length();
+    }
+
+    private static void setCellValue(Cell cell, Object value) {
+        if (value instanceof String) {
+            cell.setCellValue((String) value);
+        } else if (value instanceof Integer) {
+            cell.setCellValue((Integer) value);
+        } else if (value instanceof Long) {
+            cell.setCellValue((Long) value);
+        } else if (value instanceof Double) {
+            cell.setCellValue((Double) value);
+        } else if (value instanceof BigDecimal) {
+            cell.setCellValue(((BigDecimal) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            cell.setCellValue((Boolean) value);
+        } else if (value instanceof LocalDate) {
+            cell.setCellValue(value.toString());
+        } else if (value instanceof LocalDateTime) {
+            cell.setCellValue(value.toString());
+        } else if (value != null) {
+            cell.setCellValue(value.toString());
+        }
+    }
+}
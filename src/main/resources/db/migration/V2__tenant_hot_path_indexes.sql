@@ -0,0 +1,46 @@
+-- Composite indexes for tenant-scoped hot queries (PostgreSQL).
+-- Key-only indexes are also declared with @Index on the entities so ddl-auto
+-- creates them; IF NOT EXISTS keeps both paths idempotent.
+-- Covering (INCLUDE) and partial indexes exist only here.
+
+-- Accounting: ledger/period scans and per-account movements
+CREATE INDEX IF NOT EXISTS idx_accounting_entries_company_occurred
+    ON accounting.accounting_entries (company_id, occurred_on);
+CREATE INDEX IF NOT EXISTS idx_accounting_entries_company_reference
+    ON accounting.accounting_entries (company_id, reference_type, occurred_on);
+CREATE INDEX IF NOT EXISTS idx_entry_lines_entry
+    ON accounting.accounting_entry_lines (entry_id);
+CREATE INDEX IF NOT EXISTS idx_entry_lines_account
+    ON accounting.accounting_entry_lines (account_code, entry_id);
+CREATE INDEX IF NOT EXISTS idx_accounts_company_code
+    ON accounting.accounts (company_id, code);
+CREATE INDEX IF NOT EXISTS idx_classification_rules_company
+    ON classification_rules (company_id);
+
+-- Invoicing: duplicate detection and per-period aggregation (F29, sales reports)
+CREATE INDEX IF NOT EXISTS idx_invoices_company_document
+    ON invoicing.invoices (company_id, type_code, folio, issuer_rut);
+CREATE INDEX IF NOT EXISTS idx_invoices_company_date_cover
+    ON invoicing.invoices (company_id, date)
+    INCLUDE (type_code, transaction_type, net_amount, tax_amount, total_amount);
+CREATE INDEX IF NOT EXISTS idx_invoice_items_invoice
+    ON invoice_items (invoice_id);
+
+-- Banking: statement ranges and the reconciliation work queue
+CREATE INDEX IF NOT EXISTS idx_bank_transactions_company_date
+    ON bank_transactions (company_id, date, reconciled);
+CREATE INDEX IF NOT EXISTS idx_bank_transactions_unreconciled
+    ON bank_transactions (company_id, date)
+    INCLUDE (amount)
+    WHERE reconciled = false;
+
+-- Fees: period lookups (F29 retentions) and duplicate detection
+CREATE INDEX IF NOT EXISTS idx_fee_receipts_company_issue_date
+    ON fees.fee_receipts (company_id, issue_date);
+CREATE INDEX IF NOT EXISTS idx_fee_receipts_company_document
+    ON fees.fee_receipts (company_id, folio, issuer_rut);
+
+-- Sustainability: carbon footprint totals by period and category
+CREATE INDEX IF NOT EXISTS idx_sustainability_calculated_cover
+    ON sustainability.sustainability_records (calculated_at)
+    INCLUDE (category_name, carbon_footprint_kg);
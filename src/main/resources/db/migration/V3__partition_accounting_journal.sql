@@ -0,0 +1,116 @@
+-- Range partitioning of the accounting journal by fiscal year (PostgreSQL).
+--
+-- accounting_entries and accounting_entry_lines are both partitioned on
+-- occurred_on, with one partition per calendar year (Chile time), so period
+-- queries and period-scoped deletes only touch that year's partitions. Rows
+-- outside the created years go to a DEFAULT partition and are moved out by
+-- accounting.ensure_journal_partition() when their year is created.
+-- JournalPartitionMaintainer calls that function ahead of each year roll-over.
+
+CREATE OR REPLACE FUNCTION accounting.ensure_journal_partition(p_year integer)
+RETURNS boolean
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_from timestamptz := make_timestamptz(p_year, 1, 1, 0, 0, 0, 'America/Santiago');
+    v_to   timestamptz := make_timestamptz(p_year + 1, 1, 1, 0, 0, 0, 'America/Santiago');
+    v_entries text := 'accounting_entries_y' || p_year;
+    v_lines   text := 'accounting_entry_lines_y' || p_year;
+BEGIN
+    IF to_regclass('accounting.' || v_entries) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+
+    -- Rows of this year parked in the default partitions would violate the new bounds
+    CREATE TEMP TABLE journal_moved_entries ON COMMIT DROP AS
+        SELECT * FROM accounting.accounting_entries_default WHERE occurred_on >= v_from AND occurred_on < v_to;
+    CREATE TEMP TABLE journal_moved_lines ON COMMIT DROP AS
+        SELECT * FROM accounting.accounting_entry_lines_default WHERE occurred_on >= v_from AND occurred_on < v_to;
+    DELETE FROM accounting.accounting_entry_lines_default WHERE occurred_on >= v_from AND occurred_on < v_to;
+    DELETE FROM accounting.accounting_entries_default WHERE occurred_on >= v_from AND occurred_on < v_to;
+
+    EXECUTE format('CREATE TABLE accounting.%I PARTITION OF accounting.accounting_entries FOR VALUES FROM (%L) TO (%L)',
+                   v_entries, v_from, v_to);
+    EXECUTE format('CREATE TABLE accounting.%I PARTITION OF accounting.accounting_entry_lines FOR VALUES FROM (%L) TO (%L)',
+                   v_lines, v_from, v_to);
+
+    INSERT INTO accounting.accounting_entries SELECT * FROM journal_moved_entries;
+    INSERT INTO accounting.accounting_entry_lines SELECT * FROM journal_moved_lines;
+    DROP TABLE journal_moved_entries;
+    DROP TABLE journal_moved_lines;
+    RETURN true;
+END;
+$$;
+
+DO $$
+DECLARE
+    v_year integer;
+    v_pkey text;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'accounting.accounting_entries'::regclass) THEN
+        RETURN;
+    END IF;
+
+    -- 1. Keep the current tables as the migration source
+    ALTER TABLE accounting.accounting_entries RENAME TO accounting_entries_legacy;
+    ALTER TABLE accounting.accounting_entry_lines RENAME TO accounting_entry_lines_legacy;
+    SELECT conname INTO v_pkey FROM pg_constraint
+     WHERE conrelid = 'accounting.accounting_entries_legacy'::regclass AND contype = 'p';
+    IF v_pkey IS NOT NULL THEN
+        EXECUTE format('ALTER TABLE accounting.accounting_entries_legacy RENAME CONSTRAINT %I TO %I',
+                       v_pkey, 'accounting_entries_legacy_pkey');
+    END IF;
+
+    -- Lines need the entry date as their partition key
+    ALTER TABLE accounting.accounting_entry_lines_legacy ADD COLUMN IF NOT EXISTS occurred_on timestamp(6) with time zone;
+    UPDATE accounting.accounting_entry_lines_legacy l
+       SET occurred_on = e.occurred_on
+      FROM accounting.accounting_entries_legacy e
+     WHERE e.id = l.entry_id AND l.occurred_on IS NULL;
+
+    -- 2. Partitioned parents; the primary key must include the partition key
+    CREATE TABLE accounting.accounting_entries
+        (LIKE accounting.accounting_entries_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+        PARTITION BY RANGE (occurred_on);
+    ALTER TABLE accounting.accounting_entries ADD PRIMARY KEY (id, occurred_on);
+
+    CREATE TABLE accounting.accounting_entry_lines
+        (LIKE accounting.accounting_entry_lines_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+        PARTITION BY RANGE (occurred_on);
+    ALTER TABLE accounting.accounting_entry_lines ALTER COLUMN occurred_on SET NOT NULL;
+
+    CREATE TABLE accounting.accounting_entries_default PARTITION OF accounting.accounting_entries DEFAULT;
+    CREATE TABLE accounting.accounting_entry_lines_default PARTITION OF accounting.accounting_entry_lines DEFAULT;
+
+    -- 3. One partition per year with data, plus the current and next year
+    FOR v_year IN
+        SELECT DISTINCT extract(year FROM occurred_on AT TIME ZONE 'America/Santiago')::integer
+          FROM accounting.accounting_entries_legacy
+        UNION
+        SELECT extract(year FROM now() AT TIME ZONE 'America/Santiago')::integer
+        UNION
+        SELECT extract(year FROM now() AT TIME ZONE 'America/Santiago')::integer + 1
+    LOOP
+        PERFORM accounting.ensure_journal_partition(v_year);
+    END LOOP;
+
+    -- 4. Copy the journal and drop the old tables (CASCADE drops the lines -> entries FK)
+    INSERT INTO accounting.accounting_entries SELECT * FROM accounting.accounting_entries_legacy;
+    INSERT INTO accounting.accounting_entry_lines SELECT * FROM accounting.accounting_entry_lines_legacy
+     WHERE occurred_on IS NOT NULL;
+    DROP TABLE accounting.accounting_entry_lines_legacy;
+    DROP TABLE accounting.accounting_entries_legacy CASCADE;
+END;
+$$;
+
+-- 5. Indexes on the parents cascade to every partition (names as in V1/V2 and the entities)
+CREATE INDEX IF NOT EXISTS idx_accounting_entries_company_occurred
+    ON accounting.accounting_entries (company_id, occurred_on);
+CREATE INDEX IF NOT EXISTS idx_accounting_entries_company_reference
+    ON accounting.accounting_entries (company_id, reference_type, occurred_on);
+CREATE INDEX IF NOT EXISTS idx_entries_search
+    ON accounting.accounting_entries (tax_payer_id, document_number);
+CREATE INDEX IF NOT EXISTS idx_entry_lines_entry
+    ON accounting.accounting_entry_lines (entry_id);
+CREATE INDEX IF NOT EXISTS idx_entry_lines_account
+    ON accounting.accounting_entry_lines (account_code, entry_id);
@@ -0,0 +1,6 @@
+-- Keyset pagination over a company's invoices in ID order (full walks such as
+-- the RAG reindex): "company_id = ? AND id > ? ORDER BY id LIMIT n" becomes a
+-- range scan that stops after n rows. Date-ordered pages use
+-- idx_invoices_company_date_cover.
+CREATE INDEX IF NOT EXISTS idx_invoices_company_id
+    ON invoicing.invoices (company_id, id);
@@ -0,0 +1,24 @@
+-- At most one unresolved F29 submission (QUEUED or SENT) per company and
+-- period. F29SubmissionService looks for an open submission before queueing a
+-- new one; this index closes the window between that lookup and the insert,
+-- so two concurrent requests cannot both file the same period.
+
+-- Rows left by the race before this index existed: keep the submission that
+-- got furthest (SENT has a track ID at the SII), then the newest, and close
+-- the rest so the index can be built.
+UPDATE accounting.f29_submissions s
+SET status = 'REJECTED',
+    detail = 'Duplicado de otro envío en curso del mismo periodo',
+    updated_at = now()
+WHERE s.status IN ('QUEUED', 'SENT')
+  AND s.id <> (
+      SELECT keep.id FROM accounting.f29_submissions keep
+      WHERE keep.company_id = s.company_id
+        AND keep.period = s.period
+        AND keep.status IN ('QUEUED', 'SENT')
+      ORDER BY (keep.status = 'SENT') DESC, keep.created_at DESC, keep.id
+      LIMIT 1);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_f29_submissions_company_period_open
+    ON accounting.f29_submissions (company_id, period)
+    WHERE status IN ('QUEUED', 'SENT');
@@ -3,3 +3,4 @@ CREATE SCHEMA IF NOT EXISTS invoicing;
 CREATE SCHEMA IF NOT EXISTS sso;
 CREATE SCHEMA IF NOT EXISTS fees;
 CREATE SCHEMA IF NOT EXISTS sustainability;
+CREATE SCHEMA IF NOT EXISTS ai_assistant;
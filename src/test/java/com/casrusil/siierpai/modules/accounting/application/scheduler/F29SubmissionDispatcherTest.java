@@ -0,0 +1,264 @@
+package com.casrusil.siierpai.modules.accounting.application.scheduler;
+
+import com.casrusil.siierpai.modules.accounting.domain.event.F29SubmissionStatusChangedEvent;
+import com.casrusil.siierpai.modules.accounting.domain.model.F29Report;
+import com.casrusil.siierpai.modules.accounting.domain.model.F29Submission;
+import com.casrusil.siierpai.modules.accounting.domain.model.F29SubmissionStatus;
+import com.casrusil.siierpai.modules.accounting.domain.port.out.F29Gateway;
+import com.casrusil.siierpai.modules.accounting.domain.port.out.F29SubmissionRepository;
+import com.casrusil.siierpai.modules.accounting.domain.service.F29CalculatorService;
+import com.casrusil.siierpai.modules.accounting.domain.service.F29SenderService;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class F29SubmissionDispatcherTest {
+
+    private static final YearMonth PERIOD = YearMonth.of(2025, 10);
+
+    @Mock
+    private F29SubmissionRepository submissionRepository;
+
+    @Mock
+    private F29CalculatorService f29CalculatorService;
+
+    @Mock
+    private F29SenderService f29SenderService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<UUID, F29Submission> saved = new ConcurrentHashMap<>();
+    private F29SubmissionDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(submissionRepository.save(any(F29Submission.class))).thenAnswer(invocation -> {
+            F29Submission submission = invocation.getArgument(0);
+            saved.put(submission.id(), submission);
+            return submission;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatchOnce_ShouldSendQueuedSubmissionsInCompanyContext() throws InterruptedException {
+        // Given
+        dispatcher = createDispatcher(3, 100);
+        F29Submission submission = queued(CompanyId.random());
+        claim(F29SubmissionStatus.QUEUED, submission);
+        when(f29CalculatorService.calculateF29(submission.companyId(), PERIOD)).thenAnswer(invocation -> {
+            assertEquals(submission.companyId(), CompanyContext.getCompanyId());
+            return report();
+        });
+        when(f29SenderService.sendDeclaration(eq(submission.companyId()), any(F29Report.class)))
+                .thenReturn(new F29Gateway.Response(F29Gateway.Outcome.RECEIVED, "4711", "Envío recibido"));
+
+        // When
+        int claimed = dispatcher.dispatchOnce(F29SubmissionStatus.QUEUED);
+
+        // Then
+        assertEquals(1, claimed);
+        F29Submission sent = saved.get(submission.id());
+        assertEquals(F29SubmissionStatus.SENT, sent.status());
+        assertEquals("4711", sent.trackId());
+        assertEquals(0, new BigDecimal("90").compareTo(sent.amountToPay()));
+        assertTrue(sent.availableAt().isAfter(sent.updatedAt()));
+        assertEquals(List.of(F29SubmissionStatus.SENT), publishedStatuses());
+    }
+
+    @Test
+    void dispatchOnce_ShouldRejectWhenSiiRefusesTheUpload() throws InterruptedException {
+        // Given
+        dispatcher = createDispatcher(3, 100);
+        F29Submission submission = queued(CompanyId.random());
+        claim(F29SubmissionStatus.QUEUED, submission);
+        when(f29CalculatorService.calculateF29(any(), any())).thenReturn(report());
+        when(f29SenderService.sendDeclaration(any(), any()))
+                .thenReturn(new F29Gateway.Response(F29Gateway.Outcome.REJECTED, null, "Documento sin firma"));
+
+        // When
+        dispatcher.dispatchOnce(F29SubmissionStatus.QUEUED);
+
+        // Then
+        F29Submission rejected = saved.get(submission.id());
+        assertEquals(F29SubmissionStatus.REJECTED, rejected.status());
+        assertEquals("Documento sin firma", rejected.detail());
+        assertEquals(List.of(F29SubmissionStatus.REJECTED), publishedStatuses());
+    }
+
+    @Test
+    void dispatchOnce_ShouldRequeueWithBackoffWhenSendFails() throws InterruptedException {
+        // Given
+        dispatcher = createDispatcher(3, 100);
+        F29Submission submission = queued(CompanyId.random());
+        claim(F29SubmissionStatus.QUEUED, submission);
+        when(f29CalculatorService.calculateF29(any(), any())).thenReturn(report());
+        when(f29SenderService.sendDeclaration(any(), any())).thenThrow(new IllegalStateException("SII down"));
+
+        // When
+        dispatcher.dispatchOnce(F29SubmissionStatus.QUEUED);
+
+        // Then
+        F29Submission retried = saved.get(submission.id());
+        assertEquals(F29SubmissionStatus.QUEUED, retried.status());
+        assertEquals(1, retried.attempts());
+        assertTrue(retried.availableAt().isAfter(Instant.now()));
+        assertTrue(retried.detail().contains("SII down"));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void dispatchOnce_ShouldRejectAfterMaxAttempts() throws InterruptedException {
+        // Given
+        dispatcher = createDispatcher(1, 100);
+        F29Submission submission = queued(CompanyId.random());
+        claim(F29SubmissionStatus.QUEUED, submission);
+        when(f29CalculatorService.calculateF29(any(), any())).thenThrow(new IllegalStateException("no ledger"));
+
+        // When
+        dispatcher.dispatchOnce(F29SubmissionStatus.QUEUED);
+
+        // Then
+        F29Submission rejected = saved.get(submission.id());
+        assertEquals(F29SubmissionStatus.REJECTED, rejected.status());
+        assertEquals(1, rejected.attempts());
+        verify(f29SenderService, never()).sendDeclaration(any(), any());
+    }
+
+    @Test
+    void dispatchOnce_ShouldPostponeWithoutSpendingAttemptsWhenRateLimited() throws InterruptedException {
+        // Given: two permits for the whole test and no waiting
+        dispatcher = createDispatcher(3, 2);
+        List<F29Submission> submissions = List.of(queued(CompanyId.random()), queued(CompanyId.random()),
+                queued(CompanyId.random()));
+        claim(F29SubmissionStatus.QUEUED, submissions.toArray(F29Submission[]::new));
+        when(f29CalculatorService.calculateF29(any(), any())).thenReturn(report());
+        when(f29SenderService.sendDeclaration(any(), any()))
+                .thenReturn(new F29Gateway.Response(F29Gateway.Outcome.RECEIVED, "1", null));
+
+        // When
+        dispatcher.dispatchOnce(F29SubmissionStatus.QUEUED);
+
+        // Then
+        verify(f29SenderService, times(2)).sendDeclaration(any(), any());
+        List<F29Submission> queued = submissions.stream()
+                .map(submission -> saved.get(submission.id()))
+                .filter(submission -> submission.status() == F29SubmissionStatus.QUEUED)
+                .toList();
+        assertEquals(1, queued.size());
+        assertEquals(0, queued.get(0).attempts());
+    }
+
+    @Test
+    void dispatchOnce_ShouldResolveSentSubmissionsFromTheStatusCheck() throws InterruptedException {
+        // Given
+        dispatcher = createDispatcher(3, 100);
+        Instant now = Instant.now();
+        F29Submission accepted = queued(CompanyId.random()).sent("1", BigDecimal.TEN, now, now);
+        F29Submission pending = queued(CompanyId.random()).sent("2", BigDecimal.TEN, now, now);
+        claim(F29SubmissionStatus.SENT, accepted, pending);
+        when(f29SenderService.checkStatus(accepted.companyId(), "1"))
+                .thenReturn(new F29Gateway.Response(F29Gateway.Outcome.ACCEPTED, "1", "Declaración aceptada"));
+        when(f29SenderService.checkStatus(pending.companyId(), "2"))
+                .thenReturn(new F29Gateway.Response(F29Gateway.Outcome.PENDING, "2", "En revisión"));
+
+        // When
+        dispatcher.dispatchOnce(F29SubmissionStatus.SENT);
+
+        // Then
+        assertEquals(F29SubmissionStatus.ACCEPTED, saved.get(accepted.id()).status());
+        assertEquals(F29SubmissionStatus.SENT, saved.get(pending.id()).status());
+        assertTrue(saved.get(pending.id()).availableAt().isAfter(now));
+        assertEquals(List.of(F29SubmissionStatus.ACCEPTED), publishedStatuses());
+    }
+
+    @Test
+    void poll_ShouldClaimOneBatchPerTick() {
+        // Given: a backlog that always fills the batch
+        dispatcher = createDispatcher(3, 100);
+        F29Submission[] backlog = new F29Submission[10];
+        for (int i = 0; i < backlog.length; i++) {
+            backlog[i] = queued(CompanyId.random());
+        }
+        claim(F29SubmissionStatus.QUEUED, backlog);
+        when(f29CalculatorService.calculateF29(any(CompanyId.class), eq(PERIOD))).thenReturn(report());
+        when(f29SenderService.sendDeclaration(any(CompanyId.class), any(F29Report.class)))
+                .thenReturn(new F29Gateway.Response(F29Gateway.Outcome.RECEIVED, "4711", "Envío recibido"));
+
+        // When
+        dispatcher.poll();
+
+        // Then: the rest of the backlog waits for the next tick
+        verify(submissionRepository, times(1))
+                .claim(eq(F29SubmissionStatus.QUEUED), any(Instant.class), any(Instant.class), anyInt());
+        verify(submissionRepository, times(1))
+                .claim(eq(F29SubmissionStatus.SENT), any(Instant.class), any(Instant.class), anyInt());
+        assertEquals(backlog.length, saved.size());
+    }
+
+    private F29SubmissionDispatcher createDispatcher(int maxAttempts, int permits) {
+        RateLimiterRegistry rateLimiters = RateLimiterRegistry.of(RateLimiterConfig.custom()
+                .limitForPeriod(permits)
+                .limitRefreshPeriod(Duration.ofMinutes(10))
+                .timeoutDuration(Duration.ZERO)
+                .build());
+        return new F29SubmissionDispatcher(submissionRepository, f29CalculatorService, f29SenderService,
+                eventPublisher, rateLimiters, new SimpleMeterRegistry(), 10, 2, maxAttempts, 1000, 5000, 60);
+    }
+
+    private void claim(F29SubmissionStatus status, F29Submission... submissions) {
+        when(submissionRepository.claim(eq(status), any(Instant.class), any(Instant.class), anyInt()))
+                .thenReturn(List.of(submissions));
+    }
+
+    private List<F29SubmissionStatus> publishedStatuses() {
+        ArgumentCaptor<F29SubmissionStatusChangedEvent> events = ArgumentCaptor
+                .forClass(F29SubmissionStatusChangedEvent.class);
+        verify(eventPublisher, atLeast(0)).publishEvent(events.capture());
+        List<F29SubmissionStatus> statuses = new ArrayList<>();
+        events.getAllValues().forEach(event -> statuses.add(event.submission().status()));
+        return statuses;
+    }
+
+    private static F29Submission queued(CompanyId companyId) {
+        return F29Submission.queue(companyId, PERIOD, Instant.now());
+    }
+
+    private static F29Report report() {
+        return new F29Report(PERIOD, new BigDecimal("1000"), BigDecimal.ZERO, new BigDecimal("526"),
+                BigDecimal.ZERO, new BigDecimal("190"), new BigDecimal("100"), null, null, null, null, List.of(),
+                List.of());
+    }
+}
@@ -0,0 +1,119 @@
+package com.casrusil.siierpai.modules.accounting.application.scheduler;
+
+import com.casrusil.siierpai.modules.accounting.application.service.WeeklyReportService;
+import com.casrusil.siierpai.modules.sso.domain.model.Company;
+import com.casrusil.siierpai.modules.sso.domain.port.out.CompanyRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.infrastructure.concurrency.BulkheadTaskExecutor;
+import com.casrusil.siierpai.shared.infrastructure.concurrency.BulkheadTaskExecutor.RejectionPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WeeklyReportSchedulerTest {
+
+    private static final int MAX_CONCURRENT = 3;
+
+    @Mock
+    private CompanyRepository companyRepository;
+
+    @Mock
+    private WeeklyReportService weeklyReportService;
+
+    private WeeklyReportScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        BulkheadTaskExecutor executor = new BulkheadTaskExecutor("reporting", MAX_CONCURRENT, 1, 1000,
+                Duration.ofMinutes(1), RejectionPolicy.CALLER_RUNS, new SimpleMeterRegistry());
+        scheduler = new WeeklyReportScheduler(companyRepository, weeklyReportService, executor,
+                "admin@example.com", 1);
+    }
+
+    @Test
+    void sendAll_ShouldSendEveryCompanyWithBoundedConcurrency() {
+        List<Company> companies = IntStream.range(0, 20).mapToObj(i -> company("empresa" + i + "@example.com"))
+                .toList();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        doAnswer(invocation -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return null;
+        }).when(weeklyReportService).generateAndSendWeeklyReport(any(CompanyId.class), anyString());
+
+        WeeklyReportScheduler.Result result = scheduler.sendAll(companies).join();
+
+        assertEquals(new WeeklyReportScheduler.Result(20, 0), result);
+        assertTrue(peak.get() <= MAX_CONCURRENT, () -> "peak concurrency " + peak.get());
+        verify(weeklyReportService, times(20)).generateAndSendWeeklyReport(any(CompanyId.class), anyString());
+    }
+
+    @Test
+    void sendAll_FailingCompany_ShouldNotStopTheOthers() {
+        Company failing = company("falla@example.com");
+        Company ok = company("ok@example.com");
+        doThrow(new IllegalStateException("SMTP down"))
+                .when(weeklyReportService).generateAndSendWeeklyReport(failing.getId(), "falla@example.com");
+
+        WeeklyReportScheduler.Result result = scheduler.sendAll(List.of(failing, ok)).join();
+
+        assertEquals(new WeeklyReportScheduler.Result(1, 1), result);
+        verify(weeklyReportService).generateAndSendWeeklyReport(ok.getId(), "ok@example.com");
+    }
+
+    @Test
+    void sendWeeklyReports_ShouldSkipInactiveCompaniesAndUseFallbackEmail() {
+        Company withoutEmail = company(null);
+        Company inactive = new Company(CompanyId.random(), "76.000.000-0", "Inactiva", "x@example.com", false,
+                Instant.now(), null, null, null, null, false);
+        when(companyRepository.findAll()).thenReturn(List.of(withoutEmail, inactive));
+
+        scheduler.sendWeeklyReports();
+
+        verify(weeklyReportService, timeout(5000))
+                .generateAndSendWeeklyReport(withoutEmail.getId(), "admin@example.com");
+        verify(weeklyReportService, never()).generateAndSendWeeklyReport(eq(inactive.getId()), anyString());
+    }
+
+    @Test
+    void sendWeeklyReports_ShouldReturnWithoutWaitingForTheReports() throws Exception {
+        // Given: a report that stays in progress until the test releases it
+        Company company = company("empresa@example.com");
+        when(companyRepository.findAll()).thenReturn(List.of(company));
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS))
+                .when(weeklyReportService).generateAndSendWeeklyReport(any(CompanyId.class), anyString());
+
+        // When
+        assertTimeoutPreemptively(Duration.ofSeconds(2), scheduler::sendWeeklyReports);
+
+        // Then: the scheduler thread is already free while the report keeps running
+        verify(weeklyReportService, timeout(2000)).generateAndSendWeeklyReport(company.getId(), "empresa@example.com");
+        release.countDown();
+    }
+
+    private static Company company(String email) {
+        return new Company(CompanyId.random(), "76.123.456-7", "Empresa", email, true, Instant.now(), null, null,
+                null, null, false);
+    }
+}
@@ -0,0 +1,77 @@
+package com.casrusil.siierpai.modules.accounting.application.service;
+
+import com.casrusil.siierpai.modules.accounting.domain.event.F29SubmissionStatusChangedEvent;
+import com.casrusil.siierpai.modules.accounting.domain.model.F29Submission;
+import com.casrusil.siierpai.modules.accounting.domain.port.out.F29SubmissionRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class F29SubmissionServiceTest {
+
+    private static final YearMonth PERIOD = YearMonth.of(2025, 10);
+
+    @Mock
+    private F29SubmissionRepository submissionRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final CompanyId companyId = CompanyId.random();
+    private F29SubmissionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new F29SubmissionService(submissionRepository, eventPublisher);
+    }
+
+    @Test
+    void submit_ShouldQueueAndAnnounceANewSubmission() {
+        when(submissionRepository.findPending(companyId, PERIOD)).thenReturn(Optional.empty());
+        when(submissionRepository.insert(any(F29Submission.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        F29Submission submission = service.submit(companyId, PERIOD);
+
+        assertEquals(PERIOD, submission.period());
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertSame(submission, ((F29SubmissionStatusChangedEvent) event.getValue()).submission());
+    }
+
+    @Test
+    void submit_ShouldReturnTheConcurrentSubmissionWhenTheInsertLosesTheRace() {
+        // Given: another request queues the period between the lookup and the insert
+        F29Submission winner = F29Submission.queue(companyId, PERIOD, Instant.now());
+        when(submissionRepository.findPending(companyId, PERIOD))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(winner));
+        when(submissionRepository.insert(any(F29Submission.class)))
+                .thenThrow(new DataIntegrityViolationException("uq_f29_submissions_company_period_open"));
+
+        // When
+        F29Submission submission = service.submit(companyId, PERIOD);
+
+        // Then: the winner is returned and announced only once, by its own request
+        assertSame(winner, submission);
+        verifyNoInteractions(eventPublisher);
+    }
+}
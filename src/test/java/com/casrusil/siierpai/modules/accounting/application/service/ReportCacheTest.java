@@ -0,0 +1,73 @@
+package com.casrusil.siierpai.modules.accounting.application.service;
+
+import com.casrusil.siierpai.modules.accounting.domain.port.out.LedgerVersionRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReportCacheTest {
+
+    @Mock
+    private LedgerVersionRepository ledgerVersionRepository;
+
+    private ReportCache reportCache;
+    private final CompanyId companyId = CompanyId.random();
+
+    @BeforeEach
+    void setUp() {
+        reportCache = new ReportCache(ledgerVersionRepository, new SimpleMeterRegistry(), 100, 60);
+    }
+
+    @Test
+    void sameLedgerVersion_ShouldReuseReportAndEtag() {
+        when(ledgerVersionRepository.currentVersion(companyId)).thenReturn(7L);
+        AtomicInteger computations = new AtomicInteger();
+
+        ReportCache.ReportKey first = reportCache.key(companyId, "balance-sheet", "2025-01-31");
+        ReportCache.ReportKey second = reportCache.key(companyId, "balance-sheet", "2025-01-31");
+        String report = reportCache.get(first, () -> "report-" + computations.incrementAndGet());
+
+        assertEquals(report, reportCache.get(second, () -> "report-" + computations.incrementAndGet()));
+        assertEquals(1, computations.get());
+        assertEquals(first.etag(), second.etag());
+    }
+
+    @Test
+    void postedEntry_ShouldChangeKeyAndEtag() {
+        when(ledgerVersionRepository.currentVersion(companyId)).thenReturn(7L, 8L);
+        AtomicInteger computations = new AtomicInteger();
+
+        ReportCache.ReportKey before = reportCache.key(companyId, "income-statement", 2025, 1);
+        reportCache.get(before, () -> "report-" + computations.incrementAndGet());
+        ReportCache.ReportKey after = reportCache.key(companyId, "income-statement", 2025, 1);
+
+        assertEquals("report-2", reportCache.get(after, () -> "report-" + computations.incrementAndGet()));
+        assertNotEquals(before.etag(), after.etag());
+    }
+
+    @Test
+    void otherTenantOrParameters_ShouldNotShareEntries() {
+        CompanyId otherCompany = CompanyId.random();
+        when(ledgerVersionRepository.currentVersion(companyId)).thenReturn(1L);
+        when(ledgerVersionRepository.currentVersion(otherCompany)).thenReturn(1L);
+
+        ReportCache.ReportKey january = reportCache.key(companyId, "income-statement", 2025, 1);
+        ReportCache.ReportKey february = reportCache.key(companyId, "income-statement", 2025, 2);
+        ReportCache.ReportKey otherTenant = reportCache.key(otherCompany, "income-statement", 2025, 1);
+        reportCache.get(january, () -> "mine");
+
+        assertEquals("february", reportCache.get(february, () -> "february"));
+        assertEquals("theirs", reportCache.get(otherTenant, () -> "theirs"));
+        assertNotEquals(january.etag(), otherTenant.etag());
+    }
+}
@@ -0,0 +1,75 @@
+package com.casrusil.siierpai.modules.accounting.application.service;
+
+import com.casrusil.siierpai.modules.accounting.domain.dto.SiiAuditReportDTO.DiscrepancyItem;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvData;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceSummary;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceType;
+import com.casrusil.siierpai.modules.invoicing.domain.model.PaymentStatus;
+import com.casrusil.siierpai.modules.invoicing.domain.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SiiAuditorServiceTest {
+
+    private static final String SUPPLIER = "11111111-1";
+
+    @Test
+    void reportsNothingWhenBothSidesMatch() {
+        List<DiscrepancyItem> result = SiiAuditorService.diff(
+                List.of(local(33, 1L, SUPPLIER, "1190"), local(33, 2L, SUPPLIER, "2380")),
+                List.of(remote(33, 1L, SUPPLIER, "1190"), remote(33, 2L, SUPPLIER, "2380")));
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void classifiesMissingAndMismatchedDocuments() {
+        List<DiscrepancyItem> result = SiiAuditorService.diff(
+                List.of(local(33, 1L, SUPPLIER, "1190"), local(33, 2L, SUPPLIER, "1000"),
+                        local(61, 3L, SUPPLIER, "500")),
+                List.of(remote(33, 2L, SUPPLIER, "1190"), remote(33, 4L, SUPPLIER, "700"),
+                        remote(61, 3L, SUPPLIER, "500")));
+
+        assertEquals(List.of("MISSING_IN_SII", "AMOUNT_MISMATCH", "MISSING_IN_ERP"),
+                result.stream().map(DiscrepancyItem::type).toList());
+        assertEquals(1L, result.get(0).folio());
+        assertEquals(new BigDecimal("1000"), result.get(1).amountErp());
+        assertEquals(4L, result.get(2).folio());
+    }
+
+    @Test
+    void sameFolioFromDifferentIssuersAreDifferentDocuments() {
+        List<DiscrepancyItem> result = SiiAuditorService.diff(
+                List.of(local(33, 1L, SUPPLIER, "1190")),
+                List.of(remote(33, 1L, "22222222-2", "1190")));
+
+        assertEquals(List.of("MISSING_IN_SII", "MISSING_IN_ERP"),
+                result.stream().map(DiscrepancyItem::type).toList());
+    }
+
+    @Test
+    void localDuplicatesMatchOnce() {
+        List<DiscrepancyItem> result = SiiAuditorService.diff(
+                List.of(local(33, 1L, SUPPLIER, "1190"), local(33, 1L, SUPPLIER, "1190")),
+                List.of(remote(33, 1L, SUPPLIER, "1190")));
+
+        assertTrue(result.isEmpty());
+    }
+
+    private static InvoiceSummary local(int type, Long folio, String issuerRut, String total) {
+        return new InvoiceSummary(UUID.randomUUID(), InvoiceType.fromCode(type), folio, issuerRut, "76123456-7",
+                "Proveedor", LocalDate.of(2024, 3, 5), null, BigDecimal.ZERO, BigDecimal.ZERO,
+                new BigDecimal(total), TransactionType.PURCHASE, PaymentStatus.PENDING);
+    }
+
+    private static RcvData remote(int type, Long folio, String rutEmisor, String total) {
+        return new RcvData(type, folio, rutEmisor, "Proveedor", LocalDate.of(2024, 3, 5),
+                new BigDecimal(total), BigDecimal.ZERO, BigDecimal.ZERO, "REGISTRADO");
+    }
+}
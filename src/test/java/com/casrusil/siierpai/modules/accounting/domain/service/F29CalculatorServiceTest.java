@@ -33,7 +33,8 @@ class F29CalculatorServiceTest {
         CompanyId companyId = CompanyId.random();
         YearMonth period = YearMonth.of(2023, 10);
 
-        when(accountingEntryRepository.findByCompanyId(companyId)).thenReturn(Collections.emptyList());
+        when(accountingEntryRepository.findByCompanyIdAndPeriod(companyId, period.atDay(1), period.atEndOfMonth()))
+                .thenReturn(Collections.emptyList());
 
         F29Report report = f29CalculatorService.calculateF29(companyId, period);
 
@@ -65,7 +66,8 @@ class F29CalculatorServiceTest {
                 EntryType.NORMAL // Using NORMAL as it's a sale
         );
 
-        when(accountingEntryRepository.findByCompanyId(companyId)).thenReturn(java.util.List.of(entry));
+        when(accountingEntryRepository.findByCompanyIdAndPeriod(companyId, period.atDay(1), period.atEndOfMonth()))
+                .thenReturn(java.util.List.of(entry));
 
         // Mock anomaly service (default behavior already mocked or lenient)
         // Since we are not verifying it, assume it returns empty or we don't care about
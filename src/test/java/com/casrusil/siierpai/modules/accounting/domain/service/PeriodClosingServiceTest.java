@@ -49,7 +49,8 @@ class PeriodClosingServiceTest {
         YearMonth period = YearMonth.of(2023, 10);
 
         when(closedPeriodRepository.exists(companyId, period)).thenReturn(false);
-        when(accountingEntryRepository.findByCompanyId(companyId)).thenReturn(Collections.emptyList());
+        when(accountingEntryRepository.findByCompanyIdAndPeriod(companyId, period.atDay(1), period.atEndOfMonth()))
+                .thenReturn(Collections.emptyList());
         when(closedPeriodRepository.save(any(ClosedPeriod.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         ClosedPeriod result = periodClosingService.closePeriod(companyId, period, userId);
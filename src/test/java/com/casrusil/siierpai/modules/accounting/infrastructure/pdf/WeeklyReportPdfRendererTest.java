@@ -0,0 +1,77 @@
+package com.casrusil.siierpai.modules.accounting.infrastructure.pdf;
+
+import com.casrusil.siierpai.modules.accounting.domain.model.WeeklyReport;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceTotals;
+import com.casrusil.siierpai.modules.invoicing.domain.model.TransactionType;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeeklyReportPdfRendererTest {
+
+    private final WeeklyReportPdfRenderer renderer = new WeeklyReportPdfRenderer();
+
+    @Test
+    void render_ShouldWriteAPdfWithTheTotals() throws Exception {
+        WeeklyReport report = WeeklyReport.of(CompanyId.random(), LocalDate.of(2025, 1, 6),
+                LocalDate.of(2025, 1, 13), List.of(new InvoiceTotals(TransactionType.SALE, 3,
+                        new BigDecimal("3000"), new BigDecimal("570"), new BigDecimal("3570"))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        renderer.render(report, out);
+
+        byte[] pdf = out.toByteArray();
+        assertEquals("%PDF", new String(pdf, 0, 4));
+        PdfReader reader = new PdfReader(pdf);
+        try {
+            assertEquals(1, reader.getNumberOfPages());
+            String text = new PdfTextExtractor(reader).getTextFromPage(1);
+            assertTrue(text.contains("Ventas"));
+            assertTrue(text.contains("Compras"));
+            assertTrue(text.contains("06-01-2025"));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    void render_ConcurrentReports_ShouldNotShareState() throws Exception {
+        WeeklyReport empty = WeeklyReport.of(CompanyId.random(), LocalDate.of(2025, 1, 6),
+                LocalDate.of(2025, 1, 13), List.of());
+        ByteArrayOutputStream reference = new ByteArrayOutputStream();
+        renderer.render(empty, reference);
+
+        List<Thread> threads = new ArrayList<>();
+        List<Integer> pages = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                renderer.render(empty, out);
+                try {
+                    pages.add(new PdfReader(out.toByteArray()).getNumberOfPages());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(8, pages.size());
+        assertTrue(pages.stream().allMatch(count -> count == 1));
+        assertTrue(reference.size() > 0);
+    }
+}
@@ -0,0 +1,96 @@
+package com.casrusil.siierpai.modules.accounting.infrastructure.persistence;
+
+import com.casrusil.siierpai.modules.accounting.domain.model.AccountingEntry;
+import com.casrusil.siierpai.modules.accounting.domain.model.AccountingEntryLine;
+import com.casrusil.siierpai.modules.accounting.domain.model.EntryType;
+import com.casrusil.siierpai.modules.accounting.domain.port.out.AccountingEntryRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.test.BaseIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the yearly partitions of the accounting journal
+ * (migration V3) using Testcontainers.
+ */
+@Transactional
+class JournalPartitioningIntegrationTest extends BaseIntegrationTest {
+
+    private final AccountingEntryRepository entryRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    JournalPartitioningIntegrationTest(AccountingEntryRepository entryRepository, JdbcTemplate jdbcTemplate) {
+        this.entryRepository = entryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Test
+    void periodQuery_ShouldOnlyReturnEntriesOfThePeriod() {
+        CompanyId companyId = CompanyId.random();
+        jdbcTemplate.queryForObject("SELECT accounting.ensure_journal_partition(2024)", Boolean.class);
+        jdbcTemplate.queryForObject("SELECT accounting.ensure_journal_partition(2025)", Boolean.class);
+        entryRepository.save(entry(companyId, LocalDate.of(2024, 12, 31), "SALE"));
+        entryRepository.save(entry(companyId, LocalDate.of(2025, 1, 1), "SALE"));
+        entryRepository.save(entry(companyId, LocalDate.of(2025, 1, 31), "SALE"));
+
+        List<AccountingEntry> january = entryRepository.findByCompanyIdAndPeriod(companyId,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+
+        assertEquals(2, january.size());
+        january.forEach(entry -> assertEquals(2, entry.getLines().size()));
+    }
+
+    @Test
+    void deleteByReferenceTypeAndPeriod_ShouldKeepOtherYears() {
+        CompanyId companyId = CompanyId.random();
+        jdbcTemplate.queryForObject("SELECT accounting.ensure_journal_partition(2024)", Boolean.class);
+        jdbcTemplate.queryForObject("SELECT accounting.ensure_journal_partition(2025)", Boolean.class);
+        entryRepository.save(entry(companyId, LocalDate.of(2024, 3, 15), "CLOSING"));
+        entryRepository.save(entry(companyId, LocalDate.of(2025, 3, 15), "CLOSING"));
+
+        entryRepository.deleteByReferenceTypeAndPeriod(companyId, "CLOSING",
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+
+        assertTrue(entryRepository.findByCompanyIdAndPeriod(companyId,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)).isEmpty());
+        assertEquals(1, entryRepository.findByCompanyIdAndPeriod(companyId,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)).size());
+    }
+
+    @Test
+    void periodQuery_ShouldOnlyScanThePeriodPartition() {
+        jdbcTemplate.queryForObject("SELECT accounting.ensure_journal_partition(2024)", Boolean.class);
+        jdbcTemplate.queryForObject("SELECT accounting.ensure_journal_partition(2025)", Boolean.class);
+
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM accounting.accounting_entries e"
+                        + " JOIN accounting.accounting_entry_lines l"
+                        + " ON l.entry_id = e.id AND l.occurred_on = e.occurred_on"
+                        + " WHERE e.company_id = '" + CompanyId.random().value() + "'::uuid"
+                        + " AND e.occurred_on >= '2025-03-01 00:00-03' AND e.occurred_on < '2025-04-01 00:00-03'"
+                        + " AND l.occurred_on >= '2025-03-01 00:00-03' AND l.occurred_on < '2025-04-01 00:00-03'",
+                String.class));
+
+        assertTrue(plan.contains("accounting_entries_y2025"), () -> "Expected 2025 partition:\n" + plan);
+        assertTrue(plan.contains("accounting_entry_lines_y2025"), () -> "Expected 2025 lines partition:\n" + plan);
+        assertFalse(plan.contains("_y2024"), () -> "2024 partitions should be pruned:\n" + plan);
+        assertFalse(plan.contains("_default"), () -> "Default partitions should be pruned:\n" + plan);
+    }
+
+    private AccountingEntry entry(CompanyId companyId, LocalDate date, String referenceType) {
+        return new AccountingEntry(companyId, date, "Asiento de prueba", "REF-" + date, referenceType,
+                null, null, null, null, "POSTED",
+                List.of(AccountingEntryLine.debit("1101", "Caja", new BigDecimal("1000")),
+                        AccountingEntryLine.credit("4101", "Ventas", new BigDecimal("1000"))),
+                EntryType.NORMAL);
+    }
+}
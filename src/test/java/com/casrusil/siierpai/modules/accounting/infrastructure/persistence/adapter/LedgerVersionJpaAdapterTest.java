@@ -0,0 +1,76 @@
+package com.casrusil.siierpai.modules.accounting.infrastructure.persistence.adapter;
+
+import com.casrusil.siierpai.modules.accounting.infrastructure.persistence.repository.LedgerVersionJpaRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerVersionJpaAdapterTest {
+
+    @Mock
+    private LedgerVersionJpaRepository jpaRepository;
+
+    @InjectMocks
+    private LedgerVersionJpaAdapter adapter;
+
+    private final CompanyId companyId = CompanyId.random();
+
+    @BeforeEach
+    void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void endTransaction() {
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    void bulkPost_ShouldBumpVersionOnceAtCommit() {
+        when(jpaRepository.increment(companyId.value())).thenReturn(1);
+
+        for (int i = 0; i < 100; i++) {
+            adapter.increment(companyId);
+        }
+        verifyNoInteractions(jpaRepository);
+
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+        verify(jpaRepository, times(1)).increment(companyId.value());
+        verify(jpaRepository, never()).insertIfAbsent(any());
+    }
+
+    @Test
+    void firstPost_ShouldCreateVersionRow() {
+        when(jpaRepository.increment(companyId.value())).thenReturn(0, 1);
+
+        adapter.increment(companyId);
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+        verify(jpaRepository).insertIfAbsent(companyId.value());
+        verify(jpaRepository, times(2)).increment(companyId.value());
+    }
+
+    @Test
+    void unknownCompany_ShouldBeVersionZero() {
+        when(jpaRepository.findVersion(companyId.value())).thenReturn(Optional.empty());
+
+        assertEquals(0L, adapter.currentVersion(companyId));
+    }
+}
@@ -0,0 +1,94 @@
+package com.casrusil.siierpai.modules.ai_assistant.application.service;
+
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.ReindexCheckpoint;
+import com.casrusil.siierpai.modules.ai_assistant.domain.port.out.ReindexCheckpointRepository;
+import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceCursor;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoicePage;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceQuery;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceType;
+import com.casrusil.siierpai.modules.invoicing.domain.port.in.SearchInvoicesUseCase;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CompanyReindexServiceTest {
+
+    @Mock
+    private SearchInvoicesUseCase searchInvoicesUseCase;
+
+    @Mock
+    private DocumentIndexingService documentIndexingService;
+
+    @Mock
+    private ReindexCheckpointRepository checkpointRepository;
+
+    private final CompanyId companyId = CompanyId.random();
+    private CompanyReindexService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CompanyReindexService(searchInvoicesUseCase, documentIndexingService, checkpointRepository, 2);
+    }
+
+    @Test
+    void reindexCompany_ShouldResumeFromTheCheckpointUsingTheDatabaseOrder() {
+        // Given: an interrupted run, and two pages left in the database's ID order
+        UUID lastIndexed = UUID.randomUUID();
+        when(checkpointRepository.findByCompanyId(companyId)).thenReturn(Optional.of(
+                new ReindexCheckpoint(companyId, lastIndexed, 4, false, Instant.now())));
+        Invoice first = invoice(5L);
+        Invoice second = invoice(6L);
+        Invoice last = invoice(7L);
+        InvoiceCursor afterSecond = new InvoiceCursor(null, second.getId());
+        when(searchInvoicesUseCase.searchInvoicePage(any(), eq(new InvoiceCursor(null, lastIndexed)), eq(2)))
+                .thenReturn(new InvoicePage<>(List.of(first, second), afterSecond));
+        when(searchInvoicesUseCase.searchInvoicePage(any(), eq(afterSecond), eq(2)))
+                .thenReturn(new InvoicePage<>(List.of(last), null));
+
+        // When
+        ReindexCheckpoint result = service.reindexCompany(companyId);
+
+        // Then: pages are indexed as returned, without loading or sorting the whole company
+        verify(documentIndexingService).indexInvoices(List.of(first, second));
+        verify(documentIndexingService).indexInvoices(List.of(last));
+        verify(searchInvoicesUseCase, times(2)).searchInvoicePage(
+                eq(InvoiceQuery.forCompany(companyId).orderBy(InvoiceQuery.Order.ID_ASC)), any(), eq(2));
+        verify(searchInvoicesUseCase, never()).getInvoicesByCompany(any());
+        assertTrue(result.completed());
+        assertEquals(last.getId(), result.lastDocumentId());
+        assertEquals(7, result.processed());
+    }
+
+    private Invoice invoice(long folio) {
+        return Invoice.create(
+                companyId,
+                InvoiceType.FACTURA_ELECTRONICA,
+                folio,
+                "76123456-7",
+                "76987654-3",
+                LocalDate.now(),
+                new BigDecimal("1000"),
+                new BigDecimal("190"),
+                new BigDecimal("1190"),
+                Collections.emptyList());
+    }
+}
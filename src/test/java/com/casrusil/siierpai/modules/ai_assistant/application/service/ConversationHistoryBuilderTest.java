@@ -0,0 +1,75 @@
+package com.casrusil.siierpai.modules.ai_assistant.application.service;
+
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.Conversation;
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.Message;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.domain.valueobject.UserId;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConversationHistoryBuilderTest {
+
+    private static final int TOKEN_BUDGET = 100;
+
+    @Mock
+    private ChatLanguageModel chatLanguageModel;
+
+    private ConversationHistoryBuilder historyBuilder;
+
+    @BeforeEach
+    void setUp() {
+        historyBuilder = new ConversationHistoryBuilder(chatLanguageModel, TOKEN_BUDGET, 2, 0.5);
+    }
+
+    @Test
+    void shortConversation_ShouldBeSentVerbatim() {
+        Conversation conversation = new Conversation(CompanyId.random(), UserId.random());
+        conversation.addMessage(Message.user("Hola"));
+        conversation.addMessage(Message.assistant("Hola, ¿en qué te ayudo?"));
+
+        ConversationHistoryBuilder.HistoryWindow window = historyBuilder.build(conversation);
+
+        assertFalse(window.compacted());
+        assertEquals(2, window.messages().size());
+        assertInstanceOf(UserMessage.class, window.messages().get(0));
+        verifyNoInteractions(chatLanguageModel);
+    }
+
+    @Test
+    void longConversation_ShouldSummarizeOldTurnsAndStayWithinBudget() {
+        when(chatLanguageModel.generate(anyList())).thenReturn(Response.from(new AiMessage("resumen")));
+
+        Conversation conversation = new Conversation(CompanyId.random(), UserId.random());
+        String longText = "x".repeat(80); // ~20 tokens each
+        for (int i = 0; i < 10; i++) {
+            conversation.addMessage(Message.user(longText));
+            conversation.addMessage(Message.assistant(longText));
+        }
+
+        ConversationHistoryBuilder.HistoryWindow window = historyBuilder.build(conversation);
+
+        assertTrue(window.compacted());
+        assertEquals("resumen", conversation.getSummary());
+        assertTrue(conversation.getSummarizedCount() > 0);
+        assertInstanceOf(SystemMessage.class, window.messages().get(0));
+        assertTrue(ConversationHistoryBuilder.estimateChatTokens(window.messages()) <= TOKEN_BUDGET);
+
+        // Next turn fits within the headroom and needs no further summarization
+        conversation.addMessage(Message.user("¿Y el IVA?"));
+        assertFalse(historyBuilder.build(conversation).compacted());
+        verify(chatLanguageModel, times(1)).generate(anyList());
+    }
+}
@@ -3,27 +3,41 @@ package com.casrusil.siierpai.modules.ai_assistant.application.service;
 import com.casrusil.siierpai.modules.ai_assistant.domain.model.Conversation;
 import com.casrusil.siierpai.modules.ai_assistant.domain.model.Message;
 import com.casrusil.siierpai.modules.ai_assistant.domain.model.Tool;
+import com.casrusil.siierpai.modules.ai_assistant.domain.port.out.ConversationRepository;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import com.casrusil.siierpai.shared.domain.valueobject.UserId;
+import com.casrusil.siierpai.modules.ai_assistant.infrastructure.adapter.out.llm.FakeStreamingChatLanguageModel;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
 import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.model.chat.ChatLanguageModel;
 import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ConversationServiceTest {
 
     private ConversationService conversationService;
+    private FakeStreamingChatLanguageModel streamingChatLanguageModel;
+    private SimpleMeterRegistry meterRegistry;
 
     @Mock
     private ChatLanguageModel chatLanguageModel;
@@ -31,13 +45,23 @@ class ConversationServiceTest {
     @Mock
     private Tool mockTool;
 
+    @Mock
+    private ConversationRepository conversationRepository;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         when(mockTool.name()).thenReturn("mockTool");
         when(mockTool.description()).thenReturn("A mock tool");
 
-        conversationService = new ConversationService(chatLanguageModel, List.of(mockTool));
+        meterRegistry = new SimpleMeterRegistry();
+        streamingChatLanguageModel = new FakeStreamingChatLanguageModel(Duration.ZERO, Duration.ZERO);
+        ConversationStore conversationStore = new ConversationStore(conversationRepository, meterRegistry, 100, 30);
+        ConversationHistoryBuilder historyBuilder = new ConversationHistoryBuilder(chatLanguageModel, 4000, 4, 0.5);
+        ToolRegistry toolRegistry = new ToolRegistry(List.of(mockTool));
+        ToolExecutionService toolExecutionService = new ToolExecutionService(toolRegistry, meterRegistry, 5);
+        conversationService = new ConversationService(chatLanguageModel, streamingChatLanguageModel, toolRegistry,
+                toolExecutionService, conversationStore, historyBuilder, meterRegistry, 3);
     }
 
     @Test
@@ -79,4 +103,77 @@ class ConversationServiceTest {
         assertEquals("assistant", messages.get(1).role());
         assertEquals(aiContent, messages.get(1).content());
     }
+
+    @Test
+    void sendMessage_ShouldRunToolRoundsUntilModelAnswers() {
+        // Given
+        Conversation conversation = conversationService.startConversation(CompanyId.random(), UserId.random());
+        AiMessage toolCall = AiMessage.from(List.of(
+                ToolExecutionRequest.builder().id("1").name("mockTool").arguments("{}").build(),
+                ToolExecutionRequest.builder().id("2").name("mockTool").arguments("{}").build()));
+
+        when(mockTool.execute(anyString())).thenReturn("ok");
+        when(chatLanguageModel.generate(anyList(), anyList()))
+                .thenReturn(Response.from(toolCall))
+                .thenReturn(Response.from(toolCall))
+                .thenReturn(Response.from(new AiMessage("Comparación lista")));
+
+        // When
+        Message responseMsg = conversationService.sendMessage(conversation.getId(), "Compara F29 y ventas");
+
+        // Then
+        assertEquals("Comparación lista", responseMsg.content());
+        verify(mockTool, times(4)).execute(anyString());
+        verify(chatLanguageModel, times(3)).generate(anyList(), anyList());
+    }
+
+    @Test
+    void streamMessage_ShouldStreamTokensAcrossToolRounds() throws InterruptedException {
+        // Given
+        Conversation conversation = conversationService.startConversation(CompanyId.random(), UserId.random());
+        when(mockTool.execute(anyString())).thenReturn("ok");
+        streamingChatLanguageModel
+                .enqueue(AiMessage.from(List.of(
+                        ToolExecutionRequest.builder().id("1").name("mockTool").arguments("{}").build())))
+                .enqueue(new AiMessage("Ventas de enero: $1.190"));
+
+        List<String> tokens = new CopyOnWriteArrayList<>();
+        List<String> toolCalls = new CopyOnWriteArrayList<>();
+        AtomicReference<Message> answer = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        // When
+        conversationService.streamMessage(conversation.getId(), "¿Cuánto vendí en enero?", new ChatStreamListener() {
+            @Override
+            public void onToken(String token) {
+                tokens.add(token);
+            }
+
+            @Override
+            public void onToolCalls(List<String> toolNames) {
+                toolCalls.addAll(toolNames);
+            }
+
+            @Override
+            public void onComplete(Message message) {
+                answer.set(message);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                done.countDown();
+            }
+        });
+
+        // Then
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals("Ventas de enero: $1.190", answer.get().content());
+        assertEquals("Ventas de enero: $1.190", String.join("", tokens));
+        assertTrue(tokens.size() > 1);
+        assertEquals(List.of("mockTool"), toolCalls);
+        verify(mockTool, times(1)).execute(anyString());
+        assertEquals(2, conversation.getMessages().size());
+        assertEquals(1, meterRegistry.get("ai.conversation.stream.first-token").timer().count());
+    }
 }
@@ -1,5 +1,7 @@
 package com.casrusil.siierpai.modules.ai_assistant.application.service;
 
+import com.casrusil.siierpai.modules.ai_assistant.domain.model.IndexedDocument;
+import com.casrusil.siierpai.modules.ai_assistant.domain.port.out.IndexedDocumentRepository;
 import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
 import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceType;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
@@ -19,11 +21,14 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,11 +40,15 @@ class DocumentIndexingServiceTest {
     @Mock
     private EmbeddingStore<TextSegment> embeddingStore;
 
+    @Mock
+    private IndexedDocumentRepository indexedDocumentRepository;
+
     private DocumentIndexingService documentIndexingService;
 
     @BeforeEach
     void setUp() {
-        documentIndexingService = new DocumentIndexingService(embeddingModel, embeddingStore);
+        documentIndexingService = new DocumentIndexingService(embeddingModel, embeddingStore,
+                indexedDocumentRepository);
     }
 
     @Test
@@ -64,6 +73,78 @@ class DocumentIndexingServiceTest {
         assertEquals("invoice", capturedSegment.metadata().getString("type"));
     }
 
+    @Test
+    void shouldIndexBatchWithSingleEmbedAllAndBulkStoreWrite() {
+        // Given
+        CompanyId companyId = new CompanyId(UUID.randomUUID());
+        List<Invoice> invoices = List.of(createTestInvoice(companyId), createTestInvoice(companyId));
+        List<Embedding> embeddings = List.of(
+                new Embedding(new float[] { 0.1f, 0.2f }),
+                new Embedding(new float[] { 0.3f, 0.4f }));
+
+        when(embeddingModel.embedAll(anyList()))
+                .thenReturn(dev.langchain4j.model.output.Response.from(embeddings));
+        when(embeddingStore.addAll(eq(embeddings), anyList())).thenReturn(List.of("e1", "e2"));
+
+        // When
+        documentIndexingService.indexInvoices(invoices);
+
+        // Then
+        verify(embeddingModel, never()).embed(any(TextSegment.class));
+        verify(embeddingStore).addAll(eq(embeddings), anyList());
+        verify(indexedDocumentRepository).saveAll(anyList());
+    }
+
+    @Test
+    void shouldSkipInferenceAndStoreWriteWhenContentUnchanged() {
+        // Given: first indexing records the content hash
+        CompanyId companyId = new CompanyId(UUID.randomUUID());
+        Invoice invoice = createTestInvoice(companyId);
+        Embedding embedding = new Embedding(new float[] { 0.1f, 0.2f });
+
+        when(embeddingModel.embed(any(TextSegment.class)))
+                .thenReturn(dev.langchain4j.model.output.Response.from(embedding));
+        when(embeddingStore.add(eq(embedding), any(TextSegment.class))).thenReturn("e1");
+        documentIndexingService.indexInvoice(invoice);
+
+        ArgumentCaptor<IndexedDocument> documentCaptor = ArgumentCaptor.forClass(IndexedDocument.class);
+        verify(indexedDocumentRepository).save(documentCaptor.capture());
+        when(indexedDocumentRepository.findById(invoice.getId()))
+                .thenReturn(Optional.of(documentCaptor.getValue()));
+
+        // When: the same invoice arrives again
+        documentIndexingService.indexInvoice(invoice);
+
+        // Then
+        verify(embeddingModel, times(1)).embed(any(TextSegment.class));
+        verify(embeddingStore, times(1)).add(any(Embedding.class), any(TextSegment.class));
+    }
+
+    @Test
+    void shouldReuseCachedVectorForKnownContent() {
+        // Given
+        CompanyId companyId = new CompanyId(UUID.randomUUID());
+        Invoice invoice = createTestInvoice(companyId);
+        float[] cached = new float[] { 0.5f, 0.6f };
+
+        when(indexedDocumentRepository.findVectorByContentHash(anyString())).thenReturn(Optional.of(cached));
+
+        // When
+        documentIndexingService.indexInvoice(invoice);
+
+        // Then
+        verify(embeddingModel, never()).embed(any(TextSegment.class));
+        verify(embeddingStore).add(eq(Embedding.from(cached)), any(TextSegment.class));
+    }
+
+    @Test
+    void shouldCountIndexedDocumentsFromCache() {
+        CompanyId companyId = new CompanyId(UUID.randomUUID());
+        when(indexedDocumentRepository.countByCompanyId(companyId)).thenReturn(42L);
+
+        assertEquals(42, documentIndexingService.getIndexedCount(companyId));
+    }
+
     @Test
     void shouldSearchAndFilterByCompany() {
         // Given
@@ -0,0 +1,105 @@
+package com.casrusil.siierpai.modules.ai_assistant.application.service;
+
+import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceType;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceIndexingQueueTest {
+
+    @Mock
+    private DocumentIndexingService documentIndexingService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InvoiceIndexingQueue indexingQueue;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        indexingQueue = new InvoiceIndexingQueue(documentIndexingService, meterRegistry,
+                100, 10, 1, 3, 100, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        indexingQueue.stop();
+    }
+
+    @Test
+    void shouldIndexQueuedInvoicesInBatches() {
+        // Given
+        CompanyId companyId = CompanyId.random();
+
+        indexingQueue.start();
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            indexingQueue.enqueue(createTestInvoice(companyId, i));
+        }
+
+        // Then
+        verify(documentIndexingService, timeout(2000).atLeastOnce()).indexInvoices(anyList());
+        verify(documentIndexingService, never()).indexInvoice(any());
+        waitForCount("indexed", 5);
+        assertEquals(0, indexingQueue.getQueueDepth());
+    }
+
+    @Test
+    void shouldRetryFailedBatch() {
+        // Given
+        doThrow(new RuntimeException("ONNX failure"))
+                .doNothing()
+                .when(documentIndexingService).indexInvoices(anyList());
+        indexingQueue.start();
+
+        // When
+        indexingQueue.enqueue(createTestInvoice(CompanyId.random(), 1));
+
+        // Then
+        verify(documentIndexingService, timeout(2000).times(2)).indexInvoices(anyList());
+        waitForCount("indexed", 1);
+        assertEquals(1.0, meterRegistry.get("ai.indexing.invoices").tag("outcome", "retried").counter().count());
+    }
+
+    private void waitForCount(String outcome, double expected) {
+        long deadline = System.currentTimeMillis() + 2000;
+        double count = 0;
+        while (System.currentTimeMillis() < deadline) {
+            count = meterRegistry.get("ai.indexing.invoices").tag("outcome", outcome).counter().count();
+            if (count >= expected) {
+                break;
+            }
+            Thread.onSpinWait();
+        }
+        assertEquals(expected, count);
+    }
+
+    private Invoice createTestInvoice(CompanyId companyId, long folio) {
+        return Invoice.create(
+                companyId,
+                InvoiceType.FACTURA_ELECTRONICA,
+                folio,
+                "76123456-7",
+                "76987654-3",
+                LocalDate.now(),
+                new BigDecimal("1000"),
+                new BigDecimal("190"),
+                new BigDecimal("1190"),
+                Collections.emptyList());
+    }
+}
@@ -1,7 +1,10 @@
 package com.casrusil.siierpai.modules.ai_assistant.application.tools;
 
-import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceQuery;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceSummary;
 import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceType;
+import com.casrusil.siierpai.modules.invoicing.domain.model.PaymentStatus;
+import com.casrusil.siierpai.modules.invoicing.domain.model.TransactionType;
 import com.casrusil.siierpai.modules.invoicing.domain.port.in.SearchInvoicesUseCase;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
@@ -19,6 +22,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,31 +38,14 @@ class GetSalesReportToolTest {
     void shouldGenerateSalesReport() throws Exception {
         // Given
         CompanyId companyId = new CompanyId(UUID.randomUUID());
-        Invoice invoice1 = Invoice.create(
-                companyId,
-                InvoiceType.FACTURA_ELECTRONICA,
-                123L,
-                "76123456-7",
-                "76987654-3",
-                LocalDate.of(2025, 12, 15),
-                new BigDecimal("1000"),
-                new BigDecimal("190"),
-                new BigDecimal("1190"),
-                Collections.emptyList());
-
-        Invoice invoice2 = Invoice.create(
-                companyId,
-                InvoiceType.FACTURA_ELECTRONICA,
-                124L,
-                "76123456-7",
-                "76987654-3",
-                LocalDate.of(2025, 12, 20),
-                new BigDecimal("2000"),
-                new BigDecimal("380"),
-                new BigDecimal("2380"),
-                Collections.emptyList());
-
-        when(searchInvoicesUseCase.getInvoicesByCompany(any(CompanyId.class)))
+        InvoiceSummary invoice1 = summary(123L, LocalDate.of(2025, 12, 15),
+                new BigDecimal("1000"), new BigDecimal("190"), new BigDecimal("1190"));
+        InvoiceSummary invoice2 = summary(124L, LocalDate.of(2025, 12, 20),
+                new BigDecimal("2000"), new BigDecimal("380"), new BigDecimal("2380"));
+
+        when(searchInvoicesUseCase.searchSummaries(argThat((InvoiceQuery query) -> companyId.equals(query.companyId())
+                && LocalDate.of(2025, 12, 1).equals(query.from())
+                && LocalDate.of(2025, 12, 31).equals(query.to()))))
                 .thenReturn(List.of(invoice1, invoice2));
 
         // When
@@ -78,7 +65,7 @@ class GetSalesReportToolTest {
     void shouldHandleCurrentMonth() throws Exception {
         // Given
         CompanyId companyId = new CompanyId(UUID.randomUUID());
-        when(searchInvoicesUseCase.getInvoicesByCompany(any(CompanyId.class)))
+        when(searchInvoicesUseCase.searchSummaries(any(InvoiceQuery.class)))
                 .thenReturn(Collections.emptyList());
 
         // When
@@ -109,4 +96,10 @@ class GetSalesReportToolTest {
         assertNotNull(getSalesReportTool.description());
         assertTrue(getSalesReportTool.description().contains("sales report"));
     }
+
+    private static InvoiceSummary summary(Long folio, LocalDate date, BigDecimal net, BigDecimal tax,
+            BigDecimal total) {
+        return new InvoiceSummary(UUID.randomUUID(), InvoiceType.FACTURA_ELECTRONICA, folio, "76123456-7",
+                "76987654-3", null, date, date, net, tax, total, TransactionType.SALE, PaymentStatus.PENDING);
+    }
 }
@@ -1,7 +1,11 @@
 package com.casrusil.siierpai.modules.ai_assistant.application.tools;
 
-import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoicePage;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceQuery;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceSummary;
 import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceType;
+import com.casrusil.siierpai.modules.invoicing.domain.model.PaymentStatus;
+import com.casrusil.siierpai.modules.invoicing.domain.model.TransactionType;
 import com.casrusil.siierpai.modules.invoicing.domain.port.in.SearchInvoicesUseCase;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
@@ -19,6 +23,8 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,20 +40,23 @@ class SearchInvoicesToolTest {
     void shouldReturnInvoiceList() throws Exception {
         // Given
         CompanyId companyId = new CompanyId(UUID.randomUUID());
-        Invoice invoice = Invoice.create(
-                companyId,
+        InvoiceSummary invoice = new InvoiceSummary(
+                UUID.randomUUID(),
                 InvoiceType.FACTURA_ELECTRONICA,
                 123L,
                 "76123456-7",
                 "76987654-3",
+                null,
+                LocalDate.now(),
                 LocalDate.now(),
                 new BigDecimal("1000"),
                 new BigDecimal("190"),
                 new BigDecimal("1190"),
-                Collections.emptyList());
+                TransactionType.SALE,
+                PaymentStatus.PENDING);
 
-        when(searchInvoicesUseCase.getInvoicesByCompany(any(CompanyId.class)))
-                .thenReturn(List.of(invoice));
+        when(searchInvoicesUseCase.searchSummaryPage(any(InvoiceQuery.class), isNull(), anyInt()))
+                .thenReturn(new InvoicePage<>(List.of(invoice), null));
 
         // When
         String result = ScopedValue.where(CompanyContext.COMPANY_ID, companyId)
@@ -64,8 +73,8 @@ class SearchInvoicesToolTest {
     void shouldReturnNoInvoicesMessage() throws Exception {
         // Given
         CompanyId companyId = new CompanyId(UUID.randomUUID());
-        when(searchInvoicesUseCase.getInvoicesByCompany(any(CompanyId.class)))
-                .thenReturn(Collections.emptyList());
+        when(searchInvoicesUseCase.searchSummaryPage(any(InvoiceQuery.class), isNull(), anyInt()))
+                .thenReturn(new InvoicePage<>(Collections.emptyList(), null));
 
         // When
         String result = ScopedValue.where(CompanyContext.COMPANY_ID, companyId)
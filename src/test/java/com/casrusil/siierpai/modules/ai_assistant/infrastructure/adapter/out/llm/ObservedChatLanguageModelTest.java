@@ -0,0 +1,69 @@
+package com.casrusil.siierpai.modules.ai_assistant.infrastructure.adapter.out.llm;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ObservedChatLanguageModelTest {
+
+    @Mock
+    private ChatLanguageModel delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ObservedChatLanguageModel model;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        model = new ObservedChatLanguageModel(delegate, observationRegistry, meterRegistry);
+    }
+
+    @Test
+    void generate_ShouldRecordLatencyAndTokens() {
+        when(delegate.generate(anyList()))
+                .thenReturn(Response.from(AiMessage.from("Hola"), new TokenUsage(120, 8)));
+
+        model.generate(List.of(UserMessage.from("Hola")));
+
+        assertEquals(1, meterRegistry.get("business.operation")
+                .tags("module", "ai_assistant", "operation", "llm.generate", "outcome", "success")
+                .timer().count());
+        assertEquals(120.0, meterRegistry.get("ai.llm.tokens").tag("direction", "input").counter().count());
+        assertEquals(8.0, meterRegistry.get("ai.llm.tokens").tag("direction", "output").counter().count());
+    }
+
+    @Test
+    void generateWithTools_ShouldTagToolCalls() {
+        ToolExecutionRequest request = ToolExecutionRequest.builder().name("searchInvoices").arguments("{}").build();
+        List<ToolSpecification> tools = List.of(ToolSpecification.builder().name("searchInvoices").build());
+        when(delegate.generate(anyList(), org.mockito.ArgumentMatchers.<List<ToolSpecification>>any()))
+                .thenReturn(Response.from(AiMessage.from(request)));
+
+        model.generate(List.of(UserMessage.from("Busca facturas")), tools);
+
+        assertEquals(1, meterRegistry.get("business.operation")
+                .tags("operation", "llm.generate", "outcome", "tool_calls")
+                .timer().count());
+    }
+}
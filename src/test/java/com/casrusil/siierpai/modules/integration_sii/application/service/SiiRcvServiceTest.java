@@ -0,0 +1,137 @@
+package com.casrusil.siierpai.modules.integration_sii.application.service;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvData;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvRegister;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvRegisters;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvSnapshot;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiToken;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.RcvSnapshotRepository;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.SiiSoapPort;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SiiRcvServiceTest {
+
+    private static final YearMonth PERIOD = YearMonth.of(2024, 3);
+    private static final String RUT = "76123456-7";
+
+    @Mock
+    private SiiSoapPort siiSoapPort;
+
+    @Mock
+    private RcvSnapshotRepository snapshotRepository;
+
+    private SiiRcvService service;
+    private CompanyId companyId;
+    private SiiToken token;
+
+    @BeforeEach
+    void setUp() {
+        service = new SiiRcvService(siiSoapPort, snapshotRepository, 15, 30, 10);
+        companyId = new CompanyId(UUID.randomUUID());
+        token = new SiiToken("TOKEN", Instant.now().plus(Duration.ofHours(1)));
+    }
+
+    @Test
+    void downloadsBothRegistersWhenNothingIsCached() {
+        RcvData purchase = entry(33, 10L, "11111111-1");
+        RcvData sale = entry(33, 20L, RUT);
+        when(snapshotRepository.find(any(), any(), any())).thenReturn(Optional.empty());
+        when(siiSoapPort.getRcv(token, RUT, "202403", true)).thenReturn(List.of(purchase));
+        when(siiSoapPort.getRcv(token, RUT, "202403", false)).thenReturn(List.of(sale));
+
+        RcvRegisters registers = service.downloadRegisters(token, companyId, RUT, PERIOD, false);
+
+        assertEquals(List.of(purchase), registers.purchases());
+        assertEquals(List.of(sale), registers.sales());
+        verify(snapshotRepository, times(2)).save(any());
+    }
+
+    @Test
+    void servesFreshSnapshotWithoutCallingSii() {
+        RcvData sale = entry(33, 20L, RUT);
+        when(snapshotRepository.find(companyId, PERIOD, RcvRegister.PURCHASES))
+                .thenReturn(Optional.of(snapshot(RcvRegister.PURCHASES, List.of(), Instant.now().plusSeconds(60))));
+        when(snapshotRepository.find(companyId, PERIOD, RcvRegister.SALES))
+                .thenReturn(Optional.of(snapshot(RcvRegister.SALES, List.of(sale), Instant.now().plusSeconds(60))));
+
+        RcvRegisters registers = service.downloadRegisters(token, companyId, RUT, PERIOD, false);
+
+        assertTrue(registers.purchases().isEmpty());
+        assertEquals(List.of(sale), registers.sales());
+        verify(siiSoapPort, never()).getRcv(any(), anyString(), anyString(), anyBoolean());
+        verify(snapshotRepository, never()).save(any());
+    }
+
+    @Test
+    void refreshesExpiredSnapshotWithClosedPeriodTtl() {
+        RcvData purchase = entry(33, 10L, "11111111-1");
+        when(snapshotRepository.find(companyId, PERIOD, RcvRegister.PURCHASES))
+                .thenReturn(Optional.of(snapshot(RcvRegister.PURCHASES, List.of(), Instant.now().minusSeconds(1))));
+        when(snapshotRepository.find(companyId, PERIOD, RcvRegister.SALES))
+                .thenReturn(Optional.of(snapshot(RcvRegister.SALES, List.of(), Instant.now().plusSeconds(60))));
+        when(siiSoapPort.getRcv(token, RUT, "202403", true)).thenReturn(List.of(purchase));
+
+        RcvRegisters registers = service.downloadRegisters(token, companyId, RUT, PERIOD, true);
+
+        assertEquals(List.of(purchase), registers.purchases());
+        ArgumentCaptor<RcvSnapshot> saved = ArgumentCaptor.forClass(RcvSnapshot.class);
+        verify(snapshotRepository).save(saved.capture());
+        assertEquals(RcvRegister.PURCHASES, saved.getValue().register());
+        assertEquals(SiiRcvService.contentHash(List.of(purchase)), saved.getValue().contentHash());
+        assertTrue(saved.getValue().expiresAt().isAfter(Instant.now().plus(Duration.ofDays(29))));
+    }
+
+    @Test
+    void propagatesDownloadFailure() {
+        when(snapshotRepository.find(any(), any(), any())).thenReturn(Optional.empty());
+        when(siiSoapPort.getRcv(any(), anyString(), anyString(), anyBoolean()))
+                .thenThrow(new IllegalStateException("SII unavailable"));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> service.downloadRegisters(token, companyId, RUT, PERIOD, false));
+        assertEquals("SII unavailable", error.getMessage());
+    }
+
+    @Test
+    void contentHashChangesWithEntries() {
+        List<RcvData> entries = List.of(entry(33, 10L, RUT));
+
+        assertEquals(SiiRcvService.contentHash(entries), SiiRcvService.contentHash(List.of(entry(33, 10L, RUT))));
+        assertNotEquals(SiiRcvService.contentHash(entries), SiiRcvService.contentHash(List.of(entry(33, 11L, RUT))));
+    }
+
+    private RcvSnapshot snapshot(RcvRegister register, List<RcvData> entries, Instant expiresAt) {
+        return new RcvSnapshot(companyId, PERIOD, register, SiiRcvService.contentHash(entries), entries,
+                Instant.now().minusSeconds(600), expiresAt);
+    }
+
+    private static RcvData entry(int type, Long folio, String rutEmisor) {
+        return new RcvData(type, folio, rutEmisor, "Proveedor", LocalDate.of(2024, 3, 5),
+                new BigDecimal("1190"), new BigDecimal("1000"), new BigDecimal("190"), "REGISTRADO");
+    }
+}
@@ -1,5 +1,7 @@
 package com.casrusil.siierpai.modules.integration_sii.domain.service;
 
+import com.casrusil.siierpai.modules.integration_sii.application.service.DteTrackingService;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrackDocument;
 import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiCertificate;
 import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiToken;
 import com.casrusil.siierpai.modules.integration_sii.domain.port.out.CafRepository;
@@ -12,20 +14,25 @@ import com.casrusil.siierpai.modules.integration_sii.infrastructure.xml.DteXmlBu
 import com.casrusil.siierpai.modules.integration_sii.infrastructure.xml.EnvioDteBuilder;
 import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
 import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceType;
+import com.casrusil.siierpai.modules.sso.domain.port.out.CompanyCertificateRepository;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.w3c.dom.Document;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.security.PrivateKey;
 import java.security.cert.X509Certificate;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -60,6 +67,12 @@ class DteSenderServiceTest {
     @Mock
     private SiiUploadClient siiUploadClient;
 
+    @Mock
+    private CompanyCertificateRepository certificateRepository;
+
+    @Mock
+    private DteTrackingService dteTrackingService;
+
     @Mock
     private SiiCertificate siiCertificate;
 
@@ -69,6 +82,12 @@ class DteSenderServiceTest {
     @Mock
     private PrivateKey privateKey;
 
+    @Mock
+    private Document dteDocument;
+
+    @Mock
+    private Document envioDocument;
+
     private DteSenderService dteSenderService;
 
     @BeforeEach
@@ -81,7 +100,9 @@ class DteSenderServiceTest {
                 tedGenerator,
                 dteXmlBuilder,
                 envioDteBuilder,
-                siiUploadClient);
+                siiUploadClient,
+                certificateRepository,
+                dteTrackingService);
 
         // Set default certificate path for testing
         ReflectionTestUtils.setField(dteSenderService, "defaultCertPath", "/test/cert.p12");
@@ -89,7 +110,7 @@ class DteSenderServiceTest {
     }
 
     @Test
-    void shouldSendInvoiceSuccessfully() {
+    void shouldSendInvoiceSuccessfully() throws Exception {
         // Given
         CompanyId companyId = new CompanyId(UUID.randomUUID());
         Invoice invoice = createTestInvoice(companyId);
@@ -106,12 +127,14 @@ class DteSenderServiceTest {
                 .thenReturn(Optional.of(mock(com.casrusil.siierpai.modules.integration_sii.domain.model.Caf.class)));
         when(tedGenerator.generateTedXml(any(), any())).thenReturn("<TED>...</TED>");
         when(dteXmlBuilder.buildDte(any(), anyString())).thenReturn("<DTE>...</DTE>");
-        when(envioDteBuilder.wrap(anyString(), any(), anyString(), anyString())).thenReturn("<EnvioDTE>...</EnvioDTE>");
-        when(siiUploadClient.uploadEnvioDte(anyString(), anyString(), anyString(), anyString()))
+        when(envioDteBuilder.wrap(any(Document.class), any(), anyString(), anyString())).thenReturn(envioDocument);
+        when(siiUploadClient.uploadEnvioDte(anyString(), any(SiiUploadClient.EnvelopeWriter.class), anyString(),
+                anyString()))
                 .thenReturn("TRACK_ID_123");
 
-        when(xmlDsigSigner.signXml(anyString(), anyString(), any(SiiCertificate.class)))
-                .thenReturn("<SignedXML>...</SignedXML>");
+        when(xmlDsigSigner.parse(anyString())).thenReturn(dteDocument);
+        when(xmlDsigSigner.sign(any(Document.class), anyString(), any(SiiCertificate.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
         boolean result = dteSenderService.sendInvoice(invoice, companyId);
@@ -120,8 +143,44 @@ class DteSenderServiceTest {
         assertTrue(result);
         verify(tokenRepository).findByCompanyId(companyId);
         verify(pkcs12Handler).loadCertificate("/test/cert.p12", "test-password");
-        verify(xmlDsigSigner, atLeastOnce()).signXml(anyString(), anyString(), eq(siiCertificate));
-        verify(siiUploadClient).uploadEnvioDte(eq("test-token"), anyString(), anyString(), anyString());
+        verify(xmlDsigSigner).sign(dteDocument, "DTE_123", siiCertificate);
+        verify(envioDteBuilder).wrap(dteDocument, companyId, "76123456-7", "76123456-7");
+        verify(xmlDsigSigner).sign(envioDocument, "SetDoc", siiCertificate);
+        ArgumentCaptor<SiiUploadClient.EnvelopeWriter> envelope = ArgumentCaptor
+                .forClass(SiiUploadClient.EnvelopeWriter.class);
+        verify(siiUploadClient).uploadEnvioDte(eq("test-token"), envelope.capture(), anyString(), anyString());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        envelope.getValue().writeTo(out);
+        verify(xmlDsigSigner).write(envioDocument, out);
+        verify(dteTrackingService).track(companyId, "TRACK_ID_123", "76123456-7",
+                List.of(DteTrackDocument.pending(invoice.getId(), 33, 123L)));
+    }
+
+    @Test
+    void shouldReportSuccessWhenTrackingFails() {
+        // Given
+        CompanyId companyId = new CompanyId(UUID.randomUUID());
+        Invoice invoice = createTestInvoice(companyId);
+
+        when(tokenRepository.findByCompanyId(companyId))
+                .thenReturn(Optional.of(new SiiToken("test-token", Instant.now().plusSeconds(3600))));
+        when(pkcs12Handler.loadCertificate(anyString(), anyString())).thenReturn(siiCertificate);
+        when(cafRepository.findActiveForFolio(any(), anyString(), anyLong()))
+                .thenReturn(Optional.of(mock(com.casrusil.siierpai.modules.integration_sii.domain.model.Caf.class)));
+        when(tedGenerator.generateTedXml(any(), any())).thenReturn("<TED>...</TED>");
+        when(dteXmlBuilder.buildDte(any(), anyString())).thenReturn("<DTE>...</DTE>");
+        when(envioDteBuilder.wrap(any(Document.class), any(), anyString(), anyString())).thenReturn(envioDocument);
+        when(siiUploadClient.uploadEnvioDte(anyString(), any(SiiUploadClient.EnvelopeWriter.class), anyString(),
+                anyString()))
+                .thenReturn("TRACK_ID_123");
+        when(xmlDsigSigner.parse(anyString())).thenReturn(dteDocument);
+        when(xmlDsigSigner.sign(any(Document.class), anyString(), any(SiiCertificate.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(dteTrackingService.track(any(), anyString(), anyString(), anyList()))
+                .thenThrow(new IllegalStateException("database down"));
+
+        // When / Then: the DTE already reached the SII
+        assertTrue(dteSenderService.sendInvoice(invoice, companyId));
     }
 
     @Test
@@ -138,9 +197,10 @@ class DteSenderServiceTest {
                 .thenReturn(Optional.of(mock(com.casrusil.siierpai.modules.integration_sii.domain.model.Caf.class)));
         when(tedGenerator.generateTedXml(any(), any())).thenReturn("<TED>...</TED>");
         when(dteXmlBuilder.buildDte(any(), anyString())).thenReturn("<DTE>...</DTE>");
-        when(envioDteBuilder.wrap(anyString(), any(), anyString(), anyString())).thenReturn("<EnvioDTE>...</EnvioDTE>");
-        when(xmlDsigSigner.signXml(anyString(), anyString(), any(SiiCertificate.class)))
-                .thenReturn("<SignedXML>...</SignedXML>");
+        when(envioDteBuilder.wrap(any(Document.class), any(), anyString(), anyString())).thenReturn(envioDocument);
+        when(xmlDsigSigner.parse(anyString())).thenReturn(dteDocument);
+        when(xmlDsigSigner.sign(any(Document.class), anyString(), any(SiiCertificate.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
         boolean result = dteSenderService.sendInvoice(invoice, companyId);
@@ -166,9 +226,10 @@ class DteSenderServiceTest {
                 .thenReturn(Optional.of(mock(com.casrusil.siierpai.modules.integration_sii.domain.model.Caf.class)));
         when(tedGenerator.generateTedXml(any(), any())).thenReturn("<TED>...</TED>");
         when(dteXmlBuilder.buildDte(any(), anyString())).thenReturn("<DTE>...</DTE>");
-        when(envioDteBuilder.wrap(anyString(), any(), anyString(), anyString())).thenReturn("<EnvioDTE>...</EnvioDTE>");
-        when(xmlDsigSigner.signXml(anyString(), anyString(), any(SiiCertificate.class)))
-                .thenReturn("<SignedXML>...</SignedXML>");
+        when(envioDteBuilder.wrap(any(Document.class), any(), anyString(), anyString())).thenReturn(envioDocument);
+        when(xmlDsigSigner.parse(anyString())).thenReturn(dteDocument);
+        when(xmlDsigSigner.sign(any(Document.class), anyString(), any(SiiCertificate.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
         boolean result = dteSenderService.sendInvoice(invoice, companyId);
@@ -195,12 +256,14 @@ class DteSenderServiceTest {
                 .thenReturn(Optional.of(mock(com.casrusil.siierpai.modules.integration_sii.domain.model.Caf.class)));
         when(tedGenerator.generateTedXml(any(), any())).thenReturn("<TED>...</TED>");
         when(dteXmlBuilder.buildDte(any(), anyString())).thenReturn("<DTE version=\"1.0\">...</DTE>");
-        when(envioDteBuilder.wrap(anyString(), any(), anyString(), anyString())).thenReturn("<EnvioDTE>...</EnvioDTE>");
-        when(siiUploadClient.uploadEnvioDte(anyString(), anyString(), anyString(), anyString()))
+        when(envioDteBuilder.wrap(any(Document.class), any(), anyString(), anyString())).thenReturn(envioDocument);
+        when(siiUploadClient.uploadEnvioDte(anyString(), any(SiiUploadClient.EnvelopeWriter.class), anyString(),
+                anyString()))
                 .thenReturn("TRACK_ID_123");
 
-        when(xmlDsigSigner.signXml(anyString(), anyString(), any(SiiCertificate.class)))
-                .thenReturn("<SignedXML>...</SignedXML>");
+        when(xmlDsigSigner.parse(anyString())).thenReturn(dteDocument);
+        when(xmlDsigSigner.sign(any(Document.class), anyString(), any(SiiCertificate.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
         boolean result = dteSenderService.sendInvoice(invoice, companyId);
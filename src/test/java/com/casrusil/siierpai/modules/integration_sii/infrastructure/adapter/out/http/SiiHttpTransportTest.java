@@ -0,0 +1,189 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvData;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.in.rest.FakeSiiController;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http.SiiHttpTransport.Endpoint;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.soap.SiiRcvSoapClient;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.parser.RcvXmlParser;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.simulator.SiiSimulator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises {@link SiiHttpTransport} over real HTTP, including the RCV
+ * download against the {@link FakeSiiController} protocol.
+ */
+class SiiHttpTransportTest {
+
+    private static final Map<Endpoint, Duration> TIMEOUTS = Map.of(Endpoint.AUTH, Duration.ofSeconds(5),
+            Endpoint.RCV, Duration.ofSeconds(5), Endpoint.UPLOAD, Duration.ofSeconds(5));
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void post_ShouldCompressLargeBodiesAndDecompressResponses() {
+        server.createContext("/echo", exchange -> {
+            boolean gzipped = "gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+            InputStream in = gzipped ? new GZIPInputStream(exchange.getRequestBody()) : exchange.getRequestBody();
+            String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            byte[] response = ((gzipped ? "gzip:" : "plain:") + body).getBytes(StandardCharsets.UTF_8);
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                response = SiiHttpTransport.gzip(response);
+            }
+            respond(exchange, 200, response);
+        });
+        server.start();
+        SiiHttpTransport transport = new SiiHttpTransport(HttpClient.newHttpClient(), BulkheadRegistry.ofDefaults(),
+                TIMEOUTS, Set.of(Endpoint.RCV), 16);
+
+        String large = "x".repeat(64);
+        assertEquals("gzip:" + large, transport.post(Endpoint.RCV, request("/echo"),
+                large.getBytes(StandardCharsets.UTF_8), SiiHttpTransportTest::text));
+        assertEquals("plain:short", transport.post(Endpoint.RCV, request("/echo"),
+                "short".getBytes(StandardCharsets.UTF_8), SiiHttpTransportTest::text));
+        assertEquals("plain:" + large, transport.post(Endpoint.AUTH, request("/echo"),
+                large.getBytes(StandardCharsets.UTF_8), SiiHttpTransportTest::text));
+    }
+
+    @Test
+    void post_ShouldFailOnErrorStatusAndReleaseTheBulkhead() {
+        server.createContext("/down", exchange -> respond(exchange, 503, new byte[0]));
+        server.start();
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        SiiHttpTransport transport = new SiiHttpTransport(HttpClient.newHttpClient(), registry, TIMEOUTS, Set.of(),
+                8192);
+
+        for (int i = 0; i < 3; i++) {
+            IllegalStateException error = assertThrows(IllegalStateException.class,
+                    () -> transport.post(Endpoint.UPLOAD, request("/down"), new byte[0], SiiHttpTransportTest::text));
+            assertEquals("SII UPLOAD answered 503", error.getMessage());
+        }
+        assertEquals(1, registry.bulkhead(Endpoint.UPLOAD.bulkheadName()).getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    void post_ShouldRejectCallsOverTheEndpointBulkheadWithoutAffectingOthers() throws Exception {
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        server.createContext("/slow", exchange -> {
+            inFlight.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "ok".getBytes(StandardCharsets.UTF_8));
+        });
+        server.start();
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        SiiHttpTransport transport = new SiiHttpTransport(HttpClient.newHttpClient(), registry, TIMEOUTS, Set.of(),
+                8192);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> transport.post(Endpoint.RCV,
+                request("/slow"), new byte[0], SiiHttpTransportTest::text));
+        assertTrue(inFlight.await(5, TimeUnit.SECONDS));
+
+        assertThrows(BulkheadFullException.class, () -> transport.post(Endpoint.RCV, request("/slow"),
+                new byte[0], SiiHttpTransportTest::text));
+        release.countDown();
+        assertEquals("ok", transport.post(Endpoint.AUTH, request("/slow"), new byte[0],
+                SiiHttpTransportTest::text));
+        assertEquals("ok", first.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void downloadRcv_ShouldStreamTheFakeRegisterIntoTheParser() {
+        FakeSiiController fake = new FakeSiiController(new SiiSimulator(new SiiSimulator.Settings(0, 0, 0.0, 200, 0,
+                0.0, Duration.ofHours(1), SiiSimulator.SignatureCheck.NONE, false)));
+        server.createContext("/fake-sii/rcv", exchange -> {
+            ResponseEntity<byte[]> response = fake.rcv(exchange.getRequestBody().readAllBytes(), null,
+                    exchange.getRequestHeaders().getFirst("Content-Encoding"),
+                    exchange.getRequestHeaders().getFirst("Accept-Encoding")).join();
+            response.getHeaders().forEach((name, values) -> exchange.getResponseHeaders().put(name, values));
+            respond(exchange, response.getStatusCode().value(), response.getBody());
+        });
+        server.start();
+        SiiRcvSoapClient client = new SiiRcvSoapClient(baseUrl() + "/fake-sii/rcv",
+                SiiHttpTransport.of(HttpClient.newHttpClient()));
+        RcvXmlParser parser = new RcvXmlParser();
+
+        List<RcvData> purchases = client.downloadRcv("TOKEN", "76123456-7", "202403", true, parser::parse);
+        List<RcvData> again = client.downloadRcv("TOKEN", "76123456-7", "202403", true, parser::parse);
+        List<RcvData> sales = client.downloadRcv("TOKEN", "76123456-7", "202403", false, parser::parse);
+
+        assertEquals(200, purchases.size());
+        assertEquals(purchases, again);
+        assertTrue(sales.stream().allMatch(data -> data.rutEmisor().equals("76123456-7")));
+        assertTrue(purchases.stream().allMatch(data -> data.fechaEmision().getMonthValue() == 3
+                && data.montoTotal().equals(data.montoNeto().add(data.montoIva()))));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl() + path));
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static String text(InputStream body) throws IOException {
+        return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
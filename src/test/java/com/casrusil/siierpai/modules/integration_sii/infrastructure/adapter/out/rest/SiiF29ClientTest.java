@@ -0,0 +1,174 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.rest;
+
+import com.casrusil.siierpai.modules.accounting.domain.model.F29Report;
+import com.casrusil.siierpai.modules.accounting.domain.port.out.F29Gateway;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.SiiTokenRepository;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.in.rest.FakeSiiF29Controller;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http.SiiHttpTransport;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto.CompanyCertificateLoader;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto.XmlDsigSigner;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.xml.F29XmlBuilder;
+import com.casrusil.siierpai.modules.sso.domain.model.Company;
+import com.casrusil.siierpai.modules.sso.domain.port.out.CompanyRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Exercises {@link SiiF29Client} over real HTTP against the
+ * {@link FakeSiiF29Controller} protocol.
+ */
+class SiiF29ClientTest {
+
+    @Mock
+    private XmlDsigSigner xmlDsigSigner;
+
+    @Mock
+    private CompanyCertificateLoader certificateLoader;
+
+    @Mock
+    private SiiTokenRepository tokenRepository;
+
+    @Mock
+    private CompanyRepository companyRepository;
+
+    private final Company company = Company.create("76123456-7", "Empresa de Prueba SpA", "f29@example.cl");
+    private final CompanyId companyId = company.getId();
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(companyRepository.findById(companyId)).thenReturn(Optional.of(company));
+        when(xmlDsigSigner.signXml(anyString(), eq(""), any())).thenAnswer(invocation -> invocation
+                .<String>getArgument(0).replace("</F29>", "<Signature>firma</Signature></F29>"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void upload_ShouldReturnTrackIdAndStatusShouldResolveOnceProcessed() {
+        SiiF29Client client = clientFor(new FakeSiiF29Controller(0, 0, 0, 0.0, 0.0));
+
+        F29Gateway.Response received = client.upload(companyId, report());
+        F29Gateway.Response verdict = client.checkStatus(companyId, received.trackId());
+
+        assertEquals(F29Gateway.Outcome.RECEIVED, received.outcome());
+        assertNotNull(received.trackId());
+        assertEquals(F29Gateway.Outcome.ACCEPTED, verdict.outcome());
+
+        ArgumentCaptor<String> xml = ArgumentCaptor.forClass(String.class);
+        verify(xmlDsigSigner).signXml(xml.capture(), eq(""), any());
+        assertTrue(xml.getValue().contains("<RutContribuyente>76123456-7</RutContribuyente>"));
+        assertTrue(xml.getValue().contains("<Periodo>2025-10</Periodo>"));
+        assertTrue(xml.getValue().contains("<ImpuestoPagar>90</ImpuestoPagar>"));
+    }
+
+    @Test
+    void checkStatus_ShouldBePendingWhileProcessing() {
+        SiiF29Client client = clientFor(new FakeSiiF29Controller(0, 0, 60_000, 0.0, 0.0));
+
+        F29Gateway.Response received = client.upload(companyId, report());
+
+        assertEquals(F29Gateway.Outcome.PENDING, client.checkStatus(companyId, received.trackId()).outcome());
+    }
+
+    @Test
+    void checkStatus_ShouldReportRejection() {
+        SiiF29Client client = clientFor(new FakeSiiF29Controller(0, 0, 0, 1.0, 0.0));
+
+        F29Gateway.Response received = client.upload(companyId, report());
+
+        assertEquals(F29Gateway.Outcome.REJECTED, client.checkStatus(companyId, received.trackId()).outcome());
+    }
+
+    @Test
+    void upload_ShouldBeRejectedWhenTheDocumentIsNotSigned() {
+        when(xmlDsigSigner.signXml(anyString(), eq(""), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        SiiF29Client client = clientFor(new FakeSiiF29Controller(0, 0, 0, 0.0, 0.0));
+
+        F29Gateway.Response response = client.upload(companyId, report());
+
+        assertEquals(F29Gateway.Outcome.REJECTED, response.outcome());
+        assertNull(response.trackId());
+    }
+
+    @Test
+    void upload_ShouldThrowWhenServiceIsUnavailable() {
+        SiiF29Client client = clientFor(new FakeSiiF29Controller(0, 0, 0, 0.0, 1.0));
+
+        assertThrows(IllegalStateException.class, () -> client.upload(companyId, report()));
+    }
+
+    @Test
+    void upload_ShouldBeRejectedWhenTheEndpointIsNotConfigured() {
+        SiiF29Client client = new SiiF29Client(new F29XmlBuilder(), xmlDsigSigner, certificateLoader,
+                tokenRepository, companyRepository, SiiHttpTransport.of(HttpClient.newHttpClient()), "");
+
+        F29Gateway.Response response = client.upload(companyId, report());
+
+        assertEquals(F29Gateway.Outcome.REJECTED, response.outcome());
+        assertEquals(SiiF29Client.NOT_CONFIGURED, response.detail());
+    }
+
+    private SiiF29Client clientFor(FakeSiiF29Controller fake) {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        server.createContext("/fake-sii/f29/upload", exchange -> respond(exchange, fake.upload(
+                new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.ISO_8859_1)).join()));
+        server.createContext("/fake-sii/f29/status", exchange -> respond(exchange, fake.status(
+                exchange.getRequestURI().getQuery().substring("trackId=".length())).join()));
+        server.start();
+
+        String baseUrl = "http://localhost:" + server.getAddress().getPort() + "/fake-sii/f29";
+        return new SiiF29Client(new F29XmlBuilder(), xmlDsigSigner, certificateLoader, tokenRepository,
+                companyRepository, SiiHttpTransport.of(HttpClient.newHttpClient()), baseUrl);
+    }
+
+    private static void respond(HttpExchange exchange, ResponseEntity<String> response) throws IOException {
+        byte[] body = response.getBody().getBytes(StandardCharsets.ISO_8859_1);
+        exchange.sendResponseHeaders(response.getStatusCode().value(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static F29Report report() {
+        return new F29Report(YearMonth.of(2025, 10), new BigDecimal("1000"), BigDecimal.ZERO,
+                new BigDecimal("526"), BigDecimal.ZERO, new BigDecimal("190"), new BigDecimal("100"), null, null,
+                null, null, List.of(new F29Report.F29Line("538", "Débito fiscal", new BigDecimal("190"))),
+                List.of());
+    }
+}
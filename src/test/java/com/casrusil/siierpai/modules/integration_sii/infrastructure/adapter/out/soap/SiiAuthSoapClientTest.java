@@ -1,13 +1,19 @@
 package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.soap;
 
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http.SiiHttpTransport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -21,12 +27,12 @@ class SiiAuthSoapClientTest {
     private HttpClient httpClient;
 
     @Mock
-    private HttpResponse<String> httpResponse;
+    private HttpResponse<InputStream> httpResponse;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        siiAuthSoapClient = new SiiAuthSoapClient("https://mock-sii-url.cl", httpClient);
+        siiAuthSoapClient = new SiiAuthSoapClient("https://mock-sii-url.cl", SiiHttpTransport.of(httpClient));
     }
 
     @Test
@@ -42,7 +48,9 @@ class SiiAuthSoapClientTest {
                 """;
 
         when(httpResponse.statusCode()).thenReturn(200);
-        when(httpResponse.body()).thenReturn(mockResponseXml);
+        when(httpResponse.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+        when(httpResponse.body())
+                .thenReturn(new ByteArrayInputStream(mockResponseXml.getBytes(StandardCharsets.UTF_8)));
         when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
                 .thenReturn(httpResponse);
 
@@ -64,7 +72,9 @@ class SiiAuthSoapClientTest {
                 """;
 
         when(httpResponse.statusCode()).thenReturn(200);
-        when(httpResponse.body()).thenReturn(mockResponseXml);
+        when(httpResponse.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+        when(httpResponse.body())
+                .thenReturn(new ByteArrayInputStream(mockResponseXml.getBytes(StandardCharsets.UTF_8)));
         when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
                 .thenReturn(httpResponse);
 
@@ -1,13 +1,19 @@
 package com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.soap;
 
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http.SiiHttpTransport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -21,12 +27,12 @@ class SiiRcvSoapClientTest {
     private HttpClient httpClient;
 
     @Mock
-    private HttpResponse<String> httpResponse;
+    private HttpResponse<InputStream> httpResponse;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        siiRcvSoapClient = new SiiRcvSoapClient("https://mock-sii-rcv-url.cl", httpClient);
+        siiRcvSoapClient = new SiiRcvSoapClient("https://mock-sii-rcv-url.cl", SiiHttpTransport.of(httpClient));
     }
 
     @Test
@@ -34,11 +40,14 @@ class SiiRcvSoapClientTest {
         String mockCsvContent = "RUT,FOLIO,FECHA,MONTO\n76123456-7,100,2023-10-01,1000";
 
         when(httpResponse.statusCode()).thenReturn(200);
-        when(httpResponse.body()).thenReturn(mockCsvContent);
+        when(httpResponse.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+        when(httpResponse.body())
+                .thenReturn(new ByteArrayInputStream(mockCsvContent.getBytes(StandardCharsets.UTF_8)));
         when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
                 .thenReturn((HttpResponse) httpResponse);
 
-        String result = siiRcvSoapClient.downloadRcv("TOKEN123", "76123456-7", "202310", true);
+        String result = siiRcvSoapClient.downloadRcv("TOKEN123", "76123456-7", "202310", true,
+                body -> new String(body.readAllBytes(), StandardCharsets.UTF_8));
 
         assertEquals(mockCsvContent, result);
     }
@@ -50,7 +59,7 @@ class SiiRcvSoapClientTest {
                 .thenReturn((HttpResponse) httpResponse);
 
         assertThrows(RuntimeException.class, () -> {
-            siiRcvSoapClient.downloadRcv("TOKEN123", "76123456-7", "202310", true);
+            siiRcvSoapClient.downloadRcv("TOKEN123", "76123456-7", "202310", true, InputStream::readAllBytes);
         });
     }
 }
@@ -0,0 +1,155 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiCertificate;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.xml.DteXmlBuilder;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.xml.EnvioDteBuilder;
+import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceType;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.w3c.dom.Document;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.cert.X509Certificate;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Signed DTE+EnvioDTE pairs per second, with the envelope built from strings
+ * (sign, serialize, concatenate, re-parse, sign, serialize) versus one DOM
+ * shared from the DTE to the upload body.
+ *
+ * <p>
+ * Excluded from {@code test}; run with
+ * {@code ./gradlew benchmark -Dbenchmark.documents=2000}.
+ */
+@Tag("benchmark")
+class DteSigningBenchmarkTest {
+
+    private static final int DOCUMENTS = Integer.getInteger("benchmark.documents", 500);
+    private static final int WARMUP = Integer.getInteger("benchmark.warmup", 200);
+    private static final String TED = "<TED version=\"1.0\"/>";
+    private static final String RUT = "76123456-7";
+
+    @Mock
+    private SiiCertificate siiCertificate;
+
+    @Mock
+    private X509Certificate x509Certificate;
+
+    private final XmlDsigSigner signer = new XmlDsigSigner();
+    private final DteXmlBuilder dteXmlBuilder = new DteXmlBuilder();
+    private final EnvioDteBuilder envioDteBuilder = new EnvioDteBuilder();
+    private final CompanyId companyId = CompanyId.random();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        when(siiCertificate.privateKey()).thenReturn(keyPair.getPrivate());
+        when(siiCertificate.certificate()).thenReturn(x509Certificate);
+        when(x509Certificate.getPublicKey()).thenReturn(keyPair.getPublic());
+    }
+
+    @Test
+    void signDteAndEnvelope_StringRoundTripsVersusSharedDom() {
+        List<String> dtes = IntStream.rangeClosed(1, DOCUMENTS)
+                .mapToObj(folio -> dteXmlBuilder.buildDte(invoice(folio), TED))
+                .toList();
+
+        // Given: both paths warmed up on the same documents
+        measure(dtes.subList(0, Math.min(WARMUP, dtes.size())), this::signWithStrings);
+        measure(dtes.subList(0, Math.min(WARMUP, dtes.size())), this::signWithSharedDom);
+
+        // When
+        double strings = measure(dtes, this::signWithStrings);
+        double sharedDom = measure(dtes, this::signWithSharedDom);
+
+        // Then
+        System.out.printf("DTE+EnvioDTE signing, %d pairs: strings %.1f docs/s, shared DOM %.1f docs/s (x%.2f)%n",
+                dtes.size(), strings, sharedDom, sharedDom / strings);
+        assertTrue(strings > 0 && sharedDom > 0);
+    }
+
+    /**
+     * @return signed documents per second
+     */
+    private double measure(List<String> dtes, Signing signing) {
+        long start = System.nanoTime();
+        long bytes = 0;
+        for (int i = 0; i < dtes.size(); i++) {
+            bytes += signing.sign(dtes.get(i), "DTE_" + (i + 1)).length;
+        }
+        long elapsed = System.nanoTime() - start;
+        assertTrue(bytes > 0);
+        return dtes.size() / (elapsed / 1e9);
+    }
+
+    /**
+     * The path before the shared DOM: the signed DTE goes into the envelope as
+     * text, and the envelope is parsed again to be signed.
+     */
+    private byte[] signWithStrings(String dteXml, String dteId) {
+        String signedDte = signer.signXml(dteXml, dteId, siiCertificate);
+        String envio = envelope(signedDte.substring(signedDte.indexOf("?>") + 2));
+        return signer.signXml(envio, "SetDoc", siiCertificate).getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private byte[] signWithSharedDom(String dteXml, String dteId) {
+        Document signedDte = signer.sign(signer.parse(dteXml), dteId, siiCertificate);
+        Document envio = signer.sign(envioDteBuilder.wrap(signedDte, companyId, RUT, RUT), "SetDoc",
+                siiCertificate);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        signer.write(envio, out);
+        return out.toByteArray();
+    }
+
+    private static String envelope(String signedDteXml) {
+        return "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>"
+                + "<EnvioDTE xmlns=\"http://www.sii.cl/SiiDte\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\""
+                + " version=\"1.0\" xsi:schemaLocation=\"http://www.sii.cl/SiiDte EnvioDTE_v10.xsd\">"
+                + "<SetDTE ID=\"SetDoc\"><Caratula version=\"1.0\">"
+                + "<RutEmisor>" + RUT + "</RutEmisor><RutEnvia>" + RUT + "</RutEnvia>"
+                + "<RutReceptor>60803000-K</RutReceptor><FchResol>2014-08-22</FchResol><NroResol>80</NroResol>"
+                + "<TmstFirmaEnv>" + LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME) + "</TmstFirmaEnv>"
+                + "<SubTotDTE><TpoDTE>33</TpoDTE><NroDTE>1</NroDTE></SubTotDTE></Caratula>"
+                + signedDteXml
+                + "</SetDTE></EnvioDTE>";
+    }
+
+    private Invoice invoice(long folio) {
+        return Invoice.create(
+                companyId,
+                InvoiceType.FACTURA_ELECTRONICA,
+                folio,
+                RUT,
+                "76987654-3",
+                LocalDate.now(),
+                new BigDecimal("1000"),
+                new BigDecimal("190"),
+                new BigDecimal("1190"),
+                Collections.emptyList());
+    }
+
+    @FunctionalInterface
+    private interface Signing {
+        byte[] sign(String dteXml, String dteId);
+    }
+}
@@ -0,0 +1,135 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.Caf;
+import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceType;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TedGeneratorTest {
+
+    private static final String CAF_BLOCK = "<CAF version=\"1.0\"><DA><RE>76123456-7</RE><TD>33</TD>"
+            + "<RNG><D>1</D><H>1000</H></RNG></DA><FRMA algoritmo=\"SHA1withRSA\">AAAA</FRMA></CAF>";
+    private static final Pattern TED = Pattern.compile(
+            "<TED version=\"1.0\">\n<DD>\n(.*)\n</DD>\n<FRMT algoritmo=\"SHA1withRSA\">(.*)</FRMT>\n</TED>",
+            Pattern.DOTALL);
+
+    private TedGenerator tedGenerator;
+    private KeyPair keyPair;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        tedGenerator = new TedGenerator();
+        keyPair = keyPair();
+    }
+
+    @Test
+    void generateTedXml_ShouldSignTheDdWithTheCafKey() throws Exception {
+        Caf caf = caf(keyPair);
+
+        String ted = tedGenerator.generateTedXml(invoice(42L), caf);
+
+        Matcher matcher = TED.matcher(ted);
+        assertTrue(matcher.matches(), ted);
+        String dd = matcher.group(1);
+        assertTrue(dd.startsWith("<RE>76123456-7</RE><TD>33</TD><F>42</F>"), dd);
+        assertTrue(dd.contains(CAF_BLOCK + "<TSTED>"), dd);
+        assertTrue(verifies(dd, matcher.group(2), keyPair.getPublic()));
+    }
+
+    @Test
+    void generateTedXml_ShouldReuseSignersAcrossConcurrentStamps() throws Exception {
+        // Given: one CAF stamped by many threads at once
+        Caf caf = caf(keyPair);
+        List<Future<String>> teds = new ArrayList<>();
+
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (long folio = 1; folio <= 200; folio++) {
+                Invoice invoice = invoice(folio);
+                teds.add(executor.submit(() -> tedGenerator.generateTedXml(invoice, caf)));
+            }
+        }
+
+        // Then: no signer was shared mid-signature
+        for (Future<String> ted : teds) {
+            Matcher matcher = TED.matcher(ted.get());
+            assertTrue(matcher.matches());
+            assertTrue(verifies(matcher.group(1), matcher.group(2), keyPair.getPublic()));
+        }
+    }
+
+    @Test
+    void generateTedXml_ShouldUseTheKeyOfAReplacedCaf() throws Exception {
+        // Given: the same range re-uploaded with a new key
+        tedGenerator.generateTedXml(invoice(1L), caf(keyPair));
+        KeyPair replacement = keyPair();
+
+        // When
+        Matcher matcher = TED.matcher(tedGenerator.generateTedXml(invoice(2L), caf(replacement)));
+
+        // Then
+        assertTrue(matcher.matches());
+        assertTrue(verifies(matcher.group(1), matcher.group(2), replacement.getPublic()));
+        assertFalse(verifies(matcher.group(1), matcher.group(2), keyPair.getPublic()));
+    }
+
+    @Test
+    void generateTedXml_ShouldRejectCafWithoutCafBlock() {
+        Caf caf = new Caf("<AUTORIZACION></AUTORIZACION>", 1L, 1000L, keyPair.getPrivate(), "33");
+
+        assertThrows(RuntimeException.class, () -> tedGenerator.generateTedXml(invoice(1L), caf));
+    }
+
+    private static boolean verifies(String dd, String frmt, PublicKey publicKey) throws Exception {
+        Signature signature = Signature.getInstance("SHA1withRSA");
+        signature.initVerify(publicKey);
+        signature.update(dd.getBytes(StandardCharsets.ISO_8859_1));
+        return signature.verify(Base64.getDecoder().decode(frmt));
+    }
+
+    private static Caf caf(KeyPair keyPair) {
+        return new Caf("<AUTORIZACION>" + CAF_BLOCK + "<RSASK>...</RSASK></AUTORIZACION>", 1L, 1000L,
+                keyPair.getPrivate(), "33");
+    }
+
+    private static KeyPair keyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(1024);
+        return generator.generateKeyPair();
+    }
+
+    private static Invoice invoice(long folio) {
+        return Invoice.create(
+                CompanyId.random(),
+                InvoiceType.FACTURA_ELECTRONICA,
+                folio,
+                "76123456-7",
+                "76987654-3",
+                LocalDate.now(),
+                new BigDecimal("1000"),
+                new BigDecimal("190"),
+                new BigDecimal("1190"),
+                Collections.emptyList());
+    }
+}
@@ -1,21 +1,35 @@
 package com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto;
 
 import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiCertificate;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.xml.DteXmlBuilder;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.xml.EnvioDteBuilder;
+import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceType;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.apache.xml.security.signature.XMLSignature;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
 import javax.xml.parsers.DocumentBuilderFactory;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.PrivateKey;
+import java.security.PublicKey;
 import java.security.cert.X509Certificate;
+import java.time.LocalDate;
+import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class XmlDsigSignerTest {
@@ -30,6 +44,8 @@ class XmlDsigSignerTest {
 
     private PrivateKey privateKey;
 
+    private PublicKey publicKey;
+
     @BeforeEach
     void setUp() throws Exception {
         MockitoAnnotations.openMocks(this);
@@ -40,11 +56,12 @@ class XmlDsigSignerTest {
         keyPairGenerator.initialize(2048);
         KeyPair keyPair = keyPairGenerator.generateKeyPair();
         privateKey = keyPair.getPrivate();
+        publicKey = keyPair.getPublic();
 
         // Mock SiiCertificate
         when(siiCertificate.privateKey()).thenReturn(privateKey);
         when(siiCertificate.certificate()).thenReturn(x509Certificate);
-        when(x509Certificate.getPublicKey()).thenReturn(keyPair.getPublic());
+        when(x509Certificate.getPublicKey()).thenReturn(publicKey);
     }
 
     @Test
@@ -65,4 +82,49 @@ class XmlDsigSignerTest {
         NodeList signatures = doc.getElementsByTagName("Signature");
         assertEquals(1, signatures.getLength());
     }
+
+    @Test
+    void sign_ShouldEmbedTheSignedDteInTheEnvelopeWithoutReparsing() throws Exception {
+        // Given: a signed DTE moved as a node into its EnvioDTE
+        Document dte = xmlDsigSigner.parse(new DteXmlBuilder().buildDte(invoice(123L), "<TED version=\"1.0\"/>"));
+        xmlDsigSigner.sign(dte, "DTE_123", siiCertificate);
+        Document envio = new EnvioDteBuilder().wrap(dte, CompanyId.random(), "76123456-7", "76123456-7");
+
+        // When
+        xmlDsigSigner.sign(envio, "SetDoc", siiCertificate);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        xmlDsigSigner.write(envio, out);
+
+        // Then: both signatures are present and verify after the round trip
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        Document parsed = factory.newDocumentBuilder().parse(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("EnvioDTE", parsed.getDocumentElement().getLocalName());
+        NodeList signatures = parsed.getElementsByTagNameNS(XMLSignature.XMLNS, "Signature");
+        assertEquals(2, signatures.getLength());
+        Element setDte = (Element) parsed.getElementsByTagNameNS("http://www.sii.cl/SiiDte", "SetDTE").item(0);
+        setDte.setIdAttribute("ID", true);
+        assertTrue(new XMLSignature((Element) signatures.item(1), "").checkSignatureValue(publicKey));
+        // The DTE was signed on its own, before the envelope added its namespaces around it
+        Element documento = (Element) parsed.getElementsByTagNameNS("http://www.sii.cl/SiiDte", "Documento").item(0);
+        documento.setIdAttribute("ID", true);
+        assertTrue(new XMLSignature((Element) signatures.item(0), "").checkSignatureValue(publicKey));
+
+        // The KeyInfo of the certificate was built once for both signatures
+        verify(x509Certificate, times(1)).getEncoded();
+    }
+
+    private static Invoice invoice(long folio) {
+        return Invoice.create(
+                CompanyId.random(),
+                InvoiceType.FACTURA_ELECTRONICA,
+                folio,
+                "76123456-7",
+                "76987654-3",
+                LocalDate.now(),
+                new BigDecimal("1000"),
+                new BigDecimal("190"),
+                new BigDecimal("1190"),
+                Collections.emptyList());
+    }
 }
@@ -0,0 +1,233 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.scheduler;
+
+import com.casrusil.siierpai.modules.integration_sii.application.service.DteTrackingService;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteDocumentStatus;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrack;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrackDocument;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteTrackStatus;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteUploadStatus;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteUploadStatus.DocumentResult;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.DteUploadStatus.TypeTotals;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiToken;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.in.AuthenticateSiiUseCase;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.DteTrackRepository;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.SiiSoapPort;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.SiiTokenRepository;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto.CompanyCertificateLoader;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DteTrackPollerTest {
+
+    private static final String RUT = "76123456-7";
+
+    @Mock
+    private DteTrackRepository trackRepository;
+
+    @Mock
+    private DteTrackingService trackingService;
+
+    @Mock
+    private SiiSoapPort siiSoapPort;
+
+    @Mock
+    private SiiTokenRepository tokenRepository;
+
+    @Mock
+    private AuthenticateSiiUseCase authenticateSiiUseCase;
+
+    @Mock
+    private CompanyCertificateLoader certificateLoader;
+
+    private final List<DteTrack> saved = Collections.synchronizedList(new ArrayList<>());
+    private final List<DteTrack> resolved = Collections.synchronizedList(new ArrayList<>());
+    private final CompanyId companyId = CompanyId.random();
+    private final SiiToken token = new SiiToken("TOKEN", Instant.now().plus(Duration.ofHours(1)));
+    private DteTrackPoller poller;
+
+    @BeforeEach
+    void setUp() {
+        poller = new DteTrackPoller(trackRepository, trackingService, siiSoapPort, tokenRepository,
+                authenticateSiiUseCase, certificateLoader, 100, 120, 5000, 3, 2.0, 1_800_000, 72, 30000);
+
+        lenient().when(tokenRepository.findByCompanyId(any())).thenReturn(Optional.of(token));
+        lenient().when(trackRepository.save(any(DteTrack.class))).thenAnswer(invocation -> {
+            DteTrack track = invocation.getArgument(0);
+            saved.add(track);
+            return track;
+        });
+        lenient().when(trackingService.resolve(any(DteTrack.class))).thenAnswer(invocation -> {
+            DteTrack track = invocation.getArgument(0);
+            resolved.add(track);
+            return track;
+        });
+    }
+
+    @Test
+    void poll_ShouldQueryEachEnvelopeOnceAndSettleAllItsDocuments() {
+        // Given: company A with a 3-DTE and a 1-DTE envelope, company B with one envelope
+        CompanyId other = CompanyId.random();
+        DteTrack large = track(companyId, "1001", 0, 33, 33, 33);
+        DteTrack small = track(companyId, "1002", 0, 61);
+        DteTrack otherTrack = track(other, "2001", 0, 33);
+        when(trackRepository.claim(any(), any(), anyInt())).thenReturn(List.of(large, small, otherTrack));
+        when(siiSoapPort.getUploadStatus(eq(token), eq(RUT), anyString())).thenReturn(
+                new DteUploadStatus("EPR", "Envio procesado", List.of(new TypeTotals(33, 3, 3, 0, 0),
+                        new TypeTotals(61, 1, 1, 0, 0)), List.of()));
+
+        // When
+        poller.poll();
+
+        // Then: one query per envelope, not per document, and one token lookup per company
+        verify(siiSoapPort).getUploadStatus(token, RUT, "1001");
+        verify(siiSoapPort).getUploadStatus(token, RUT, "1002");
+        verify(siiSoapPort).getUploadStatus(token, RUT, "2001");
+        verifyNoMoreInteractions(siiSoapPort);
+        verify(tokenRepository).findByCompanyId(companyId);
+        verify(tokenRepository).findByCompanyId(other);
+
+        assertEquals(3, resolved.size());
+        DteTrack settled = resolved.stream().filter(track -> track.trackId().equals("1001")).findFirst()
+                .orElseThrow();
+        assertEquals(DteTrackStatus.PROCESSED, settled.status());
+        assertEquals(3, settled.documents().size());
+        assertTrue(settled.documents().stream().allMatch(doc -> doc.status() == DteDocumentStatus.ACCEPTED));
+        assertTrue(saved.isEmpty());
+    }
+
+    @Test
+    void pollTrack_ShouldUsePerDocumentResultsAndLeaveMixedTotalsUnknown() {
+        // Given: type 33 has per-document detail, type 56 only mixed totals
+        DteTrack track = track(companyId, "1001", 2, 33, 33, 56, 56);
+        long rejectedFolio = track.documents().get(1).folio();
+        when(siiSoapPort.getUploadStatus(any(), any(), any())).thenReturn(new DteUploadStatus("EPR", null,
+                List.of(new TypeTotals(33, 2, 1, 1, 0), new TypeTotals(56, 2, 1, 1, 0)),
+                List.of(new DocumentResult(33, track.documents().get(0).folio(), DteDocumentStatus.ACCEPTED, null),
+                        new DocumentResult(33, rejectedFolio, DteDocumentStatus.REJECTED, "Firma invalida"))));
+
+        // When
+        poller.pollTrack(track, token);
+
+        // Then
+        List<DteTrackDocument> documents = resolved.get(0).documents();
+        assertEquals(DteDocumentStatus.ACCEPTED, documents.get(0).status());
+        assertEquals(DteDocumentStatus.REJECTED, documents.get(1).status());
+        assertEquals("Firma invalida", documents.get(1).detail());
+        assertEquals(DteDocumentStatus.UNKNOWN, documents.get(2).status());
+        assertEquals(DteDocumentStatus.UNKNOWN, documents.get(3).status());
+        assertEquals(3, resolved.get(0).polls());
+    }
+
+    @Test
+    void pollTrack_ShouldRejectEveryDocumentWhenTheEnvelopeIsRejected() {
+        DteTrack track = track(companyId, "1001", 0, 33, 33);
+        when(siiSoapPort.getUploadStatus(any(), any(), any()))
+                .thenReturn(new DteUploadStatus("RFR", "Rechazado por error en firma", List.of(), List.of()));
+
+        poller.pollTrack(track, token);
+
+        DteTrack rejected = resolved.get(0);
+        assertEquals(DteTrackStatus.REJECTED, rejected.status());
+        assertTrue(rejected.documents().stream().allMatch(doc -> doc.status() == DteDocumentStatus.REJECTED
+                && doc.detail().startsWith("RFR")));
+    }
+
+    @Test
+    void pollTrack_ShouldBackOffWhileTheEnvelopeIsInProcess() {
+        // Given: already past the fast polls
+        DteTrack track = track(companyId, "1001", 3, 33);
+        when(siiSoapPort.getUploadStatus(any(), any(), any()))
+                .thenReturn(new DteUploadStatus("PDR", "Envio en proceso", List.of(), List.of()));
+
+        // When
+        Instant before = Instant.now();
+        poller.pollTrack(track, token);
+
+        // Then
+        DteTrack pending = saved.get(0);
+        assertEquals(DteTrackStatus.PENDING, pending.status());
+        assertEquals("PDR", pending.siiState());
+        assertEquals(4, pending.polls());
+        assertFalse(pending.availableAt().isBefore(before.plusSeconds(10)));
+        verifyNoInteractions(trackingService);
+    }
+
+    @Test
+    void pollTrack_ShouldPostponeWithoutCountingAPollWhenCircuitIsOpen() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("sii");
+        circuitBreaker.transitionToOpenState();
+        DteTrack track = track(companyId, "1001", 1, 33);
+        when(siiSoapPort.getUploadStatus(any(), any(), any()))
+                .thenThrow(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+
+        Instant before = Instant.now();
+        poller.pollTrack(track, token);
+
+        DteTrack postponed = saved.get(0);
+        assertEquals(DteTrackStatus.PENDING, postponed.status());
+        assertEquals(1, postponed.polls());
+        assertFalse(postponed.availableAt().isBefore(before.plusSeconds(30)));
+    }
+
+    @Test
+    void pollTrack_ShouldExpireTracksPastTheTrackingWindow() {
+        // Given: registered four days ago and still failing
+        Instant registered = Instant.now().minus(Duration.ofDays(4));
+        DteTrack track = DteTrack.register(companyId, "1001", RUT,
+                List.of(DteTrackDocument.pending(UUID.randomUUID(), 33, 1L)), registered, registered);
+        when(siiSoapPort.getUploadStatus(any(), any(), any()))
+                .thenReturn(new DteUploadStatus("-11", "TRACKID NO EXISTE", List.of(), List.of()));
+
+        // When
+        poller.pollTrack(track, token);
+
+        // Then
+        ArgumentCaptor<DteTrack> expired = ArgumentCaptor.forClass(DteTrack.class);
+        verify(trackingService).resolve(expired.capture());
+        assertEquals(DteTrackStatus.EXPIRED, expired.getValue().status());
+        assertEquals(DteDocumentStatus.UNKNOWN, expired.getValue().documents().get(0).status());
+        assertTrue(saved.isEmpty());
+    }
+
+    @Test
+    void nextDelay_ShouldStayFastThenGrowUpToTheMaximum() {
+        assertEquals(5000, DteTrackPoller.nextDelay(1, 5000, 3, 2.0, 60000));
+        assertEquals(5000, DteTrackPoller.nextDelay(3, 5000, 3, 2.0, 60000));
+        assertEquals(10000, DteTrackPoller.nextDelay(4, 5000, 3, 2.0, 60000));
+        assertEquals(40000, DteTrackPoller.nextDelay(6, 5000, 3, 2.0, 60000));
+        assertEquals(60000, DteTrackPoller.nextDelay(40, 5000, 3, 2.0, 60000));
+    }
+
+    private static DteTrack track(CompanyId companyId, String trackId, int polls, int... types) {
+        List<DteTrackDocument> documents = new ArrayList<>();
+        for (int i = 0; i < types.length; i++) {
+            documents.add(DteTrackDocument.pending(UUID.randomUUID(), types[i], 100L + i));
+        }
+        Instant now = Instant.now();
+        return new DteTrack(UUID.randomUUID(), companyId, trackId, RUT, DteTrackStatus.POLLING, null, documents,
+                polls, null, now, now, now);
+    }
+}
@@ -0,0 +1,209 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.scheduler;
+
+import com.casrusil.siierpai.modules.integration_sii.application.service.SiiRcvService;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvBackfillJob;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvBackfillStatus;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvData;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvRegisters;
+import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiToken;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.in.AuthenticateSiiUseCase;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.RcvBackfillJobRepository;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.SiiTokenRepository;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto.CompanyCertificateLoader;
+import com.casrusil.siierpai.modules.invoicing.application.service.RcvInvoiceImporter;
+import com.casrusil.siierpai.modules.invoicing.domain.model.TransactionType;
+import com.casrusil.siierpai.modules.sso.domain.model.Company;
+import com.casrusil.siierpai.modules.sso.domain.port.out.CompanyRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.infrastructure.notification.NotificationService;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RcvBackfillWorkerTest {
+
+    private static final String RUT = "76123456-7";
+
+    @Mock
+    private RcvBackfillJobRepository jobRepository;
+
+    @Mock
+    private SiiRcvService siiRcvService;
+
+    @Mock
+    private RcvInvoiceImporter rcvInvoiceImporter;
+
+    @Mock
+    private SiiTokenRepository tokenRepository;
+
+    @Mock
+    private AuthenticateSiiUseCase authenticateSiiUseCase;
+
+    @Mock
+    private CompanyCertificateLoader certificateLoader;
+
+    @Mock
+    private CompanyRepository companyRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    private final List<RcvBackfillJob> saved = new ArrayList<>();
+    private final CompanyId companyId = CompanyId.random();
+    private RcvBackfillWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        worker = new RcvBackfillWorker(jobRepository, siiRcvService, rcvInvoiceImporter, tokenRepository,
+                authenticateSiiUseCase, certificateLoader, companyRepository, notificationService,
+                RateLimiterRegistry.ofDefaults(), 1, 3, 1000, 30000, 600);
+
+        Company company = mock(Company.class);
+        lenient().when(company.getRut()).thenReturn(RUT);
+        lenient().when(companyRepository.findById(companyId)).thenReturn(Optional.of(company));
+        lenient().when(tokenRepository.findByCompanyId(companyId))
+                .thenReturn(Optional.of(new SiiToken("TOKEN", Instant.now().plus(Duration.ofHours(1)))));
+        lenient().when(jobRepository.save(any(RcvBackfillJob.class))).thenAnswer(invocation -> {
+            RcvBackfillJob job = invocation.getArgument(0);
+            saved.add(job);
+            return job;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    @Test
+    void run_ShouldResumeAfterCheckpointAndCheckpointEveryPeriod() {
+        // Given: 2024-01..2024-03 with 2024-01 already imported
+        RcvBackfillJob job = job().checkpoint(YearMonth.of(2024, 1), 5, Instant.now(), Instant.now());
+        RcvData purchase = entry(10L);
+        RcvData sale = entry(20L);
+        when(siiRcvService.downloadRegisters(any(), eq(companyId), eq(RUT), any(), anyBoolean()))
+                .thenReturn(new RcvRegisters(List.of(purchase), List.of(sale)));
+        when(rcvInvoiceImporter.importRegister(eq(companyId), any(), any(), eq(RUT))).thenReturn(1);
+
+        // When
+        worker.run(job);
+
+        // Then
+        verify(siiRcvService, never()).downloadRegisters(any(), any(), any(), eq(YearMonth.of(2024, 1)),
+                anyBoolean());
+        verify(siiRcvService).downloadRegisters(any(), any(), any(), eq(YearMonth.of(2024, 2)), eq(true));
+        verify(siiRcvService).downloadRegisters(any(), any(), any(), eq(YearMonth.of(2024, 3)), eq(true));
+        verify(rcvInvoiceImporter, times(2)).importRegister(companyId, List.of(purchase), TransactionType.PURCHASE,
+                RUT);
+        verify(rcvInvoiceImporter, times(2)).importRegister(companyId, List.of(sale), TransactionType.SALE, RUT);
+
+        assertEquals(3, saved.size());
+        assertEquals(YearMonth.of(2024, 2), saved.get(0).checkpoint());
+        assertEquals(YearMonth.of(2024, 3), saved.get(1).checkpoint());
+        RcvBackfillJob last = saved.get(2);
+        assertEquals(RcvBackfillStatus.COMPLETED, last.status());
+        assertEquals(9, last.documentsImported());
+        verify(notificationService, times(3)).sendNotification(eq("user-1"), anyString());
+    }
+
+    @Test
+    void run_ShouldPostponeWithoutSpendingAttemptWhenCircuitIsOpen() {
+        // Given
+        CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("sii");
+        circuitBreaker.transitionToOpenState();
+        when(siiRcvService.downloadRegisters(any(), any(), any(), any(), anyBoolean()))
+                .thenThrow(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+
+        // When
+        Instant before = Instant.now();
+        worker.run(job());
+
+        // Then
+        assertEquals(1, saved.size());
+        RcvBackfillJob postponed = saved.get(0);
+        assertEquals(RcvBackfillStatus.QUEUED, postponed.status());
+        assertEquals(0, postponed.attempts());
+        assertNull(postponed.checkpoint());
+        assertFalse(postponed.availableAt().isBefore(before.plusSeconds(30)));
+        verifyNoInteractions(rcvInvoiceImporter);
+    }
+
+    @Test
+    void run_ShouldRetryAndFinallyFailAfterMaxAttempts() {
+        // Given
+        when(siiRcvService.downloadRegisters(any(), any(), any(), any(), anyBoolean()))
+                .thenThrow(new IllegalStateException("SII unavailable"));
+        RcvBackfillJob job = job();
+
+        // When
+        worker.run(job);
+        worker.run(saved.get(0));
+        worker.run(saved.get(1));
+
+        // Then
+        assertEquals(RcvBackfillStatus.QUEUED, saved.get(0).status());
+        assertEquals(1, saved.get(0).attempts());
+        assertTrue(saved.get(1).availableAt().isAfter(saved.get(0).availableAt()));
+        assertEquals(RcvBackfillStatus.FAILED, saved.get(2).status());
+        verify(notificationService).sendNotification(eq("user-1"), contains("falló"));
+    }
+
+    @Test
+    void run_ShouldAuthenticateWhenTokenExpired() {
+        // Given
+        SiiToken fresh = new SiiToken("NEW", Instant.now().plus(Duration.ofHours(1)));
+        when(tokenRepository.findByCompanyId(companyId))
+                .thenReturn(Optional.of(new SiiToken("OLD", Instant.now().minusSeconds(1))));
+        when(authenticateSiiUseCase.authenticate(any())).thenReturn(fresh);
+        when(siiRcvService.downloadRegisters(eq(fresh), any(), any(), any(), anyBoolean()))
+                .thenReturn(new RcvRegisters(List.of(), List.of()));
+
+        // When
+        worker.run(RcvBackfillJob.queue(companyId, YearMonth.of(2024, 1), YearMonth.of(2024, 1), null,
+                Instant.now()));
+
+        // Then
+        verify(tokenRepository).save(companyId, fresh);
+        assertEquals(RcvBackfillStatus.COMPLETED, saved.get(saved.size() - 1).status());
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void eta_ShouldExtrapolateFromRunPace() {
+        assertEquals(Duration.ofMinutes(30), RcvBackfillWorker.eta(Duration.ofMinutes(10), 2, 6));
+        assertNull(RcvBackfillWorker.eta(Duration.ofMinutes(10), 0, 6));
+    }
+
+    private RcvBackfillJob job() {
+        return RcvBackfillJob.queue(companyId, YearMonth.of(2024, 1), YearMonth.of(2024, 3), "user-1",
+                Instant.now());
+    }
+
+    private static RcvData entry(Long folio) {
+        return new RcvData(33, folio, "11111111-1", "Proveedor", LocalDate.of(2024, 2, 5),
+                new BigDecimal("1190"), new BigDecimal("1000"), new BigDecimal("190"), "REGISTRADO");
+    }
+}
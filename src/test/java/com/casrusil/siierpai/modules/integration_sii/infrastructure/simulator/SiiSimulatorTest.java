@@ -0,0 +1,158 @@
+package com.casrusil.siierpai.modules.integration_sii.infrastructure.simulator;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.SiiCertificate;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.http.SiiHttpTransport;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.rest.SiiUploadClient;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.adapter.out.soap.SiiAuthSoapClient;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto.Pkcs12Handler;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto.XmlDsigSigner;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.simulator.SiiSimulator.Reply;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.simulator.SiiSimulator.Settings;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.simulator.SiiSimulator.SignatureCheck;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recorre el ciclo de vida de un DTE contra el {@link SiiSimulator}, con los
+ * clientes reales sobre {@link SiiSimulatorServer} y firmas reales.
+ */
+class SiiSimulatorTest {
+
+    private static final String RUT = "76123456-7";
+
+    private static SiiCertificate certificate;
+    private final XmlDsigSigner signer = new XmlDsigSigner();
+
+    @BeforeAll
+    static void loadCertificate() {
+        certificate = new Pkcs12Handler().loadCertificate("classpath:dummy.p12", "123456");
+    }
+
+    @Test
+    void lifecycle_ShouldAuthenticateUploadAndReportTheEnvelope() throws Exception {
+        SiiSimulator simulator = new SiiSimulator(settings(0, SignatureCheck.STRUCTURAL));
+        try (SiiSimulatorServer server = SiiSimulatorServer.start(new InetSocketAddress("localhost", 0), simulator)) {
+            SiiHttpTransport transport = SiiHttpTransport.of(HttpClient.newHttpClient());
+            SiiAuthSoapClient auth = new SiiAuthSoapClient(server.baseUrl() + "/fake-sii/DTEWS", transport);
+            SiiUploadClient upload = new SiiUploadClient(server.baseUrl() + "/fake-sii/cgi_dte/UPL/DTEUpload",
+                    transport);
+
+            String token = auth.getToken(signedSeed(auth.getSeed()));
+            String trackId = upload.uploadEnvioDte(token, envelope(33, 1001L, 33, 1002L), RUT, RUT);
+
+            String status = simulator.uploadStatus(statusRequest(token, trackId)).body();
+            assertTrue(status.contains("<ESTADO>EPR</ESTADO>"), status);
+            assertTrue(status.contains("<INFORMADOS>2</INFORMADOS><ACEPTADOS>2</ACEPTADOS>"), status);
+            assertTrue(status.contains("<FOLIO>1002</FOLIO><ESTADO>DOK</ESTADO>"), status);
+            assertEquals(1L, simulator.stats().get("upload"));
+            assertEquals(2L, simulator.stats().get("documents"));
+        }
+    }
+
+    @Test
+    void token_ShouldAcceptEachSeedOnceAndOnlySigned() {
+        SiiSimulator simulator = new SiiSimulator(settings(0, SignatureCheck.STRUCTURAL));
+        String seed = SiiSimulator.tag(simulator.seed().body(), "SEMILLA");
+        String unsigned = SiiSimulator.tag(simulator.seed().body(), "SEMILLA");
+
+        String request = tokenRequest(signedSeed(seed));
+        assertTrue(simulator.token(request).body().contains("<TOKEN>"));
+        assertTrue(simulator.token(request).body().contains("<ESTADO>-07</ESTADO>"));
+        assertTrue(simulator.token(tokenRequest("<getToken><item><Semilla>" + unsigned
+                + "</Semilla></item></getToken>")).body().contains("Firma no valida"));
+        assertEquals(2L, simulator.stats().get("authRejected"));
+    }
+
+    @Test
+    void upload_ShouldRequireATokenAndAtLeastOneDocument() {
+        SiiSimulator simulator = new SiiSimulator(settings(0, SignatureCheck.NONE));
+        String token = SiiSimulator.tag(simulator.token(tokenRequest(signedSeed(
+                SiiSimulator.tag(simulator.seed().body(), "SEMILLA")))).body(), "TOKEN");
+        byte[] envelope = envelope(33, 1L).getBytes(StandardCharsets.ISO_8859_1);
+
+        assertTrue(simulator.upload("FORGED", "76123456", "76123456", envelope).body()
+                .contains("<STATUS>5</STATUS>"));
+        assertTrue(simulator.upload(token, "76123456", "76123456",
+                "<EnvioDTE><SetDTE ID=\"SetDoc\"/></EnvioDTE>".getBytes(StandardCharsets.ISO_8859_1)).body()
+                .contains("<STATUS>7</STATUS>"));
+        assertTrue(simulator.upload(token, "76123456", "76123456", envelope).body()
+                .contains("<STATUS>0</STATUS><TRACKID>"));
+    }
+
+    @Test
+    void uploadStatus_ShouldReportProgressAndRejectTamperedSignatures() throws Exception {
+        SiiSimulator simulator = new SiiSimulator(settings(200, SignatureCheck.STRUCTURAL));
+        String token = SiiSimulator.tag(simulator.token(tokenRequest(signedSeed(
+                SiiSimulator.tag(simulator.seed().body(), "SEMILLA")))).body(), "TOKEN");
+        String signed = envelope(33, 7L);
+        String value = SiiSimulator.tag(signed, "SignatureValue");
+        byte[] tampered = signed.replace(value, value.substring(8)).getBytes(StandardCharsets.ISO_8859_1);
+
+        Reply receipt = simulator.upload(token, "76123456", "76123456", tampered);
+        String trackId = SiiSimulator.tag(receipt.body(), "TRACKID");
+
+        assertTrue(simulator.uploadStatus(statusRequest(token, trackId)).body().contains("<ESTADO>SOK</ESTADO>"));
+        Thread.sleep(300);
+        String processed = simulator.uploadStatus(statusRequest(token, trackId)).body();
+        assertTrue(processed.contains("<ESTADO>RFR</ESTADO>"), processed);
+        assertTrue(processed.contains("<RECHAZADOS>1</RECHAZADOS>"), processed);
+        assertTrue(simulator.uploadStatus(statusRequest(token, "999")).body().contains("<ESTADO>-11</ESTADO>"));
+    }
+
+    @Test
+    void rcv_ShouldBeDeterministicAndCompressedWhenAccepted() {
+        SiiSimulator simulator = new SiiSimulator(new Settings(0, 0, 0.0, 50, 0, 0.0, Duration.ofHours(1),
+                SignatureCheck.NONE, false));
+        String request = "<RutEmpresa>76123456-7</RutEmpresa><Periodo>202403</Periodo><Operacion>COMPRA</Operacion>";
+
+        Reply first = simulator.rcv(null, request);
+        assertEquals(first, simulator.rcv(null, request));
+        assertEquals(50, first.body().split("<Detalle>").length - 1);
+        assertTrue(simulator.encode(first, "gzip, deflate").gzipped());
+        assertEquals(400, simulator.rcv(null, "<Periodo>2024-03</Periodo>").status());
+    }
+
+    private String signedSeed(String seed) {
+        return signer.signXml("<getToken>\n<item>\n<Semilla>" + seed + "</Semilla>\n</item>\n</getToken>\n", "",
+                certificate);
+    }
+
+    /**
+     * EnvioDTE con un DTE firmado por cada par tipo/folio, firmado a su vez
+     * como sobre.
+     */
+    private String envelope(Object... typesAndFolios) {
+        StringBuilder documents = new StringBuilder();
+        for (int i = 0; i < typesAndFolios.length; i += 2) {
+            String dte = "<DTE version=\"1.0\"><Documento><TED><DD><RE>" + RUT + "</RE><TD>" + typesAndFolios[i]
+                    + "</TD><F>" + typesAndFolios[i + 1] + "</F></DD></TED></Documento></DTE>";
+            documents.append(withoutDeclaration(signer.signXml(dte, "", certificate)));
+        }
+        return signer.signXml("<EnvioDTE><SetDTE ID=\"SetDoc\"><Caratula/>" + documents
+                + "</SetDTE></EnvioDTE>", "", certificate);
+    }
+
+    private static String withoutDeclaration(String xml) {
+        return xml.replaceFirst("^<\\?xml[^>]*>", "");
+    }
+
+    private static String tokenRequest(String signedSeed) {
+        return "<pszXml>" + signedSeed.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                + "</pszXml>";
+    }
+
+    private static String statusRequest(String token, String trackId) {
+        return "<RutCompania>76123456</RutCompania><TrackId>" + trackId + "</TrackId><Token>" + token + "</Token>";
+    }
+
+    private static Settings settings(long processingMillis, SignatureCheck signatureCheck) {
+        return new Settings(0, 0, 0.0, 10, processingMillis, 0.0, Duration.ofHours(1), signatureCheck, true);
+    }
+}
@@ -5,11 +5,12 @@ import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
 import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceType;
 import com.casrusil.siierpai.modules.invoicing.domain.model.TransactionType;
 import com.casrusil.siierpai.modules.invoicing.domain.port.out.InvoiceRepository;
+import com.casrusil.siierpai.shared.domain.event.DomainEvent;
+import com.casrusil.siierpai.shared.domain.event.EventPublisher;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
 import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -80,6 +81,11 @@ class InvoiceManagementServiceTest {
             return Optional.empty();
         }
 
+        @Override
+        public List<Invoice> findAllById(java.util.Collection<UUID> ids) {
+            return Collections.emptyList();
+        }
+
         @Override
         public List<Invoice> findByCompanyId(CompanyId companyId) {
             return Collections.emptyList();
@@ -91,11 +97,11 @@ class InvoiceManagementServiceTest {
         }
     }
 
-    static class StubEventPublisher implements ApplicationEventPublisher {
+    static class StubEventPublisher implements EventPublisher {
         List<Object> events = new ArrayList<>();
 
         @Override
-        public void publishEvent(Object event) {
+        public void publish(DomainEvent event) {
             events.add(event);
         }
     }
@@ -0,0 +1,86 @@
+package com.casrusil.siierpai.modules.invoicing.application.service;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.RcvData;
+import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.TransactionType;
+import com.casrusil.siierpai.modules.invoicing.domain.port.in.CreateInvoiceUseCase;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RcvInvoiceImporterTest {
+
+    private static final String COMPANY_RUT = "76123456-7";
+    private static final String COUNTERPARTY_RUT = "77987654-3";
+
+    @Mock
+    private CreateInvoiceUseCase createInvoiceUseCase;
+
+    private final CompanyId companyId = CompanyId.random();
+    private RcvInvoiceImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        importer = new RcvInvoiceImporter(createInvoiceUseCase);
+        when(createInvoiceUseCase.createInvoices(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void importRegister_ShouldRecordTheCompanyAsIssuerOfItsSales() {
+        // When: the sales register lists the customer
+        importer.importRegister(companyId, List.of(row(COUNTERPARTY_RUT)), TransactionType.SALE, COMPANY_RUT);
+
+        // Then
+        Invoice sale = imported();
+        assertEquals(COMPANY_RUT, sale.getIssuerRut());
+        assertEquals(COUNTERPARTY_RUT, sale.getReceiverRut());
+        assertEquals(TransactionType.SALE, sale.getTransactionType());
+    }
+
+    @Test
+    void importRegister_ShouldNotRecordTheCompanyAsCustomerOfItsOwnSales() {
+        // When: the sales row carries the company's own RUT
+        importer.importRegister(companyId, List.of(row(COMPANY_RUT)), TransactionType.SALE, COMPANY_RUT);
+
+        // Then: the customer is unknown rather than the company itself
+        Invoice sale = imported();
+        assertEquals(COMPANY_RUT, sale.getIssuerRut());
+        assertNull(sale.getReceiverRut());
+    }
+
+    @Test
+    void importRegister_ShouldRecordTheCompanyAsReceiverOfItsPurchases() {
+        importer.importRegister(companyId, List.of(row(COUNTERPARTY_RUT)), TransactionType.PURCHASE, COMPANY_RUT);
+
+        Invoice purchase = imported();
+        assertEquals(COUNTERPARTY_RUT, purchase.getIssuerRut());
+        assertEquals(COMPANY_RUT, purchase.getReceiverRut());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Invoice imported() {
+        ArgumentCaptor<List<Invoice>> invoices = ArgumentCaptor.forClass(List.class);
+        verify(createInvoiceUseCase).createInvoices(invoices.capture());
+        assertEquals(1, invoices.getValue().size());
+        return invoices.getValue().get(0);
+    }
+
+    private static RcvData row(String rut) {
+        return new RcvData(33, 42L, rut, "Contraparte SpA", LocalDate.of(2025, 10, 15), new BigDecimal("1190"),
+                new BigDecimal("1000"), new BigDecimal("190"), "REGISTRADO");
+    }
+}
@@ -0,0 +1,189 @@
+package com.casrusil.siierpai.modules.invoicing.domain.service;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.Caf;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.CafRepository;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.barcode.Pdf417Generator;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto.TedGenerator;
+import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceType;
+import com.casrusil.siierpai.modules.invoicing.domain.port.out.InvoiceRepository;
+import com.casrusil.siierpai.modules.invoicing.infrastructure.mail.InvoiceEmailSender;
+import com.casrusil.siierpai.modules.invoicing.infrastructure.pdf.InvoicePdfGenerator;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceDispatchServiceTest {
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @Mock
+    private CafRepository cafRepository;
+
+    @Mock
+    private TedGenerator tedGenerator;
+
+    @Mock
+    private Pdf417Generator pdf417Generator;
+
+    @Mock
+    private InvoicePdfGenerator invoicePdfGenerator;
+
+    @Mock
+    private InvoiceEmailSender invoiceEmailSender;
+
+    private final CompanyId companyId = CompanyId.random();
+    private InvoiceDispatchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new InvoiceDispatchService(invoiceRepository, cafRepository, tedGenerator, pdf417Generator,
+                invoicePdfGenerator, invoiceEmailSender, 3, 50);
+
+        Caf caf = new Caf("<AUTORIZACION/>", 1L, 1000L, null, "33");
+        lenient().when(cafRepository.findActiveForFolio(any(), anyString(), any())).thenReturn(Optional.of(caf));
+        lenient().when(tedGenerator.generateTedXml(any(), any())).thenReturn("<TED/>");
+        lenient().when(pdf417Generator.generatePdf417(anyString())).thenReturn(new byte[] { 1 });
+        lenient().when(invoicePdfGenerator.generatePdf(any(), any()))
+                .thenAnswer(invocation -> pdf(invocation.<Invoice>getArgument(0)));
+    }
+
+    @Test
+    void writePdfZip_ShouldWriteEveryPdfInRequestOrder() throws Exception {
+        // Given: more invoices than renders in flight
+        List<UUID> ids = new ArrayList<>();
+        for (long folio = 1; folio <= 10; folio++) {
+            ids.add(stored(invoice(companyId, folio)).getId());
+        }
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = service.writePdfZip(companyId, ids, out);
+
+        // Then
+        assertEquals(10, written);
+        Map<String, String> entries = entries(out.toByteArray());
+        List<String> names = new ArrayList<>(entries.keySet());
+        assertEquals("DTE_33_1.pdf", names.get(0));
+        assertEquals("DTE_33_10.pdf", names.get(9));
+        assertEquals(10, names.size());
+        assertEquals("PDF 3", entries.get("DTE_33_3.pdf"));
+    }
+
+    @Test
+    void writePdfZip_ShouldListSkippedInvoicesInAnErrorEntry() throws Exception {
+        // Given: one good invoice, one of another company, one that fails to render, one missing
+        Invoice good = stored(invoice(companyId, 1L));
+        Invoice foreign = stored(invoice(CompanyId.random(), 2L));
+        Invoice broken = stored(invoice(companyId, 3L));
+        UUID missing = UUID.randomUUID();
+        when(invoiceRepository.findById(missing)).thenReturn(Optional.empty());
+        doThrow(new RuntimeException("Failed to generate PDF")).when(invoicePdfGenerator)
+                .generatePdf(eq(broken), any());
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = service.writePdfZip(companyId, List.of(good.getId(), foreign.getId(), broken.getId(), missing),
+                out);
+
+        // Then: the other company's invoice is reported as not found, not rendered
+        assertEquals(1, written);
+        Map<String, String> entries = entries(out.toByteArray());
+        assertEquals(List.of("DTE_33_1.pdf", "errores.txt"), new ArrayList<>(entries.keySet()));
+        String errors = entries.get("errores.txt");
+        assertTrue(errors.contains(foreign.getId() + ": not found"), errors);
+        assertTrue(errors.contains(missing + ": not found"), errors);
+        assertTrue(errors.contains("(folio 3): Failed to generate PDF"), errors);
+        verify(invoicePdfGenerator, never()).generatePdf(eq(foreign), any());
+    }
+
+    @Test
+    void dispatchInvoices_ShouldCountSentAndFailedInvoices() {
+        // Given
+        Map<UUID, String> recipients = new LinkedHashMap<>();
+        for (long folio = 1; folio <= 5; folio++) {
+            recipients.put(stored(invoice(companyId, folio)).getId(), "cliente" + folio + "@example.com");
+        }
+        recipients.put(stored(invoice(CompanyId.random(), 6L)).getId(), "otro@example.com");
+        doThrow(new RuntimeException("SMTP down")).when(invoiceEmailSender)
+                .sendInvoiceEmail(eq("cliente2@example.com"), anyString(), anyString(), any(), anyString());
+
+        // When
+        InvoiceDispatchService.BatchResult result = service.dispatchInvoices(companyId, recipients);
+
+        // Then
+        assertEquals(new InvoiceDispatchService.BatchResult(4, 2), result);
+        verify(invoiceEmailSender).sendInvoiceEmail(eq("cliente5@example.com"), anyString(), anyString(),
+                eq("PDF 5".getBytes(StandardCharsets.UTF_8)), eq("DTE_5.pdf"));
+        verify(invoiceEmailSender, never()).sendInvoiceEmail(eq("otro@example.com"), anyString(), anyString(), any(),
+                anyString());
+    }
+
+    @Test
+    void batches_ShouldRejectMoreThanTheConfiguredMaximum() {
+        List<UUID> ids = Collections.nCopies(51, UUID.randomUUID());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.writePdfZip(companyId, ids, new ByteArrayOutputStream()));
+        verifyNoInteractions(invoiceRepository);
+    }
+
+    private Invoice stored(Invoice invoice) {
+        lenient().when(invoiceRepository.findById(invoice.getId())).thenReturn(Optional.of(invoice));
+        return invoice;
+    }
+
+    private static byte[] pdf(Invoice invoice) {
+        return ("PDF " + invoice.getFolio()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> entries(byte[] zip) throws Exception {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                entries.put(entry.getName(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+
+    private static Invoice invoice(CompanyId companyId, long folio) {
+        return Invoice.create(
+                companyId,
+                InvoiceType.FACTURA_ELECTRONICA,
+                folio,
+                "76123456-7",
+                "76987654-3",
+                LocalDate.now(),
+                new BigDecimal("1000"),
+                new BigDecimal("190"),
+                new BigDecimal("1190"),
+                Collections.emptyList());
+    }
+}
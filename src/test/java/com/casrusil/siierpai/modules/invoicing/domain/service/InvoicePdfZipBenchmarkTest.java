@@ -0,0 +1,160 @@
+package com.casrusil.siierpai.modules.invoicing.domain.service;
+
+import com.casrusil.siierpai.modules.integration_sii.domain.model.Caf;
+import com.casrusil.siierpai.modules.integration_sii.domain.port.out.CafRepository;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.barcode.Pdf417Generator;
+import com.casrusil.siierpai.modules.integration_sii.infrastructure.crypto.TedGenerator;
+import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceType;
+import com.casrusil.siierpai.modules.invoicing.domain.port.out.InvoiceRepository;
+import com.casrusil.siierpai.modules.invoicing.infrastructure.mail.InvoiceEmailSender;
+import com.casrusil.siierpai.modules.invoicing.infrastructure.pdf.InvoicePdfGenerator;
+import com.casrusil.siierpai.modules.sso.domain.model.Company;
+import com.casrusil.siierpai.modules.sso.domain.port.out.CompanyRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Time and peak heap of {@link InvoiceDispatchService#writePdfZip} for 1k and
+ * 10k invoices, with the real PDF417 and PDF renderers and the ZIP streamed to
+ * a sink, the way the download endpoint streams it to the client. Peak heap
+ * should stay roughly flat from 1k to 10k: only the render window is held.
+ *
+ * <p>
+ * Excluded from {@code test}; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@ExtendWith(MockitoExtension.class)
+class InvoicePdfZipBenchmarkTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 4);
+    private static final String TED = "<TED version=\"1.0\"><DD><RE>76123456-7</RE><TD>33</TD><F>1</F>"
+            + "<FE>2025-10-01</FE><RR>76987654-3</RR><RSR>Cliente de Prueba SpA</RSR><MNT>1190</MNT>"
+            + "<IT1>Servicio de asesoria contable mensual</IT1><CAF version=\"1.0\"><DA><RE>76123456-7</RE>"
+            + "<RS>Empresa</RS><TD>33</TD><RNG><D>1</D><H>100000</H></RNG><FA>2025-01-01</FA><IDK>100</IDK>"
+            + "</DA><FRMA algoritmo=\"SHA1withRSA\">" + "A".repeat(172) + "</FRMA></CAF>"
+            + "<TSTED>2025-10-01T10:00:00</TSTED></DD><FRMT algoritmo=\"SHA1withRSA\">" + "B".repeat(172)
+            + "</FRMT></TED>";
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @Mock
+    private CafRepository cafRepository;
+
+    @Mock
+    private TedGenerator tedGenerator;
+
+    @Mock
+    private InvoiceEmailSender invoiceEmailSender;
+
+    @Mock
+    private CompanyRepository companyRepository;
+
+    private final CompanyId companyId = CompanyId.random();
+    private final Map<UUID, Invoice> invoices = new ConcurrentHashMap<>();
+    private InvoiceDispatchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new InvoiceDispatchService(invoiceRepository, cafRepository, tedGenerator, new Pdf417Generator(),
+                new InvoicePdfGenerator(companyRepository, 1000, 10), invoiceEmailSender, CONCURRENCY, 10_000);
+
+        when(invoiceRepository.findById(any()))
+                .thenAnswer(invocation -> Optional.ofNullable(invoices.get(invocation.<UUID>getArgument(0))));
+        when(cafRepository.findActiveForFolio(any(), anyString(), any()))
+                .thenReturn(Optional.of(new Caf("<AUTORIZACION/>", 1L, 100_000L, null, "33")));
+        when(tedGenerator.generateTedXml(any(), any())).thenReturn(TED);
+        when(companyRepository.findById(companyId)).thenReturn(Optional.of(new Company(companyId, "76.123.456-7",
+                "Empresa de Prueba SpA", "contacto@example.com", true, Instant.now(), "Av. Apoquindo 1000",
+                "example.com", "+56 2 2345 6789", null, true)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1_000, 10_000 })
+    void writePdfZip_TimeAndPeakHeap(int documents) throws Exception {
+        // Given
+        List<UUID> ids = new ArrayList<>(documents);
+        for (long folio = 1; folio <= documents; folio++) {
+            Invoice invoice = invoice(folio);
+            invoices.put(invoice.getId(), invoice);
+            ids.add(invoice.getId());
+        }
+        service.writePdfZip(companyId, ids.subList(0, Math.min(200, documents)), OutputStream.nullOutputStream());
+
+        // When
+        List<MemoryPoolMXBean> heap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        System.gc();
+        long baseline = heap.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+        heap.forEach(MemoryPoolMXBean::resetPeakUsage);
+        CountingOutputStream zip = new CountingOutputStream();
+        long start = System.nanoTime();
+        int written = service.writePdfZip(companyId, ids, zip);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        long peak = heap.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+        // Then: heap peaks are per pool, so the sum is an upper bound
+        System.out.printf("writePdfZip, %d invoices, %d in flight: %d ms (%.0f PDF/s), ZIP %d KB, "
+                + "peak heap %d MB (%d MB over baseline)%n", documents, CONCURRENCY, elapsedMillis,
+                documents * 1000.0 / Math.max(1, elapsedMillis), zip.count / 1024, peak >> 20,
+                Math.max(0, peak - baseline) >> 20);
+        assertEquals(documents, written);
+    }
+
+    private Invoice invoice(long folio) {
+        return Invoice.create(
+                companyId,
+                InvoiceType.FACTURA_ELECTRONICA,
+                folio,
+                "76123456-7",
+                "76987654-3",
+                LocalDate.now(),
+                new BigDecimal("1000"),
+                new BigDecimal("190"),
+                new BigDecimal("1190"),
+                Collections.emptyList());
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
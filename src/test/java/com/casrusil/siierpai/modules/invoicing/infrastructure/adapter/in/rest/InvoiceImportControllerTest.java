@@ -76,5 +76,11 @@ class InvoiceImportControllerTest {
             createdInvoices.add(invoice);
             return invoice;
         }
+
+        @Override
+        public List<Invoice> createInvoices(List<Invoice> invoices) {
+            createdInvoices.addAll(invoices);
+            return invoices;
+        }
     }
 }
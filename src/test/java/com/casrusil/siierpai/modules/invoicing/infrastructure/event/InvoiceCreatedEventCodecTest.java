@@ -0,0 +1,79 @@
+package com.casrusil.siierpai.modules.invoicing.infrastructure.event;
+
+import com.casrusil.siierpai.modules.invoicing.domain.event.InvoiceCreatedEvent;
+import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceType;
+import com.casrusil.siierpai.modules.invoicing.domain.port.out.InvoiceRepository;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceCreatedEventCodecTest {
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    private InvoiceCreatedEventCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        codec = new InvoiceCreatedEventCodec(invoiceRepository, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void decodeAll_ShouldLoadTheWholeBatchInOneQuery() {
+        // Given: three events, one of them for an invoice deleted since
+        Invoice first = invoice(1L);
+        Invoice second = invoice(2L);
+        Invoice deleted = invoice(3L);
+        Instant occurredOn = Instant.parse("2025-10-15T12:00:00Z");
+        List<String> payloads = List.of(
+                codec.encode(new InvoiceCreatedEvent(second, occurredOn)),
+                codec.encode(new InvoiceCreatedEvent(deleted, occurredOn)),
+                codec.encode(new InvoiceCreatedEvent(first, occurredOn)));
+        when(invoiceRepository.findAllById(anyCollection())).thenReturn(List.of(first, second));
+
+        // When
+        List<InvoiceCreatedEvent> events = codec.decodeAll(payloads);
+
+        // Then: payload order is kept and the missing invoice is skipped
+        assertEquals(List.of(new InvoiceCreatedEvent(second, occurredOn), new InvoiceCreatedEvent(first, occurredOn)),
+                events);
+        verify(invoiceRepository, times(1)).findAllById(List.of(second.getId(), deleted.getId(), first.getId()));
+        verify(invoiceRepository, never()).findById(any(UUID.class));
+    }
+
+    private static Invoice invoice(long folio) {
+        return Invoice.create(
+                CompanyId.random(),
+                InvoiceType.FACTURA_ELECTRONICA,
+                folio,
+                "76123456-7",
+                "76987654-3",
+                LocalDate.now(),
+                new BigDecimal("1000"),
+                new BigDecimal("190"),
+                new BigDecimal("1190"),
+                Collections.emptyList());
+    }
+}
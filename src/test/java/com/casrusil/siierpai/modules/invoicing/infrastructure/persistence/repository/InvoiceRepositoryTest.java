@@ -1,10 +1,19 @@
 package com.casrusil.siierpai.modules.invoicing.infrastructure.persistence.repository;
 
 import com.casrusil.siierpai.modules.invoicing.domain.model.Invoice;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceCursor;
 import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceLine;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoicePage;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceQuery;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceSummary;
+import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceTotals;
 import com.casrusil.siierpai.modules.invoicing.domain.model.InvoiceType;
+import com.casrusil.siierpai.modules.invoicing.domain.model.PaymentStatus;
+import com.casrusil.siierpai.modules.invoicing.domain.model.TransactionType;
 import com.casrusil.siierpai.modules.invoicing.domain.port.out.InvoiceRepository;
 import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.test.QueryCountAssertions;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -13,8 +22,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -26,6 +39,9 @@ class InvoiceRepositoryTest {
     @Autowired
     private InvoiceRepository invoiceRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     void shouldSaveAndFindInvoice() {
         // Given
@@ -54,4 +70,206 @@ class InvoiceRepositoryTest {
         assertEquals(1, foundInvoice.getItems().size());
         assertEquals("Item 1", foundInvoice.getItems().get(0).itemName());
     }
+
+    @Test
+    void findById_ShouldLoadInvoiceAndItemsWithinQueryBudget() {
+        // Given
+        CompanyId companyId = new CompanyId(UUID.randomUUID());
+        Invoice invoice = Invoice.create(
+                companyId,
+                InvoiceType.FACTURA_ELECTRONICA,
+                124L,
+                "76123456-7",
+                "76987654-3",
+                LocalDate.now(),
+                new BigDecimal("2000"),
+                new BigDecimal("380"),
+                new BigDecimal("2380"),
+                List.of(new InvoiceLine(1, "Item 1", "C1", BigDecimal.ONE, new BigDecimal("1000"),
+                        new BigDecimal("1000"), "UN"),
+                        new InvoiceLine(2, "Item 2", "C2", BigDecimal.ONE, new BigDecimal("1000"),
+                                new BigDecimal("1000"), "UN")));
+        invoiceRepository.save(invoice);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        QueryCountAssertions.startCounting();
+        Invoice foundInvoice = invoiceRepository.findById(invoice.getId()).orElseThrow();
+
+        // Then: one select for the invoice and one for all its items
+        QueryCountAssertions.assertMaxQueries(2);
+        assertEquals(2, foundInvoice.getItems().size());
+    }
+
+    @Test
+    void streamHeadersInPeriod_ShouldReturnPeriodInvoicesInOrderWithOneQuery() {
+        // Given
+        CompanyId companyId = new CompanyId(UUID.randomUUID());
+        LocalDate january = LocalDate.of(2025, 1, 1);
+        for (long folio = 1; folio <= 5; folio++) {
+            invoiceRepository.save(Invoice.create(companyId, InvoiceType.FACTURA_ELECTRONICA, folio,
+                    "76123456-7", "76987654-3", january.plusDays(10 - folio),
+                    new BigDecimal("1000"), new BigDecimal("190"), new BigDecimal("1190"), List.of()));
+        }
+        invoiceRepository.save(Invoice.create(companyId, InvoiceType.FACTURA_ELECTRONICA, 6L,
+                "76123456-7", "76987654-3", LocalDate.of(2025, 2, 1),
+                new BigDecimal("1000"), new BigDecimal("190"), new BigDecimal("1190"), List.of()));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        QueryCountAssertions.startCounting();
+        List<Long> folios;
+        try (Stream<Invoice> invoices = invoiceRepository.streamHeadersInPeriod(companyId,
+                january, LocalDate.of(2025, 1, 31))) {
+            folios = invoices.map(Invoice::getFolio).toList();
+        }
+
+        // Then: a single cursor query, ordered by date
+        QueryCountAssertions.assertMaxQueries(1);
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), folios);
+    }
+
+    @Test
+    void findSummaries_ShouldApplyFiltersInTheDatabase() {
+        // Given
+        CompanyId companyId = new CompanyId(UUID.randomUUID());
+        LocalDate january = LocalDate.of(2025, 1, 10);
+        Invoice openSale = save(companyId, 1L, "76111111-1", january, TransactionType.SALE, false);
+        save(companyId, 2L, "76111111-1", january, TransactionType.SALE, true);
+        save(companyId, 3L, "76111111-1", january, TransactionType.PURCHASE, false);
+        save(companyId, 4L, "76222222-2", january, TransactionType.SALE, false);
+        save(companyId, 5L, "76111111-1", january.plusMonths(1), TransactionType.SALE, false);
+        save(new CompanyId(UUID.randomUUID()), 6L, "76111111-1", january, TransactionType.SALE, false);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        QueryCountAssertions.startCounting();
+        List<InvoiceSummary> result = invoiceRepository.findSummaries(InvoiceQuery.forCompany(companyId)
+                .inPeriod(YearMonth.of(2025, 1))
+                .ofTransactionType(TransactionType.SALE)
+                .withPartner("76111111-1")
+                .open());
+
+        // Then: a single column query, no entity or item loading
+        QueryCountAssertions.assertMaxQueries(1);
+        assertEquals(1, result.size());
+        assertEquals(openSale.getId(), result.get(0).id());
+        assertEquals(PaymentStatus.PENDING, result.get(0).status());
+    }
+
+    @Test
+    void findOpenInvoices_ShouldExcludePaidInvoices() {
+        // Given
+        CompanyId companyId = new CompanyId(UUID.randomUUID());
+        save(companyId, 1L, "76111111-1", LocalDate.of(2025, 1, 1), TransactionType.SALE, false);
+        save(companyId, 2L, "76111111-1", LocalDate.of(2025, 1, 2), TransactionType.SALE, true);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<Invoice> open = invoiceRepository.findOpenInvoices(companyId);
+
+        // Then
+        assertEquals(List.of(1L), open.stream().map(Invoice::getFolio).toList());
+    }
+
+    @Test
+    void findSummaryPage_ShouldWalkEveryInvoiceOnceNewestFirst() {
+        // Given: several invoices share a date, so the ID breaks the ties
+        CompanyId companyId = new CompanyId(UUID.randomUUID());
+        for (long folio = 1; folio <= 7; folio++) {
+            save(companyId, folio, "76111111-1", LocalDate.of(2025, 1, 1).plusDays(folio / 3),
+                    TransactionType.SALE, false);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        InvoiceQuery query = InvoiceQuery.forCompany(companyId).orderBy(InvoiceQuery.Order.DATE_DESC);
+
+        // When
+        List<InvoiceSummary> walked = new ArrayList<>();
+        InvoiceCursor after = null;
+        InvoicePage<InvoiceSummary> page;
+        int pages = 0;
+        do {
+            page = invoiceRepository.findSummaryPage(query, after, 3);
+            walked.addAll(page.items());
+            after = page.next();
+            pages++;
+        } while (page.hasNext());
+
+        // Then
+        assertEquals(3, pages);
+        assertEquals(7, walked.size());
+        assertEquals(7, new HashSet<>(walked.stream().map(InvoiceSummary::id).toList()).size());
+        for (int i = 1; i < walked.size(); i++) {
+            assertFalse(walked.get(i).date().isAfter(walked.get(i - 1).date()));
+        }
+    }
+
+    @Test
+    void findPage_ById_ShouldResumeAfterCursor() {
+        // Given
+        CompanyId companyId = new CompanyId(UUID.randomUUID());
+        for (long folio = 1; folio <= 5; folio++) {
+            save(companyId, folio, "76111111-1", LocalDate.of(2025, 1, 1), TransactionType.SALE, false);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        InvoiceQuery query = InvoiceQuery.forCompany(companyId).orderBy(InvoiceQuery.Order.ID_ASC);
+
+        // When
+        InvoicePage<Invoice> first = invoiceRepository.findPage(query, null, 2);
+        InvoicePage<Invoice> rest = invoiceRepository.findPage(query,
+                new InvoiceCursor(null, first.next().id()), 10);
+
+        // Then
+        assertTrue(first.hasNext());
+        assertEquals(2, first.items().size());
+        assertFalse(rest.hasNext());
+        assertEquals(3, rest.items().size());
+        assertTrue(rest.items().stream()
+                .noneMatch(invoice -> first.items().stream().anyMatch(f -> f.getId().equals(invoice.getId()))));
+    }
+
+    @Test
+    void sumByTransactionType_ShouldAggregatePeriodInOneQuery() {
+        // Given
+        CompanyId companyId = new CompanyId(UUID.randomUUID());
+        save(companyId, 1L, "76111111-1", LocalDate.of(2025, 1, 5), TransactionType.SALE, false);
+        save(companyId, 2L, "76111111-1", LocalDate.of(2025, 1, 6), TransactionType.SALE, true);
+        save(companyId, 3L, "76222222-2", LocalDate.of(2025, 1, 7), TransactionType.PURCHASE, false);
+        save(companyId, 4L, "76111111-1", LocalDate.of(2025, 2, 1), TransactionType.SALE, false);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        QueryCountAssertions.startCounting();
+        List<InvoiceTotals> totals = invoiceRepository.sumByTransactionType(companyId,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+
+        // Then
+        QueryCountAssertions.assertMaxQueries(1);
+        InvoiceTotals sales = totals.stream()
+                .filter(total -> total.transactionType() == TransactionType.SALE).findFirst().orElseThrow();
+        InvoiceTotals purchases = totals.stream()
+                .filter(total -> total.transactionType() == TransactionType.PURCHASE).findFirst().orElseThrow();
+        assertEquals(2, totals.size());
+        assertEquals(2, sales.count());
+        assertEquals(0, new BigDecimal("2380").compareTo(sales.totalAmount()));
+        assertEquals(0, new BigDecimal("190").compareTo(purchases.taxAmount()));
+    }
+
+    private Invoice save(CompanyId companyId, Long folio, String partnerRut, LocalDate date,
+            TransactionType transactionType, boolean paid) {
+        Invoice invoice = Invoice.create(companyId, InvoiceType.FACTURA_ELECTRONICA, folio, partnerRut,
+                "76987654-3", date, new BigDecimal("1000"), new BigDecimal("190"), new BigDecimal("1190"),
+                Invoice.ORIGIN_SII, transactionType, List.of());
+        if (paid) {
+            invoice.markAsPaid();
+        }
+        return invoiceRepository.save(invoice);
+    }
 }
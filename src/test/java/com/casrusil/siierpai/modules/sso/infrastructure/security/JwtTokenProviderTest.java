@@ -0,0 +1,67 @@
+package com.casrusil.siierpai.modules.sso.infrastructure.security;
+
+import com.casrusil.siierpai.modules.sso.domain.model.UserRole;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.domain.valueobject.UserId;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "testSecretKeyThatIsLongEnoughForHmacSha256Signing!!";
+
+    private final JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(SECRET, 3600000, 100);
+
+    @Test
+    void parseAndVerify_ShouldReturnClaimsOfValidToken() {
+        UserId userId = UserId.random();
+        CompanyId companyId = CompanyId.random();
+        String token = jwtTokenProvider.generateToken(userId, companyId, UserRole.ACCOUNTANT);
+
+        Optional<JwtClaims> claims = jwtTokenProvider.parseAndVerify(token);
+
+        assertTrue(claims.isPresent());
+        assertEquals(userId, claims.get().userId());
+        assertEquals(companyId, claims.get().companyId());
+        assertEquals(UserRole.ACCOUNTANT, claims.get().role());
+    }
+
+    @Test
+    void parseAndVerify_ShouldReuseVerifiedClaimsForSameToken() {
+        String token = jwtTokenProvider.generateToken(UserId.random(), CompanyId.random(), UserRole.USER);
+
+        JwtClaims first = jwtTokenProvider.parseAndVerify(token).orElseThrow();
+        JwtClaims second = jwtTokenProvider.parseAndVerify(token).orElseThrow();
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void parseAndVerify_ShouldRejectTamperedToken() {
+        String token = jwtTokenProvider.generateToken(UserId.random(), CompanyId.random(), UserRole.USER);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertTrue(jwtTokenProvider.parseAndVerify(tampered).isEmpty());
+        assertTrue(jwtTokenProvider.parseAndVerify("not-a-jwt").isEmpty());
+        assertTrue(jwtTokenProvider.parseAndVerify(null).isEmpty());
+    }
+
+    @Test
+    void parseAndVerify_ShouldRejectTokenFromAnotherKey() {
+        JwtTokenProvider otherProvider = new JwtTokenProvider(SECRET.replace('t', 'x'), 3600000, 100);
+        String token = otherProvider.generateToken(UserId.random(), CompanyId.random(), UserRole.ADMIN);
+
+        assertTrue(jwtTokenProvider.parseAndVerify(token).isEmpty());
+    }
+
+    @Test
+    void parseAndVerify_ShouldRejectExpiredToken() {
+        JwtTokenProvider expiringProvider = new JwtTokenProvider(SECRET, -1000, 100);
+        String token = expiringProvider.generateToken(UserId.random(), CompanyId.random(), UserRole.USER);
+
+        assertTrue(expiringProvider.parseAndVerify(token).isEmpty());
+    }
+}
@@ -0,0 +1,185 @@
+package com.casrusil.siierpai.shared.infrastructure.concurrency;
+
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.casrusil.siierpai.shared.infrastructure.concurrency.BulkheadTaskExecutor.RejectionPolicy;
+import com.casrusil.siierpai.shared.infrastructure.context.CompanyContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTaskExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void execute_ShouldLimitConcurrencyPerTenantWithoutBlockingOthers() throws InterruptedException {
+        // Given
+        BulkheadTaskExecutor executor = new BulkheadTaskExecutor("test", 4, 1, 100,
+                Duration.ofSeconds(5), RejectionPolicy.ABORT, meterRegistry);
+        CompanyId busyTenant = CompanyId.random();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch otherTenantRan = new CountDownLatch(1);
+        AtomicInteger busyRunning = new AtomicInteger();
+
+        // When: the busy tenant submits three blocking tasks
+        CompanyContext.runInCompanyContext(busyTenant, () -> {
+            for (int i = 0; i < 3; i++) {
+                executor.execute(() -> {
+                    busyRunning.incrementAndGet();
+                    awaitQuietly(release);
+                });
+            }
+        });
+        CompanyContext.runInCompanyContext(CompanyId.random(), () -> executor.execute(otherTenantRan::countDown));
+
+        // Then: only one busy task runs, and the other tenant is not starved
+        assertTrue(otherTenantRan.await(2, TimeUnit.SECONDS));
+        waitUntilQueued(executor, 2);
+        assertEquals(1, busyRunning.get());
+        assertEquals(2.0, meterRegistry.get("async.bulkhead.queued").tag("category", "test").gauge().value());
+        release.countDown();
+    }
+
+    @Test
+    void execute_ShouldRunTaskInSubmittersCompanyContext() throws InterruptedException {
+        // Given
+        BulkheadTaskExecutor executor = new BulkheadTaskExecutor("test", 4, 2, 100,
+                Duration.ofSeconds(5), RejectionPolicy.ABORT, meterRegistry);
+        CompanyId companyId = CompanyId.random();
+        AtomicReference<CompanyId> seen = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        // When
+        CompanyContext.runInCompanyContext(companyId, () -> executor.execute(() -> {
+            seen.set(CompanyContext.getCompanyId());
+            done.countDown();
+        }));
+
+        // Then
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(companyId, seen.get());
+    }
+
+    @Test
+    void execute_ShouldApplyRejectionPolicyWhenQueueIsFull() {
+        // Given
+        BulkheadTaskExecutor abort = new BulkheadTaskExecutor("abort", 1, 1, 1,
+                Duration.ofSeconds(5), RejectionPolicy.ABORT, meterRegistry);
+        BulkheadTaskExecutor callerRuns = new BulkheadTaskExecutor("caller", 1, 1, 1,
+                Duration.ofSeconds(5), RejectionPolicy.CALLER_RUNS, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // When: one task holds the permit and one waits, filling the queue
+        for (BulkheadTaskExecutor executor : new BulkheadTaskExecutor[] { abort, callerRuns }) {
+            executor.execute(() -> awaitQuietly(release));
+        }
+        waitUntilQueued(abort, 0);
+        waitUntilQueued(callerRuns, 0);
+        abort.execute(() -> awaitQuietly(release));
+        callerRuns.execute(() -> awaitQuietly(release));
+
+        // Then
+        assertThrows(TaskRejectedException.class, () -> abort.execute(() -> {
+        }));
+        Thread caller = Thread.currentThread();
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        callerRuns.execute(() -> ranOn.set(Thread.currentThread()));
+        assertSame(caller, ranOn.get());
+        assertEquals(1.0, meterRegistry.get("async.bulkhead.rejected")
+                .tag("category", "abort").tag("reason", "queue_full").counter().count());
+        release.countDown();
+    }
+
+    @Test
+    void execute_ShouldDropTaskThatWaitsTooLong() throws InterruptedException {
+        // Given
+        BulkheadTaskExecutor executor = new BulkheadTaskExecutor("timeout", 1, 1, 10,
+                Duration.ofMillis(50), RejectionPolicy.ABORT, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger ran = new AtomicInteger();
+        executor.execute(() -> awaitQuietly(release));
+
+        // When
+        executor.execute(ran::incrementAndGet);
+        Thread.sleep(300);
+        release.countDown();
+
+        // Then
+        assertEquals(0, ran.get());
+        assertEquals(1.0, meterRegistry.get("async.bulkhead.rejected")
+                .tag("category", "timeout").tag("reason", "timeout").counter().count());
+    }
+
+    @Test
+    void submit_ShouldFailTheFutureOfATaskDroppedAfterWaiting() {
+        // Given
+        BulkheadTaskExecutor executor = new BulkheadTaskExecutor("dropped", 1, 1, 10,
+                Duration.ofMillis(50), RejectionPolicy.ABORT, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+        waitUntilQueued(executor, 0);
+
+        // When
+        Future<String> future = executor.submit(() -> "never");
+
+        // Then: the caller is released instead of waiting forever
+        ExecutionException dropped = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(TaskRejectedException.class, dropped.getCause());
+        release.countDown();
+    }
+
+    @Test
+    void submitCompletable_ShouldFailTheFutureOfADiscardedTask() {
+        // Given: one task holds the permit and one waits, filling the queue
+        BulkheadTaskExecutor executor = new BulkheadTaskExecutor("discard", 1, 1, 1,
+                Duration.ofSeconds(5), RejectionPolicy.DISCARD, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+        waitUntilQueued(executor, 0);
+        executor.execute(() -> awaitQuietly(release));
+
+        // When
+        CompletableFuture<String> future = executor.submitCompletable(() -> "never");
+
+        // Then
+        ExecutionException discarded = assertThrows(ExecutionException.class,
+                () -> future.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(TaskRejectedException.class, discarded.getCause());
+        release.countDown();
+    }
+
+    @Test
+    void submitCompletable_ShouldCompleteWithTheTaskResult() throws Exception {
+        BulkheadTaskExecutor executor = new BulkheadTaskExecutor("completable", 1, 1, 10,
+                Duration.ofSeconds(5), RejectionPolicy.ABORT, meterRegistry);
+
+        assertEquals("done", executor.submitCompletable(() -> "done").get(2, TimeUnit.SECONDS));
+    }
+
+    private void waitUntilQueued(BulkheadTaskExecutor executor, double expected) {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (System.currentTimeMillis() < deadline && meterRegistry.get("async.bulkhead.queued")
+                .tag("category", executor.getCategory()).gauge().value() != expected) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
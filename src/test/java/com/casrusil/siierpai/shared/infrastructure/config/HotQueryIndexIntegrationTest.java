@@ -0,0 +1,125 @@
+package com.casrusil.siierpai.shared.infrastructure.config;
+
+import com.casrusil.siierpai.shared.test.BaseIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs EXPLAIN on the tenant-scoped hot queries and checks that each one is
+ * served by its composite index.
+ *
+ * <p>
+ * Test tables are nearly empty, so sequential scans are disabled for the
+ * transaction: the planner then uses an index only if one matches the access
+ * path.
+ */
+@Transactional
+class HotQueryIndexIntegrationTest extends BaseIntegrationTest {
+
+    private static final String COMPANY = "'" + UUID.randomUUID() + "'::uuid";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    HotQueryIndexIntegrationTest(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @BeforeEach
+    void disableSequentialScans() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    void accountingEntriesByPeriod_ShouldUseCompanyOccurredIndex() {
+        // Partitioned table (V3): the plan shows the partition's copy of the index
+        assertUsesIndex("company_id_occurred_on_idx",
+                "SELECT * FROM accounting.accounting_entries WHERE company_id = " + COMPANY
+                        + " AND occurred_on BETWEEN '2025-01-01' AND '2025-01-31'");
+    }
+
+    @Test
+    void entryLinesOfEntry_ShouldUseEntryIndex() {
+        assertUsesIndex("entry_id_idx",
+                "SELECT * FROM accounting.accounting_entry_lines WHERE entry_id = '" + UUID.randomUUID() + "'");
+    }
+
+    @Test
+    void accountByCode_ShouldUseCompanyCodeIndex() {
+        assertUsesIndex("idx_accounts_company_code",
+                "SELECT * FROM accounting.accounts WHERE company_id = " + COMPANY + " AND code = '1101'");
+    }
+
+    @Test
+    void duplicateInvoiceCheck_ShouldUseDocumentIndex() {
+        assertUsesIndex("idx_invoices_company_document",
+                "SELECT 1 FROM invoicing.invoices WHERE company_id = " + COMPANY
+                        + " AND type_code = 33 AND folio = 123 AND issuer_rut = '76123456-7'");
+    }
+
+    @Test
+    void invoiceKeysetPageById_ShouldUseCompanyIdIndex() {
+        assertUsesIndex("idx_invoices_company_id",
+                "SELECT * FROM invoicing.invoices WHERE company_id = " + COMPANY
+                        + " AND id > '" + UUID.randomUUID() + "' ORDER BY id LIMIT 200");
+    }
+
+    @Test
+    void invoiceTotalsByPeriod_ShouldBeAnIndexOnlyScan() {
+        jdbcTemplate.execute("SET LOCAL enable_bitmapscan = off");
+        List<String> plan = explain("SELECT type_code, SUM(net_amount), SUM(tax_amount) FROM invoicing.invoices"
+                + " WHERE company_id = " + COMPANY + " AND date BETWEEN '2025-01-01' AND '2025-01-31'"
+                + " GROUP BY type_code");
+
+        assertTrue(String.join("\n", plan).contains("Index Only Scan using idx_invoices_company_date_cover"),
+                () -> "Expected covering index-only scan:\n" + String.join("\n", plan));
+    }
+
+    @Test
+    void unreconciledBankTransactions_ShouldUseAnIndex() {
+        // Partial index or (company_id, date, reconciled): either avoids the scan
+        assertUsesIndex("idx_bank_transactions_",
+                "SELECT * FROM bank_transactions WHERE company_id = " + COMPANY + " AND reconciled = false");
+    }
+
+    @Test
+    void bankTransactionsByPeriod_ShouldUseCompanyDateIndex() {
+        assertUsesIndex("idx_bank_transactions_company_date",
+                "SELECT * FROM bank_transactions WHERE company_id = " + COMPANY
+                        + " AND date BETWEEN '2025-01-01' AND '2025-01-31' AND reconciled = true");
+    }
+
+    @Test
+    void feeReceiptsByPeriod_ShouldUseCompanyIssueDateIndex() {
+        assertUsesIndex("idx_fee_receipts_company_issue_date",
+                "SELECT * FROM fees.fee_receipts WHERE company_id = " + COMPANY
+                        + " AND issue_date BETWEEN '2025-01-01' AND '2025-01-31'");
+    }
+
+    @Test
+    void carbonFootprintByCategory_ShouldUseCoveringIndex() {
+        assertUsesIndex("idx_sustainability_calculated_cover",
+                "SELECT category_name, SUM(carbon_footprint_kg) FROM sustainability.sustainability_records"
+                        + " WHERE calculated_at BETWEEN '2025-01-01' AND '2025-02-01' GROUP BY category_name");
+    }
+
+    private void assertUsesIndex(String indexPrefix, String sql) {
+        List<String> plan = explain(sql);
+        String text = String.join("\n", plan);
+        assertTrue(text.contains(indexPrefix), () -> "Expected " + indexPrefix + " in plan:\n" + text);
+        assertFalse(text.contains("Seq Scan"), () -> "Unexpected sequential scan:\n" + text);
+    }
+
+    private List<String> explain(String sql) {
+        return jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+    }
+}
@@ -0,0 +1,93 @@
+package com.casrusil.siierpai.shared.infrastructure.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BusinessMetricsAspectTest {
+
+    private MeterRegistry meterRegistry;
+    private SampleService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SampleService());
+        factory.addAspect(new BusinessMetricsAspect(observationRegistry, meterRegistry));
+        service = factory.getProxy();
+    }
+
+    @Test
+    void successfulCall_ShouldRegisterTimerAndResultSize() {
+        service.listRows(3);
+
+        assertEquals(1, meterRegistry.get(BusinessMetricsAspect.OPERATION_METRIC)
+                .tags("module", "test", "operation", "rows.list", "outcome", "success")
+                .timer().count());
+        assertEquals(3.0, meterRegistry.get(BusinessMetricsAspect.RESULT_SIZE_METRIC)
+                .tags("module", "test", "operation", "rows.list")
+                .summary().totalAmount());
+        assertNotNull(meterRegistry.get(BusinessMetricsAspect.OPERATION_METRIC + ".active")
+                .tags("module", "test", "operation", "rows.list")
+                .longTaskTimer());
+    }
+
+    @Test
+    void failingCalls_ShouldBeTaggedByOutcome() {
+        service.send(false);
+        assertThrows(IllegalStateException.class, () -> service.fail());
+
+        assertEquals(1, meterRegistry.get(BusinessMetricsAspect.OPERATION_METRIC)
+                .tags("operation", "send", "outcome", "failure")
+                .timer().count());
+        assertEquals(1, meterRegistry.get(BusinessMetricsAspect.OPERATION_METRIC)
+                .tags("operation", "fail", "outcome", "error", "error", "IllegalStateException")
+                .timer().count());
+    }
+
+    @Test
+    void resultSize_ShouldNotBeRecordedWhenDisabled() {
+        service.listRowsWithoutSize(5);
+
+        assertEquals(0, meterRegistry.find(BusinessMetricsAspect.RESULT_SIZE_METRIC).meters().size());
+        assertEquals(1, meterRegistry.get(BusinessMetricsAspect.OPERATION_METRIC)
+                .tags("operation", "rows.silent")
+                .timer().count());
+    }
+
+    static class SampleService {
+
+        @Monitored(module = "test", operation = "rows.list")
+        public List<Integer> listRows(int count) {
+            return java.util.stream.IntStream.range(0, count).boxed().toList();
+        }
+
+        @Monitored(module = "test", operation = "rows.silent", recordResultSize = false)
+        public List<Integer> listRowsWithoutSize(int count) {
+            return listRows(count);
+        }
+
+        @Monitored(module = "test", operation = "send")
+        public boolean send(boolean accepted) {
+            return accepted;
+        }
+
+        @Monitored(module = "test", operation = "fail")
+        public void fail() {
+            throw new IllegalStateException("boom");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.casrusil.siierpai.shared.infrastructure.observability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QueryBudgetFilterTest {
+
+    private final QueryCountStatementInspector inspector = new QueryCountStatementInspector();
+
+    @Test
+    void exceededBudget_ShouldFailBeforeTheResponseIsCommitted() {
+        QueryBudgetFilter filter = new QueryBudgetFilter(new QueryBudget(new SimpleMeterRegistry(), 50, 200, 3, true));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThrows(QueryBudgetExceededException.class,
+                () -> filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/invoices"), response,
+                        writingChain(4)));
+
+        // Then: nothing reached the client, so the error can still be rendered
+        assertFalse(response.isCommitted());
+        assertEquals("", response.getContentAsString());
+    }
+
+    @Test
+    void withinBudget_ShouldSendTheBufferedBody() throws Exception {
+        QueryBudgetFilter filter = new QueryBudgetFilter(new QueryBudget(new SimpleMeterRegistry(), 50, 200, 3, true));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/invoices"), response, writingChain(2));
+
+        assertEquals("[]", response.getContentAsString());
+    }
+
+    /**
+     * Runs the same statement {@code statements} times, then writes and
+     * flushes a body the way a REST controller would.
+     */
+    private FilterChain writingChain(int statements) {
+        return (request, response) -> {
+            for (int i = 0; i < statements; i++) {
+                inspector.inspect("select i from invoice i where i.id=?");
+            }
+            response.getWriter().write("[]");
+            response.flushBuffer();
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.casrusil.siierpai.shared.infrastructure.observability;
+
+import com.casrusil.siierpai.shared.infrastructure.observability.QueryCounter.QueryCount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryBudgetTest {
+
+    private final QueryCountStatementInspector inspector = new QueryCountStatementInspector();
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void statements_ShouldBeCountedInEveryOpenScope() {
+        inspector.inspect("select 1");
+
+        QueryCount outer = QueryCounter.start("outer");
+        inspector.inspect("select a from account a where a.id=?");
+        QueryCount inner = QueryCounter.start("inner");
+        inspector.inspect("select a from account a where a.id=?");
+        QueryCounter.stop(inner);
+        inspector.inspect("insert into account values (?)");
+        QueryCounter.stop(outer);
+
+        assertEquals(1, inner.total());
+        assertEquals(3, outer.total());
+        assertEquals(2, outer.maxRepeated());
+        assertEquals("select a from account a where a.id=?", outer.mostRepeatedStatement());
+    }
+
+    @Test
+    void repeatedStatement_ShouldFailRequestWhenConfigured() {
+        QueryBudget budget = new QueryBudget(meterRegistry, 50, 200, 3, true);
+
+        QueryCount count = QueryCounter.start("GET /api/v1/accounting/entries");
+        for (int i = 0; i < 4; i++) {
+            inspector.inspect("select a from account a where a.code=?");
+        }
+        QueryCounter.stop(count);
+
+        QueryBudgetExceededException e = assertThrows(QueryBudgetExceededException.class,
+                () -> budget.checkRequest(count));
+        assertTrue(e.getMessage().contains("N+1"));
+        assertEquals(4.0, meterRegistry.get("db.queries.per.unit").tag("unit", "request").summary().totalAmount());
+    }
+
+    @Test
+    void decoratedTask_ShouldBeCountedAndOnlyLogged() {
+        QueryBudget budget = new QueryBudget(meterRegistry, 50, 2, 10, true);
+
+        Runnable task = budget.decorate(() -> {
+            for (int i = 0; i < 5; i++) {
+                inspector.inspect("update invoice set status=? where id=?");
+            }
+        });
+
+        assertDoesNotThrow(task::run);
+        assertEquals(5.0, meterRegistry.get("db.queries.per.unit").tag("unit", "task").summary().totalAmount());
+    }
+}
@@ -0,0 +1,150 @@
+package com.casrusil.siierpai.shared.infrastructure.outbox;
+
+import com.casrusil.siierpai.shared.domain.event.BatchEventListener;
+import com.casrusil.siierpai.shared.domain.event.DomainEvent;
+import com.casrusil.siierpai.shared.domain.valueobject.CompanyId;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    @Mock
+    private OutboxEventJpaRepository outboxRepository;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final JacksonOutboxEventCodec<TestEvent> codec = new JacksonOutboxEventCodec<>(
+            TestEvent.class, objectMapper, TestEvent::companyId);
+    private final RecordingListener listener = new RecordingListener();
+
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        when(outboxRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatchOnce_ShouldDeliverBatchesGroupedByCompany() throws InterruptedException {
+        // Given
+        dispatcher = createDispatcher(3);
+        CompanyId companyA = CompanyId.random();
+        CompanyId companyB = CompanyId.random();
+        List<OutboxEventEntity> rows = List.of(row(companyA, "a1"), row(companyB, "b1"), row(companyA, "a2"));
+        when(outboxRepository.lockNextAvailable(any(Instant.class), anyInt())).thenReturn(rows);
+
+        // When
+        int claimed = dispatcher.dispatchOnce();
+
+        // Then
+        assertEquals(3, claimed);
+        assertEquals(2, listener.batches.size());
+        assertTrue(listener.batches.contains(List.of("a1", "a2")));
+        assertTrue(listener.batches.contains(List.of("b1")));
+        rows.forEach(row -> assertEquals(OutboxEventEntity.Status.DISPATCHED, row.getStatus()));
+        verify(applicationEventPublisher, times(3)).publishEvent(any(TestEvent.class));
+    }
+
+    @Test
+    void dispatchOnce_ShouldScheduleRetryWhenListenerFails() throws InterruptedException {
+        // Given
+        dispatcher = createDispatcher(3);
+        listener.failuresLeft = 1;
+        OutboxEventEntity row = row(CompanyId.random(), "x");
+        when(outboxRepository.lockNextAvailable(any(Instant.class), anyInt())).thenReturn(List.of(row));
+
+        // When
+        dispatcher.dispatchOnce();
+
+        // Then
+        assertEquals(OutboxEventEntity.Status.PENDING, row.getStatus());
+        assertEquals(1, row.getAttempts());
+        assertTrue(row.getAvailableAt().isAfter(Instant.now()));
+        assertNotNull(row.getLastError());
+        verify(applicationEventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void dispatchOnce_ShouldMarkFailedAfterMaxAttempts() throws InterruptedException {
+        // Given
+        dispatcher = createDispatcher(1);
+        listener.failuresLeft = 1;
+        OutboxEventEntity row = row(CompanyId.random(), "x");
+        when(outboxRepository.lockNextAvailable(any(Instant.class), anyInt())).thenReturn(List.of(row));
+
+        // When
+        dispatcher.dispatchOnce();
+
+        // Then
+        assertEquals(OutboxEventEntity.Status.FAILED, row.getStatus());
+    }
+
+    private OutboxDispatcher createDispatcher(int maxAttempts) {
+        return new OutboxDispatcher(outboxRepository, new OutboxEventCodecRegistry(List.of(codec)),
+                List.of(listener), applicationEventPublisher, new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry(), 10, 2, maxAttempts, 1000, 60, 7);
+    }
+
+    private OutboxEventEntity row(CompanyId companyId, String name) {
+        return new OutboxEventEntity(OutboxEventCodecRegistry.typeName(TestEvent.class), companyId.value(),
+                codec.encode(new TestEvent(companyId, name, Instant.now())), Instant.now());
+    }
+
+    record TestEvent(CompanyId companyId, String name, Instant occurredOn) implements DomainEvent {
+    }
+
+    static class RecordingListener implements BatchEventListener<TestEvent> {
+        final List<List<String>> batches = new CopyOnWriteArrayList<>();
+        volatile int failuresLeft;
+
+        @Override
+        public Class<TestEvent> eventType() {
+            return TestEvent.class;
+        }
+
+        @Override
+        public void onEvents(CompanyId companyId, List<TestEvent> events) {
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new IllegalStateException("listener down");
+            }
+            List<String> names = new ArrayList<>();
+            for (TestEvent event : events) {
+                assertEquals(companyId, event.companyId());
+                names.add(event.name());
+            }
+            batches.add(names);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.casrusil.siierpai.shared.infrastructure.reporting;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExcelExportServiceTest {
+
+    private record Row(long folio, String name, BigDecimal amount) {
+    }
+
+    private static final List<ExcelColumn<Row>> COLUMNS = List.of(
+            ExcelColumn.of("Folio", Row::folio),
+            ExcelColumn.of("Razón Social", Row::name),
+            ExcelColumn.of("Monto", Row::amount, 15));
+
+    // Window of 10 rows: most rows are flushed to disk while exporting
+    private final ExcelExportService excelExportService = new ExcelExportService(10, 50, 40);
+
+    @Test
+    void export_ShouldStreamEveryRowInOrder() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int exported = excelExportService.export("Ventas", COLUMNS,
+                IntStream.rangeClosed(1, 1000).mapToObj(i -> new Row(i, "Cliente " + i, BigDecimal.valueOf(i))),
+                out);
+
+        assertEquals(1000, exported);
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Ventas");
+            assertEquals(1000, sheet.getLastRowNum());
+            assertEquals("Razón Social", sheet.getRow(0).getCell(1).getStringCellValue());
+            assertEquals(1.0, sheet.getRow(1).getCell(0).getNumericCellValue());
+            assertEquals("Cliente 1000", sheet.getRow(1000).getCell(1).getStringCellValue());
+            assertEquals(1000.0, sheet.getRow(1000).getCell(2).getNumericCellValue());
+        }
+    }
+
+    @Test
+    void export_ShouldSizeColumnsFromSampledRows() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String longName = "x".repeat(100);
+
+        excelExportService.export("Ventas", COLUMNS,
+                IntStream.rangeClosed(1, 100).mapToObj(i -> new Row(i, i == 1 ? longName : "Corto", BigDecimal.ONE)),
+                out);
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            // "Folio" header + padding, the long name capped at the maximum, the fixed width as given
+            assertEquals(7 * 256, sheet.getColumnWidth(0));
+            assertEquals(40 * 256, sheet.getColumnWidth(1));
+            assertEquals(15 * 256, sheet.getColumnWidth(2));
+        }
+    }
+
+    @Test
+    void generateExcel_ShouldKeepTheListBasedApi() throws Exception {
+        byte[] bytes = excelExportService.generateExcel("Datos", List.of("A", "B"),
+                List.of(List.of("uno", 1), List.of("dos", 2)));
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(bytes))) {
+            Sheet sheet = workbook.getSheet("Datos");
+            assertEquals(2, sheet.getLastRowNum());
+            assertEquals("dos", sheet.getRow(2).getCell(0).getStringCellValue());
+            assertEquals(2.0, sheet.getRow(2).getCell(1).getNumericCellValue());
+        }
+    }
+}
@@ -39,5 +39,9 @@ public abstract class BaseIntegrationTest {
         // JPA configuration for tests
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
         registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.hbm2ddl.create_namespaces", () -> "true");
+
+        // PostgreSQL-only migrations (covering and partial indexes)
+        registry.add("schema.migrations.enabled", () -> "true");
     }
 }
@@ -0,0 +1,85 @@
+package com.casrusil.siierpai.shared.test;
+
+import com.casrusil.siierpai.shared.infrastructure.observability.QueryCounter;
+import com.casrusil.siierpai.shared.infrastructure.observability.QueryCounter.QueryCount;
+import org.junit.jupiter.api.function.Executable;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Assertions to lock in SQL query budgets in integration tests.
+ *
+ * <pre>
+ * QueryCountAssertions.startCounting();
+ * mockMvc.perform(get("/api/v1/invoices"));
+ * QueryCountAssertions.assertMaxQueries(5);
+ * </pre>
+ *
+ * Counting is per thread, so the code under test must run on the test thread
+ * (MockMvc and direct repository calls do).
+ */
+public final class QueryCountAssertions {
+
+    private static final ThreadLocal<QueryCount> CURRENT = new ThreadLocal<>();
+
+    private QueryCountAssertions() {
+    }
+
+    /**
+     * Start counting SQL statements on the current thread, discarding any
+     * previous count.
+     */
+    public static void startCounting() {
+        QueryCount previous = CURRENT.get();
+        if (previous != null) {
+            QueryCounter.stop(previous);
+        }
+        CURRENT.set(QueryCounter.start("test"));
+    }
+
+    /**
+     * Stop counting and fail if more than {@code max} statements ran since
+     * {@link #startCounting()}.
+     */
+    public static void assertMaxQueries(int max) {
+        QueryCount count = stopCounting();
+        assertTrue(count.total() <= max, () -> "Expected at most " + max + " SQL statements but "
+                + count.total() + " ran; most repeated (" + count.maxRepeated() + "x): "
+                + count.mostRepeatedStatement());
+    }
+
+    /**
+     * Run {@code action} and fail if it executes more than {@code max}
+     * statements.
+     */
+    public static void assertMaxQueries(int max, Executable action) throws Throwable {
+        startCounting();
+        try {
+            action.execute();
+        } catch (Throwable e) {
+            stopCounting();
+            throw e;
+        }
+        assertMaxQueries(max);
+    }
+
+    /**
+     * Stop counting and fail if any single statement ran more than
+     * {@code maxRepeats} times (an N+1 pattern).
+     */
+    public static void assertNoRepeatedQueries(int maxRepeats) {
+        QueryCount count = stopCounting();
+        assertTrue(count.maxRepeated() <= maxRepeats, () -> "Statement ran " + count.maxRepeated()
+                + " times (max " + maxRepeats + "), likely N+1: " + count.mostRepeatedStatement());
+    }
+
+    private static QueryCount stopCounting() {
+        QueryCount count = CURRENT.get();
+        if (count == null) {
+            fail("startCounting() was not called");
+        }
+        CURRENT.remove();
+        return QueryCounter.stop(count);
+    }
+}